@@ -0,0 +1,564 @@
+/****************************************************************************
+**
+**	FileName:	ConversionManifest.java
+**
+**	Project:	Dxf2Svg
+**
+**	Purpose:	Remembers what each DXF looked like when it was last converted
+**				so incremental runs can skip the ones that haven't changed.
+**
+**	Date:		October 17, 2026
+**
+**	Author:		Andrew Nisbet
+**
+**	Environment:Java(TM) 2 Runtime Environment, Standard Edition
+**				(build 1.5.0)
+**
+**	Version:	1.00 - October 17, 2026
+**				1.01 - October 17, 2026 Entries record OUTPUT_VERSION as well as
+**				the version of Dxf2Svg, and the switches are hashed in a normal order
+**				without the ones that don't change the output.
+**				1.02 - October 17, 2026 OUTPUT_VERSION 2: every layer only modify
+**				rule is applied to a layer group.
+**				1.03 - October 17, 2026 OUTPUT_VERSION 3: hatch patterns are
+**				renamed with serial numbers counted per drawing.
+**
+**	TODO:
+**
+*****************************************************************************/
+
+package dxf2svg;
+
+import java.io.*;
+import java.security.*;		// MessageDigest for content hashes.
+import java.util.*;
+import dxf2svg.util.Dxf2SvgConstants;
+
+/**	The manifest of an '-incremental' conversion. For every DXF converted it records
+*	the file's size, modification time and a SHA-1 hash of its content, a hash of
+*	the configuration it was converted with, the version of Dxf2Svg that converted
+*	it, the book and figure it belongs to and the size and modification time of
+*	each file the conversion wrote.
+*	<P>
+*	A DXF doesn't need converting again if it has an entry with the same
+*	configuration hash, version and {@link #OUTPUT_VERSION}, its content is the
+*	same and all of its output
+*	files are still there as they were written. The content is only hashed if the
+*	size or modification time has changed, so a file that has only been touched
+*	is not converted again. A DXF modified within a couple of seconds of being
+*	recorded has its modification time stored as -1 so it is hashed next time,
+*	because a change made in the same second can't be seen in its time.
+*	<P>
+*	The manifest is a UTF-8 text file, one tab separated line per DXF, written
+*	to {@link #MANIFEST_NAME} beside boardno-control.xml or in the conversion
+*	directory.
+*
+*	@version 	1.03 - October 17, 2026
+*	@author		Andrew Nisbet
+*/
+public final class ConversionManifest
+{
+	/** Name of the manifest file. */
+	public final static String MANIFEST_NAME = "dxf2svg-manifest.txt";
+	/** Version of what a conversion writes. {@link Dxf2SvgConstants#VERSION} comes
+	*	from Utils.jar and doesn't change with the sources, so this has to be raised
+	*	with every change to the SVG, wrappers or catalogue written for a DXF;
+	*	'-incremental' then converts the DXFs recorded with the old number again.
+	*/
+	public final static int OUTPUT_VERSION = 3;
+	private final static String HEADER = "dxf2svg-manifest";
+	private final static int FORMAT_VERSION = 1;
+	private final static String ENCODING = "UTF-8";
+	// Modification times closer together than this might not be told apart.
+	private final static long MTIME_SLACK = 2000L;
+	private final static int FIXED_FIELDS = 9;	// Fields before the output triples.
+	// Switches that don't change what is written for a DXF.
+	private final static String[] NON_OUTPUT_SWITCHES = {
+		"-v", "-threads", "-incremental", "-watch", "-serve", "-serve_queue",
+		"-block_cache"
+	};
+
+	private Hashtable entries;		// Absolute DXF path -> Entry.
+
+	/** Creates an empty manifest. */
+	public ConversionManifest()
+	{
+		entries = new Hashtable();
+	}
+
+	/** Reads a manifest. A missing, unreadable or older manifest gives an empty
+	*	one, which converts everything.
+	*	@param file manifest file.
+	*/
+	public static ConversionManifest read(File file)
+	{
+		ConversionManifest manifest = new ConversionManifest();
+		if (! file.isFile())
+			return manifest;
+
+		BufferedReader in = null;
+		try
+		{
+			in = new BufferedReader(new InputStreamReader(new FileInputStream(file), ENCODING));
+			String line = in.readLine();
+			if (line == null || ! line.equals(HEADER + "\t" + FORMAT_VERSION))
+			{
+				System.err.println("ConversionManifest warning: '"+file+
+					"' is not a manifest this version can read; converting all files.");
+				return manifest;
+			}
+			while ((line = in.readLine()) != null)
+			{
+				Entry entry = Entry.parse(line);
+				if (entry == null)
+				{
+					System.err.println("ConversionManifest warning: ignoring damaged entry in '"+
+						file+"'.");
+					continue;
+				}
+				manifest.entries.put(entry.path, entry);
+			}
+		}
+		catch (IOException e)
+		{
+			System.err.println("ConversionManifest warning: couldn't read '"+file+
+				"'; converting all files: "+e);
+			manifest.entries.clear();
+		}
+		finally
+		{
+			close(in);
+		}
+		return manifest;
+	}
+
+	/** Writes the manifest. It is written to a temporary file first and renamed
+	*	so an interrupted run leaves the old manifest behind.
+	*	@param file manifest file.
+	*	@throws IOException if the manifest can't be written.
+	*/
+	public void write(File file) throws IOException
+	{
+		File tmp = new File(file.getPath() + ".tmp");
+		BufferedWriter out = new BufferedWriter(
+			new OutputStreamWriter(new FileOutputStream(tmp), ENCODING));
+		try
+		{
+			out.write(HEADER + "\t" + FORMAT_VERSION);
+			out.newLine();
+			// Sorted so the file is easy to compare between runs.
+			Iterator it = new TreeSet(entries.keySet()).iterator();
+			while (it.hasNext())
+			{
+				out.write(((Entry)entries.get(it.next())).toString());
+				out.newLine();
+			}
+		}
+		finally
+		{
+			out.close();
+		}
+		if (file.exists() && ! file.delete())
+			throw new IOException("ConversionManifest error: can't replace '"+file+"'.");
+		if (! tmp.renameTo(file))
+			throw new IOException("ConversionManifest error: can't rename '"+tmp+
+				"' to '"+file+"'.");
+	}
+
+	/** Returns the entry of the argument DXF or null if it hasn't been converted.
+	*/
+	public Entry getEntry(String dxf)
+	{
+		return (Entry)entries.get(getKey(dxf));
+	}
+
+	/** Returns, in their original order, the DXFs of the argument list that have
+	*	to be converted because they, their configuration or their output has
+	*	changed since they were last recorded.
+	*	@param dxfFiles names of DXF files.
+	*	@param configHash hash of the configuration, see {@link #hashConfiguration}.
+	*/
+	public Vector getChangedFiles(Vector dxfFiles, String configHash)
+	{
+		Vector changed = new Vector();
+		for (int i = 0; i < dxfFiles.size(); i++)
+		{
+			String name = (String)dxfFiles.get(i);
+			if (! isCurrent(name, configHash))
+				changed.add(name);
+		}
+		return changed;
+	}
+
+	// Returns true if the DXF and its outputs are as recorded.
+	private boolean isCurrent(String dxf, String configHash)
+	{
+		Entry entry = getEntry(dxf);
+		if (entry == null ||
+			! entry.configHash.equals(configHash) ||
+			! entry.version.equals(getVersion()))
+			return false;
+
+		for (int i = 0; i < entry.outputs.length; i++)
+		{
+			File output = new File(entry.outputs[i]);
+			if (output.length() != entry.outputSizes[i] ||
+				output.lastModified() != entry.outputModified[i] ||
+				! output.isFile())
+				return false;
+		}
+
+		File file = new File(entry.path);
+		long size = file.length();
+		long modified = file.lastModified();
+		if (size != entry.size)
+			return false;
+		if (modified == entry.modified)
+			return true;
+		// Touched or copied; look at what is in it.
+		String hash = hash(file);
+		if (hash == null || ! hash.equals(entry.contentHash))
+			return false;
+		entry.modified = getRecordableTime(modified);
+		return true;
+	}
+
+	/** Removes the entries of DXFs that no longer exist.
+	*	@return the removed entries.
+	*/
+	public Vector removeMissingFiles()
+	{
+		Vector removed = new Vector();
+		Iterator it = entries.values().iterator();
+		while (it.hasNext())
+		{
+			Entry entry = (Entry)it.next();
+			if (! new File(entry.path).isFile())
+			{
+				removed.add(entry);
+				it.remove();
+			}
+		}
+		return removed;
+	}
+
+	/** Records a conversion of the argument DXF. The record is only made if every
+	*	output exists and was written at or after the time the conversion started;
+	*	otherwise the conversion is taken to have failed and any old record is
+	*	removed so the DXF is converted next time.
+	*	@param dxf the DXF file.
+	*	@param configHash hash of the configuration it was converted with.
+	*	@param book NDID of the book the sheet is in, or null if not known.
+	*	@param figure figure number of the sheet, or null if not known.
+	*	@param outputs names of the files the conversion writes.
+	*	@param started time the conversion started.
+	*	@return true if the conversion was recorded.
+	*/
+	public boolean record(String dxf, String configHash, String book, String figure,
+		String[] outputs, long started)
+	{
+		Entry entry = new Entry();
+		entry.path = getKey(dxf);
+		entries.remove(entry.path);
+		if (! isRecordable(entry.path) || ! isRecordable(book) || ! isRecordable(figure))
+			return false;
+
+		entry.outputs = new String[outputs.length];
+		entry.outputSizes = new long[outputs.length];
+		entry.outputModified = new long[outputs.length];
+		for (int i = 0; i < outputs.length; i++)
+		{
+			File output = new File(outputs[i]);
+			if (! output.isFile() || output.lastModified() < started - MTIME_SLACK ||
+				! isRecordable(output.getAbsolutePath()))
+				return false;
+			entry.outputs[i] = output.getAbsolutePath();
+			entry.outputSizes[i] = output.length();
+			entry.outputModified[i] = output.lastModified();
+		}
+
+		File file = new File(entry.path);
+		entry.size = file.length();
+		entry.modified = getRecordableTime(file.lastModified());
+		entry.contentHash = hash(file);
+		if (entry.contentHash == null)
+			return false;
+		entry.configHash = configHash;
+		entry.version = getVersion();
+		entry.book = (book == null) ? "" : book;
+		entry.figure = (figure == null) ? "" : figure;
+		entries.put(entry.path, entry);
+		return true;
+	}
+
+	// Returns the time to store for a DXF's modification time; see the class notes.
+	private static long getRecordableTime(long modified)
+	{
+		if (System.currentTimeMillis() - modified < MTIME_SLACK)
+			return -1L;
+		return modified;
+	}
+
+	// Returns the version recorded with each entry.
+	private static String getVersion()
+	{
+		return Dxf2SvgConstants.VERSION + "/" + OUTPUT_VERSION;
+	}
+
+	// Tabs and line breaks separate the fields and entries.
+	private static boolean isRecordable(String s)
+	{
+		return s == null ||
+			(s.indexOf('\t') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0);
+	}
+
+	private static String getKey(String dxf)
+	{
+		return new File(dxf).getAbsolutePath();
+	}
+
+	/** Returns the SHA-1 hash of the argument file's content as hex digits, or
+	*	null if the file can't be read.
+	*/
+	public static String hash(File file)
+	{
+		MessageDigest digest = getDigest();
+		InputStream in = null;
+		try
+		{
+			in = new FileInputStream(file);
+			byte[] buf = new byte[65536];
+			int n;
+			while ((n = in.read(buf)) > 0)
+				digest.update(buf, 0, n);
+		}
+		catch (IOException e)
+		{
+			System.err.println("ConversionManifest warning: couldn't read '"+file+"': "+e);
+			return null;
+		}
+		finally
+		{
+			close(in);
+		}
+		return toHex(digest.digest());
+	}
+
+	/** Returns a hash of everything besides the DXF itself that decides what a
+	*	conversion writes: the content of the configuration file, the switches and
+	*	the data of any '-include' files. The switches are hashed as
+	*	{@link #normaliseSwitches} returns them.
+	*	@param configFile name of the config.d2s file, or null if there isn't one.
+	*	@param args the switches.
+	*	@param includeData content of the '-include' files, or null.
+	*/
+	public static String hashConfiguration(String configFile, String[] args, String includeData)
+	{
+		MessageDigest digest = getDigest();
+		try
+		{
+			if (configFile != null)
+			{
+				String configHash = hash(new File(configFile));
+				digest.update(String.valueOf(configHash).getBytes(ENCODING));
+			}
+			digest.update((byte)0);
+			String[] switches = normaliseSwitches(args);
+			for (int i = 0; i < switches.length; i++)
+			{
+				digest.update(switches[i].getBytes(ENCODING));
+				digest.update((byte)0);
+			}
+			digest.update((byte)0);
+			if (includeData != null)
+				digest.update(includeData.getBytes(ENCODING));
+		}
+		catch (UnsupportedEncodingException e)
+		{
+			// UTF-8 is always supported.
+			throw new RuntimeException("ConversionManifest error: "+e);
+		}
+		return toHex(digest.digest());
+	}
+
+	/** Returns the argument switches in a normal order so that the same switches
+	*	given in another order hash the same. Each switch is kept with the values
+	*	that follow it and the switches are sorted by name; a switch given more
+	*	than once keeps the order of its occurrences, because the last one can
+	*	win. Switches that don't change the output, like '-threads' and
+	*	'-watch', are left out.
+	*	@param args the switches, or null.
+	*/
+	public static String[] normaliseSwitches(String[] args)
+	{
+		ArrayList groups = new ArrayList();
+		ArrayList group = null;
+		for (int i = 0; args != null && i < args.length; i++)
+		{
+			if (group == null || isSwitch(args[i]))
+			{
+				group = new ArrayList();
+				groups.add(group);
+			}
+			group.add(args[i]);
+		}
+		// A stable sort on the name of the switch alone.
+		Collections.sort(groups, new Comparator() {
+			public int compare(Object a, Object b)
+			{
+				return ((String)((ArrayList)a).get(0)).compareTo((String)((ArrayList)b).get(0));
+			}
+		});
+
+		ArrayList switches = new ArrayList();
+		for (int i = 0; i < groups.size(); i++)
+		{
+			group = (ArrayList)groups.get(i);
+			if (Arrays.asList(NON_OUTPUT_SWITCHES).contains(group.get(0)))
+				continue;
+			switches.addAll(group);
+		}
+		return (String[])switches.toArray(new String[switches.size()]);
+	}
+
+	// A value like '-0.5' isn't a switch.
+	private static boolean isSwitch(String arg)
+	{
+		if (! arg.startsWith("-") || arg.length() < 2)
+			return false;
+		char c = arg.charAt(1);
+		return ! (Character.isDigit(c) || c == '.');
+	}
+
+	private static MessageDigest getDigest()
+	{
+		try
+		{
+			return MessageDigest.getInstance("SHA-1");
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			// Every Java platform has SHA-1.
+			throw new RuntimeException("ConversionManifest error: "+e);
+		}
+	}
+
+	private static String toHex(byte[] bytes)
+	{
+		StringBuffer sb = new StringBuffer(bytes.length * 2);
+		for (int i = 0; i < bytes.length; i++)
+		{
+			sb.append(Character.forDigit((bytes[i] >> 4) & 0xf, 16));
+			sb.append(Character.forDigit(bytes[i] & 0xf, 16));
+		}
+		return sb.toString();
+	}
+
+	private static void close(Closeable c)
+	{
+		if (c == null)
+			return;
+		try
+		{
+			c.close();
+		}
+		catch (IOException e)
+		{
+			// Nothing more to do with it.
+		}
+	}
+
+
+
+
+	/** What was recorded about one DXF. */
+	public final static class Entry
+	{
+		private String path;			// Absolute path of the DXF.
+		private long size;
+		private long modified;			// -1 if it has to be hashed to be trusted.
+		private String contentHash;
+		private String configHash;
+		private String version;			// Of Dxf2Svg.
+		private String book;			// NDID, or "" if not known.
+		private String figure;			// Figure number, or "" if not known.
+		private String[] outputs;		// Absolute paths of the files written.
+		private long[] outputSizes;
+		private long[] outputModified;
+
+		private Entry()
+		{	}
+
+		/** Returns the absolute path of the DXF. */
+		public String getPath()
+		{	return path;	}
+
+		/** Returns the NDID of the sheet's book or an empty string if it isn't known. */
+		public String getBook()
+		{	return book;	}
+
+		/** Returns the sheet's figure number or an empty string if it isn't known. */
+		public String getFigure()
+		{	return figure;	}
+
+		// Reads an entry from a line of the manifest; returns null if the line is damaged.
+		private static Entry parse(String line)
+		{
+			String[] fields = line.split("\t", -1);
+			if (fields.length < FIXED_FIELDS)
+				return null;
+			Entry entry = new Entry();
+			try
+			{
+				entry.path			= fields[0];
+				entry.size			= Long.parseLong(fields[1]);
+				entry.modified		= Long.parseLong(fields[2]);
+				entry.contentHash	= fields[3];
+				entry.configHash	= fields[4];
+				entry.version		= fields[5];
+				entry.book			= fields[6];
+				entry.figure		= fields[7];
+				int count			= Integer.parseInt(fields[8]);
+				if (count < 0 || fields.length != FIXED_FIELDS + count * 3)
+					return null;
+				entry.outputs		= new String[count];
+				entry.outputSizes	= new long[count];
+				entry.outputModified = new long[count];
+				for (int i = 0; i < count; i++)
+				{
+					int f = FIXED_FIELDS + i * 3;
+					entry.outputs[i]		= fields[f];
+					entry.outputSizes[i]	= Long.parseLong(fields[f + 1]);
+					entry.outputModified[i]	= Long.parseLong(fields[f + 2]);
+				}
+			}
+			catch (NumberFormatException e)
+			{
+				return null;
+			}
+			return entry;
+		}
+
+		/** Returns the entry as a line of the manifest. */
+		public String toString()
+		{
+			StringBuffer sb = new StringBuffer();
+			sb.append(path).append('\t');
+			sb.append(size).append('\t');
+			sb.append(modified).append('\t');
+			sb.append(contentHash).append('\t');
+			sb.append(configHash).append('\t');
+			sb.append(version).append('\t');
+			sb.append(book).append('\t');
+			sb.append(figure).append('\t');
+			sb.append(outputs.length);
+			for (int i = 0; i < outputs.length; i++)
+			{
+				sb.append('\t').append(outputs[i]);
+				sb.append('\t').append(outputSizes[i]);
+				sb.append('\t').append(outputModified[i]);
+			}
+			return sb.toString();
+		}
+	}
+}
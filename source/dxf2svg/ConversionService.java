@@ -0,0 +1,583 @@
+/****************************************************************************
+**
+**	FileName:	ConversionService.java
+**
+**	Project:	Dxf2Svg
+**
+**	Purpose:	Serves conversions over HTTP from one long running process so
+**				the configuration and library are only loaded once.
+**
+**	Date:		October 17, 2026
+**
+**	Author:		Andrew Nisbet
+**
+**	Environment:Java(TM) 2 Runtime Environment, Standard Edition
+**				(build 1.6.0)
+**
+**	Version:	1.00 - October 17, 2026
+**				1.01 - October 17, 2026 Saves the symbol library after each conversion.
+**				1.02 - October 17, 2026 Cataloguing is locked against conversions,
+**				conversions of the same file take turns and a conversion is only
+**				taken to have worked if the DxfConverter says so.
+**				1.03 - October 17, 2026 Uses DxfPreprocessor's catalog lock, which
+**				the watcher's conversions take too.
+**
+**	TODO:
+**
+*****************************************************************************/
+
+package dxf2svg;
+
+import java.io.*;
+import java.net.*;
+import java.util.*;
+import java.util.concurrent.*;			// Semaphores and thread pool.
+import java.util.concurrent.atomic.*;	// Counters.
+import java.util.concurrent.locks.*;	// Catalog and file locks.
+import java.util.zip.*;
+import com.sun.net.httpserver.*;		// The JDK's own HTTP server.
+import dxf2svg.sally.*;
+
+/**	This class is what the '-serve' switch runs: a small HTTP server, on the
+*	loopback interface only, that converts DXFs with the configuration, pens, font
+*	map and library catalog the process loaded when it started. It uses the HTTP
+*	server that comes with the JDK and nothing else.
+*	<P>
+*	It answers these requests:
+*	<UL>
+*	<LI> <code>POST /convert</code> with a DXF as the body converts it in a
+*	temporary directory and returns the SVG. The optional <code>name</code>
+*	parameter is the DXF's file name, which names the output and is used for
+*	the spotcall; it defaults to <code>upload.dxf</code>. The library catalog is not
+*	changed.
+*	<LI> <code>GET</code> or <code>POST /convert?path=</code><em>file</em> converts
+*	a DXF the server can read, writing its output beside it as a normal run
+*	would, and returns the SVG. With '-db' or '-IETM' the DXF is added to the
+*	library catalog first.
+*	<LI> <code>GET /status</code> returns the worker and queue counters as
+*	<code>name value</code> lines of plain text.
+*	</UL>
+*	Either kind of conversion takes a <code>format</code> parameter of
+*	<code>svg</code> or <code>svgz</code>; the default is what '-z' says. SVGZ is
+*	sent with <code>Content-Encoding: gzip</code>.
+*	<P>
+*	At most the '-threads' number of conversions run at once. Up to
+*	'-serve_queue' more wait their turn; requests beyond that are refused with
+*	<code>503</code> straight away so the caller can back off. A conversion
+*	that fails is answered with <code>500</code> and the reason.
+*	<P>
+*	'-notes' are not applied by the service because the notes of a figure are
+*	compiled from all of its sheets at once.
+*	<P>
+*	Adding a DXF to the library catalog rewrites the catalog that the HTML
+*	wrappers of the other conversions read, so it waits for the conversions
+*	in progress to finish and they wait for it. The files '-watch' converts
+*	are catalogued and converted under the same lock. Two requests for the same
+*	<code>path</code> would write the same files, so the second waits for the
+*	first to be converted and sent.
+*
+*	@version 	1.03 - October 17, 2026
+*	@author		Andrew Nisbet
+*/
+public final class ConversionService
+{
+	/** Largest DXF accepted as an upload, in bytes. */
+	public final static long MAX_UPLOAD = 512L * 1024L * 1024L;
+	private final static String DEFAULT_UPLOAD_NAME = "upload.dxf";
+
+	private ConversionSettings settings;	// Switches for every conversion.
+	private SvgAnimationLanguage sal;		// May be null if there was no config file.
+	private DxfPreprocessor processor;		// Keeps the library catalog.
+	private int workers;					// Conversions allowed at once.
+	private int queueLength;				// Conversions allowed to wait.
+	private Semaphore admitted;				// Permits for running and waiting conversions.
+	private Semaphore running;				// Permits for running conversions.
+	private HttpServer server;
+	private final HashMap pathLocks = new HashMap();	// Canonical path -> PathLock.
+
+	// Counters reported by /status.
+	private final AtomicInteger active = new AtomicInteger();
+	private final AtomicInteger queued = new AtomicInteger();
+	private final AtomicLong completed = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong totalWaitMillis = new AtomicLong();
+	private final AtomicLong maxWaitMillis = new AtomicLong();
+	private final AtomicLong totalConvertMillis = new AtomicLong();
+	private long startTime;
+
+	/** Creates the service; {@link #start} starts it.
+	*	@param settings switch settings for all the conversions.
+	*	@param sal SvgAnimationLanguage reference or null if there isn't one.
+	*	@param processor the preprocessor that holds the library catalog.
+	*	@param workers number of conversions allowed to run at once.
+	*	@param queueLength number of conversions allowed to wait for a worker.
+	*/
+	public ConversionService(ConversionSettings settings, SvgAnimationLanguage sal,
+		DxfPreprocessor processor, int workers, int queueLength)
+	{
+		this.settings		= settings;
+		this.sal			= sal;
+		this.processor		= processor;
+		this.workers		= (workers < 1) ? 1 : workers;
+		this.queueLength	= (queueLength < 0) ? 0 : queueLength;
+		admitted			= new Semaphore(this.workers + this.queueLength);
+		running				= new Semaphore(this.workers, true);	// First come first served.
+	}
+
+	/** Starts serving on the argument port of the loopback interface. Returns
+	*	once the server is listening; it runs on its own threads.
+	*	@param port TCP port.
+	*	@throws IOException if the port can't be opened.
+	*/
+	public void start(int port) throws IOException
+	{
+		server = HttpServer.create(
+			new InetSocketAddress(InetAddress.getByName("127.0.0.1"), port),
+			workers + queueLength);
+		server.createContext("/convert", new HttpHandler()
+			{
+				public void handle(HttpExchange exchange) throws IOException
+				{
+					handleConvert(exchange);
+				}
+			});
+		server.createContext("/status", new HttpHandler()
+			{
+				public void handle(HttpExchange exchange) throws IOException
+				{
+					handleStatus(exchange);
+				}
+			});
+		// Refused requests are answered at once so they need threads of their own.
+		server.setExecutor(Executors.newCachedThreadPool());
+		startTime = System.currentTimeMillis();
+		server.start();
+		System.out.println("ConversionService: listening on http://127.0.0.1:"+
+			server.getAddress().getPort()+"/ with "+workers+" workers and a queue of "+
+			queueLength+".");
+		if (settings.takeNotes())
+			System.err.println("ConversionService warning: notes are not applied to "+
+				"conversions done by the service.");
+	}
+
+	/** Stops the service, waiting up to the argument number of seconds for
+	*	requests in progress.
+	*/
+	public void stop(int delay)
+	{
+		if (server != null)
+			server.stop(delay);
+	}
+
+	/** Returns the port the service is listening on. */
+	public int getPort()
+	{
+		return server.getAddress().getPort();
+	}
+
+	// Converts an upload or a file.
+	private void handleConvert(HttpExchange exchange) throws IOException
+	{
+		try
+		{
+			String method = exchange.getRequestMethod();
+			Map params = parseQuery(exchange.getRequestURI().getRawQuery());
+			String path = (String)params.get("path");
+			boolean isUpload = (path == null);
+			if (isUpload ? ! method.equals("POST") :
+				! (method.equals("POST") || method.equals("GET")))
+			{
+				sendText(exchange, 405, "ConversionService error: use POST to upload a DXF "+
+					"or GET with a 'path' parameter.");
+				return;
+			}
+			boolean zipped = settings.isZipped();
+			String format = (String)params.get("format");
+			if ("svgz".equals(format))
+				zipped = true;
+			else if ("svg".equals(format))
+				zipped = false;
+			else if (format != null)
+			{
+				sendText(exchange, 400, "ConversionService error: format must be svg or svgz.");
+				return;
+			}
+			if (! isUpload && ! new File(path).isFile())
+			{
+				sendText(exchange, 404, "ConversionService error: no such file '"+path+"'.");
+				return;
+			}
+			if (! isUpload && ! path.toLowerCase().endsWith(".dxf"))
+			{
+				sendText(exchange, 400, "ConversionService error: '"+path+"' is not a DXF.");
+				return;
+			}
+
+			if (! admitted.tryAcquire())
+			{
+				rejected.incrementAndGet();
+				exchange.getResponseHeaders().set("Retry-After", "1");
+				sendText(exchange, 503, "ConversionService error: busy; "+workers+
+					" conversions running and "+queueLength+" waiting.");
+				return;
+			}
+			try
+			{
+				if (isUpload)
+					convertUpload(exchange, (String)params.get("name"), zipped);
+				else
+					convertFile(exchange, path, zipped);
+			}
+			finally
+			{
+				admitted.release();
+			}
+		}
+		catch (IOException e)
+		{
+			// Most likely the client went away.
+			System.err.println("ConversionService error: "+e);
+		}
+		finally
+		{
+			exchange.close();
+		}
+	}
+
+	// Saves the request body to a temporary directory, converts it and sends the result.
+	private void convertUpload(HttpExchange exchange, String name, boolean zipped)
+		throws IOException
+	{
+		if (name == null || name.length() == 0)
+			name = DEFAULT_UPLOAD_NAME;
+		name = new File(name).getName();	// No directories.
+		if (! name.toLowerCase().endsWith(".dxf"))
+			name = name + ".dxf";
+
+		File dir = createTempDirectory();
+		try
+		{
+			File dxf = new File(dir, name);
+			if (! saveBody(exchange.getRequestBody(), dxf))
+			{
+				sendText(exchange, 413, "ConversionService error: DXFs over "+
+					MAX_UPLOAD+" bytes are not accepted.");
+				return;
+			}
+			convertAndSend(exchange, dxf.getPath(), zipped, false);
+		}
+		finally
+		{
+			delete(dir);
+		}
+	}
+
+	// Converts a file in place and sends the result.
+	private void convertFile(HttpExchange exchange, String path, boolean zipped)
+		throws IOException
+	{
+		convertAndSend(exchange, new File(path).getCanonicalPath(), zipped, true);
+	}
+
+	// Waits for a worker, converts the DXF and sends its SVG.
+	private void convertAndSend(HttpExchange exchange, String dxf, boolean zipped,
+		boolean catalog) throws IOException
+	{
+		long queuedAt = System.currentTimeMillis();
+		queued.incrementAndGet();
+		PathLock pathLock = null;
+		try
+		{
+			// Uploads have a directory of their own; files converted in place don't.
+			if (catalog)
+				pathLock = lockPath(dxf);
+			running.acquire();
+		}
+		catch (InterruptedException e)
+		{
+			if (pathLock != null)
+				unlockPath(dxf, pathLock);
+			queued.decrementAndGet();
+			Thread.currentThread().interrupt();
+			sendText(exchange, 503, "ConversionService error: shutting down.");
+			return;
+		}
+		try
+		{
+			convertAndSend(exchange, dxf, zipped, catalog, queuedAt);
+		}
+		finally
+		{
+			if (pathLock != null)
+				unlockPath(dxf, pathLock);
+		}
+	}
+
+	// Converts the DXF with a worker and sends its SVG.
+	private void convertAndSend(HttpExchange exchange, String dxf, boolean zipped,
+		boolean catalog, long queuedAt) throws IOException
+	{
+		queued.decrementAndGet();
+		active.incrementAndGet();
+		long started = System.currentTimeMillis();
+		recordWait(started - queuedAt);
+		File output;
+		try
+		{
+			if (catalog)
+			{
+				Vector files = new Vector();
+				files.add(dxf);
+				// Takes the catalog write lock.
+				processor.catalogFiles(files);
+			}
+			DxfConverter converter;
+			Lock catalogReadLock = DxfPreprocessor.getCatalogLock().readLock();
+			catalogReadLock.lock();
+			try
+			{
+				converter = new DxfConverter(settings, sal, dxf);
+			}
+			finally
+			{
+				catalogReadLock.unlock();
+			}
+			// The SVG may refer to symbols it added to the library. Only the
+			// symbols added since the last save are written.
+			DxfPreprocessor.saveSymbolLibrary();
+			output = getOutputFile(dxf);
+			if (! converter.isConverted() || ! output.isFile())
+				throw new RuntimeException("the conversion wrote no SVG.");
+		}
+		catch (RuntimeException e)
+		{
+			failed.incrementAndGet();
+			System.err.println("ConversionService error: converting '"+dxf+"' failed: "+e);
+			sendText(exchange, 500, "ConversionService error: converting '"+
+				new File(dxf).getName()+"' failed: "+e);
+			return;
+		}
+		finally
+		{
+			totalConvertMillis.addAndGet(System.currentTimeMillis() - started);
+			active.decrementAndGet();
+			running.release();
+		}
+		completed.incrementAndGet();
+		sendSvg(exchange, output, zipped);
+	}
+
+	// Returns the file the conversion of the DXF writes its SVG to; see SvgBuilder.
+	private File getOutputFile(String dxf)
+	{
+		String root = dxf.substring(0, dxf.length() - 4);
+		return new File(root + (settings.isZipped() ? ".svgz" : ".svg"));
+	}
+
+	// Sends the SVG, compressing or uncompressing it if the format asked for isn't
+	// the one written.
+	private void sendSvg(HttpExchange exchange, File output, boolean zipped) throws IOException
+	{
+		Headers headers = exchange.getResponseHeaders();
+		headers.set("Content-Type", "image/svg+xml");
+		if (zipped)
+			headers.set("Content-Encoding", "gzip");
+		String name = output.getName();
+		if (zipped != settings.isZipped())
+			name = name.substring(0, name.lastIndexOf('.')) + (zipped ? ".svgz" : ".svg");
+		headers.set("Content-Disposition", "attachment; filename=\""+name+"\"");
+
+		InputStream in = new BufferedInputStream(new FileInputStream(output));
+		try
+		{
+			OutputStream out;
+			if (zipped == settings.isZipped())
+			{
+				exchange.sendResponseHeaders(200, output.length());
+				out = exchange.getResponseBody();
+			}
+			else
+			{
+				exchange.sendResponseHeaders(200, 0);	// Length not known; chunked.
+				out = exchange.getResponseBody();
+				if (zipped)
+					out = new GZIPOutputStream(out, 65536);
+				else
+					in = new GZIPInputStream(in, 65536);
+			}
+			copy(in, out, Long.MAX_VALUE);
+			out.close();
+		}
+		finally
+		{
+			in.close();
+		}
+	}
+
+	// Answers /status.
+	private void handleStatus(HttpExchange exchange) throws IOException
+	{
+		try
+		{
+			long done = completed.get() + failed.get();
+			StringBuffer sb = new StringBuffer();
+			sb.append("workers ").append(workers).append('\n');
+			sb.append("queue_limit ").append(queueLength).append('\n');
+			sb.append("active ").append(active.get()).append('\n');
+			sb.append("queued ").append(queued.get()).append('\n');
+			sb.append("completed ").append(completed.get()).append('\n');
+			sb.append("failed ").append(failed.get()).append('\n');
+			sb.append("rejected ").append(rejected.get()).append('\n');
+			sb.append("mean_wait_ms ").append(done == 0 ? 0 : totalWaitMillis.get() / done).append('\n');
+			sb.append("max_wait_ms ").append(maxWaitMillis.get()).append('\n');
+			sb.append("mean_convert_ms ").append(done == 0 ? 0 : totalConvertMillis.get() / done).append('\n');
+			sb.append("uptime_s ").append((System.currentTimeMillis() - startTime) / 1000L).append('\n');
+			sendText(exchange, 200, sb.toString());
+		}
+		finally
+		{
+			exchange.close();
+		}
+	}
+
+	// Returns the lock of the argument canonical path once this thread holds it.
+	private PathLock lockPath(String path) throws InterruptedException
+	{
+		PathLock pathLock;
+		synchronized (pathLocks)
+		{
+			pathLock = (PathLock)pathLocks.get(path);
+			if (pathLock == null)
+			{
+				pathLock = new PathLock();
+				pathLocks.put(path, pathLock);
+			}
+			pathLock.users++;
+		}
+		try
+		{
+			pathLock.lock.lockInterruptibly();
+		}
+		catch (InterruptedException e)
+		{
+			release(path, pathLock);
+			throw e;
+		}
+		return pathLock;
+	}
+
+	// Unlocks the path's lock and forgets it if no one else wants it.
+	private void unlockPath(String path, PathLock pathLock)
+	{
+		pathLock.lock.unlock();
+		release(path, pathLock);
+	}
+
+	private void release(String path, PathLock pathLock)
+	{
+		synchronized (pathLocks)
+		{
+			if (--pathLock.users == 0)
+				pathLocks.remove(path);
+		}
+	}
+
+	private void recordWait(long wait)
+	{
+		totalWaitMillis.addAndGet(wait);
+		long max = maxWaitMillis.get();
+		while (wait > max && ! maxWaitMillis.compareAndSet(max, wait))
+			max = maxWaitMillis.get();
+	}
+
+	private static void sendText(HttpExchange exchange, int status, String text)
+		throws IOException
+	{
+		byte[] body = (text.endsWith("\n") ? text : text + "\n").getBytes("UTF-8");
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+		exchange.sendResponseHeaders(status, body.length);
+		OutputStream out = exchange.getResponseBody();
+		out.write(body);
+		out.close();
+	}
+
+	// Returns the decoded parameters of a query string.
+	private static Map parseQuery(String query) throws UnsupportedEncodingException
+	{
+		HashMap params = new HashMap();
+		if (query == null)
+			return params;
+		String[] pairs = query.split("&");
+		for (int i = 0; i < pairs.length; i++)
+		{
+			int eq = pairs[i].indexOf('=');
+			if (eq < 0)
+				params.put(URLDecoder.decode(pairs[i], "UTF-8"), "");
+			else
+				params.put(URLDecoder.decode(pairs[i].substring(0, eq), "UTF-8"),
+					URLDecoder.decode(pairs[i].substring(eq + 1), "UTF-8"));
+		}
+		return params;
+	}
+
+	// Saves the stream to the file; returns false if it is too big.
+	private static boolean saveBody(InputStream in, File file) throws IOException
+	{
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 65536);
+		try
+		{
+			return copy(in, out, MAX_UPLOAD);
+		}
+		finally
+		{
+			out.close();
+		}
+	}
+
+	// Copies up to limit bytes; returns false if there was more.
+	private static boolean copy(InputStream in, OutputStream out, long limit)
+		throws IOException
+	{
+		byte[] buf = new byte[65536];
+		long total = 0L;
+		int n;
+		while ((n = in.read(buf)) > 0)
+		{
+			total += n;
+			if (total > limit)
+				return false;
+			out.write(buf, 0, n);
+		}
+		return true;
+	}
+
+	private static File createTempDirectory() throws IOException
+	{
+		File file = File.createTempFile("dxf2svg", "");
+		if (! file.delete() || ! file.mkdir())
+			throw new IOException("ConversionService error: can't make a temporary "+
+				"directory '"+file+"'.");
+		return file;
+	}
+
+	// Deletes the file or directory and everything in it.
+	private static void delete(File file)
+	{
+		File[] children = file.listFiles();
+		for (int i = 0; children != null && i < children.length; i++)
+			delete(children[i]);
+		file.delete();
+	}
+
+
+
+
+	// The lock of a file being converted in place and the number of requests
+	// holding or waiting for it.
+	private final static class PathLock
+	{
+		private final ReentrantLock lock = new ReentrantLock(true);
+		private int users;				// Guarded by pathLocks.
+	}
+}
@@ -0,0 +1,292 @@
+/****************************************************************************
+**
+**	FileName:	ConversionSettings.java
+**
+**	Project:	Dxf2Svg
+**
+**	Purpose:	Holds a read-only copy of the user's switch settings for one
+**				conversion context.
+**
+**	Date:		October 17, 2026
+**
+**	Author:		Andrew Nisbet
+**
+**	Environment:Java(TM) 2 Runtime Environment, Standard Edition
+**				(build 1.5.0)
+**
+**	Version:	1.00 - October 17, 2026
+**				1.01 - October 17, 2026 Added streamLayers().
+**				1.02 - October 17, 2026 Added getZipLevel() and getZipBufferSize().
+**				1.03 - October 17, 2026 Added getZipThreads().
+**				1.04 - October 17, 2026 Added useFontFileMetrics().
+**				1.05 - October 17, 2026 Added getLineCap() and getLineJoin().
+**				1.06 - October 17, 2026 Added getColour() and the '-c' setting it uses.
+**
+**	TODO:
+**
+*****************************************************************************/
+
+package dxf2svg;
+
+import java.util.*;			// Hashtable.
+import dxf2svg.util.Pen;
+
+/**	This class is an immutable snapshot of the switches that {@link DxfPreprocessor}
+*	houses as static values. A {@link DxfConverter} is given one of these when it is
+*	created and every object in its conversion context (SvgBuilder, StyleSheetGenerator,
+*	SvgUtil and all SvgElements) reads its settings from here rather than from
+*	DxfPreprocessor. That way two conversions with different settings can run in the
+*	same JVM at the same time, and the settings read for every coordinate or colour
+*	are plain final fields.
+*	<P>
+*	The no-argument constructor takes the current values from DxfPreprocessor so the
+*	usual way of getting one is to set the switches then call <code>new ConversionSettings()</code>.
+*	Changing the switches afterwards does not change a snapshot already taken.
+*	<P>
+*	Tables that are read from the config file but are shared by every conversion
+*	(pens, custom layer and text styles, the library catalog and notes) are still
+*	looked up from DxfPreprocessor.
+*
+*	@version 	1.00 - October 17, 2026
+*	@author		Andrew Nisbet
+*/
+public final class ConversionSettings
+{
+	private final boolean verbose;
+	private final boolean debug;
+	private final int cssMode;
+	private final int precision;
+	// Numbers smaller than this are trimmed to 0.0; Math.pow(10, -(precision + 1)).
+	private final double trimThreshold;
+	private final boolean includeDTD;
+	private final int includeJavaScript;
+	private final String javaScriptSrcPath;
+	private final int renderSize;
+	private final boolean includeFontUrl;
+	private final String fontUrl;
+	private final boolean zipped;
+	private final int zipLevel;
+	private final int zipBufferSize;
+	private final int zipThreads;
+	private final boolean htmlWrappers;
+	private final boolean partsListFigure;
+	private final boolean takeNotes;
+	private final boolean suppressBoilerPlateJavaScript;
+	private final boolean colourCoercedByLayer;
+	private final boolean coercedColour;		// '-c' switch.
+	private final int coerciveColour;			// Colour '-c' sets.
+	private final boolean swapSvgzForHtml;
+	private final boolean streamLayers;
+	private final boolean fontFileMetrics;
+	private final int lineCap;					// Pen line cap from '-line_cap'.
+	private final int lineJoin;					// Pen line join from '-line_join'.
+	private final String includeFileData;		// null if there isn't any.
+	private final Hashtable collaboratorTable;	// layer name -> Boolean.
+	private final Hashtable gangTable;			// layer name -> Boolean.
+
+	/** Takes a snapshot of the current {@link DxfPreprocessor} settings.
+	*/
+	public ConversionSettings()
+	{
+		verbose				= DxfPreprocessor.verboseMode();
+		debug				= DxfPreprocessor.debugMode();
+		cssMode				= DxfPreprocessor.cssMode();
+		precision			= DxfPreprocessor.getPrecision();
+		trimThreshold		= Math.pow(10, -(precision + 1));
+		includeDTD			= DxfPreprocessor.includeDTD();
+		includeJavaScript	= DxfPreprocessor.includeJavaScript();
+		javaScriptSrcPath	= DxfPreprocessor.includeJavaScriptSrcPath();
+		renderSize			= DxfPreprocessor.getRenderSize();
+		includeFontUrl		= DxfPreprocessor.includeUrl();
+		fontUrl				= DxfPreprocessor.getFontUrl();
+		zipped				= DxfPreprocessor.isZipped();
+		zipLevel			= DxfPreprocessor.getZipLevel();
+		zipBufferSize		= DxfPreprocessor.getZipBufferSize();
+		zipThreads			= DxfPreprocessor.getZipThreads();
+		htmlWrappers		= DxfPreprocessor.useHTMLWrappers();
+		partsListFigure		= DxfPreprocessor.isPartsListFigure();
+		takeNotes			= DxfPreprocessor.takeNotes();
+		suppressBoilerPlateJavaScript = DxfPreprocessor.suppressBoilerPlateJavaScript();
+		colourCoercedByLayer= DxfPreprocessor.isColourCoercedByLayer();
+		coercedColour		= DxfPreprocessor.isColourCoerced();
+		coerciveColour		= DxfPreprocessor.getCoerciveColour();
+		swapSvgzForHtml		= DxfPreprocessor.swapSvgzForHtml();
+		streamLayers		= DxfPreprocessor.streamLayers();
+		fontFileMetrics		= DxfPreprocessor.useFontFileMetrics();
+		lineCap				= Pen.getDefaultLineCap();
+		lineJoin			= Pen.getDefaultLineJoin();
+		if (DxfPreprocessor.isInclude())
+			includeFileData	= DxfPreprocessor.getIncludeFileData();
+		else
+			includeFileData	= null;
+		collaboratorTable	= copyTable(DxfPreprocessor.getCollaboratorTable());
+		gangTable			= copyTable(DxfPreprocessor.getGangTable());
+	}
+
+	// Returns a private copy of the argument table, or an empty one if it is null.
+	private static Hashtable copyTable(Hashtable table)
+	{
+		if (table == null)
+			return new Hashtable();
+		return new Hashtable(table);
+	}
+
+	/** Returns true if verbose mode was on. */
+	public boolean verboseMode()
+	{	return verbose;	}
+
+	/** Returns true if debug mode was on. */
+	public boolean debugMode()
+	{	return debug;	}
+
+	/** Returns the CSS mode; see {@link DxfPreprocessor#cssMode}. */
+	public int cssMode()
+	{	return cssMode;	}
+
+	/** Returns the number of decimal places in calculations. */
+	public int getPrecision()
+	{	return precision;	}
+
+	/** Returns the magnitude below which values are trimmed to zero at the
+	*	current precision.
+	*/
+	public double getTrimThreshold()
+	{	return trimThreshold;	}
+
+	/** Returns true if the DTD is to be included in the SVG header. */
+	public boolean includeDTD()
+	{	return includeDTD;	}
+
+	/** Returns the JavaScript inclusion setting; see {@link DxfPreprocessor#includeJavaScript}. */
+	public int includeJavaScript()
+	{	return includeJavaScript;	}
+
+	/** Returns the path to the external JavaScript file. */
+	public String includeJavaScriptSrcPath()
+	{	return javaScriptSrcPath;	}
+
+	/** Returns the target screen resolution. */
+	public int getRenderSize()
+	{	return renderSize;	}
+
+	/** Returns true if a font URL is to be output in the CSS. */
+	public boolean includeUrl()
+	{	return includeFontUrl;	}
+
+	/** Returns the font URL. */
+	public String getFontUrl()
+	{	return fontUrl;	}
+
+	/** Returns true if the SVG is to be compressed. */
+	public boolean isZipped()
+	{	return zipped;	}
+
+	/** Returns the compression level of compressed SVGs. */
+	public int getZipLevel()
+	{	return zipLevel;	}
+
+	/** Returns the buffer size, in bytes, for writing compressed SVGs. */
+	public int getZipBufferSize()
+	{	return zipBufferSize;	}
+
+	/** Returns the number of threads compressing each compressed SVG. */
+	public int getZipThreads()
+	{	return zipThreads;	}
+
+	/** Returns true if HTML wrappers are to be made. */
+	public boolean useHTMLWrappers()
+	{	return htmlWrappers;	}
+
+	/** Returns true if the '-MY' switch was used. */
+	public boolean isPartsListFigure()
+	{	return partsListFigure;	}
+
+	/** Returns true if drawings are to be searched for notes. */
+	public boolean takeNotes()
+	{	return takeNotes;	}
+
+	/** Returns true if the default JavaScript functions are to be left out. */
+	public boolean suppressBoilerPlateJavaScript()
+	{	return suppressBoilerPlateJavaScript;	}
+
+	/** Returns true if all elements are to take the colour of their layer. */
+	public boolean isColourCoercedByLayer()
+	{	return colourCoercedByLayer;	}
+
+	/** Returns the Web safe colour of the argument Acad colour number, coerced
+	*	to the '-c' colour if that was set; see {@link DxfPreprocessor#getColour}.
+	*	An illegal colour number is reported and fushia (220) is returned.
+	*/
+	public String getColour(int c)
+	{
+		try
+		{
+			return DxfPreprocessor.lookupColour(c, coercedColour, coerciveColour);
+		}
+		catch (ArrayIndexOutOfBoundsException e)
+		{
+			System.err.println("StyleSheetGenerator warning: illegal colour number: "+c+
+			" (possibly out of range), using fushia (220) instead.");
+			return DxfPreprocessor.lookupColour(220, false, coerciveColour);
+		}
+	}
+
+	/** Returns true if links to <CODE>.svg(z)</CODE> are to be swapped for <CODE>.html</CODE>. */
+	public boolean swapSvgzForHtml()
+	{	return swapSvgzForHtml;	}
+
+	/** Returns true if entities are to be spooled to disk by layer. */
+	public boolean streamLayers()
+	{	return streamLayers;	}
+
+	/** Returns true if text is to be measured from the font files without AWT. */
+	public boolean useFontFileMetrics()
+	{	return fontFileMetrics;	}
+
+	/** Returns the line cap of every pen; see {@link Pen#setLineCapType}. */
+	public int getLineCap()
+	{	return lineCap;	}
+
+	/** Returns the line join of pens in drawings that don't set $JOINSTYLE;
+	*	see {@link Pen#setLineJoinType}.
+	*/
+	public int getLineJoin()
+	{	return lineJoin;	}
+
+	/** Returns true if there is include data to be added to the SVGs. */
+	public boolean isInclude()
+	{	return includeFileData != null;	}
+
+	/** Returns the data read from the include file(s). */
+	public String getIncludeFileData()
+	{	return includeFileData;	}
+
+	/** Returns true if the named layer was registered for collaborative processing.
+	*	@see DxfPreprocessor#isCollaboratorTarget
+	*/
+	public boolean isCollaboratorTarget(String name)
+	{
+		return lookup(collaboratorTable, name);
+	}
+
+	/** Returns true if the named layer was registered for wire gang treatment.
+	*	@see DxfPreprocessor#isGangingTarget
+	*/
+	public boolean isGangingTarget(String name)
+	{
+		return lookup(gangTable, name);
+	}
+
+	// Returns the Boolean value stored for name in the table or false if none.
+	private static boolean lookup(Hashtable table, String name)
+	{
+		if (name == null || name.equals(""))
+			return false;
+
+		Boolean value = (Boolean)table.get(name);
+		if (value == null)
+			return false;
+
+		return value.booleanValue();
+	}
+}
@@ -0,0 +1,295 @@
+/****************************************************************************
+**
+**	FileName:	ConversionWorkerPool.java
+**
+**	Project:	Dxf2Svg
+**
+**	Purpose:	Converts a list of DXF files concurrently on a fixed number of
+**				worker threads while keeping the console report in file order.
+**
+**	Date:		October 17, 2026
+**
+**	Author:		Andrew Nisbet
+**
+**	Environment:Java(TM) 2 Runtime Environment, Standard Edition
+**				(build 1.5.0)
+**
+**	Version:	1.00 - October 17, 2026
+**				1.01 - October 17, 2026 Events a worker logs are held with its
+**				report too, so the event log is in file order.
+**
+**	TODO:
+**
+*****************************************************************************/
+
+package dxf2svg;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;	// ExecutorService and Futures.
+import dxf2svg.sally.*;
+
+/**	This class runs the DxfConverters for a batch of files on a pool of
+*	worker threads. Each DxfConverter is its own conversion context so the
+*	only thing the workers really fight over is the console. To keep the
+*	report readable, everything a worker prints to <code>System.out</code>
+*	or <code>System.err</code> is held in a buffer for that file and written
+*	out, with the usual '<code>file n of m</code>' progress line, in the same
+*	order the files would have been converted serially. Events a worker logs
+*	with {@link DxfPreprocessor#logEvent} are held in the same way, where they
+*	fall in the report, so the event log is in that order too.
+*	<P>
+*	If a conversion throws, the reports of the files before it and the failed
+*	file's own report are written, the remaining conversions are cancelled and
+*	the exception is re-thrown just as it would have been in a serial run.
+*
+*	@version 	1.01 - October 17, 2026
+*	@author		Andrew Nisbet
+*/
+final class ConversionWorkerPool
+{
+	private ConversionSettings settings;// Switch settings shared by every file.
+	private SvgAnimationLanguage sal;	// May be null if there was no config file.
+	private int workers;				// Number of threads requested by the user.
+	private PrintStream stdOut;			// Original System.out
+	private PrintStream stdErr;			// Original System.err
+	// Conversion the current worker thread is writing its report for, if any.
+	private final static ThreadLocal reportBuffer = new ThreadLocal();
+
+	/** Creates a pool with the requested number of worker threads.
+	*	@param settings switch settings for all the conversions.
+	*	@param sal SvgAnimationLanguage reference or null if there isn't one.
+	*	@param workers number of conversions allowed to run at once.
+	*/
+	public ConversionWorkerPool(ConversionSettings settings, SvgAnimationLanguage sal, int workers)
+	{
+		this.settings = settings;
+		this.sal = sal;
+		this.workers = (workers < 1) ? 1 : workers;
+	}
+
+	/** Converts all the files on the argument list. Returns when every file
+	*	has been converted and its report written.
+	*	@param fileList Vector of path names of DXF files as Strings.
+	*/
+	public void convert(Vector fileList)
+	{
+		int size = fileList.size();
+		int poolSize = Math.min(workers, size);
+		System.out.println("DxfPreprocessor: converting on "+poolSize+" worker threads.");
+
+		stdOut = System.out;
+		stdErr = System.err;
+		System.setOut(new PrintStream(new ReportRouter(stdOut), true));
+		System.setErr(new PrintStream(new ReportRouter(stdErr), true));
+
+		ExecutorService pool = Executors.newFixedThreadPool(poolSize);
+		try
+		{
+			Vector tasks = new Vector(size);
+			Vector futures = new Vector(size);
+			for (int i = 0; i < size; i++)
+			{
+				ConversionTask task = new ConversionTask((String)fileList.get(i));
+				tasks.add(task);
+				futures.add(pool.submit(task));
+			}
+
+			// Now collect the results in the order that they were submitted.
+			for (int i = 0; i < size; i++)
+			{
+				ConversionTask task = (ConversionTask)tasks.get(i);
+				waitFor((Future)futures.get(i));
+				stdOut.println("========\nfile " + (i + 1) + " of " + size);
+				stdOut.flush();
+				task.writeReport();
+				if (task.failure != null)
+				{
+					pool.shutdownNow();
+					if (task.failure instanceof Error)
+						throw (Error)task.failure;
+					throw (RuntimeException)task.failure;
+				}
+			}
+		}
+		finally
+		{
+			pool.shutdown();
+			System.setOut(stdOut);
+			System.setErr(stdErr);
+		}
+	}
+
+	/** Holds an event for the event log in the report of the conversion running
+	*	on the current thread. Returns false, and does nothing, if the current
+	*	thread isn't a worker.
+	*	@param fileName name of the file where the event occured.
+	*	@param eventString a brief description of the problem.
+	*/
+	static boolean holdEvent(String fileName, String eventString)
+	{
+		ConversionTask task = (ConversionTask)reportBuffer.get();
+		if (task == null)
+			return false;
+		task.holdEvent(fileName, eventString);
+		return true;
+	}
+
+	// Waits for the conversion to finish one way or the other.
+	private void waitFor(Future future)
+	{
+		try
+		{
+			future.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("ConversionWorkerPool error: interrupted while waiting "+
+				"for conversions to complete.");
+		}
+		catch (ExecutionException e)
+		{
+			// Can't happen because ConversionTask traps its own exceptions but
+			// if it does we want to know about it.
+			throw new RuntimeException("ConversionWorkerPool error: "+e.getCause());
+		}
+	}
+
+
+
+
+	/////////////////////////////// Inner classes ////////////////////////////////
+	/** A single file's conversion and the report it produced.
+	*/
+	private final class ConversionTask implements Runnable
+	{
+		private String path;						// file to convert.
+		private Vector report;						// Chunks of output and events in the order made.
+		private PrintStream lastConsole;			// Console the last chunk is bound for.
+		private Throwable failure;					// Uncaught exception from the conversion.
+
+		protected ConversionTask(String path)
+		{
+			this.path = path;
+			report = new Vector();
+		}
+
+		public void run()
+		{
+			reportBuffer.set(this);
+			try
+			{
+				// The serial conversion does this with DxfPreprocessor.setFileName()
+				// but that would change the file name for every other worker too.
+				String canonicalPath;
+				try
+				{
+					canonicalPath = new File(path).getCanonicalPath();
+				}
+				catch (IOException e)
+				{
+					System.err.println("ConversionWorkerPool error: ");
+					System.err.println(e);
+					return;
+				}
+
+				new DxfConverter(settings, sal, canonicalPath);
+			}
+			catch (RuntimeException e)
+			{
+				failure = e;
+			}
+			catch (Error e)
+			{
+				failure = e;
+			}
+			finally
+			{
+				System.out.flush();
+				System.err.flush();
+				reportBuffer.set(null);
+			}
+		}
+
+		// Returns the buffer to collect output bound for the argument console. A new
+		// chunk is started each time the conversion switches between out and err so
+		// the two streams are interleaved just as they would have been.
+		protected OutputStream getBuffer(PrintStream console)
+		{
+			if (console != lastConsole)
+			{
+				lastConsole = console;
+				report.add(console);
+				report.add(new ByteArrayOutputStream());
+			}
+			return (OutputStream)report.lastElement();
+		}
+
+		// Adds an event for the event log to the report, as a file name and event pair.
+		protected void holdEvent(String fileName, String eventString)
+		{
+			lastConsole = null;
+			report.add(fileName);
+			report.add(eventString);
+		}
+
+		// Writes the report collected during the conversion to the real console
+		// and its events to the event log.
+		protected void writeReport()
+		{
+			for (int i = 0; i < report.size(); i += 2)
+			{
+				if (! (report.get(i) instanceof PrintStream))
+				{
+					DxfPreprocessor.logEvent((String)report.get(i), (String)report.get(i + 1));
+					continue;
+				}
+				PrintStream console = (PrintStream)report.get(i);
+				ByteArrayOutputStream chunk = (ByteArrayOutputStream)report.get(i + 1);
+				console.write(chunk.toByteArray(), 0, chunk.size());
+				console.flush();
+			}
+		}
+	}
+
+
+
+	/** Sends console output to the report buffer of the conversion running on
+	*	the current thread, or straight through to the console if the current
+	*	thread isn't a worker.
+	*/
+	private final class ReportRouter extends OutputStream
+	{
+		private PrintStream console;
+
+		protected ReportRouter(PrintStream console)
+		{
+			this.console = console;
+		}
+
+		public void write(int b) throws IOException
+		{
+			getTarget().write(b);
+		}
+
+		public void write(byte[] b, int off, int len) throws IOException
+		{
+			getTarget().write(b, off, len);
+		}
+
+		public void flush()
+		{
+			if (reportBuffer.get() == null)
+				console.flush();
+		}
+
+		private OutputStream getTarget()
+		{
+			ConversionTask task = (ConversionTask)reportBuffer.get();
+			if (task == null)
+				return console;
+			return task.getBuffer(console);
+		}
+	}
+}
@@ -23,6 +23,26 @@
 **				be called repeatedly.
 **				1.2 - May 18, 2005 Removed boardno_wrapper_names switch.
 **				1.21 - August 28, 2005 Added new switch to swap .svgz links for .html wrappers.
+**				1.22 - October 17, 2026 Added '-threads' switch to convert a batch of
+**				files concurrently. Minimum Java version is now 1.5.
+**				1.23 - October 17, 2026 Added '-stream_layers' switch.
+**				1.24 - October 17, 2026 Added '-z_level' and '-z_buffer' switches.
+**				1.25 - October 17, 2026 Added '-z_threads' switch.
+**				1.26 - October 17, 2026 Added '-font_file_metrics' switch.
+**				1.27 - October 17, 2026 Added '-incremental' switch.
+**				1.28 - October 17, 2026 Added '-watch' switch.
+**				1.29 - October 17, 2026 Added '-serve' and '-serve_queue' switches.
+**				1.30 - October 17, 2026 Added '-symbol_library' switch.
+**				1.31 - October 17, 2026 Added '-block_cache' switch.
+**				1.32 - October 17, 2026 '-z_threads' above 1 exits with a message
+**				on Java older than 1.7.
+**				1.33 - October 17, 2026 '-watch' exits with a message on Java
+**				older than 1.7.
+**				1.34 - October 17, 2026 '-serve' exits with a message on Java
+**				older than 1.6.
+**				1.35 - October 17, 2026 '-symbol_library' exits with a message on
+**				Java older than 1.7.
+**				1.36 - October 17, 2026 '-symbol_library' runs on any Java again.
 **
 **	TODO:		Add GUI
 **
@@ -82,7 +102,7 @@ public final class Dxf2Svg
 	////////////////////////////////////////////////////////////////////////////////////////
 	public Dxf2Svg(String[] commandArgs)
 	{
-		MINIMUM_VERSION = 1.4;
+		MINIMUM_VERSION = 1.5;
 		// Test if the user has got the correct version of Java.
 		if (isValidJavaVersion(MINIMUM_VERSION) == false)
 		{
@@ -197,6 +217,31 @@ public final class Dxf2Svg
 				{
 					pprocessor.setRecursiveMode(true);
 				}
+				else if (ThisArg.equals("-threads"))
+				{
+					String tmp = args[++i];
+					if (tmp.startsWith("-"))
+					{
+						// if user entered another switch
+						throw new IncompleteSwitchSettingException(ThisArg, "<number of threads>");
+					}
+					try
+					{
+						int threads = Integer.parseInt(tmp);
+						if (threads < 1)
+						{
+							System.err.println(Dxf2SvgConstants.APPLICATION+" warning: threads argument out of range, reset to 1.");
+							threads = 1;
+						}
+						pprocessor.setWorkerThreads(threads);
+					}
+					catch (NumberFormatException e)
+					{
+						System.err.print(Dxf2SvgConstants.APPLICATION+" warning: threads argument must be an integer.");
+						System.err.println(" Converting one file at a time.");
+						pprocessor.setWorkerThreads(1);
+					}
+				}
 				///////// Screen Resolution ///////////
 				else if (ThisArg.equals("-s"))
 				{
@@ -313,6 +358,78 @@ public final class Dxf2Svg
 				{
 					pprocessor.setZip(true);
 				}
+				else if (ThisArg.equals("-z_level"))
+				{
+					String tmp = args[++i];
+					if (tmp.startsWith("-"))
+					{
+						// if user entered another switch
+						throw new IncompleteSwitchSettingException(ThisArg, "<0-9>");
+					}
+					try
+					{
+						int level = Integer.parseInt(tmp);
+						if (level < 0 || level > 9)
+						{
+							System.err.println(Dxf2SvgConstants.APPLICATION+" warning: z_level argument out of range, using the default.");
+							level = java.util.zip.Deflater.DEFAULT_COMPRESSION;
+						}
+						pprocessor.setZipLevel(level);
+					}
+					catch (NumberFormatException e)
+					{
+						System.err.println(Dxf2SvgConstants.APPLICATION+" warning: z_level argument must be an integer, using the default.");
+					}
+				}
+				else if (ThisArg.equals("-z_buffer"))
+				{
+					String tmp = args[++i];
+					if (tmp.startsWith("-"))
+					{
+						// if user entered another switch
+						throw new IncompleteSwitchSettingException(ThisArg, "<bytes>");
+					}
+					try
+					{
+						int size = Integer.parseInt(tmp);
+						if (size < 512)
+						{
+							System.err.println(Dxf2SvgConstants.APPLICATION+" warning: z_buffer argument too small, reset to 512.");
+							size = 512;
+						}
+						pprocessor.setZipBufferSize(size);
+					}
+					catch (NumberFormatException e)
+					{
+						System.err.println(Dxf2SvgConstants.APPLICATION+" warning: z_buffer argument must be an integer, using the default.");
+					}
+				}
+				else if (ThisArg.equals("-z_threads"))
+				{
+					String tmp = args[++i];
+					if (tmp.startsWith("-"))
+					{
+						// if user entered another switch
+						throw new IncompleteSwitchSettingException(ThisArg, "<threads>");
+					}
+					try
+					{
+						int threads = Integer.parseInt(tmp);
+						if (threads < 1)
+						{
+							System.err.println(Dxf2SvgConstants.APPLICATION+" warning: z_threads argument too small, reset to 1.");
+							threads = 1;
+						}
+						// Deflater.SYNC_FLUSH arrived in 1.7.
+						if (threads > 1)
+							requireJavaVersion(ThisArg, 1.7);
+						pprocessor.setZipThreads(threads);
+					}
+					catch (NumberFormatException e)
+					{
+						System.err.println(Dxf2SvgConstants.APPLICATION+" warning: z_threads argument must be an integer, using the default.");
+					}
+				}
 				else if (ThisArg.equals("-c"))
 				{
 					String tmp = args[++i];
@@ -618,6 +735,105 @@ public final class Dxf2Svg
 				{
 					pprocessor.setSwapSvgForHtml(true);
 				}
+				else if (ThisArg.equals("-stream_layers"))
+				{
+					pprocessor.setStreamLayers(true);
+				}
+				else if (ThisArg.equals("-font_file_metrics"))
+				{
+					pprocessor.setFontFileMetrics(true);
+				}
+				else if (ThisArg.equals("-incremental"))
+				{
+					pprocessor.setIncremental(true);
+				}
+				else if (ThisArg.equals("-watch"))
+				{
+					// java.nio.file's WatchService arrived in 1.7.
+					requireJavaVersion(ThisArg, 1.7);
+					pprocessor.setWatch(true);
+				}
+				else if (ThisArg.equals("-serve"))
+				{
+					// The JDK's com.sun.net.httpserver arrived in 1.6.
+					requireJavaVersion(ThisArg, 1.6);
+					String tmp = args[++i];
+					if (tmp.startsWith("-"))
+					{
+						// if user entered another switch
+						throw new IncompleteSwitchSettingException(ThisArg, "<port>");
+					}
+					try
+					{
+						int port = Integer.parseInt(tmp);
+						if (port < 0 || port > 65535)
+						{
+							System.err.println(Dxf2SvgConstants.APPLICATION+" warning: serve port out of range, using any free port.");
+							port = 0;
+						}
+						pprocessor.setServicePort(port);
+					}
+					catch (NumberFormatException e)
+					{
+						System.err.println(Dxf2SvgConstants.APPLICATION+" warning: serve argument must be a port number, the service is off.");
+					}
+				}
+				else if (ThisArg.equals("-serve_queue"))
+				{
+					String tmp = args[++i];
+					if (tmp.startsWith("-"))
+					{
+						// if user entered another switch
+						throw new IncompleteSwitchSettingException(ThisArg, "<length>");
+					}
+					try
+					{
+						int length = Integer.parseInt(tmp);
+						if (length < 0)
+						{
+							System.err.println(Dxf2SvgConstants.APPLICATION+" warning: serve_queue argument too small, reset to 0.");
+							length = 0;
+						}
+						pprocessor.setServiceQueue(length);
+					}
+					catch (NumberFormatException e)
+					{
+						System.err.println(Dxf2SvgConstants.APPLICATION+" warning: serve_queue argument must be an integer, using the default.");
+					}
+				}
+				else if (ThisArg.equals("-symbol_library"))
+				{
+					String tmp = args[++i];
+					if (tmp.startsWith("-"))
+					{
+						// if user entered another switch
+						throw new IncompleteSwitchSettingException(ThisArg, "<fileName>");
+					}
+					pprocessor.setSymbolLibrary(tmp);
+				}
+				else if (ThisArg.equals("-block_cache"))
+				{
+					String tmp = args[++i];
+					if (tmp.startsWith("-"))
+					{
+						// if user entered another switch
+						throw new IncompleteSwitchSettingException(ThisArg, "<megabytes>");
+					}
+					try
+					{
+						int megabytes = Integer.parseInt(tmp);
+						if (megabytes < 0)
+						{
+							System.err.println(Dxf2SvgConstants.APPLICATION+" warning: block_cache argument too small, the cache is off.");
+							megabytes = 0;
+						}
+						pprocessor.setBlockCache(megabytes);
+					}
+					catch (NumberFormatException e)
+					{
+						System.err.println(Dxf2SvgConstants.APPLICATION+" warning: block_cache argument must be an integer, the cache is off.");
+					}
+				}
 				else
 				{
 					System.err.println(Dxf2SvgConstants.APPLICATION+": Ignoring unsupported option: \"" + ThisArg + "\"");
@@ -639,6 +855,10 @@ public final class Dxf2Svg
 						System.err.println("\t[-suppress_default_js][-use_dxf_object_colour]");
 						System.err.println("\t[-inlcude <fileName> ...][-update_db_only]");
 						System.err.println("\t[-collaborate <layer_name>][-swap_svg_link_for_html_link]");
+						System.err.println("\t[-threads n][-stream_layers][-z_level 0-9][-z_buffer bytes]");
+						System.err.println("\t[-z_threads n][-font_file_metrics][-incremental][-watch]");
+						System.err.println("\t[-serve port][-serve_queue n][-symbol_library <fileName>]");
+						System.err.println("\t[-block_cache megabytes]");
 						SeenUsageMsg = true;
 					}  // end if
 				}  // end else
@@ -649,6 +869,8 @@ public final class Dxf2Svg
 			throw new IncompleteSwitchSettingException();
 		}
 
+		// What the files are converted with decides whether '-incremental' converts them again.
+		pprocessor.setConfiguration(isConfigFileConversion ? CONFIG_FILE : null, args);
 		pprocessor.activateProcessor();
 	}	// end constructor
 	
@@ -687,6 +909,7 @@ public final class Dxf2Svg
 		System.out.println("'-h' prints this message.");
 		System.out.println("'-c' coerce all colours to the following arguments value.");
 		System.out.println("'-r' process DXF files in subdirectories.");
+		System.out.println("'-threads' convert 'n' files at a time when converting a directory or file list; default: 1.");
 		System.out.println("'-js' include JavaScripting.");
 		System.out.println("   'foo/bar.js' add SRC attrib with this path to <script>.");
 		System.out.println("   'internal' add tags for user to write in JavaScript code.");
@@ -748,14 +971,36 @@ public final class Dxf2Svg
 		System.out.println("   a single polyline. See documentation for more details.");
 		System.out.println("'-swap_svg_link_for_html_link' changes the link from an svg(z) target");
 		System.out.println("   to an html target of the same name.");
+		System.out.println("'-stream_layers' spools converted entities to a temporary file by layer");
+		System.out.println("   instead of holding the whole drawing in memory. Use for very large drawings.");
+		System.out.println("'-z_level <0-9>' compression level of '-z' files; 1 is fastest, 9 smallest.");
+		System.out.println("   Default is zlib's default level (6).");
+		System.out.println("'-z_buffer <bytes>' size of the buffers used to write '-z' files; default 65536.");
+		System.out.println("'-z_threads <n>' compresses blocks of each '-z' file on n threads at once.");
+		System.out.println("   The file is slightly larger; requires Java 1.7 or later. Default 1.");
+		System.out.println("'-font_file_metrics' measures text with the widths in the font files (.ttf,");
+		System.out.println("   .otf or .afm) in the font directory instead of with AWT. For headless machines.");
+		System.out.println("'-incremental' only converts the DXFs that changed since the last '-incremental'");
+		System.out.println("   run, or whose output is missing. Keeps a manifest beside boardno-control.xml.");
+		System.out.println("'-watch' keeps running after converting and converts each DXF again when it is");
+		System.out.println("   saved. Implies '-incremental'; requires Java 1.7 or later.");
+		System.out.println("'-serve <port>' keeps running after converting and converts DXFs sent to");
+		System.out.println("   http://127.0.0.1:<port>/convert; GET /status reports the queue. '-threads'");
+		System.out.println("   conversions run at once. Requires Java 1.6 or later.");
+		System.out.println("'-serve_queue <n>' conversions '-serve' lets wait before refusing with 503; default 16.");
+		System.out.println("'-symbol_library <fileName>' writes each distinct block of the drawings once to");
+		System.out.println("   the named SVG file and refers to it with <use> instead of declaring the");
+		System.out.println("   blocks in every SVG. Use with '-css external'.");
+		System.out.println("'-block_cache <megabytes>' keeps up to that much of the SVG of converted blocks");
+		System.out.println("   so the same blocks in the other DXFs of the run are not converted again.");
 		System.out.println();
 	}	// end Help()
 
 
 	// This checks for a valid version of Java. It does this by converting the major
 	// and minor number for this machine's JRE and compares it with the minimum Java
-	// version.
-	private boolean isValidJavaVersion(double version)
+	// version. SvgZip uses it too.
+	static boolean isValidJavaVersion(double version)
 	{
 		String jVersion = System.getProperty("java.version");
 		String jVerDouble;
@@ -774,6 +1019,20 @@ public final class Dxf2Svg
 
 
 
+	// Exits if this machine's JRE is older than the version the argument switch
+	// needs. The rest of the conversion only needs MINIMUM_VERSION.
+	private void requireJavaVersion(String arg, double version)
+	{
+		if (isValidJavaVersion(version))
+			return;
+		System.err.println(Dxf2SvgConstants.APPLICATION+" error: '"+arg+"' requires Java version "+
+			version+" or higher; you are running '"+System.getProperty("java.version")+
+			"'. Exiting.");
+		System.exit(-1);
+	}	// end requireJavaVersion()
+
+
+
 	/** Warns that switch denoted by <em>'arg'</em> requires an additional argument which
 	*	was not supplied.
 	*/
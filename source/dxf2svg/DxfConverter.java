@@ -35,6 +35,26 @@
 **				2.0  - April 22, 2005 Radical changes to processing, removed Vector 
 **				processing of DxfElementPair and replaced it with a single fly weight
 **				DxfElementPair.
+**				2.01 - October 17, 2026 Added setUsesLinks() and usesLinks() so the
+**				xlink flag belongs to this conversion and not the whole run.
+**				2.02 - October 17, 2026 Added constructor that takes a ConversionSettings
+**				which is used by every object in this conversion context.
+**				2.03 - October 17, 2026 Added '-stream_layers' which spools entities
+**				by layer with a SvgLayerSpool instead of collecting them in vEntities.
+**				2.04 - October 17, 2026 outputLayersByGroup() sorts the entities onto
+**				their layers in one pass with a Hashtable keyed by getLayerKey().
+**				2.05 - October 17, 2026 collaborate() looks for collaborators with an
+**				EndpointIndex instead of comparing every pair of elements and removes
+**				the chained elements from the layer in one pass.
+**				2.06 - October 17, 2026 DXF objects are kept in a DxfObjectTable
+**				so getImageObjectReference() looks handles up instead of searching.
+**				2.07 - October 17, 2026 addHatchPattern() finds duplicate patterns
+**				and name collisions with a HashMap of pattern keys instead of
+**				comparing every pattern already added.
+**				2.08 - October 17, 2026 Added getSymbolHref() for '-symbol_library'.
+**				2.09 - October 17, 2026 Added getBlockCache() for '-block_cache'.
+**				2.10 - October 17, 2026 Added isConverted().
+**				2.11 - October 17, 2026 Added nextPatternSerialNo().
 **
 **	TODO:
 **
@@ -80,8 +100,8 @@ public final class DxfConverter
 	*/
 
 
-	private static boolean VERBOSE;		// Standard for many classes
-	private static int MAKE_CSS;		// we need this to see if we
+	private boolean VERBOSE;			// Standard for many classes
+	private int MAKE_CSS;				// we need this to see if we
 	// Controls how entity grouping occurs with the svg file.
 	//private int ENTITIES_ON_LAYERS_GROUPED_BY = Dxf2SvgConstants.GROUP;
 		// cut the process short by just outputting the Style Sheet.
@@ -93,19 +113,32 @@ public final class DxfConverter
 	private Vector vLayers;		// A vector of layer groups (and their entities).
 	private Vector vBlocks;		// A Vector for all the blocked entities.
 	/////////////////////// need this here. /////////////////////////
-	private Vector vDxfObjects;	// A Vector returned from the DxfObjectProcessor.
+	private DxfObjectTable dxfObjects;	// Filled by the DxfObjectProcessor.
 	private Vector vPatterns;	// A Vector to hold hatch patterns.
+	private HashMap patternKeys;// Pattern key -> SvgHatchPattern already in vPatterns.
+	private HashSet patternNames;// Names of the patterns in vPatterns.
+	private int patternSerialNo;// Next serial number for renaming a pattern.
 
 	private StyleSheetGenerator SSG;
 	private SvgBuilder svgBuilder;
 	private SvgUtil svgUtilities;
 	private AnimationEngine ae;		// For discribing animation.
 	private SvgAnimationLanguage sal;// animation/automation engine reference.
+	private ConversionSettings settings;	// Switch settings for this conversion.
 	
 	private String currentFileName; // This is required for logging purposes of global objects like
 	// SAL. It has no way of knowing what file is being processed but it can query this object's
 	// getFileName() method to provide a more meaningful message.
 	private String currentFile;		// As above but the entire path of the file.
+	private boolean usesLinks;		// Does this dxf contain hyperlinks?
+	private SvgLayerSpool layerSpool;// Entity spool or null if entities are collected in memory.
+	private SvgSymbolLibrary symbolLibrary;	// Shared blocks or null if they are declared here.
+	private Hashtable symbolIDs;	// Block name -> ID of its symbol in the library.
+	private Hashtable blocksByName;	// Block name -> SvgEntityDeclaration.
+	private String symbolLibraryHref;// Link to the library from this drawing's SVG.
+	private boolean isWritingSymbol;// A block is being written for the library.
+	private BlockCache blockCache;	// Blocks shared with other conversions or null.
+	private boolean isConverted;	// The SVG was written.
 	
 	// Constructors
 	/** The coordination of the production of SVG graphics is done within
@@ -116,7 +149,7 @@ public final class DxfConverter
 	*/
 	public DxfConverter(String path)
 	{
-		init(path);
+		this(new ConversionSettings(), null, path);
 	}
 	
 	/** Takes a reference to the SvgAnimationLanguage as an argument
@@ -125,6 +158,18 @@ public final class DxfConverter
 	*/
 	public DxfConverter(SvgAnimationLanguage sal, String path)
 	{
+		this(new ConversionSettings(), sal, path);
+	}
+	
+	/** Converts the file with the argument settings rather than the current
+	*	settings of the {@link DxfPreprocessor}.
+	*	@param settings switch settings for this conversion.
+	*	@param sal SvgAnimationLanguage reference; may be null.
+	*	@param path fully qualified path of the DXF file.
+	*/
+	public DxfConverter(ConversionSettings settings, SvgAnimationLanguage sal, String path)
+	{
+		this.settings = settings;
 		this.sal = sal;
 		init(path);
 	}
@@ -135,17 +180,49 @@ public final class DxfConverter
 		currentFileName = new File(path).getName();
 		currentFile = path;
 		// Set switches
-		VERBOSE  	= DxfPreprocessor.verboseMode();
-		MAKE_CSS 	= DxfPreprocessor.cssMode();
+		VERBOSE  	= settings.verboseMode();
+		MAKE_CSS 	= settings.cssMode();
 
 
 
-		vDxfObjects = new Vector();
+		symbolLibrary = DxfPreprocessor.getSymbolLibrary();
+		blockCache = DxfPreprocessor.getBlockCache();
+		if (blockCache != null)
+		{
+			// Blocks from the cache are SVG text, which can't be searched or modified.
+			String reason = getWholeDrawingUse();
+			if (reason != null)
+			{
+				System.out.println("DxfConverter: '-block_cache' ignored for this file; "+reason+".");
+				blockCache = null;
+			}
+		}
+		dxfObjects  = new DxfObjectTable();
 		vEntities   = new Vector();
 		vBlocks     = new Vector();
+		if (settings.streamLayers() && canStreamLayers())
+		{
+			layerSpool = new SvgLayerSpool(this);
+		}
+		try
+		{
+			convert(path);
+		}
+		finally
+		{
+			if (layerSpool != null)
+			{
+				layerSpool.close();
+			}
+		}
+	}
+	
+	// Parses the DXF and writes the SVG.
+	private void convert(String path)
+	{
 		ProcessorManager processorManager = new ProcessorManager( 
 			this, 
-			vDxfObjects, 
+			dxfObjects, 
 			vEntities, 
 			vBlocks
 		);
@@ -167,6 +244,13 @@ public final class DxfConverter
 			return;
 		}
 		
+		// The <use>s of the library symbols need the xlink namespace, which is
+		// declared before the INSERTs are written.
+		if (symbolLibrary != null && vBlocks.size() > 0)
+		{
+			usesLinks = true;
+		}
+		
 		
 		
 		// This object is responsible for the output of the elements to
@@ -197,17 +281,17 @@ public final class DxfConverter
 		if ( currentFileName.startsWith( "w" ) || currentFileName.startsWith( "W" ) )
 		{
 			System.out.println( "searching wiring diagram for cross links..." );
-			new CrossSheetWireIDs( this, vLayers );
+			new CrossSheetWireIDs( this, getLayerGroups() );
 			System.out.println( "...done." );
 		}
 		
 		//////// Search for part numbers (if necessary). ////////
-		if ( DxfPreprocessor.isPartsListFigure() )
+		if ( settings.isPartsListFigure() )
 		{
 			if ( currentFileName.startsWith( "f" ) || currentFileName.startsWith( "F" ) )
 			{
 				System.out.println( "searching figure for part numbers..." );
-				new PartNumberLinks( vLayers, this );
+				new PartNumberLinks( getLayerGroups(), this );
 				System.out.println( "...done." );
 			}
 		}		
@@ -251,6 +335,7 @@ public final class DxfConverter
 		try
 		{
 			svgBuilder.writeSvgObjectsToFile(vLayers);
+			isConverted = true;
 		}
 		catch (IOException e)
 		{
@@ -259,7 +344,114 @@ public final class DxfConverter
 			System.err.println(e.getStackTrace());
 		}
 
-	} // end of the constructor.
+	} // end of convert().
+	
+	
+	// Entities can only be spooled if nothing needs to search or modify the elements
+	// of the whole drawing once they are collected.
+	private boolean canStreamLayers()
+	{
+		String reason = getWholeDrawingUse();
+		if (reason == null)
+		{
+			return true;
+		}
+		
+		System.out.println("DxfConverter: '-stream_layers' ignored for this file; "+reason+".");
+		return false;
+	}
+	
+	// Returns why the elements of the whole drawing have to be searched or modified
+	// once they are collected, or null if they don't.
+	private String getWholeDrawingUse()
+	{
+		if (sal != null && sal.hasModifiedAttributes())
+		{
+			return "the config file modifies element attributes";
+		}
+		else if (settings.useHTMLWrappers() && DxfPreprocessor.getLibraryCatalog() != null)
+		{
+			return "the HTML wrappers search the drawing for its NDID";
+		}
+		return null;
+	}
+	
+	/** Returns the cache of blocks shared with the other conversions, or null
+	*	if this conversion's blocks are not cached. See the '-block_cache' switch.
+	*/
+	public BlockCache getBlockCache()
+	{
+		return blockCache;
+	}
+	
+	/** Returns the spool that entities are written to, or null if entities are 
+	*	collected in memory. See the '-stream_layers' switch.
+	*/
+	public SvgLayerSpool getLayerSpool()
+	{
+		return layerSpool;
+	}
+	
+	// Returns true if the elements of the named layer have to be kept as objects
+	// until output because they are collaborated, animated or searched for wire
+	// ids or part numbers. Used by the SvgLayerSpool.
+	boolean needsLayerObjects(String layerName)
+	{
+		if (settings.isCollaboratorTarget(layerName))
+		{
+			return true;
+		}
+		
+		// See CrossSheetWireIDs and PartNumberLinks for the layers they search.
+		if ( currentFileName.startsWith( "w" ) || currentFileName.startsWith( "W" ) )
+		{
+			if (layerName.equals("t") || layerName.equals("english") || layerName.equals("gang"))
+			{
+				return true;
+			}
+		}
+		if ( settings.isPartsListFigure() && layerName.equals("t") &&
+			( currentFileName.startsWith( "f" ) || currentFileName.startsWith( "F" ) ) )
+		{
+			return true;
+		}
+		
+		if (DxfPreprocessor.getAnimationEngine() != null)
+		{
+			// Without the SAL to ask we have to assume there is animation.
+			if (sal == null)
+			{
+				return true;
+			}
+			
+			Vector vAnim = sal.getAnimation(layerName);
+			if (vAnim != null && vAnim.size() > 0)
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	// Returns the layers that are SvgLayerGroups; spooled layers can't be searched.
+	private Vector getLayerGroups()
+	{
+		if (layerSpool == null)
+		{
+			return vLayers;
+		}
+		
+		Vector layerGroups = new Vector();
+		for (int i = 0; i < vLayers.size(); i++)
+		{
+			if (vLayers.get(i) instanceof SvgLayerGroup)
+			{
+				layerGroups.add(vLayers.get(i));
+			}
+		}
+		return layerGroups;
+	}
 	
 
 	/** Used by the {@link dxf2svg.util.ProcessorManager} to set the SvgUtil object
@@ -302,6 +494,120 @@ public final class DxfConverter
 		return currentFile;
 	}
 	
+	/** Returns the switch settings of this conversion context.
+	*/
+	public ConversionSettings getSettings()
+	{
+		return settings;
+	}
+	
+	/** This method is used by internal processes to allow the inclusion of xlink namespace
+	*	if there happens to be a hyperlink in the dxf file being converted.
+	*/
+	public void setUsesLinks(boolean b)
+	{
+		usesLinks = b;
+	}
+	
+	/** Returns true if the conversion wrote the SVG; false if the DXF couldn't be
+	*	read or the SVG couldn't be written.
+	*/
+	public boolean isConverted()
+	{
+		return isConverted;
+	}
+	
+	/** Returns the flag if the dxf contained a hyper link. Used to determine if the 
+	*	xlink namespace needs to be included as an entity in the &lt;svg&gt; tag.
+	*/
+	public boolean usesLinks()
+	{
+		return usesLinks;
+	}
+	
+	/** Returns true if the blocks of this drawing are written to the shared
+	*	symbol library instead of being declared as entities in its SVG.
+	*	@see SvgSymbolLibrary
+	*/
+	public boolean usesSymbolLibrary()
+	{
+		return symbolLibrary != null;
+	}
+	
+	/** Returns the link an INSERT of the named block uses to refer to the
+	*	block's symbol in the shared symbol library, or null if blocks are
+	*	declared as entities. The block is added to the library the first time
+	*	it is asked for; blocks that are never inserted aren't added. Within a
+	*	block being added the link is to the library itself.
+	*	@param blockName name of the block, as an SVG ID.
+	*/
+	public String getSymbolHref(String blockName)
+	{
+		if (symbolLibrary == null)
+		{
+			return null;
+		}
+		String id = getSymbolID(blockName);
+		if (isWritingSymbol)
+		{
+			return "#" + id;
+		}
+		if (symbolLibraryHref == null)
+		{
+			symbolLibraryHref = symbolLibrary.getHref(
+				new File(currentFile).getAbsoluteFile().getParentFile());
+		}
+		return symbolLibraryHref + "#" + id;
+	}
+	
+	// Returns the ID of the block's symbol, adding the block to the library
+	// first if this is the first time it was asked for.
+	private String getSymbolID(String blockName)
+	{
+		if (symbolIDs == null)
+		{
+			symbolIDs = new Hashtable();
+			// The blocks section has been read by the time anything is inserted.
+			blocksByName = new Hashtable();
+			for (int i = 0; i < vBlocks.size(); i++)
+			{
+				SvgEntityDeclaration block = (SvgEntityDeclaration)vBlocks.get(i);
+				blocksByName.put(block.getObjIDUU(), block);
+			}
+		}
+		String id = (String)symbolIDs.get(blockName);
+		if (id != null)
+		{
+			return id;
+		}
+		SvgEntityDeclaration block = (SvgEntityDeclaration)blocksByName.get(blockName);
+		if (block == null)
+		{
+			// An empty or missing block; there is nothing to refer to either way.
+			return blockName;
+		}
+		// Blocks can't contain themselves, but don't loop if one does.
+		symbolIDs.put(blockName, blockName);
+		StringBuffer content = new StringBuffer();
+		boolean wasWritingSymbol = isWritingSymbol;
+		isWritingSymbol = true;
+		try
+		{
+			block.writeTo(content, null);
+		}
+		catch (IOException e)
+		{
+			// A StringBuffer doesn't throw.
+		}
+		finally
+		{
+			isWritingSymbol = wasWritingSymbol;
+		}
+		id = symbolLibrary.addSymbol(blockName, content.toString());
+		symbolIDs.put(blockName, id);
+		return id;
+	}
+	
 	/** This method will apply any and all javascript to simplify operations within
 	*	{@link dxf2svg.SvgBuilder} and remove hard coded javascript that may become
 	*	outdated or need modification.
@@ -311,11 +617,11 @@ public final class DxfConverter
 		//////////////////// Handle Notes ////////////////////
 		// Here we signal any SvgNoteManager Object that we are ready for notes if there
 		// are any.
-		if (DxfPreprocessor.takeNotes() == true)
+		if (settings.takeNotes() == true)
 		{
 			// This is a call back function that returns notes for the current file 
 			// to be converted.
-			DxfPreprocessor.getNotes(svgBuilder);
+			DxfPreprocessor.getNotes(svgBuilder, currentFile);
 		}
 		
 		//////////////////// Handle Language (if required) ///////////////////////////
@@ -323,7 +629,7 @@ public final class DxfConverter
 		// set then we have to include it now and then look for a file that may contain
 		// some scripts... like JS_SRC_PATH, for example.
 		if (SSG.isLangSwitchRequired() == true && 
-			DxfPreprocessor.suppressBoilerPlateJavaScript() == false)
+			settings.suppressBoilerPlateJavaScript() == false)
 		{
 			svgBuilder.addJavaScript(getSwitchLanguageScripts());
 			// We also now control the Attribute for <SVG> onload and these 
@@ -395,75 +701,81 @@ public final class DxfConverter
 	*	patterns are searched for to optimize the database of patterns,
 	*	and patterns that have the same name but different data are
 	*	renamed to avoid name conflicts in the SVG file.
+	*	<P>
+	*	Patterns are looked up by their {@link SvgHatchPattern#getPatternKey}
+	*	so a drawing with thousands of hatches doesn't compare each one with
+	*	every pattern before it. A hatch whose pattern is already defined, even
+	*	under a synchronized name, is pointed at that definition.
 	*/
 	public void addHatchPattern(SvgHatch hatch, SvgHatchPattern pattern)
 	{
 		if (vPatterns == null)
 		{
 			vPatterns = new Vector();
-			//vPatterns.add(pattern);
+			patternKeys = new HashMap();
+			patternNames = new HashSet();
 		}
 
-		int size = vPatterns.size();
-
-		for (int i = 0; i < size; i++)
+		// Take the key before the pattern can be renamed.
+		String key = pattern.getPatternKey();
+		SvgHatchPattern testHP = (SvgHatchPattern)patternKeys.get(key);
+		if (testHP != null)
 		{
-			// If there is an entry in the patterns database that matches
-			// the argument pattern...
-			SvgHatchPattern testHP = (SvgHatchPattern)vPatterns.get(i);
-			if (testHP.equals(pattern))
-				return;		// ... don't add it to the database.
+			// Don't add it to the database but make sure the hatch uses
+			// the name the existing pattern was given.
+			if (! testHP.getObjIDUU().equals(pattern.getObjIDUU()))
+				hatch.setPatternName(testHP.getObjIDUU());
+			return;
+		}
 
-			// To get here you have to be unequal hatchpatterns.
-			// but you could still have a pattern name that is the same
-			// so check for similarity of names and change them if need be.
-			//
-			// data within the pattern is not duplicated in the database
-			// so check to see if the names are the same; if so this
-			// pattern has to have a unique name AND it's associated hatch
-			// has to be updated or 'synchronized' to the pattern name.
-			if (testHP.getObjIDUU().equals(pattern.getObjIDUU()))
-			{
-				String newName = pattern.getSychronizedPatternName();
-				hatch.setPatternName(newName);
-			}
+		// Data within the pattern is not duplicated in the database but the
+		// name could be, so this pattern has to have a unique name AND its
+		// associated hatch has to be updated or 'synchronized' to it.
+		while (patternNames.contains(pattern.getObjIDUU()))
+		{
+			String newName = pattern.getSychronizedPatternName();
+			hatch.setPatternName(newName);
 		}
 
+		patternKeys.put(key, pattern);
+		patternNames.add(pattern.getObjIDUU());
 		vPatterns.add(pattern);
 	}
 
+	/** Returns the next serial number for renaming a hatch pattern whose name is
+	*	already taken in this drawing; see {@link SvgHatchPattern#getSychronizedPatternName}.
+	*/
+	public int nextPatternSerialNo()
+	{
+		return patternSerialNo++;
+	}
+	
 	/** Used by SvgImage to get a reference to its specific image handle (dxf hex code handle).
 	*	The handle is used by the SvgImage to locate individual images (if there are more than
 	*	one) so that it can base64 encode the image into the SVG.
 	*/
-	public synchronized DxfImageObjectReference getImageObjectReference(String imageHandle)
+	public DxfImageObjectReference getImageObjectReference(String imageHandle)
 	{	
-		
-		if (vDxfObjects == null)
-		{
-			System.err.println("DxfConverter: vDxfObjects is null.");
-			System.exit(-1);
-		}
-		Iterator dxfObjIt = vDxfObjects.iterator();
-		while (dxfObjIt.hasNext())
+		Object o = getDxfObject(imageHandle);
+		if (o instanceof DxfImageObjectReference)
 		{
-			Object o = dxfObjIt.next();
-			if (! (o instanceof DxfImageObjectReference))
-			{
-				continue;
-			}
-			
-			String currHandle = ((DxfImageObjectReference)o).getHardReference();
-			if (currHandle.equalsIgnoreCase(imageHandle))
-			{
-				return (DxfImageObjectReference)o;
-			}	
+			return (DxfImageObjectReference)o;
 		}
 		System.err.println( "DxfConverter: Found no image with handle '"+imageHandle+"'." );
 		DxfPreprocessor.logEvent("DxfConverter","Found no image with handle '"+imageHandle+"'.");
 		
 		return null;
 	}
+	
+	/** Returns the object from the DXF's OBJECTS section with the argument hex
+	*	handle, or null if there isn't one. Only the types of object the
+	*	DxfObjectProcessor collects can be found.
+	*	@see DxfObjectTable
+	*/
+	public Object getDxfObject(String handle)
+	{
+		return dxfObjects.get(handle);
+	}
 
 
 
@@ -603,9 +915,11 @@ public final class DxfConverter
 		vLayers = new Vector();
 		Vector layerNames = getLayerList();
 		String thisLayerName;
-		String objectLayerName;
 		// Make an AnimationEngine 
 		ae = DxfPreprocessor.getAnimationEngine();
+		// Sort the entities onto their layers in one pass rather than looking
+		// through all of them for every layer.
+		Hashtable layerBuckets = bucketEntitiesByLayer();
 
 		for (int i = 0; i < layerNames.size(); i++)
 		{
@@ -616,49 +930,58 @@ public final class DxfConverter
 			// set the SvgGroup's class.
 			myLayer.setClass(thisLayerName);
 
-			// cycle through the list of entities and
-			// grab the ones whose layers match.
-			for (int j = 0; j < vEntities.size(); j++)
+			// If the entities were spooled, SvgBuilder copies them from the spool.
+			// Layers that collaborate or have animation are still held in memory.
+			Vector layerEntities = (Vector)layerBuckets.get(getLayerKey(thisLayerName));
+			if (layerSpool != null)
 			{
-				SvgElement tmpSvgObj = (SvgElement)vEntities.get(j);
-				if (tmpSvgObj.isSuppressed())
+				if (layerSpool.isSpooled(thisLayerName))
 				{
+					SvgLayerSpool.SpooledLayer spooledLayer = layerSpool.getSpooledLayer(myLayer);
+					if (spooledLayer != null)
+					{
+						vLayers.add(spooledLayer);
+					}
 					continue;
 				}
-				
-				objectLayerName = tmpSvgObj.getLayer();
-				// Our group has taken the name of the ith String on the
-				// LayerNames. Compare the two to see if they are the
-				// same, if they are then the add the entity to the
-				// group and remove it from the vEntities Vector.
-				if (objectLayerName.equalsIgnoreCase(thisLayerName))
+				layerEntities = layerSpool.getHeldElements(thisLayerName);
+			}
+
+			if (layerEntities != null)
+			{
+				// This is to fix a bug where a png is 
+				// over-writing text on the same layer
+				// cause it just happens to be written
+				// that way in the dxf. This controls 
+				// so text is placed on the end of the 
+				// layer and all others placed at the front
+				// of the layer. The by-product of this 
+				// is that all other objects will be output
+				// on their layer in the reverse order 
+				// of how they are on the layer in the
+				// dxf. This doesn't matter unless you
+				// get a png infront of your text.
+				// So first the graphics, last one first...
+				for (int j = layerEntities.size() - 1; j >= 0; j--)
 				{
-					// put the entity in the group
-					
-					tmpSvgObj.setIncludeClassAttribute(false);
-					// This is to fix a bug where a png is 
-					// over-writing text on the same layer
-					// cause it just happens to be written
-					// that way in the dxf. This controls 
-					// so text is placed on the end of the 
-					// layer and all others placed at the front
-					// of the layer. The by-product of this 
-					// is that all other objects will be output
-					// on their layer in the reverse order 
-					// of how they are on the layer in the
-					// dxf. This doesn't matter unless you
-					// get a png infront of your text.
-					if (tmpSvgObj instanceof SvgText)
+					SvgElement tmpSvgObj = (SvgElement)layerEntities.get(j);
+					if (! (tmpSvgObj instanceof SvgText) && ! tmpSvgObj.isSuppressed())
 					{
+						tmpSvgObj.setIncludeClassAttribute(false);
 						myLayer.addElement(tmpSvgObj);
 					}
-					else
+				}
+				// ...then the text in the order it was read.
+				for (int j = 0; j < layerEntities.size(); j++)
+				{
+					SvgElement tmpSvgObj = (SvgElement)layerEntities.get(j);
+					if (tmpSvgObj instanceof SvgText && ! tmpSvgObj.isSuppressed())
 					{
-						myLayer.addElement(0, tmpSvgObj);
+						tmpSvgObj.setIncludeClassAttribute(false);
+						myLayer.addElement(tmpSvgObj);
 					}
 				}
-
-			}  // end for j = 0
+			}
 			
 			// In the old days we used to rely on AnimationEngine to arrange
 			// for collaborating wire segments into one big polyline like this:
@@ -673,7 +996,7 @@ public final class DxfConverter
 			// 2) It makes more sense that this kind of functionality is controlled
 			// by this object.
 			// 
-			boolean COLLABORATE = DxfPreprocessor.isCollaboratorTarget(thisLayerName);
+			boolean COLLABORATE = settings.isCollaboratorTarget(thisLayerName);
 			if (COLLABORATE)
 			{
 				collaborate(myLayer);
@@ -704,6 +1027,44 @@ public final class DxfConverter
 			}
 		}  // end for i = 0
 	} // end of putEntitiesOnlyLayers()
+	
+	
+	// Returns a Hashtable of the entities keyed by getLayerKey() of their layer name.
+	// Each value is a Vector of the layer's entities in the order they were read.
+	private Hashtable bucketEntitiesByLayer()
+	{
+		Hashtable layerBuckets = new Hashtable();
+		for (int i = 0; i < vEntities.size(); i++)
+		{
+			SvgElement tmpSvgObj = (SvgElement)vEntities.get(i);
+			String key = getLayerKey(tmpSvgObj.getLayer());
+			Vector bucket = (Vector)layerBuckets.get(key);
+			if (bucket == null)
+			{
+				bucket = new Vector();
+				layerBuckets.put(key, bucket);
+			}
+			bucket.add(tmpSvgObj);
+		}
+		
+		return layerBuckets;
+	}
+	
+	/** Returns the key that layer names are grouped by. Two layer names have the 
+	*	same key if, and only if, <code>equalsIgnoreCase()</code> says they are
+	*	the same name.
+	*/
+	static String getLayerKey(String layerName)
+	{
+		char[] key = layerName.toCharArray();
+		for (int i = 0; i < key.length; i++)
+		{
+			// This is the last of the comparisons equalsIgnoreCase() makes and it 
+			// is true whenever either of the others are.
+			key[i] = Character.toLowerCase(Character.toUpperCase(key[i]));
+		}
+		return new String(key);
+	}
 
 
 
@@ -796,6 +1157,12 @@ public final class DxfConverter
 		// This will allow us to delete members once we have identified their
 		// correct group more easily.
 		doubleEndedEleGroup.toArray(doubleEndedArray);
+		// The index finds the elements near each end point so we don't have to 
+		// compare each element with every other one on the layer.
+		EndpointIndex endpoints = new EndpointIndex(doubleEndedArray);
+		// Elements chained into aggregates; they are taken off the layer at the end
+		// because removing them one at a time means searching the layer each time.
+		IdentityHashMap chained = new IdentityHashMap();
 		
 		for (int j = 0; j < doubleEndedArray.length; j++)
 		{
@@ -816,7 +1183,7 @@ public final class DxfConverter
 			
 			Vector thisSubGroupsEle = new Vector();
 			thisSubGroupsEle = 
-				findAndChainCollaborators(s1, doubleEndedArray);
+				findAndChainCollaborators(s1, doubleEndedArray, endpoints);
 
 			////////////////////// chain collaborators ///////////////////////////
 			// to chain collaborators you must find the indices of each connected
@@ -843,7 +1210,7 @@ public final class DxfConverter
 					// add the element aggregate.
 					aggregate.add(sde);
 					// remove it from the original group or they will be doubled.
-					svgl.remove(sde);	
+					chained.put(sde, sde);
 				}					
 				// Now add the animation for the SvgLayerSubGroup
 				//aggregate.addAnimation(vAnim);
@@ -854,11 +1221,30 @@ public final class DxfConverter
 			}
 			// go around again for the remainder of the elements on the double ended
 			// element array.
-			if (DxfPreprocessor.verboseMode())
+			if (VERBOSE)
 			{
 				System.out.println("==========================");
 			}
 		}	// end for
+		
+		// Now take the chained elements off the layer. The aggregates were added to 
+		// the end so the order is the same as if they had been removed as we went.
+		if (! chained.isEmpty())
+		{
+			Vector layerElements = svgl.getGroupElementsByReference();
+			Vector keep = new Vector(layerElements.size());
+			for (int i = 0; i < layerElements.size(); i++)
+			{
+				Object o = layerElements.get(i);
+				// Only the first occurance is removed, like remove() does.
+				if (chained.remove(o) == null)
+				{
+					keep.add(o);
+				}
+			}
+			layerElements.clear();
+			layerElements.addAll(keep);
+		}
 	}
 
 
@@ -868,7 +1254,8 @@ public final class DxfConverter
 	private Vector findAndChainCollaborators
 	(
 		SvgDoubleEndedGraphicElement s1,		// First member that initiates search
-		SvgDoubleEndedGraphicElement[] arr		// Array of other double ended elements from layer
+		SvgDoubleEndedGraphicElement[] arr,		// Array of other double ended elements from layer
+		EndpointIndex endpoints					// Index of the end points of arr.
 	)
 	{
 		Stack stack = new Stack();
@@ -879,10 +1266,12 @@ public final class DxfConverter
 		// takes the animation target onto itself.
 		stack.push(s1);
 		// Proceed over the rest of the array looking for other objects that match
-		// start and end points. 
-
-		for (int i = 0; i < arr.length; i++)
+		// start and end points. The index gives us the ones close enough to check,
+		// in array order.
+		int[] candidates = endpoints.getCandidates(s1);
+		for (int c = 0; c < candidates.length; c++)
 		{
+			int i = candidates[c];
 			SvgDoubleEndedGraphicElement s2 = arr[i];
 			// we have to test to see if the element at this index is null
 			// or not
@@ -913,7 +1302,7 @@ public final class DxfConverter
 		}
 		else
 		{
-			chainCollaborators(stack, completeSetOfElements, arr);
+			chainCollaborators(stack, completeSetOfElements, arr, endpoints);
 		}
 		
 		return completeSetOfElements;
@@ -934,15 +1323,18 @@ public final class DxfConverter
 	private void chainCollaborators(
 		Stack s,
 		Vector eles,
-		SvgDoubleEndedGraphicElement[] array)
+		SvgDoubleEndedGraphicElement[] array,
+		EndpointIndex endpoints)
 	{
 		while (! s.empty())
 		{
 			SvgDoubleEndedGraphicElement s1 = (SvgDoubleEndedGraphicElement)s.pop();
 			// s1 is a collaborator so add it to the complete set.
 			eles.add(s1);
-			for (int i = 0; i < array.length; i++)
+			int[] candidates = endpoints.getCandidates(s1);
+			for (int c = 0; c < candidates.length; c++)
 			{
+				int i = candidates[c];
 				SvgDoubleEndedGraphicElement s2 = array[i];
 				// we have to test to see if the element at this index is null
 				// or not
@@ -38,6 +38,37 @@
 **				If you don't it successfully matches legit sentences that start with an NDID.
 **				1.09 - August 28, 2005 Added new switch to swap .svgz links for .html wrappers.
 **				1.10 - October 4, 2005 Added progress reporting "file " + i + " of..."
+**				1.11 - October 17, 2026 Added '-threads' worker pool for converting
+**				batches of files concurrently. Made logEvent() synchronized and
+**				moved the uses-links flag to the DxfConverter.
+**				1.12 - October 17, 2026 Conversions are now handed a ConversionSettings
+**				snapshot of the switches instead of reading them from here.
+**				1.13 - October 17, 2026 extractFigureData() reads each DXF once into a
+**				DxfTextIndex instead of re-reading it for every search.
+**				1.14 - October 17, 2026 Added '-stream_layers' switch.
+**				1.15 - October 17, 2026 Added '-z_level' and '-z_buffer' switches.
+**				1.16 - October 17, 2026 Added '-z_threads' switch.
+**				1.17 - October 17, 2026 Added '-font_file_metrics' switch.
+**				1.18 - October 17, 2026 The library catalog is read and written with
+**				LibraryCatalog.read() and write() instead of Java serialization.
+**				1.19 - October 17, 2026 Added '-incremental' switch and the
+**				ConversionManifest it keeps.
+**				1.20 - October 17, 2026 Added '-watch' switch. activateProcessor() is
+**				split into collectFiles() and convertFiles() so the watcher can reuse them.
+**				1.21 - October 17, 2026 Added '-serve' and '-serve_queue' switches.
+**				1.22 - October 17, 2026 Added '-symbol_library' switch and the
+**				SvgSymbolLibrary it keeps.
+**				1.23 - October 17, 2026 Added '-block_cache' switch and the
+**				BlockCache it keeps.
+**				1.24 - October 17, 2026 logEvent() hands events from conversions on
+**				worker threads to the ConversionWorkerPool so the log is in file order.
+**				1.25 - October 17, 2026 Conversions look colours up through their
+**				ConversionSettings; getColour() no longer turns '-c' off after an
+**				illegal colour and setCoerciveColour() checks its argument. The
+**				switch getters read by conversions are now package-private.
+**				1.26 - October 17, 2026 Cataloguing takes the catalog write lock and
+**				converting takes its read lock, so files the watcher converts don't
+**				rewrite the catalog under the conversion service.
 **
 **	TODO:
 **
@@ -51,6 +82,7 @@ import java.io.*;
 import java.net.URI;		// for validating and normalizing URI if nec.
 import java.util.*;			// for storing default spar layer styles if required.
 import java.util.regex.*;	// regular expression matching in convertToSvgCss()
+import java.util.concurrent.locks.ReentrantReadWriteLock;	// for the catalog.
 import dxf2svg.util.*;		// Utility directory stuff like svgUtil.
 import dxf2svg.sally.*;
 import dxf2svg.animation.*;	// Animation objects from Sally
@@ -61,7 +93,7 @@ import dxf2svg.animation.*;	// Animation objects from Sally
 *	It also creates a master list of files to process through testing
 *	and collecting methods.
 *
-*	@version 	1.10 - October 4, 2005
+*	@version 	1.13 - October 17, 2026
 *	@author		Andrew Nisbet
 */
 public final class DxfPreprocessor
@@ -125,10 +157,13 @@ public final class DxfPreprocessor
 	private static String	FONT_DIRECTORY = null;		// system fonts directory.
 	private static boolean	INCLUDE_FONT_URL = false;	// URL CSS inclusion.
 	private static boolean	IS_ZIPPED = false;			// Zip the Svg file with GZIP.
+	private static int		ZIP_LEVEL = java.util.zip.Deflater.DEFAULT_COMPRESSION;
+	private static int		ZIP_BUFFER_SIZE = 65536;	// Bytes buffered in front of the compressor.
+	private static int		ZIP_THREADS = 1;			// Threads compressing each SVG file.
 	private static boolean	HTML_WRAPPERS = true;		// Wrap SVG files in HTML for printing and
 														// language context switching.
 	private static boolean	SYNC_DATABASE = false;		// Do we keep records of what we convert?
-	private static boolean	USES_LINKS = false;			// does the dxf contain hyperlinks?
+	private static int		WORKER_THREADS = 1;			// number of files converted at once.
 	private static boolean  IS_PARTS_LIST_FIGURE = false;// was the -MY switch used.
 	private static boolean	GENERATE_NOTES = false;		// Search for and apply notes as per SvgNotes contract.
 	private static boolean	UPDATE_DB_ONLY = false;		// Don't run the Svg conversion update db only.
@@ -197,6 +232,8 @@ public final class DxfPreprocessor
 	// This is a database of all the FigureSheetDatabases. It includes all the namespaces or books
 	// that have been converted or are in the current process of being converted.
 	private static LibraryCatalog library;
+	// Written when files are catalogued, read while they are converted.
+	private final static ReentrantReadWriteLock catalogLock = new ReentrantReadWriteLock();
 	// This object manages the searching synchronizing between sheets and mediates with SvgBuilder
 	// to output the required notes to the correct files.
 	private static SvgNoteManager svgNoteManager;
@@ -217,6 +254,20 @@ public final class DxfPreprocessor
 	private static GraphicLinksDatabaseReader gldbReader;
 	private static boolean IS_EXTERNAL_GRAPHIC_LINKS;
 	private static boolean IS_SWAP_SVG_FOR_HTML;
+	private static boolean STREAM_LAYERS = false;	// Spool entities to disk by layer.
+	private static boolean FONT_FILE_METRICS = false;	// Measure text without AWT.
+	private static boolean INCREMENTAL = false;	// Only convert files that changed.
+	private static boolean WATCH = false;		// Keep running and convert files as they change.
+	private static int SERVICE_PORT = -1;		// Port of the HTTP service; -1 for none.
+	private static int SERVICE_QUEUE = 16;		// Conversions the service lets wait.
+	private static SvgSymbolLibrary symbolLibrary;	// Shared blocks; null to declare them in each SVG.
+	private static BlockCache blockCache;		// Converted blocks; null to convert them for each file.
+	private static String configurationHash;	// Of the configuration this process started with.
+	private String dxfSource;					// DXF_FILE as given; conversions change DXF_FILE.
+	private static String configFileName;		// config.d2s used, if any, for the manifest.
+	private static String[] commandArgs;		// Switches used, for the manifest.
+	// Book and figure of each DXF searched by extractFigureData(), by absolute path.
+	private Hashtable sheetFigures = new Hashtable();
 	
 	
 	
@@ -441,6 +492,14 @@ public final class DxfPreprocessor
 		return value.booleanValue();		
 	}
 	
+	// Returns the collaborator table so a ConversionSettings can take a copy. May be null.
+	static Hashtable getCollaboratorTable()
+	{	return collaboratorTable;	}
+	
+	// Returns the gang table so a ConversionSettings can take a copy. May be null.
+	static Hashtable getGangTable()
+	{	return gangTable;	}
+	
 	
 	/** This method is used to retrieve a Pen reference for inclusion into a CustomLayerStyle
 	*	@throws ArrayIndexOutOfBoundsException if the argument pen number is out of range.
@@ -858,6 +917,10 @@ public final class DxfPreprocessor
 	*	Also note that all colours, with the exception of white (255) can be 
 	*	coerced to be represented in any ohter colour with the command switch
 	*	'-c'. See {@link #setCoerciveColour} and '-h' for more information.
+	*	<P>
+	*	Conversions use {@link ConversionSettings#getColour}, which reads '-c' from
+	*	the conversion's settings; this method is for styles written outside of a
+	*	conversion.
 	*
 	*	@param c Colour number as integer.
 	*	@return String Web safe colour equivilant of Acad Colour as 6 hex digits
@@ -865,34 +928,36 @@ public final class DxfPreprocessor
 	*/
 	public final static String getColour(int c)
 	{
-		String test;
 		try
 		{
-			// Here we will coerce all colours but white and any custom colours that
-			// were set when the pens[] array was modified by SALly in readCustomPens().
-			// I have added an additional test for isColourCoercedByLayer() to the end
-			// of this, already complex test, because text objects in blocks, with a layer
-			// of 1 and colour by layer were testing the isCustomPenColour[Math.abs(c)]
-			// which would be true, not false, because the layer was defined in the config.d2s.
-			if (isCoercedColour == true && 
-				(c != 255 && isCustomPenColour[Math.abs(c)] == false) )
-			{
-				test = colourTable[Math.abs(coerciveColour)];
-			}
-			else
-			{
-				test = colourTable[Math.abs(c)];
-			}
+			return lookupColour(c, isCoercedColour, coerciveColour);
 		}
 		catch (ArrayIndexOutOfBoundsException e)
 		{
 			System.err.println("StyleSheetGenerator warning: illegal colour number: "+c+
 			" (possibly out of range), using fushia (220) instead.");
-			test = colourTable[220];
-			isCoercedColour = false;
+			return colourTable[220];
 		}
-
-		return test;
+	}
+	
+	/** Looks up the Web safe colour of an Acad colour number as {@link #getColour}
+	*	does, coercing it to the argument colour if <code>coerce</code> is true.
+	*	@throws ArrayIndexOutOfBoundsException if the colour number is out of range.
+	*/
+	static String lookupColour(int c, boolean coerce, int coerciveColour)
+	{
+		// Here we will coerce all colours but white and any custom colours that
+		// were set when the pens[] array was modified by SALly in readCustomPens().
+		// I have added an additional test for isColourCoercedByLayer() to the end
+		// of this, already complex test, because text objects in blocks, with a layer
+		// of 1 and colour by layer were testing the isCustomPenColour[Math.abs(c)]
+		// which would be true, not false, because the layer was defined in the config.d2s.
+		if (coerce == true && 
+			(c != 255 && isCustomPenColour[Math.abs(c)] == false) )
+		{
+			return colourTable[Math.abs(coerciveColour)];
+		}
+		return colourTable[Math.abs(c)];
 	}
 
 
@@ -986,6 +1051,36 @@ public final class DxfPreprocessor
 
 		}
 
+		dxfSource = DXF_FILE;
+		collectFiles();
+		
+		if (fileList.size() < 1)
+		{
+			System.out.println("DxfPreprocessor: nothing to do.");
+		}
+		else
+		{
+			System.out.println("DxfPreprocessor: processing: "+fileList.size()+" files");
+			convertFiles(fileList);
+		}
+		
+		if (SERVICE_PORT >= 0)
+		{
+			startService();
+		}
+		
+		if (WATCH)
+		{
+			watchForChanges();
+		}
+	} // end of activateProcessor()
+	
+	
+	/** Collects the names of the files to convert from the config file's file list
+	*	or the '-f' file or directory.
+	*/
+	protected void collectFiles()
+	{
 		// Collect all the files from SAL and put onto a list
 		// Steps to preprocessing DXF file(s).
 		fileList = new Vector();
@@ -1008,12 +1103,12 @@ public final class DxfPreprocessor
 		// process them.
 		// Now it happens that if there was a list in the config file there will
 		// not be any file here to test.
-		if (! DXF_FILE.equals(""))
+		if (! dxfSource.equals(""))
 		{
-			if ((FTester.test(false, DXF_FILE) & 16) > 0) // if this is a directory
+			if ((FTester.test(false, dxfSource) & 16) > 0) // if this is a directory
 				// and do it quietly (false).
 			{
-				DL = new DirLister(DXF_FILE);
+				DL = new DirLister(dxfSource);
 				// The default behavior is work recursively but I don't want
 				// to assume that in this environment so we set it to false
 				// and let the user set it to true with the '-r' switch if
@@ -1040,69 +1135,479 @@ public final class DxfPreprocessor
 			}
 			else // 2) If DXF_FILE is a file
 			{
-				if (! testFile(getFileName()))
+				if (! testFile(dxfSource))
 					return;
-				fileList.add(getFileName());
+				fileList.add(dxfSource);
 			}	
 		}
-		
-		if (fileList.size() < 1)
-		{
-			System.out.println("DxfPreprocessor: nothing to do.");
-			return;
-		}
-		else
-		{
-			System.out.println("DxfPreprocessor: processing: "+fileList.size()+" files");
+	}
+	
+	
+	/** Searches and converts the argument files, which must be on the file list.
+	*	With '-incremental' only those of them that have changed, and those that
+	*	depend on them, are searched and converted.
+	*	@param candidates names of the files to convert.
+	*/
+	protected void convertFiles(Vector candidates)
+	{
+		// With '-incremental' only the files that changed since the last run are
+		// searched and converted.
+		Vector convertList = candidates;
+		ConversionManifest manifest = null;
+		File manifestFile = null;
+		String configHash = null;
+		Vector removed = null;
+		if (INCREMENTAL)
+		{
+			manifestFile = getManifestFile();
+			manifest = ConversionManifest.read(manifestFile);
+			// Worked out once; a watcher goes on using the configuration it started with.
+			if (configurationHash == null)
+			{
+				configurationHash = ConversionManifest.hashConfiguration(configFileName,
+					commandArgs, isInclude() ? getIncludeFileData() : null);
+			}
+			configHash = configurationHash;
+			removed = manifest.removeMissingFiles();
+			convertList = manifest.getChangedFiles(candidates, configHash);
+			if (isDatabaseDriven())
+			{
+				addUncataloguedFiles(manifest, convertList);
+			}
+			System.out.println("DxfPreprocessor: "+convertList.size()+" of "+
+				candidates.size()+" files changed since the last conversion");
 		}
-		
-		
 
 		// Create a database of illustration families by presearching for 
 		// relatives.
 		if (isDatabaseDriven()  || takeNotes())
 		{
-			extractFigureData(fileList);
-			if (takeNotes())
+			// The conversion service may be converting files that read the catalog.
+			catalogLock.writeLock().lock();
+			try
 			{
-				if (svgNoteManager == null)
+				extractFigureData(convertList);
+				if (INCREMENTAL)
 				{
-					svgNoteManager = new SvgNoteManager(fileList, library);
+					convertList = addDependentFiles(manifest, convertList, removed);
+				}
+				if (takeNotes())
+				{
+					svgNoteManager = new SvgNoteManager(convertList, library);
 				}
 			}
+			finally
+			{
+				catalogLock.writeLock().unlock();
+			}
 		}
 		
-		// Don't process the files if the user just needed the database updated.
-		if (UPDATE_DB_ONLY == false)
+		long started = System.currentTimeMillis();
+		catalogLock.readLock().lock();
+		try
 		{
-			Iterator it = fileList.iterator();
-			String name;
-			int i = 1;
-			while (it.hasNext())
+			// Don't process the files if the user just needed the database updated.
+			if (UPDATE_DB_ONLY == false && WORKER_THREADS > 1 && convertList.size() > 1)
+			{
+				new ConversionWorkerPool(new ConversionSettings(), sal, WORKER_THREADS).convert(convertList);
+			}
+			else if (UPDATE_DB_ONLY == false)
 			{
-				name = (String)it.next();
-				// do this to set working dir and check pathing.
-				setFileName(name);
-				// report progress.
-				System.out.println("========\nfile " + i + " of " + fileList.size());
-				i++;
-				if (sal != null)
+				// All the files are converted with the same settings.
+				ConversionSettings settings = new ConversionSettings();
+				Iterator it = convertList.iterator();
+				String name;
+				int i = 1;
+				while (it.hasNext())
 				{
-					new DxfConverter(sal, getFileName());
-				}
-				else
+					name = (String)it.next();
+					// do this to set working dir and check pathing.
+					setFileName(name);
+					// report progress.
+					System.out.println("========\nfile " + i + " of " + convertList.size());
+					i++;
+					new DxfConverter(settings, sal, getFileName());
+					//	-- or --
+					// This could get hairy if we have to over-write a file
+					//	Thread convert = new DxfConverter(name);
+					System.gc();
+				}	// end while
+			} else { // endif
+				System.out.println("...finished updating boardno-control.xml database.");
+			}
+		}
+		finally
+		{
+			catalogLock.readLock().unlock();
+			// The SVGs already written refer to the symbols they added.
+			saveSymbolLibrary();
+			if (blockCache != null)
+			{
+				System.out.println("DxfPreprocessor: "+blockCache);
+			}
+			// Record whatever was converted, even if a conversion failed part way.
+			if (INCREMENTAL && UPDATE_DB_ONLY == false)
+			{
+				updateManifest(manifest, manifestFile, convertList, configHash, started);
+			}
+		}
+	}
+	
+	
+	/** Converts the files a {@link DxfWatcher} has seen change. The file list is
+	*	collected again first so new files are picked up and only the changed files
+	*	that are on it are converted.
+	*	@param changed names of the DXFs that changed.
+	*	@param filesRemoved true if DXFs were deleted, in which case the figures
+	*	they were in are brought up to date even if nothing else changed.
+	*/
+	public synchronized void convertChangedFiles(Collection changed, boolean filesRemoved)
+	{
+		HashSet changedPaths = new HashSet();
+		Iterator it = changed.iterator();
+		while (it.hasNext())
+		{
+			changedPaths.add(new File((String)it.next()).getAbsolutePath());
+		}
+		
+		collectFiles();
+		Vector candidates = new Vector();
+		for (int i = 0; i < fileList.size(); i++)
+		{
+			String name = (String)fileList.get(i);
+			if (changedPaths.contains(new File(name).getAbsolutePath()))
+			{
+				candidates.add(name);
+			}
+		}
+		if (candidates.size() > 0 || filesRemoved)
+		{
+			convertFiles(candidates);
+		}
+	}
+	
+	
+	/** Adds the argument DXFs to the library catalog if the conversion is
+	*	database driven. The {@link ConversionService} calls this before it
+	*	converts a file so the file's links to its relatives are right.
+	*	@param dxfFiles names of the DXFs.
+	*/
+	public synchronized void catalogFiles(Vector dxfFiles)
+	{
+		if (isDatabaseDriven())
+		{
+			catalogLock.writeLock().lock();
+			try
+			{
+				extractFigureData(dxfFiles);
+			}
+			finally
+			{
+				catalogLock.writeLock().unlock();
+			}
+		}
+	}
+	
+	/** Returns the lock that guards the library catalog. Cataloguing holds the
+	*	write lock; a conversion that may read the catalog holds the read lock.
+	*	Take the write lock only through {@link #catalogFiles} or while this
+	*	object's monitor is held, so the two are always taken in that order.
+	*/
+	static ReentrantReadWriteLock getCatalogLock()
+	{
+		return catalogLock;
+	}
+	
+	
+	// Starts the HTTP conversion service. Returns once it is listening; the
+	// service keeps the process running.
+	private void startService()
+	{
+		try
+		{
+			new ConversionService(new ConversionSettings(), sal, this, WORKER_THREADS,
+				SERVICE_QUEUE).start(SERVICE_PORT);
+		}
+		catch (IOException e)
+		{
+			System.err.println("DxfPreprocessor error: couldn't start the conversion "+
+				"service on port "+SERVICE_PORT+": "+e);
+		}
+	}
+	
+	
+	// Watches the directories of the files on the list and converts them as they
+	// change. Doesn't return.
+	private void watchForChanges()
+	{
+		LinkedHashSet dirs = new LinkedHashSet();
+		if (dxfSource.length() > 0 && new File(dxfSource).isDirectory())
+		{
+			dirs.add(new File(dxfSource).getAbsoluteFile());
+		}
+		else if (dxfSource.length() > 0)
+		{
+			dirs.add(new File(dxfSource).getAbsoluteFile().getParentFile());
+		}
+		for (int i = 0; i < fileList.size(); i++)
+		{
+			dirs.add(new File((String)fileList.get(i)).getAbsoluteFile().getParentFile());
+		}
+		if (dirs.isEmpty())
+		{
+			System.err.println("DxfPreprocessor error: there are no directories to watch.");
+			return;
+		}
+		
+		try
+		{
+			new DxfWatcher(this, (File[])dirs.toArray(new File[dirs.size()]), RECURSIVE).watch();
+		}
+		catch (IOException e)
+		{
+			System.err.println("DxfPreprocessor error: couldn't watch for changes: "+e);
+		}
+	}
+	
+	
+	/** Returns the file the '-incremental' manifest is kept in: beside
+	*	boardno-control.xml if there is a database, otherwise in the conversion
+	*	directory.
+	*/
+	protected File getManifestFile()
+	{
+		File dir;
+		if (dbXMLPath != null)
+		{
+			dir = new File(dbXMLPath).getAbsoluteFile().getParentFile();
+		}
+		else if (dxfSource.length() > 0 && new File(dxfSource).isDirectory())
+		{
+			dir = new File(dxfSource);
+		}
+		else if (dxfSource.length() > 0)
+		{
+			dir = new File(dxfSource).getAbsoluteFile().getParentFile();
+		}
+		else
+		{
+			dir = new File(".");
+		}
+		return new File(dir, ConversionManifest.MANIFEST_NAME);
+	}
+	
+	
+	// Adds the unchanged files whose book is missing from the library, as it would
+	// be if the library was deleted or replaced, so they are searched again.
+	private void addUncataloguedFiles(ConversionManifest manifest, Vector convertList)
+	{
+		HashSet converting = new HashSet(convertList);
+		for (int i = 0; i < fileList.size(); i++)
+		{
+			String name = (String)fileList.get(i);
+			if (converting.contains(name))
+			{
+				continue;
+			}
+			ConversionManifest.Entry entry = manifest.getEntry(name);
+			if (entry.getBook().length() == 0 || ! library.containsNamespace(entry.getBook()))
+			{
+				convertList.add(name);
+			}
+		}
+	}
+	
+	
+	/** Returns the list of files to convert in an '-incremental' run once the
+	*	figures of the changed files are known. Every figure that gained, lost or
+	*	changed a sheet has its frameset and navigator HTML deleted, and at least one
+	*	of its sheets converted, so they are written again from the library. If notes
+	*	are being compiled all the sheets of the figure are converted, since the notes
+	*	of a figure are shared by its sheets.
+	*	@param manifest manifest of the last conversion.
+	*	@param convertList files that changed, in the order of the file list.
+	*	@param removed manifest entries of files that no longer exist.
+	*/
+	protected Vector addDependentFiles(ConversionManifest manifest, Vector convertList,
+		Vector removed)
+	{
+		// The figure of every file on the list; changed files may have moved.
+		Hashtable figureOfFile = new Hashtable();
+		for (int i = 0; i < fileList.size(); i++)
+		{
+			String name = (String)fileList.get(i);
+			String key = getFigureKey(manifest, name);
+			if (key != null)
+			{
+				figureOfFile.put(name, key);
+			}
+		}
+		
+		// The figures that need their framesets rebuilt.
+		HashSet dirty = new HashSet();
+		for (int i = 0; i < convertList.size(); i++)
+		{
+			String name = (String)convertList.get(i);
+			ConversionManifest.Entry entry = manifest.getEntry(name);
+			if (entry != null && entry.getFigure().length() > 0)
+			{
+				dirty.add(entry.getBook() + "\t" + entry.getFigure());
+			}
+			if (figureOfFile.get(name) != null)
+			{
+				dirty.add(figureOfFile.get(name));
+			}
+		}
+		for (int i = 0; i < removed.size(); i++)
+		{
+			ConversionManifest.Entry entry = (ConversionManifest.Entry)removed.get(i);
+			if (entry.getFigure().length() > 0)
+			{
+				dirty.add(entry.getBook() + "\t" + entry.getFigure());
+				if (HTML_WRAPPERS)
 				{
-					new DxfConverter(getFileName());
+					deleteFrameSet(new File(entry.getPath()).getParentFile(), entry.getFigure());
 				}
-				//	-- or --
-				// This could get hairy if we have to over-write a file
-				//	Thread convert = new DxfConverter(name);
-				System.gc();
-			}	// end while
-		} else { // endif
-			System.out.println("...finished updating boardno-control.xml database.");
+			}
 		}
-	} // end of activateProcessor()
+		if (dirty.isEmpty())
+		{
+			return convertList;
+		}
+		
+		HashSet converting = new HashSet(convertList);
+		HashSet hasConvertedSheet = new HashSet();
+		for (int i = 0; i < fileList.size(); i++)
+		{
+			String name = (String)fileList.get(i);
+			if (converting.contains(name) && figureOfFile.get(name) != null)
+			{
+				hasConvertedSheet.add(figureOfFile.get(name));
+			}
+		}
+		for (int i = 0; i < fileList.size(); i++)
+		{
+			String name = (String)fileList.get(i);
+			String key = (String)figureOfFile.get(name);
+			if (key == null || ! dirty.contains(key))
+			{
+				continue;
+			}
+			if (HTML_WRAPPERS)
+			{
+				String figure = key.substring(key.indexOf('\t') + 1);
+				deleteFrameSet(new File(name).getAbsoluteFile().getParentFile(), figure);
+			}
+			if (takeNotes() || ! hasConvertedSheet.contains(key))
+			{
+				converting.add(name);
+				hasConvertedSheet.add(key);
+			}
+		}
+		
+		// Keep the order of the file list.
+		Vector result = new Vector();
+		for (int i = 0; i < fileList.size(); i++)
+		{
+			if (converting.contains(fileList.get(i)))
+			{
+				result.add(fileList.get(i));
+			}
+		}
+		if (result.size() > convertList.size())
+		{
+			System.out.println("DxfPreprocessor: converting "+(result.size() - convertList.size())+
+				" unchanged files whose figures changed");
+		}
+		return result;
+	}
+	
+	
+	// Returns "book<tab>figure" for the file, from this run's search if it was
+	// searched or from the manifest if it wasn't, or null if it isn't known.
+	private String getFigureKey(ConversionManifest manifest, String name)
+	{
+		String[] bookFigure = (String[])sheetFigures.get(new File(name).getAbsolutePath());
+		if (bookFigure != null)
+		{
+			return bookFigure[0] + "\t" + bookFigure[1];
+		}
+		ConversionManifest.Entry entry = manifest.getEntry(name);
+		if (entry != null && entry.getFigure().length() > 0)
+		{
+			return entry.getBook() + "\t" + entry.getFigure();
+		}
+		return null;
+	}
+	
+	
+	// Deletes the frameset and navigator of a figure so HtmlWrapperBuilder writes them again.
+	private void deleteFrameSet(File dir, String figure)
+	{
+		new File(dir, "fig_" + figure + ".html").delete();
+		new File(dir, "nav_fig_" + figure + ".html").delete();
+	}
+	
+	
+	// Records the conversions of the listed files and writes the manifest.
+	private void updateManifest(ConversionManifest manifest, File manifestFile,
+		Vector convertList, String configHash, long started)
+	{
+		int failed = 0;
+		for (int i = 0; i < convertList.size(); i++)
+		{
+			String name = (String)convertList.get(i);
+			String book = null;
+			String figure = null;
+			String[] bookFigure = (String[])sheetFigures.get(new File(name).getAbsolutePath());
+			ConversionManifest.Entry entry = manifest.getEntry(name);
+			if (bookFigure != null)
+			{
+				book = bookFigure[0];
+				figure = bookFigure[1];
+			}
+			else if (entry != null)
+			{
+				book = entry.getBook();
+				figure = entry.getFigure();
+			}
+			if (! manifest.record(name, configHash, book, figure, getOutputFiles(name), started))
+			{
+				failed++;
+			}
+		}
+		if (failed > 0)
+		{
+			System.err.println("DxfPreprocessor warning: "+failed+" file(s) were not recorded "+
+				"as converted and will be converted again next time.");
+		}
+		
+		try
+		{
+			manifest.write(manifestFile);
+		}
+		catch (IOException e)
+		{
+			System.err.println("DxfPreprocessor error: couldn't write the manifest '"+
+				manifestFile+"': "+e);
+		}
+	}
+	
+	
+	// Returns the names of the files a conversion of the DXF writes; see SvgBuilder
+	// and HtmlWrapperBuilder.
+	private String[] getOutputFiles(String name)
+	{
+		String root = name.substring(0, name.length() - 4);
+		String svg = root + (IS_ZIPPED ? ".svgz" : ".svg");
+		if (! HTML_WRAPPERS)
+		{
+			return new String[] { svg };
+		}
+		File html = new File(new File(name).getAbsoluteFile().getParentFile(),
+			getNormalizedFileName(name) + ".html");
+		return new String[] { svg, html.getPath() };
+	}
 
 
 
@@ -1117,6 +1622,17 @@ public final class DxfPreprocessor
 	*	of notes into SVG graphics.
 	*/
 	public static void getNotes(SvgBuilder svgB)
+	{
+		getNotes(svgB, getFileName());
+	}
+	
+	/** Returns the {@link SvgNoteManager} which manages the collection, compilation and output
+	*	of notes into SVG graphics for the named file. Conversions running on worker threads
+	*	use this method because {@link #getFileName} only names the last file set.
+	*	@param svgB SvgBuilder of the conversion context.
+	*	@param fileName fully qualified path of the file being converted.
+	*/
+	public static void getNotes(SvgBuilder svgB, String fileName)
 	{
 		if (svgB == null || svgNoteManager == null)
 		{
@@ -1125,7 +1641,7 @@ public final class DxfPreprocessor
 			return;
 		}
 		
-		svgNoteManager.getNotes(svgB, getFileName());
+		svgNoteManager.getNotes(svgB, fileName);
 	}
 	
 
@@ -1242,8 +1758,8 @@ public final class DxfPreprocessor
 		// families here; this will pre-search the dxfs for Figure numbers and try
 		// and determine the sheet numbers. 
 		//
-		// Let's make a search engine and do a pre-search for families of illustrations.
-		DxfSearchEngine dxfSearch = new DxfSearchEngine();
+		// Let's index each file and do a pre-search for families of illustrations.
+		DxfTextIndex dxfSearch;
 		FigureSheetDatabase figDB;
 		// Create patterns
 		Pattern figurePattern = Pattern.compile(figureNumSheetTitleRegex);
@@ -1264,7 +1780,7 @@ public final class DxfPreprocessor
 		// Create a language var and initialize to -1. Important when parsing figure title strings.
 		int language = Dxf2SvgConstants.UNDEFINED;
 		
-		Iterator it = fileList.iterator();
+		Iterator it = dxfFiles.iterator();
 		while (it.hasNext())
 		{	
 			// Get a file name
@@ -1275,8 +1791,8 @@ public final class DxfPreprocessor
 			// This algorithm is used in HtmlWrapperBuilder.java as well.
 			spotCall = getNormalizedFileName(name);
 			
-			// Now get the search engine ready to search the dxf file.
-			dxfSearch.setDxfFile(new File(name));
+			// Read the dxf file once; all the searches below are done on the index.
+			dxfSearch = new DxfTextIndex(new File(name));
 			
 			// Find the NDID 
 			ndid = dxfSearch.find(ndidPattern);
@@ -1444,6 +1960,7 @@ public final class DxfPreprocessor
 			// svg and wrapper files.
 			figDB.addFigureSheetAndValues(figNumber, sheetNumber, record);
 			library.update(ndid, figDB);
+			sheetFigures.put(new File(name).getAbsolutePath(), new String[] { ndid, figNumber });
 		} // end while
 		
 		// We can now publish the data as XML.
@@ -1451,15 +1968,14 @@ public final class DxfPreprocessor
 		reserializeLibrary();
 	}  // end extractFigureData()
 	
-	/**	Reserializes the library for future look ups.
+	/**	Saves the library for future look ups. Only the books this run read or
+	*	changed are written out again; the rest are copied.
 	*/
 	protected void reserializeLibrary()
 	{
 		try
 		{
-			ObjectOutputStream oos = new ObjectOutputStream(
-				new FileOutputStream(dbPath));
-			oos.writeObject(library);			
+			library.write(new File(dbPath));
 		}
 		catch (Exception e)
 		{
@@ -1674,13 +2190,13 @@ public final class DxfPreprocessor
 
 	/////// switch setting methods ///////////
 	/** Returns current <I>VERBOSE</I> switch setting. */
-	public static boolean verboseMode()
+	static boolean verboseMode()
 	{	return VERBOSE;	}
 	/** Sets current <I>VERBOSE</I> switch setting. */
 	public static void setVerboseMode(boolean verbose)
 	{	VERBOSE = verbose;	}
 	/** Returns current <I>DEBUG</I> switch setting. */
-	public static boolean debugMode()
+	static boolean debugMode()
 	{	return DEBUG;	}
 	/** Sets current <I>DEBUG</I> switch setting. */
 	public static void setDebugMode(boolean debug)
@@ -1692,7 +2208,7 @@ public final class DxfPreprocessor
 	//public static void setWipeOutMode(boolean wipeout)
 	//{	WIPE_OUT_TEXT = wipeout;	}
 	/** Returns current <I>MAKE_CSS</I> mode setting. */
-	public static int cssMode()
+	static int cssMode()
 	{	return MAKE_CSS;	}
 	/** Sets current <I>MAKE_CSS</I> mode setting.
 	*	This method has special properties. If you pass successive integers
@@ -1980,13 +2496,13 @@ public final class DxfPreprocessor
 	/**	Returns a boolean value of whether a URL discription should be
 	*	output to the Cascading Style Sheet description.
 	*/
-	public static boolean includeUrl()
+	static boolean includeUrl()
 	{	return INCLUDE_FONT_URL;	}
 
 	/** Returns a URL of the font locations.
 	*
 	*/
-	public static String getFontUrl()
+	static String getFontUrl()
 	{	return FONT_DIRECTORY;	}
 
 	/**	Sets a switch to output HTML wrappers for the SVG files. The
@@ -2009,10 +2525,24 @@ public final class DxfPreprocessor
 	*/
 	public static final void setCoerciveColour(int c)
 	{
+		if (Math.abs(c) >= colourTable.length)
+		{
+			System.err.println("DxfPreprocessor warning: illegal coercive colour number: "+c+
+				", colours will not be coerced.");
+			return;
+		}
 		isCoercedColour = true;
 		coerciveColour 	= c;
 	}
 	
+	/** Returns true if all colours are to be displayed as the coercive colour. */
+	static boolean isColourCoerced()
+	{	return isCoercedColour;	}
+	
+	/** Returns the colour set with '-c'. */
+	static int getCoerciveColour()
+	{	return coerciveColour;	}
+	
 	/** Sets the compression control switch to either on or off.
 	*/
 	public static void setZip(boolean z)
@@ -2024,6 +2554,38 @@ public final class DxfPreprocessor
 	public static boolean isZipped()
 	{	return IS_ZIPPED;	}
 	
+	/** Sets the compression level, 0 (none) to 9 (best), of compressed SVG files.
+	*	The default is zlib's default level.
+	*/
+	public static void setZipLevel(int level)
+	{	ZIP_LEVEL = level;	}
+	
+	/** Returns the compression level of compressed SVG files.
+	*/
+	public static int getZipLevel()
+	{	return ZIP_LEVEL;	}
+	
+	/** Sets the size, in bytes, of the buffers used when writing compressed SVG files.
+	*/
+	public static void setZipBufferSize(int size)
+	{	ZIP_BUFFER_SIZE = size;	}
+	
+	/** Returns the size, in bytes, of the buffers used when writing compressed SVG files.
+	*/
+	public static int getZipBufferSize()
+	{	return ZIP_BUFFER_SIZE;	}
+	
+	/** Sets the number of threads that compress blocks of each compressed SVG file.
+	*	With more than one the file is written by a {@link ParallelGZIPOutputStream}.
+	*/
+	public static void setZipThreads(int threads)
+	{	ZIP_THREADS = threads;	}
+	
+	/** Returns the number of threads that compress blocks of each compressed SVG file.
+	*/
+	public static int getZipThreads()
+	{	return ZIP_THREADS;	}
+	
 	
 
 	/** Returns true if searches for family members should be made and false otherwise.
@@ -2036,8 +2598,8 @@ public final class DxfPreprocessor
 	}
 	
 	
-	/** This is the name of the name of the library of converted illustrations, as serialized
-	*	java objects.
+	/** This is the name of the name of the library of converted illustrations.
+	*	@see LibraryCatalog#write
 	*/
 	public final static String serializedDB = "LibraryCatalog.ser";
 	
@@ -2069,12 +2631,10 @@ public final class DxfPreprocessor
 		
 		if (new File(dbPath).isFile())
 		{
-			// open file
+			// open file; only the index of books is read now.
 			try
 			{
-				FileInputStream fin = new FileInputStream(dbPath);
-				ObjectInputStream ois = new ObjectInputStream(fin);
-				library = (LibraryCatalog)ois.readObject();
+				library = LibraryCatalog.read(new File(dbPath));
 			}
 			catch (Exception e)
 			{
@@ -2098,20 +2658,23 @@ public final class DxfPreprocessor
 		SYNC_DATABASE = true;
 	}  // end syncDatabase()
 	
-	/** Returns the flag if the dxf contained a hyper link. Used to determine if the 
-	*	xlink namespace needs to be included as an entity in the &lt;svg&gt; tag.
+	/** Sets the number of files that may be converted at the same time. The default
+	*	is 1 which converts the files one after another on the main thread.
+	*	@param threads number of worker threads; values less than 1 are set to 1.
 	*/
-	public static boolean getUsesLinks()
+	public static void setWorkerThreads(int threads)
 	{
-		return USES_LINKS;
+		if (threads < 1)
+			WORKER_THREADS = 1;
+		else
+			WORKER_THREADS = threads;
 	}
 	
-	/** This method is used by internal processes to allow the inclusion of xlink namespace
-	*	if there happens to be a hyperlink in the dxf file being converted.
+	/** Returns the number of files that may be converted at the same time.
 	*/
-	public static void setUsesLinks(boolean b)
+	public static int getWorkerThreads()
 	{
-		USES_LINKS = b;
+		return WORKER_THREADS;
 	}
 	
 	/** Returns a flag of whether this is a parts list figure or not.
@@ -2178,8 +2741,13 @@ public final class DxfPreprocessor
 	*	@param eventString what happened; a brief description of the problem. Output each time
 	*	the event occurs.
 	*/
-	public static void logEvent(String fileName, String eventString)
+	public static synchronized void logEvent(String fileName, String eventString)
 	{
+		// A worker's events are logged with its report, once the files before it are done.
+		if (ConversionWorkerPool.holdEvent(fileName, eventString))
+		{
+			return;
+		}
 		if (eventLogger == null)
 		{
 			eventLogger = new Dxf2SvgLogger();
@@ -2276,7 +2844,7 @@ public final class DxfPreprocessor
 	*	colour of the layer they come from - even if the illustrator asked it to be a specific
 	*	colour.
 	*/
-	public static boolean isColourCoercedByLayer()
+	static boolean isColourCoercedByLayer()
 	{
 		return COERCE_COLOUR_BY_LAYER;
 	}
@@ -2329,6 +2897,204 @@ public final class DxfPreprocessor
 	public static boolean swapSvgzForHtml()
 	{
 		return IS_SWAP_SVG_FOR_HTML;
+	}
+	
+	/** Sets whether entities are spooled to a temporary file, layer by layer, as they
+	*	are converted rather than held in memory until the SVG is written. This keeps
+	*	the memory used for large drawings down at the cost of some disk I/O.
+	*	@see SvgLayerSpool
+	*/
+	public void setStreamLayers(boolean stream)
+	{
+		STREAM_LAYERS = stream;
+	}
+	
+	/** Returns true if entities are to be spooled by layer.
+	*/
+	public static boolean streamLayers()
+	{
+		return STREAM_LAYERS;
+	}
+	
+	/** Sets whether text is measured with the widths read from the font files
+	*	rather than with java.awt.Font, so that conversions don't start AWT.
+	*	@see dxf2svg.svg.FontFileMetrics
+	*/
+	public void setFontFileMetrics(boolean fileMetrics)
+	{
+		FONT_FILE_METRICS = fileMetrics;
+	}
+	
+	/** Returns true if text is to be measured from the font files.
+	*/
+	public static boolean useFontFileMetrics()
+	{
+		return FONT_FILE_METRICS;
+	}
+	
+	/** Sets whether only the files that have changed since the last conversion are
+	*	converted. A manifest of what was converted is kept beside boardno-control.xml,
+	*	or in the conversion directory if there is no database.
+	*	@see ConversionManifest
+	*/
+	public void setIncremental(boolean incremental)
+	{
+		INCREMENTAL = incremental;
+	}
+	
+	/** Returns true if only changed files are to be converted.
+	*/
+	public static boolean isIncremental()
+	{
+		return INCREMENTAL;
+	}
+	
+	/** Sets whether the conversion keeps running after the files have been
+	*	converted, watching their directories and converting DXFs again as they
+	*	are saved. The config file, pens, font map and library stay loaded between
+	*	conversions. Watching turns on '-incremental'.
+	*	@see DxfWatcher
+	*/
+	public void setWatch(boolean watch)
+	{
+		WATCH = watch;
+		if (watch)
+		{
+			INCREMENTAL = true;
+		}
+	}
+	
+	/** Returns true if the conversion watches for changes.
+	*/
+	public static boolean isWatch()
+	{
+		return WATCH;
+	}
+	
+	/** Sets the port the HTTP conversion service listens on, on the loopback
+	*	interface only. Any files on the command line are converted first.
+	*	@param port TCP port; 0 picks a free one and -1 turns the service off.
+	*	@see ConversionService
+	*/
+	public void setServicePort(int port)
+	{
+		SERVICE_PORT = port;
+	}
+	
+	/** Returns the port of the HTTP conversion service or -1 if it is off.
+	*/
+	public static int getServicePort()
+	{
+		return SERVICE_PORT;
+	}
+	
+	/** Sets how many conversions the HTTP service lets wait for a worker before
+	*	it refuses requests with 503; default 16.
+	*/
+	public void setServiceQueue(int length)
+	{
+		if (length < 0)
+		{
+			SERVICE_QUEUE = 0;
+		}
+		else
+		{
+			SERVICE_QUEUE = length;
+		}
+	}
+	
+	/** Returns how many conversions the HTTP service lets wait for a worker.
+	*/
+	public static int getServiceQueue()
+	{
+		return SERVICE_QUEUE;
+	}
+	
+	/** Sets the file that the blocks of all the converted drawings are written
+	*	to, once each, instead of being declared in every SVG. Symbols already in
+	*	the file are kept. If the file can't be read blocks are declared in each
+	*	SVG as usual.
+	*	@param name name of the symbol library SVG file.
+	*	@see SvgSymbolLibrary
+	*/
+	public void setSymbolLibrary(String name)
+	{
+		try
+		{
+			symbolLibrary = new SvgSymbolLibrary(new File(name));
+		}
+		catch (IOException e)
+		{
+			System.err.println("DxfPreprocessor error: couldn't read the symbol library '"+
+				name+"', blocks will be declared in each SVG: "+e);
+			symbolLibrary = null;
+		}
+	}
+	
+	/** Returns the symbol library or null if blocks are declared in each SVG.
+	*/
+	public static SvgSymbolLibrary getSymbolLibrary()
+	{
+		return symbolLibrary;
+	}
+	
+	/** Writes the symbol library file if there is one and symbols have been
+	*	added to it. Called once the files of a batch have been converted.
+	*/
+	public static void saveSymbolLibrary()
+	{
+		if (symbolLibrary == null)
+		{
+			return;
+		}
+		try
+		{
+			symbolLibrary.write();
+		}
+		catch (IOException e)
+		{
+			System.err.println("DxfPreprocessor error: couldn't write the symbol library '"+
+				symbolLibrary.getFile()+"': "+e);
+		}
+	}
+	
+	/** Keeps the blocks converted for one DXF, up to the argument number of
+	*	megabytes of SVG, so that the same blocks in the other DXFs converted by
+	*	this process are not converted again.
+	*	@param megabytes size of the cache; 0 turns it off.
+	*	@see BlockCache
+	*/
+	public void setBlockCache(int megabytes)
+	{
+		if (megabytes <= 0)
+		{
+			blockCache = null;
+		}
+		else
+		{
+			// A character of SVG is about a byte in the file.
+			blockCache = new BlockCache(megabytes * 1048576L);
+		}
+	}
+	
+	/** Returns the cache of converted blocks or null if blocks are converted
+	*	for each DXF.
+	*/
+	public static BlockCache getBlockCache()
+	{
+		return blockCache;
+	}
+	
+	/** Sets the config file and switches the conversion was started with. They are
+	*	part of what the '-incremental' manifest compares to decide if a file has
+	*	to be converted again.
+	*	@param configFile name of the config.d2s file, or null if there isn't one.
+	*	@param args switches from the command line or the config file.
+	*/
+	public void setConfiguration(String configFile, String[] args)
+	{
+		configFileName = configFile;
+		commandArgs = args;
 	}	
 			
 }	// end of DxfPreprocessor class
\ No newline at end of file
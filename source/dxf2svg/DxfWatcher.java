@@ -0,0 +1,349 @@
+/****************************************************************************
+**
+**	FileName:	DxfWatcher.java
+**
+**	Project:	Dxf2Svg
+**
+**	Purpose:	Watches the conversion directories and has the DxfPreprocessor
+**				convert DXFs again as they are saved.
+**
+**	Date:		October 17, 2026
+**
+**	Author:		Andrew Nisbet
+**
+**	Environment:Java(TM) 2 Runtime Environment, Standard Edition
+**				(build 1.7.0)
+**
+**	Version:	1.00 - October 17, 2026
+**
+**	TODO:
+**
+*****************************************************************************/
+
+package dxf2svg;
+
+import java.io.*;
+import java.nio.file.*;		// WatchService.
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**	This class is what the '-watch' switch runs once the first conversion is
+*	done. It watches the conversion directories, and their subdirectories with
+*	'-r', with a <code>WatchService</code> and hands the DXFs that have been
+*	saved to {@link DxfPreprocessor#convertChangedFiles}, which converts them
+*	with the configuration, pens, font map and library that are already loaded.
+*	<P>
+*	AutoCAD writes a DXF in pieces, so a file is only converted once it has had
+*	no events for {@link #QUIET_PERIOD} milliseconds, its size and modification
+*	time are the same on two looks in a row and it ends with the DXF
+*	<code>EOF</code> marker. A file that doesn't settle in {@link #MAX_WAIT}
+*	milliseconds is left until it is saved again. Files deleted while being
+*	watched bring their figures up to date as '-incremental' does.
+*	<P>
+*	A conversion that fails is reported and the watcher carries on; the file is
+*	converted again the next time it is saved. The watcher runs until the
+*	process is stopped. Changes to the config file are not picked up; restart
+*	to use them.
+*	<P>
+*	Needs Java 1.7 or later.
+*
+*	@version 	1.00 - October 17, 2026
+*	@author		Andrew Nisbet
+*/
+public final class DxfWatcher
+{
+	/** Milliseconds a file must go without events before it is converted. */
+	public final static long QUIET_PERIOD = 300L;
+	/** Milliseconds to wait for a file to settle before giving up on it. */
+	public final static long MAX_WAIT = 60000L;
+	private final static long POLL_INTERVAL = 100L;
+	private final static int TAIL_LENGTH = 32;		// Bytes read to find the EOF marker.
+
+	private DxfPreprocessor processor;
+	private WatchService watcher;
+	private HashMap dirs;				// WatchKey -> Path of the directory it watches.
+	private boolean recursive;			// Watch subdirectories.
+	private LinkedHashMap pending;		// Absolute DXF path -> PendingFile, oldest first.
+	private boolean filesRemoved;		// A DXF was deleted since the last conversion.
+
+	/** Starts watching the argument directories.
+	*	@param processor converts the files.
+	*	@param directories directories to watch.
+	*	@param recursive true if subdirectories are watched too.
+	*	@throws IOException if a directory can't be watched.
+	*/
+	public DxfWatcher(DxfPreprocessor processor, File[] directories, boolean recursive)
+		throws IOException
+	{
+		this.processor	= processor;
+		this.recursive	= recursive;
+		watcher			= FileSystems.getDefault().newWatchService();
+		dirs			= new HashMap();
+		pending			= new LinkedHashMap();
+		for (int i = 0; i < directories.length; i++)
+		{
+			register(directories[i].toPath());
+		}
+	}
+
+	// Watches the directory and, if recursive, the directories in it.
+	private void register(Path dir) throws IOException
+	{
+		WatchKey key = dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+			StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+		dirs.put(key, dir);
+		if (! recursive)
+			return;
+		File[] children = dir.toFile().listFiles();
+		for (int i = 0; children != null && i < children.length; i++)
+		{
+			if (children[i].isDirectory())
+				register(children[i].toPath());
+		}
+	}
+
+	/** Watches until the thread is interrupted, converting DXFs as they settle.
+	*/
+	public void watch()
+	{
+		Iterator it = dirs.values().iterator();
+		while (it.hasNext())
+			System.out.println("DxfWatcher: watching '"+it.next()+"'.");
+		System.out.println("DxfWatcher: waiting for changes; stop with Ctrl-C.");
+
+		try
+		{
+			while (! dirs.isEmpty())
+			{
+				// Block until something happens unless files are waiting to settle.
+				WatchKey key;
+				if (pending.isEmpty() && ! filesRemoved)
+					key = watcher.take();
+				else
+					key = watcher.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+				while (key != null)
+				{
+					handleEvents(key);
+					key = watcher.poll();
+				}
+				convertSettledFiles();
+			}
+			System.out.println("DxfWatcher: the watched directories are gone.");
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch (ClosedWatchServiceException e)
+		{
+			// Closed; stop watching.
+		}
+		finally
+		{
+			try
+			{
+				watcher.close();
+			}
+			catch (IOException e)
+			{
+				// Nothing more to do with it.
+			}
+		}
+	}
+
+	// Notes the DXFs the key's events are about.
+	private void handleEvents(WatchKey key)
+	{
+		Path dir = (Path)dirs.get(key);
+		long now = System.currentTimeMillis();
+		Iterator events = key.pollEvents().iterator();
+		while (events.hasNext())
+		{
+			WatchEvent event = (WatchEvent)events.next();
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW)
+			{
+				// Events were lost; look at everything.
+				System.err.println("DxfWatcher warning: too many changes at once; "+
+					"checking all files.");
+				addAllFiles(dir, now);
+				continue;
+			}
+			if (dir == null)
+				continue;
+			Path path = dir.resolve((Path)event.context());
+			File file = path.toFile();
+			if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && recursive &&
+				file.isDirectory())
+			{
+				try
+				{
+					register(path);
+					addAllFiles(path, now);
+				}
+				catch (IOException e)
+				{
+					System.err.println("DxfWatcher warning: can't watch '"+path+"': "+e);
+				}
+				continue;
+			}
+			if (! isDxf(file))
+				continue;
+			if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE)
+			{
+				pending.remove(file.getAbsolutePath());
+				filesRemoved = true;
+				continue;
+			}
+			PendingFile p = (PendingFile)pending.get(file.getAbsolutePath());
+			if (p == null)
+			{
+				p = new PendingFile(now);
+				pending.put(file.getAbsolutePath(), p);
+			}
+			p.lastEvent = now;
+		}
+		if (! key.reset())
+			dirs.remove(key);
+	}
+
+	// Adds every DXF in the directory, and its subdirectories if recursive, to
+	// the pending files.
+	private void addAllFiles(Path dir, long now)
+	{
+		if (dir == null)
+		{
+			Iterator it = dirs.values().iterator();
+			while (it.hasNext())
+				addAllFiles((Path)it.next(), now);
+			return;
+		}
+		File[] children = dir.toFile().listFiles();
+		for (int i = 0; children != null && i < children.length; i++)
+		{
+			if (isDxf(children[i]) && ! pending.containsKey(children[i].getAbsolutePath()))
+				pending.put(children[i].getAbsolutePath(), new PendingFile(now));
+			else if (recursive && children[i].isDirectory() && ! dirs.containsValue(children[i].toPath()))
+				addAllFiles(children[i].toPath(), now);
+		}
+		filesRemoved = true;	// Deletions may have been lost as well.
+	}
+
+	// Converts the pending files that have settled.
+	private void convertSettledFiles()
+	{
+		long now = System.currentTimeMillis();
+		Vector settled = new Vector();
+		Iterator it = pending.entrySet().iterator();
+		while (it.hasNext())
+		{
+			Map.Entry e = (Map.Entry)it.next();
+			String name = (String)e.getKey();
+			PendingFile p = (PendingFile)e.getValue();
+			File file = new File(name);
+			if (! file.isFile())
+			{
+				it.remove();
+				continue;
+			}
+			if (now - p.lastEvent < QUIET_PERIOD)
+				continue;
+			if (isSettled(file, p))
+			{
+				settled.add(name);
+				it.remove();
+			}
+			else if (now - p.firstEvent > MAX_WAIT)
+			{
+				System.err.println("DxfWatcher warning: '"+name+"' is still incomplete after "+
+					(MAX_WAIT / 1000L)+" seconds; it will be converted when it is saved again.");
+				it.remove();
+			}
+		}
+		if (settled.isEmpty() && ! filesRemoved)
+			return;
+
+		boolean removed = filesRemoved;
+		filesRemoved = false;
+		try
+		{
+			processor.convertChangedFiles(settled, removed);
+		}
+		catch (RuntimeException e)
+		{
+			// One bad drawing mustn't stop the watch.
+			System.err.println("DxfWatcher error: conversion failed: "+e);
+			if (DxfPreprocessor.debugMode())
+				e.printStackTrace(System.err);
+		}
+		System.out.println("DxfWatcher: waiting for changes.");
+	}
+
+	// Returns true if the file looks the same as last time and is a whole DXF.
+	private boolean isSettled(File file, PendingFile p)
+	{
+		long size = file.length();
+		long modified = file.lastModified();
+		boolean same = (size == p.size && modified == p.modified);
+		p.size = size;
+		p.modified = modified;
+		return same && endsWithEOF(file);
+	}
+
+	// Returns true if the last thing in the file is the EOF group of a DXF.
+	private static boolean endsWithEOF(File file)
+	{
+		RandomAccessFile in = null;
+		try
+		{
+			in = new RandomAccessFile(file, "r");
+			long length = in.length();
+			int n = (int)Math.min(length, TAIL_LENGTH);
+			byte[] tail = new byte[n];
+			in.seek(length - n);
+			in.readFully(tail);
+			return new String(tail, "ISO-8859-1").trim().endsWith("EOF");
+		}
+		catch (IOException e)
+		{
+			// Probably still locked by the program writing it.
+			return false;
+		}
+		finally
+		{
+			if (in != null)
+			{
+				try
+				{
+					in.close();
+				}
+				catch (IOException e)
+				{
+					// Nothing more to do with it.
+				}
+			}
+		}
+	}
+
+	private static boolean isDxf(File file)
+	{
+		return file.getName().toLowerCase().endsWith(".dxf");
+	}
+
+
+
+
+	/** A DXF that has changed and is waiting to settle. */
+	private final static class PendingFile
+	{
+		private long firstEvent;
+		private long lastEvent;
+		private long size = -1L;		// As of the last look.
+		private long modified = -1L;
+
+		private PendingFile(long now)
+		{
+			firstEvent = now;
+			lastEvent = now;
+		}
+	}
+}
@@ -17,6 +17,7 @@
 **				(build 1.4.0_01-b03)
 **
 **	Version:	0.01 - August 20, 2002
+**				0.02 - October 17, 2026 Added putFigure() for LibraryCatalog.read().
 **
 **	TODO:
 **
@@ -55,6 +56,8 @@ public class FigureSheetDatabase extends Database
 {
 	/** This is the number of fields in a figure's record. */
 	public final static int NUM_FIELDS = 6;
+	// Serialized catalogs were written with this class version before putFigure() was added.
+	private static final long serialVersionUID = -7692073658917281493L;
 	/////////////////////////
 	//                     //
 	//     Constructor     //
@@ -142,6 +145,16 @@ public class FigureSheetDatabase extends Database
 		return containsKey(figure);
 	}
 	
+	/** Stores a figure's table of sheets as it was read from a catalog file,
+	*	replacing any figure of the same name.
+	*	@param figure illustration figure number like '1-2-3a'.
+	*	@param sheets sheet numbers mapped to Vectors of values.
+	*/
+	void putFigure(String figure, Hashtable sheets)
+	{
+		db.put(figure, sheets);
+	}
+	
 
 	/** Adds the data from the argument {@link dxf2svg.FigureSheetDatabase} to 
 	*	this {@link dxf2svg.FigureSheetDatabase} in a safe way. The method for
@@ -23,6 +23,8 @@
 **				can trace the wires across sheets. 
 **				1.1  - May 17, 2005 Changed everything so we could test x-sheet
 **				wire runs.
+**				1.2  - October 17, 2026 Frameset creation is now done by one
+**				conversion at a time as the frameset is shared by all sheets.
 **
 **	TODO:		
 **
@@ -150,8 +152,12 @@ public class HtmlWrapperBuilder
 			compileFigureTitles = true;
 			if (isFigureDataInDatabase() == true)
 			{
-				// Create frameset and navigator
-				createFrameSet();
+				// Create frameset and navigator. Every sheet of the figure tries
+				// to do this so make sure concurrent conversions take turns.
+				synchronized (HtmlWrapperBuilder.class)
+				{
+					createFrameSet();
+				}
 			}	
 		}  
 		else  // libraryIsAvailable == false
@@ -15,6 +15,8 @@
 **	Version:	1.00 - December 11, 2003 
 **				1.01 - December 8,  2004 Updated documentation and help method.
 **				1.02 - February 16, 2005 Changed messages to STDOUT in mergeTwoCatalogs()
+**				1.03 - October 17, 2026 Catalogs are read and written with
+**				LibraryCatalog.read() and write().
 ** 	Todo:
 **
 ***************************************************************************/
@@ -31,8 +33,10 @@ import java.util.*;
 *	<P>
 *	Usage: <b>java dxf2svg.LibCatUtil (options)</b>
 *	<P>
-*	Convensions used: The LibraryCatalog.ser file is a serialization of a 
-*	of a dxf2svg LibraryCatalog. The LibraryCatalog object stores FigureSheetDatabases
+*	Convensions used: The LibraryCatalog.ser file is a dxf2svg LibraryCatalog
+*	saved with {@link LibraryCatalog#write}; older ones are a serialization of it
+*	and are converted when they are next written.
+*	The LibraryCatalog object stores FigureSheetDatabases
 *	and each FigureSheetDatabase holds an entire book's figures and sheet listing.
 *	<P>
 *	The catalog is the entire collection of books - also called the 'database'.
@@ -379,68 +383,34 @@ public class LibCatUtil
 	*/
 	protected static LibraryCatalog readCatalog(String catalog)
 	{
-		ObjectInputStream ios = null;
 		LibraryCatalog lib = null;
 		
 		try
 		{
-			ios = new ObjectInputStream(new FileInputStream(catalog));
-			lib = (LibraryCatalog)ios.readObject();
+			lib = LibraryCatalog.read(new File(catalog));
 		}
 		catch (Exception e)
 		{
 			System.err.println(e);
 			e.printStackTrace(System.out);
 		}  // end catch
-		finally
-		{
-			if (ios != null)
-			{
-				try
-				{
-					ios.close();
-				}
-				catch (IOException ioe)
-				{
-					System.err.println(ioe);
-					ioe.printStackTrace(System.out);
-				}
-			}  // end if
-		}  // end finally.
 		
 		return lib;
 	}  // end readCatalog
 
-	/** Writes the argument database to a {@link java.io.FileOutputStream}.
+	/** Writes the argument database to the named catalog file.
+	*	@see LibraryCatalog#write
 	*/
 	protected static void serializeCatalog(String name, LibraryCatalog lib)
 	{
-		ObjectOutputStream oos = null;
-		
 		try
 		{
-			oos = new ObjectOutputStream(new FileOutputStream(name));
-			oos.writeObject(lib);				
+			lib.write(new File(name));
 		}
 		catch (Exception e)
 		{
 			System.err.println(e);
 			e.printStackTrace(System.out);
 		}
-		finally
-		{
-			if (oos != null)
-			{
-				try
-				{
-					oos.close();
-				}
-				catch (IOException ioe)
-				{
-					System.err.println(ioe);
-					ioe.printStackTrace(System.out);
-				}
-			}  // end if
-		}  // end finally.
 	}
 }  // end class
\ No newline at end of file
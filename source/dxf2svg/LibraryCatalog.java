@@ -17,6 +17,10 @@
 **				(build 1.4.0_01-b03)
 **
 **	Version:	0.01 - August 20, 2002
+**				0.02 - October 17, 2026 Stored in a binary file with a section per
+**				book; books are read only when they are asked for. See read() and write().
+**				0.03 - October 17, 2026 put() replaces a book that is still in the
+**				file and update() reports a book that can't be read.
 **
 **	TODO:
 **
@@ -28,6 +32,7 @@ package dxf2svg;
 
 import java.io.*;
 import java.util.*;
+import java.util.zip.*;		// The XML in catalog files is compressed.
 import dxf2svg.util.*;
 
 /** This class is a wrapper class to implement namespaces for 
@@ -38,16 +43,45 @@ import dxf2svg.util.*;
 *	instances of Figure 1-1, one for each book. Further when we output the database
 *	to XML we need to be able to populate the &lt;Book&gt; tag with its appropriate
 *	book attribute value.
+*	<P>
+*	The catalog is saved with {@link #write} in a binary file that has an index of
+*	the books at the front, followed by a section for each book. A section has
+*	its own table of the strings its records use, the records themselves as
+*	indexes into that table, and the book's XML as {@link #outputXML} writes it,
+*	compressed.
+*	{@link #read} only reads the index; a book's records are read the first time
+*	the book is asked for. When the catalog is written again, books that were
+*	never asked for are copied from the old file as they are, and their XML is
+*	taken from there too, so a run that converts a sheet of one book doesn't
+*	read or rewrite the others.
+*	<P>
+*	Catalogs saved by older versions as serialized Java objects are still read
+*	(all at once) and are saved in the binary format the next time they are
+*	written.
 *
-*	@version 	0.01 - December 4, 2003
+*	@version 	0.03 - October 17, 2026
 *	@author		Andrew Nisbet
 */
 public class LibraryCatalog extends DatabaseContainer
 {
+	// Catalogs serialized before version 0.02 were written with this class version.
+	private static final long serialVersionUID = -8008764013180687232L;
+	// First bytes of a binary catalog file: 'D2SC'.
+	private final static int MAGIC = 0x44325343;
+	private final static int FORMAT_VERSION = 1;
+	// First bytes of a serialized Java object stream.
+	private final static int SERIALIZED_MAGIC = 0xaced;
+	private final static String ENCODING = "UTF-8";
+
+	// Books still in the file: book name -> Section. The books in dbContainer
+	// have been read or added and are written from memory.
+	private transient Hashtable sections;
+	private transient RandomAccessFile source;	// File the sections are in.
 	
 	public LibraryCatalog()
 	{ 	
 		super();	// technically don't need to do this
+		sections = new Hashtable();
 	}
 	
 	/** Retrieves the database of figures for a specific book.
@@ -57,17 +91,100 @@ public class LibraryCatalog extends DatabaseContainer
 		return (FigureSheetDatabase)get(book);
 	}
 	
+	/** Returns the database of figures of the argument book, reading it from
+	*	the catalog file if this is the first time it has been asked for.
+	*	@return the book's FigureSheetDatabase, or null if there is no such
+	*	book or it can't be read.
+	*/
+	public synchronized Object get(Object key)
+	{
+		Object book = dbContainer.get(key);
+		if (book != null || sections.isEmpty())
+		{
+			return book;
+		}
+		
+		Section section = (Section)sections.get(key);
+		if (section == null)
+		{
+			return null;
+		}
+		
+		try
+		{
+			FigureSheetDatabase figDB = readFigures(section);
+			// Once read the book may be changed, so it is written from memory.
+			sections.remove(key);
+			dbContainer.put(key, figDB);
+			return figDB;
+		}
+		catch (IOException e)
+		{
+			System.err.println("LibraryCatalog error: unable to read book '"+key+
+				"' from the catalog. "+e);
+			return null;
+		}
+	}
+	
+	/** Returns true if the book is in the catalog, whether or not it has been read yet.
+	*/
+	public synchronized boolean containsNamespace(String nameSpace)
+	{
+		if (nameSpace != null && sections.containsKey(nameSpace))
+		{
+			return true;
+		}
+		return super.containsNamespace(nameSpace);
+	}
+	
+	/** Returns the names of all the books in the catalog, in order.
+	*/
+	public synchronized Set keySet()
+	{
+		TreeSet books = new TreeSet(dbContainer.keySet());
+		books.addAll(sections.keySet());
+		return books;
+	}
+	
+	/** Stores a book's database of figures, replacing the book if it is still
+	*	in the catalog file.
+	*/
+	public synchronized void put(Object key, Object value)
+	{
+		if (key != null && value != null)
+		{
+			sections.remove(key);
+		}
+		super.put(key, value);
+	}
+	
+	/** Removes a book from the catalog.
+	*/
+	public synchronized boolean deleteNamespace(String nameSpace)
+	{
+		boolean inFile = (nameSpace != null && sections.remove(nameSpace) != null);
+		return super.deleteNamespace(nameSpace) || inFile;
+	}
+	
 	/** Pushes the current database of figures into a book's catalog.
 	*	New values are stored and pre-existing values are over-written.
 	*/
-	public void update(String book, FigureSheetDatabase figDB)
+	public synchronized void update(String book, FigureSheetDatabase figDB)
 	{
 		// Find out if there is a namespace called this in the database
 		// if there isn't; too easy just push this one on
-		if (dbContainer.containsKey(book))
+		if (containsNamespace(book))
 		{
 			// Retrieve the figures from this database container.
 			FigureSheetDatabase myFigDB = retrieveFigures(book);
+			if (myFigDB == null)
+			{
+				// get() has said why; the damaged section is replaced.
+				System.err.println("LibraryCatalog error: book '"+book+"' is corrupt "+
+					"in the catalog file; it is replaced by the figures converted now.");
+				put(book, figDB);
+				return;
+			}
 			// add the figDB to it in a safe way.
 			myFigDB.add(figDB);
 			put(book, myFigDB);
@@ -128,7 +245,7 @@ public class LibraryCatalog extends DatabaseContainer
 	*	@throws FileNotFoundException
 	*	@throws IOException
 	*/
-	public void outputXML(String fileName, boolean includeDTD)
+	public synchronized void outputXML(String fileName, boolean includeDTD)
 	{
 		FigureSheetDatabase figDB;
 		String ndid;
@@ -169,16 +286,25 @@ public class LibraryCatalog extends DatabaseContainer
 			bw.write("<graphiclist>\n");
 			
 			// retrieve all of the namespaces.
-			Set figSet = dbContainer.keySet();
+			Set figSet = keySet();
 			Iterator itFigSet = figSet.iterator();
 			while (itFigSet.hasNext())
 			{
 				ndid = (String)itFigSet.next();
-				figDB = (FigureSheetDatabase)dbContainer.get(ndid);
 				bw.write("	<book ndid=\""+ndid+"\">\n");
 				
-				// Now the figure sheet database can output its own xml
-				figDB.outputXML(bw);
+				// Books that haven't been read have their XML in the catalog file...
+				Section section = (Section)sections.get(ndid);
+				if (section != null)
+				{
+					bw.write(readXML(section));
+				}
+				else
+				{
+					// ...otherwise the figure sheet database can output its own xml
+					figDB = (FigureSheetDatabase)dbContainer.get(ndid);
+					figDB.outputXML(bw);
+				}
 				
 				bw.write("	</book>\n");
 			}
@@ -210,4 +336,398 @@ public class LibraryCatalog extends DatabaseContainer
 	{
 		return deleteNamespace(ndid);
 	}
+	
+	
+	
+	//////////////////////////////////////////////////////////
+	//					Catalog files
+	//////////////////////////////////////////////////////////
+	/** Opens a catalog file. Only the index of books is read; each book is
+	*	read when it is first asked for, so the file is kept open.
+	*	Catalogs saved as serialized Java objects are read completely.
+	*	@param file the catalog file, usually 'LibraryCatalog.ser'.
+	*	@throws IOException if the file can't be read or is not a catalog.
+	*/
+	public static LibraryCatalog read(File file) throws IOException
+	{
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		boolean keepOpen = false;
+		try
+		{
+			int magic = (raf.length() >= 4) ? raf.readInt() : 0;
+			if ((magic >>> 16) == SERIALIZED_MAGIC)
+			{
+				return readSerialized(file);
+			}
+			if (magic != MAGIC)
+			{
+				throw new IOException("'"+file+"' is not a library catalog.");
+			}
+			int version = raf.readInt();
+			if (version != FORMAT_VERSION)
+			{
+				throw new IOException("'"+file+"' is a version "+version+
+					" catalog; only version "+FORMAT_VERSION+" can be read.");
+			}
+			int books = raf.readInt();
+			byte[] indexBytes = new byte[raf.readInt()];
+			raf.readFully(indexBytes);
+			
+			LibraryCatalog lib = new LibraryCatalog();
+			DataInputStream index = new DataInputStream(new ByteArrayInputStream(indexBytes));
+			for (int i = 0; i < books; i++)
+			{
+				String book = index.readUTF();
+				Section section = new Section();
+				section.offset		= index.readLong();
+				section.dataLength	= index.readInt();
+				section.xmlLength	= index.readInt();
+				lib.sections.put(book, section);
+			}
+			lib.source = raf;
+			keepOpen = true;
+			return lib;
+		}
+		finally
+		{
+			if (! keepOpen)
+			{
+				raf.close();
+			}
+		}
+	}
+	
+	// Reads a catalog saved as a serialized Java object by older versions.
+	private static LibraryCatalog readSerialized(File file) throws IOException
+	{
+		ObjectInputStream ois = new ObjectInputStream(
+			new BufferedInputStream(new FileInputStream(file)));
+		try
+		{
+			return (LibraryCatalog)ois.readObject();
+		}
+		catch (ClassNotFoundException e)
+		{
+			throw new IOException("'"+file+"' does not contain a library catalog. "+e);
+		}
+		finally
+		{
+			ois.close();
+		}
+	}
+	
+	/** Saves the catalog. Books that have been read or added are written from
+	*	memory; the rest are copied from the file the catalog was read from.
+	*	The file is written under a temporary name and then renamed, so it can
+	*	be the file the catalog was read from. Afterwards the catalog reads its
+	*	unread books from the new file.
+	*	@throws IOException if the file can't be written.
+	*/
+	public synchronized void write(File file) throws IOException
+	{
+		Vector books = new Vector(keySet());
+		// Sections in the order they will be written; a Section if the book
+		// is copied from the old file or a byte[2][] of data and XML otherwise.
+		Object[] contents = new Object[books.size()];
+		for (int i = 0; i < books.size(); i++)
+		{
+			String book = (String)books.get(i);
+			Section section = (Section)sections.get(book);
+			if (section != null)
+			{
+				contents[i] = section;
+			}
+			else
+			{
+				FigureSheetDatabase figDB = (FigureSheetDatabase)dbContainer.get(book);
+				contents[i] = new byte[][] { encodeFigures(figDB), encodeXML(figDB) };
+			}
+		}
+		
+		// The index holds the offsets of the sections, which follow it, so
+		// work out its length first.
+		Section[] newSections = new Section[books.size()];
+		byte[] indexBytes = writeIndex(books, contents, newSections, 0L);
+		long firstSection = 16L + indexBytes.length;	// After the header.
+		indexBytes = writeIndex(books, contents, newSections, firstSection);
+		
+		File tmp = new File(file.getPath() + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+			new FileOutputStream(tmp), 65536));
+		try
+		{
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(books.size());
+			out.writeInt(indexBytes.length);
+			out.write(indexBytes);
+			byte[] buffer = new byte[65536];
+			for (int i = 0; i < contents.length; i++)
+			{
+				if (contents[i] instanceof Section)
+				{
+					// Copy the book as it is in the old file.
+					Section section = (Section)contents[i];
+					source.seek(section.offset);
+					long remaining = (long)section.dataLength + section.xmlLength;
+					while (remaining > 0)
+					{
+						int n = (int)Math.min(remaining, buffer.length);
+						source.readFully(buffer, 0, n);
+						out.write(buffer, 0, n);
+						remaining -= n;
+					}
+				}
+				else
+				{
+					byte[][] bytes = (byte[][])contents[i];
+					out.write(bytes[0]);
+					out.write(bytes[1]);
+				}
+			}
+		}
+		finally
+		{
+			out.close();
+		}
+		
+		// Replace the old file and read the unread books from the new one.
+		if (source != null)
+		{
+			source.close();
+			source = null;
+		}
+		if (file.exists() && ! file.delete())
+		{
+			throw new IOException("unable to replace '"+file+"'; the catalog was saved as '"+
+				tmp+"'.");
+		}
+		if (! tmp.renameTo(file))
+		{
+			throw new IOException("unable to rename '"+tmp+"' to '"+file+"'.");
+		}
+		sections.clear();
+		for (int i = 0; i < contents.length; i++)
+		{
+			if (contents[i] instanceof Section)
+			{
+				sections.put(books.get(i), newSections[i]);
+			}
+		}
+		if (! sections.isEmpty())
+		{
+			source = new RandomAccessFile(file, "r");
+		}
+	}
+	
+	// Returns the index of the argument sections as they will be written
+	// starting at firstSection, and fills in where each will be.
+	private static byte[] writeIndex(Vector books, Object[] contents,
+		Section[] newSections, long firstSection) throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream index = new DataOutputStream(bytes);
+		long offset = firstSection;
+		for (int i = 0; i < contents.length; i++)
+		{
+			Section section = new Section();
+			section.offset = offset;
+			if (contents[i] instanceof Section)
+			{
+				section.dataLength	= ((Section)contents[i]).dataLength;
+				section.xmlLength	= ((Section)contents[i]).xmlLength;
+			}
+			else
+			{
+				section.dataLength	= ((byte[][])contents[i])[0].length;
+				section.xmlLength	= ((byte[][])contents[i])[1].length;
+			}
+			index.writeUTF((String)books.get(i));
+			index.writeLong(section.offset);
+			index.writeInt(section.dataLength);
+			index.writeInt(section.xmlLength);
+			newSections[i] = section;
+			offset += (long)section.dataLength + section.xmlLength;
+		}
+		index.close();
+		return bytes.toByteArray();
+	}
+	
+	// Writes a book's figures as a table of the strings they use followed by
+	// the figures, sheets and values as indexes into the table (-1 for null).
+	private static byte[] encodeFigures(FigureSheetDatabase figDB) throws IOException
+	{
+		Hashtable stringIds = new Hashtable();	// String -> Integer index.
+		Vector strings = new Vector();
+		ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+		DataOutputStream records = new DataOutputStream(recordBytes);
+		
+		Set figures = figDB.keySet();
+		records.writeInt(figures.size());
+		Iterator itFigures = figures.iterator();
+		while (itFigures.hasNext())
+		{
+			String figure = (String)itFigures.next();
+			Hashtable sheets = figDB.getTable(figure);
+			records.writeInt(getStringId(figure, stringIds, strings));
+			records.writeInt(sheets.size());
+			Iterator itSheets = sheets.keySet().iterator();
+			while (itSheets.hasNext())
+			{
+				String sheet = (String)itSheets.next();
+				Vector values = (Vector)sheets.get(sheet);
+				records.writeInt(getStringId(sheet, stringIds, strings));
+				records.writeInt(values.size());
+				for (int i = 0; i < values.size(); i++)
+				{
+					records.writeInt(getStringId((String)values.get(i), stringIds, strings));
+				}
+			}
+		}
+		records.close();
+		
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(strings.size());
+		for (int i = 0; i < strings.size(); i++)
+		{
+			byte[] s = ((String)strings.get(i)).getBytes(ENCODING);
+			out.writeInt(s.length);
+			out.write(s);
+		}
+		recordBytes.writeTo(out);
+		out.close();
+		return bytes.toByteArray();
+	}
+	
+	private static int getStringId(String s, Hashtable stringIds, Vector strings)
+	{
+		if (s == null)
+		{
+			return -1;
+		}
+		Integer id = (Integer)stringIds.get(s);
+		if (id == null)
+		{
+			id = Integer.valueOf(strings.size());
+			stringIds.put(s, id);
+			strings.add(s);
+		}
+		return id.intValue();
+	}
+	
+	// Returns the book's XML as outputXML() writes it between the book tags, deflated.
+	private static byte[] encodeXML(FigureSheetDatabase figDB) throws IOException
+	{
+		StringWriter sw = new StringWriter();
+		BufferedWriter bw = new BufferedWriter(sw);
+		figDB.outputXML(bw);
+		bw.flush();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DeflaterOutputStream out = new DeflaterOutputStream(bytes);
+		out.write(sw.toString().getBytes(ENCODING));
+		out.close();
+		return bytes.toByteArray();
+	}
+	
+	// Reads a book's figures from the catalog file.
+	private FigureSheetDatabase readFigures(Section section) throws IOException
+	{
+		byte[] data = new byte[section.dataLength];
+		source.seek(section.offset);
+		source.readFully(data);
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+		
+		String[] strings = new String[readCount(in, data.length)];
+		for (int i = 0; i < strings.length; i++)
+		{
+			byte[] s = new byte[readCount(in, data.length)];
+			in.readFully(s);
+			strings[i] = new String(s, ENCODING);
+		}
+		
+		FigureSheetDatabase figDB = new FigureSheetDatabase();
+		int figures = readCount(in, data.length);
+		for (int f = 0; f < figures; f++)
+		{
+			String figure = getString(strings, in.readInt());
+			int sheetCount = readCount(in, data.length);
+			Hashtable sheets = new Hashtable();
+			for (int s = 0; s < sheetCount; s++)
+			{
+				String sheet = getString(strings, in.readInt());
+				int valueCount = readCount(in, data.length);
+				Vector values = new Vector(valueCount);
+				for (int v = 0; v < valueCount; v++)
+				{
+					values.add(getString(strings, in.readInt()));
+				}
+				sheets.put(sheet, values);
+			}
+			figDB.putFigure(figure, sheets);
+		}
+		return figDB;
+	}
+	
+	// Reads a count or length, which can't be more than the length of the section.
+	private static int readCount(DataInputStream in, int max) throws IOException
+	{
+		int count = in.readInt();
+		if (count < 0 || count > max)
+		{
+			throw new IOException("the section is damaged.");
+		}
+		return count;
+	}
+	
+	private static String getString(String[] strings, int id) throws IOException
+	{
+		if (id == -1)
+		{
+			return null;
+		}
+		if (id < 0 || id >= strings.length)
+		{
+			throw new IOException("string index "+id+" out of range.");
+		}
+		return strings[id];
+	}
+	
+	// Reads a book's XML from the catalog file.
+	private String readXML(Section section) throws IOException
+	{
+		byte[] xml = new byte[section.xmlLength];
+		source.seek(section.offset + section.dataLength);
+		source.readFully(xml);
+		InputStream in = new InflaterInputStream(new ByteArrayInputStream(xml));
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(xml.length * 8);
+		byte[] buffer = new byte[8192];
+		int n;
+		while ((n = in.read(buffer)) != -1)
+		{
+			bytes.write(buffer, 0, n);
+		}
+		return bytes.toString(ENCODING);
+	}
+	
+	// The fields are transient so set them up after deserialization.
+	private void readObject(ObjectInputStream in)
+		throws IOException, ClassNotFoundException
+	{
+		in.defaultReadObject();
+		sections = new Hashtable();
+	}
+	
+	
+	
+	
+	/** Where a book that hasn't been read is in the catalog file: its figures
+	*	followed by its XML.
+	*/
+	private final static class Section
+	{
+		private long offset;
+		private int dataLength;
+		private int xmlLength;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,305 @@
+/****************************************************************************
+**
+**	FileName:	ParallelGZIPOutputStream.java
+**
+**	Project:	Dxf2Svg
+**
+**	Purpose:	Writes GZIP data whose blocks are compressed on several
+**				threads at once.
+**
+**	Date:		October 17, 2026
+**
+**	Author:		Andrew Nisbet
+**
+**	Environment:Java(TM) 2 Runtime Environment, Standard Edition
+**				(build 1.5.0)
+**
+**	Version:	1.00 - October 17, 2026
+**
+**	TODO:
+**
+*****************************************************************************/
+
+package dxf2svg;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;	// ExecutorService and Futures.
+import java.util.zip.*;
+
+/**	This class is a replacement for <code>GZIPOutputStream</code> that splits
+*	what is written to it into blocks of {@link #BLOCK_SIZE} bytes and
+*	deflates the blocks on a shared pool of threads, the way <b>pigz</b> does.
+*	<P>
+*	Each block is compressed on its own, primed with the last 32K of the block
+*	before it so little is lost in compression, and all but the last end with
+*	a sync flush, which leaves the compressed block on a byte boundary. The
+*	compressed blocks are written in order, so the result is one ordinary GZIP
+*	member with one deflate stream that SvgUnZip, <code>GZIPInputStream</code>,
+*	gzip and browsers can read. The output is not the same bytes as
+*	<code>GZIPOutputStream</code> would write, and it is a little larger.
+*	<P>
+*	Only a few blocks per thread are held in memory at once; if the writer
+*	gets ahead of the compressors it waits for the oldest block to finish.
+*	The thread pool is shared by every stream so concurrent conversions
+*	don't each start their own threads. Its threads are daemons and are
+*	started as they are needed.
+*	<P>
+*	The sync flush needs Java 1.7 or later.
+*
+*	@version 	1.00 - October 17, 2026
+*	@author		Andrew Nisbet
+*/
+public final class ParallelGZIPOutputStream extends OutputStream
+{
+	/** Number of bytes compressed as one block. */
+	public final static int BLOCK_SIZE = 131072;
+	private final static int DICTIONARY_SIZE = 32768;	// Deflate's window.
+	private final static int GZIP_MAGIC = 0x8b1f;
+	private final static int OS_UNKNOWN = 255;
+
+	private static ThreadPoolExecutor sharedPool;	// Compresses the blocks of all streams.
+
+	private OutputStream out;		// Where the GZIP data goes.
+	private int level;				// Deflate compression level.
+	private ExecutorService pool;	// Compresses the blocks.
+	private int maxPending;			// Blocks allowed in the pool at once.
+	private LinkedList pending;		// Futures of compressed blocks, oldest first.
+	private byte[] block;			// Block being filled.
+	private int blockLength;		// Bytes in block.
+	private byte[] previousBlock;	// Last block submitted; supplies the dictionary.
+	private CRC32 crc;				// Of the uncompressed data.
+	private long size;				// Bytes of uncompressed data.
+	private boolean closed;
+
+	/** Creates a stream that writes GZIP data to the argument stream and
+	*	writes the GZIP header.
+	*	@param out stream to write the compressed data to.
+	*	@param level compression level 0-9, or <code>Deflater.DEFAULT_COMPRESSION</code>.
+	*	@param threads number of blocks that may be compressed at once.
+	*	@throws IOException if the header can't be written.
+	*/
+	public ParallelGZIPOutputStream(OutputStream out, int level, int threads)
+		throws IOException
+	{
+		if (threads < 1)
+			threads = 1;
+		this.out	= out;
+		this.level	= level;
+		pool		= getPool(threads);
+		maxPending	= threads * 2;
+		pending		= new LinkedList();
+		block		= new byte[BLOCK_SIZE];
+		blockLength	= 0;
+		crc			= new CRC32();
+		size		= 0L;
+		closed		= false;
+
+		out.write(new byte[] {
+			(byte)GZIP_MAGIC,		// Magic number (short)
+			(byte)(GZIP_MAGIC >> 8),
+			Deflater.DEFLATED,		// Compression method
+			0,						// Flags
+			0, 0, 0, 0,				// Modification time (int)
+			0,						// Extra flags
+			(byte)OS_UNKNOWN		// Operating system
+		});
+	}
+
+	// Returns the shared pool, adding threads to it if it has fewer than asked for.
+	private static synchronized ExecutorService getPool(int threads)
+	{
+		if (sharedPool == null)
+		{
+			sharedPool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue(), new ThreadFactory()
+				{
+					public Thread newThread(Runnable r)
+					{
+						Thread t = new Thread(r, "dxf2svg-gzip");
+						t.setDaemon(true);
+						return t;
+					}
+				});
+			sharedPool.allowCoreThreadTimeOut(true);
+		}
+		else if (sharedPool.getMaximumPoolSize() < threads)
+		{
+			sharedPool.setMaximumPoolSize(threads);
+			sharedPool.setCorePoolSize(threads);
+		}
+		return sharedPool;
+	}
+
+	public void write(int b) throws IOException
+	{
+		ensureOpen();
+		block[blockLength++] = (byte)b;
+		if (blockLength == BLOCK_SIZE)
+			submitBlock(false);
+	}
+
+	public void write(byte[] b, int off, int len) throws IOException
+	{
+		ensureOpen();
+		while (len > 0)
+		{
+			int n = Math.min(len, BLOCK_SIZE - blockLength);
+			System.arraycopy(b, off, block, blockLength, n);
+			blockLength += n;
+			off += n;
+			len -= n;
+			if (blockLength == BLOCK_SIZE)
+				submitBlock(false);
+		}
+	}
+
+	/** Writes out the compressed blocks that are finished. Data that hasn't
+	*	made up a whole block yet is held until it does or the stream is closed.
+	*/
+	public void flush() throws IOException
+	{
+		ensureOpen();
+		while (! pending.isEmpty() && ((Future)pending.getFirst()).isDone())
+			writeBlock((Future)pending.removeFirst());
+		out.flush();
+	}
+
+	/** Compresses what is left, writes the GZIP trailer and closes the
+	*	underlying stream.
+	*/
+	public void close() throws IOException
+	{
+		if (closed)
+			return;
+		try
+		{
+			submitBlock(true);
+			while (! pending.isEmpty())
+				writeBlock((Future)pending.removeFirst());
+			writeInt((int)crc.getValue());
+			writeInt((int)size);
+		}
+		finally
+		{
+			closed = true;
+			// Don't leave the rest of the blocks running if something failed.
+			while (! pending.isEmpty())
+				((Future)pending.removeFirst()).cancel(true);
+			out.close();
+		}
+	}
+
+	private void ensureOpen() throws IOException
+	{
+		if (closed)
+			throw new IOException("ParallelGZIPOutputStream error: stream closed.");
+	}
+
+	// Hands the current block to the pool and starts a new one.
+	private void submitBlock(boolean isLast) throws IOException
+	{
+		crc.update(block, 0, blockLength);
+		size += blockLength;
+		pending.addLast(pool.submit(
+			new BlockCompressor(block, blockLength, previousBlock, isLast)));
+		previousBlock = block;
+		block = new byte[BLOCK_SIZE];
+		blockLength = 0;
+
+		// Don't get too far ahead of the compressors.
+		while (pending.size() > maxPending)
+			writeBlock((Future)pending.removeFirst());
+	}
+
+	// Waits for the block to be compressed and writes it.
+	private void writeBlock(Future future) throws IOException
+	{
+		try
+		{
+			out.write((byte[])future.get());
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("ParallelGZIPOutputStream error: "+
+				"interrupted while compressing.");
+		}
+		catch (ExecutionException e)
+		{
+			IOException io = new IOException("ParallelGZIPOutputStream error: "+
+				"compressing a block failed: "+e.getCause());
+			io.initCause(e.getCause());
+			throw io;
+		}
+	}
+
+	// Writes an int in the least significant byte first order of GZIP.
+	private void writeInt(int i) throws IOException
+	{
+		out.write(i & 0xff);
+		out.write((i >> 8) & 0xff);
+		out.write((i >> 16) & 0xff);
+		out.write((i >> 24) & 0xff);
+	}
+
+
+
+
+	/** Deflates one block. */
+	private final class BlockCompressor implements Callable
+	{
+		private byte[] data;		// The block; not changed once submitted.
+		private int length;
+		private byte[] dictionary;	// Previous block or null if this is the first.
+		private boolean isLast;
+
+		private BlockCompressor(byte[] data, int length, byte[] dictionary, boolean isLast)
+		{
+			this.data		= data;
+			this.length		= length;
+			this.dictionary	= dictionary;
+			this.isLast		= isLast;
+		}
+
+		public Object call()
+		{
+			// No zlib header; the GZIP header and trailer are written by the stream.
+			Deflater def = new Deflater(level, true);
+			try
+			{
+				if (dictionary != null)
+					def.setDictionary(dictionary, BLOCK_SIZE - DICTIONARY_SIZE,
+						DICTIONARY_SIZE);
+				def.setInput(data, 0, length);
+				ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 4 + 64);
+				byte[] buf = new byte[Math.max(length / 4, 512)];
+				if (isLast)
+				{
+					def.finish();
+					while (! def.finished())
+					{
+						int n = def.deflate(buf);
+						compressed.write(buf, 0, n);
+					}
+				}
+				else
+				{
+					// Keep going until the input is used up and the flush fits in buf.
+					int n;
+					do
+					{
+						n = def.deflate(buf, 0, buf.length, Deflater.SYNC_FLUSH);
+						compressed.write(buf, 0, n);
+					}
+					while (n == buf.length || ! def.needsInput());
+				}
+				return compressed.toByteArray();
+			}
+			finally
+			{
+				def.end();
+			}
+		}
+	}
+}
@@ -38,6 +38,12 @@
 **				so they can be updated from the config.d2s file.
 **				1.73 - February 10, 2005 Updated @param tag with parameter name to 
 **				correct error with Javadoc 1.4.2-04.
+**				1.74 - October 17, 2026 External style sheet is written next to
+**				this conversion's file, one writer at a time.
+**				1.75 - October 17, 2026 Switches are read from the conversion's
+**				ConversionSettings.
+**				1.76 - October 17, 2026 Layer colours are looked up through the
+**				conversion's settings.
 **
 **	TODO:
 **
@@ -80,8 +86,8 @@ import dxf2svg.util.*;	// Tables, CustomLayerStyle CustomTextStyle.
 public final class StyleSheetGenerator
 {
 	private int MAKE_CSS;					// determined by Dxf2Svg's MAKE_CSS var
-	private static boolean DEBUG;			// debug switch
-	private static boolean VERBOSE;			// Verbosity
+	private boolean DEBUG;					// debug switch
+	private boolean VERBOSE;				// Verbosity
 	private boolean GEN_NEW_CSS;			// generate one svg.css file only
 	private String StyleStr;				// Used for holding temporary Style for elements
 	private String StyleSheet;				// for placement into the style section of SVG
@@ -89,6 +95,8 @@ public final class StyleSheetGenerator
 	private Hashtable LineTypeTables;		// table of LineTypeObjects
 	private Hashtable StyleTables;			// table of Styletable objects
 	private Vector Attdef;					// Attribute definitions.
+	private DxfConverter DxfConverterRef;	// Conversion context.
+	private ConversionSettings settings;	// Switch settings of the conversion.
 
 
 	// constructor
@@ -101,9 +109,11 @@ public final class StyleSheetGenerator
 	*/
 	public StyleSheetGenerator( ProcessorManager pm )
 	{
-		VERBOSE 	= DxfPreprocessor.verboseMode();
-		DEBUG		= DxfPreprocessor.debugMode();
-		MAKE_CSS 	= DxfPreprocessor.cssMode();
+		DxfConverterRef = pm.getDxfConverter();
+		settings	= DxfConverterRef.getSettings();
+		VERBOSE 	= settings.verboseMode();
+		DEBUG		= settings.debugMode();
+		MAKE_CSS 	= settings.cssMode();
 		GEN_NEW_CSS = true;
 
 
@@ -159,7 +169,7 @@ public final class StyleSheetGenerator
 		String defaultLayerName = TableLayer.getDefaultLanguageLayerName();
 		if (! LayerTables.containsKey(defaultLayerName))
 		{
-			TableLayer TLayer = new TableLayer( this );
+			TableLayer TLayer = new TableLayer( DxfConverterRef );
 			// Name of the layer.
 			TLayer.setName(defaultLayerName);
 			// LineTypeName
@@ -500,7 +510,7 @@ public final class StyleSheetGenerator
 		}
 		ColorNum = TL.getColour();
 
-		return DxfPreprocessor.getColour(ColorNum);
+		return settings.getColour(ColorNum);
 	}
 
 	/** Given the name of a layer this method does a lookup and returns
@@ -765,7 +775,7 @@ public final class StyleSheetGenerator
 
 
 		////// Output the font URLs if required.
-		if (DxfPreprocessor.includeUrl() == true)
+		if (settings.includeUrl() == true)
 		{
 			// Now make sure that the styles that get output have unique names.
 			// We cannot have two styles in a style sheet that have the same
@@ -841,30 +851,35 @@ public final class StyleSheetGenerator
 	// Makes the external style sheet by using the internal style sheet as an example.
 	public void makeExternalStyleSheet()
 	{
-		String path = DxfPreprocessor.getFileName();
+		String path = DxfConverterRef.getFilePath();
 		File PATH = new File(path);
 		path = PATH.getParent();
 		File OUT = new File(path, Dxf2SvgConstants.STYLE_SHEET_NAME);
 
 		StringBuffer buffOut = new StringBuffer();
 		makeStyleSheet(buffOut, Dxf2SvgConstants.NO_INDENT);
-		try
+		// Every file in a directory shares the one style sheet so don't let
+		// concurrent conversions write it at the same time.
+		synchronized (StyleSheetGenerator.class)
 		{
-			BufferedWriter BWriter = new BufferedWriter(
-				new FileWriter(OUT));
+			try
+			{
+				BufferedWriter BWriter = new BufferedWriter(
+					new FileWriter(OUT));
 
-			BWriter.write(buffOut.toString());
+				BWriter.write(buffOut.toString());
 
-			BWriter.write("/*** Automatically generated by "+Dxf2SvgConstants.APPLICATION+" ***/");
-			BWriter.newLine();
-			BWriter.write("/* EOF */");
+				BWriter.write("/*** Automatically generated by "+Dxf2SvgConstants.APPLICATION+" ***/");
+				BWriter.newLine();
+				BWriter.write("/* EOF */");
 
-			BWriter.close();
-		}
-		catch (IOException e)
-		{
-			System.err.println("StyleSheetGenerator.makeExternalStyleSheet(): "+
-				"An error occured writing to an external style sheet. "+e);
+				BWriter.close();
+			}
+			catch (IOException e)
+			{
+				System.err.println("StyleSheetGenerator.makeExternalStyleSheet(): "+
+					"An error occured writing to an external style sheet. "+e);
+			}
 		}
 	}
 
@@ -877,7 +892,7 @@ public final class StyleSheetGenerator
 	*/
 	public boolean isLangSwitchRequired()
 	{
-		if (DxfPreprocessor.useHTMLWrappers() == true)
+		if (settings.useHTMLWrappers() == true)
 		{
 			if (hasLayer(TableLayer.getLanguageLayerName(Dxf2SvgConstants.ENGLISH)) && 
 				hasLayer(TableLayer.getLanguageLayerName(Dxf2SvgConstants.FRENCH)))
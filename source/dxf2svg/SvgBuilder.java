@@ -39,6 +39,21 @@
 **				2.01 - July 29, 2005 Moved the getAttributes() method out of JavaScript
 **				processing if statement. Fixes additional attributes not showing 
 **				on <svg> tag if there is not JavaScript.
+**				2.02 - October 17, 2026 Output file names and the xlink namespace now
+**				come from the conversion context so files can be converted concurrently.
+**				2.03 - October 17, 2026 Switch settings are read from the conversion's
+**				ConversionSettings.
+**				2.04 - October 17, 2026 Layers spooled by a SvgLayerSpool are copied
+**				from the spool to the SVG file rather than formatted in memory.
+**				2.05 - October 17, 2026 Elements are written to the file with their
+**				writeTo() method instead of toString().
+**				2.06 - October 17, 2026 With '-z' the SVG is compressed as it is
+**				written instead of being written, compressed and deleted.
+**				2.07 - October 17, 2026 '-z_threads' compresses the SVG on several threads.
+**				2.08 - October 17, 2026 Blocks aren't declared as entities if they go
+**				to the shared symbol library. With a symbol library the namespace
+**				attributes are added to the <svg> tag before its additional attributes
+**				are written, not after, so the <use> references get xlink.
 **
 **	TODO:
 **
@@ -50,7 +65,6 @@ import java.io.*;			// file handling.
 import java.util.*;			// vector handling
 import dxf2svg.util.*;
 import dxf2svg.svg.*;
-import java.util.zip.*;		// For writing compressed svg.
 import java.util.regex.*;	// Search for boardnos.
 
 /**
@@ -84,7 +98,7 @@ public final class SvgBuilder
 												// this one not implemented yet.
 	private boolean DTD_ALT;					// Valid Dtd is TBD from user if false use default declaration
 												// in svg header.
-	private static int MAKE_CSS;				// if set we need to account for css in doc declaration
+	private int MAKE_CSS;						// if set we need to account for css in doc declaration
 	private boolean INCLUDE_ENCODING = true;	// Character encoding set specified.
 	private int INCLUDE_JAVASCRIPT;				// place script tags and safety for old browsers and
 												// users with JavaScript turned off.
@@ -116,6 +130,7 @@ public final class SvgBuilder
 
 	// Storage for additional attributes.
 	private Vector vAttribs;
+	private ConversionSettings settings;		// Switch settings of the conversion.
 
 
 	//******* constructor *********/
@@ -126,15 +141,16 @@ public final class SvgBuilder
 			throw new NullDxfConverterReferenceException(
 				"Svg object instantiation attempt: SvgBuilder.");
 		DxfConvertRef		= dxfc;
-		VERBOSE 			= DxfPreprocessor.verboseMode();
+		settings			= dxfc.getSettings();
+		VERBOSE 			= settings.verboseMode();
 		if (VERBOSE)
 		{
 			System.out.println("The SvgBuilder exists now.");
 		}
-		DEBUG				= DxfPreprocessor.debugMode();
-		MAKE_CSS			= DxfPreprocessor.cssMode();
-		DTD_ALT				= DxfPreprocessor.includeDTD();
-		INCLUDE_JAVASCRIPT	= DxfPreprocessor.includeJavaScript();
+		DEBUG				= settings.debugMode();
+		MAKE_CSS			= settings.cssMode();
+		DTD_ALT				= settings.includeDTD();
+		INCLUDE_JAVASCRIPT	= settings.includeJavaScript();
 		SSG 				= dxfc.getStyleSheetGenerator();// assign StyleSheetGenerator.
 		svgUtility 			= dxfc.getSvgUtil();			// conversion utility
 	}
@@ -190,7 +206,7 @@ public final class SvgBuilder
 	*
 	*	Called from DxfConverter object.
 	*/
-	private String makeSvgHeader()
+	private String makeSvgHeader() throws IOException
 	{
 
 		//****************************  set up DTD declaration  ***************************/
@@ -239,7 +255,9 @@ public final class SvgBuilder
 		//////////////////////
 		//		Blocks		//
 		//////////////////////
-		if (SvgEntityDeclareList != null && ! SvgEntityDeclareList.isEmpty())
+		// With a symbol library the INSERTs use the blocks from there instead.
+		if (SvgEntityDeclareList != null && ! SvgEntityDeclareList.isEmpty() &&
+			! DxfConvertRef.usesSymbolLibrary())
 		{
 			// lets make an iterator to traverse the list of blocks
 			Iterator SvgEntityDeclareListItorator = SvgEntityDeclareList.iterator();
@@ -256,7 +274,7 @@ public final class SvgBuilder
 					DTD.append(" \'\n");	// write start double quote
 				else
 					DTD.append(" \"\n");	// write start double quote
-				DTD.append(thisEntity.toString());	// write out the collection's objects
+				thisEntity.writeTo(DTD);			// write out the collection's objects
 				if (entityQuoteType == SvgEntityDeclaration.SINGLE_QUOTE)
 					DTD.append(" \'>\n");	// write start double quote
 				else
@@ -292,8 +310,13 @@ public final class SvgBuilder
 		addAttribute(new Attribute("width", String.valueOf(XMax)));
 		addAttribute(new Attribute("height", String.valueOf(YMax)));
 		SvgHeader.append(" viewBox=\"0 0 "+XMax+" "+YMax+"\"");
-		// get any additional attributes.
-		SvgHeader.append(getAdditionalAttributes());
+		// get any additional attributes. With a symbol library the namespaces have
+		// to be added first; without one the <svg> tag is written as it always was.
+		boolean isUsingSymbolLibrary = DxfConvertRef.usesSymbolLibrary();
+		if (! isUsingSymbolLibrary)
+		{
+			SvgHeader.append(getAdditionalAttributes());
+		}
 		// This is required if you have two languages. It will initialize the required
 		// functions and let the SVG file know what HTML function will interface with it.
 		if (DxfPreprocessor.hasJavaScript() == true || SSG.isLangSwitchRequired() == true)
@@ -324,11 +347,15 @@ public final class SvgBuilder
 		}
 		// Added xlink specification March 3, 2004
 		// other namespaces could be added here later as required.
-		if (DxfPreprocessor.getUsesLinks() == true)
+		if (DxfConvertRef.usesLinks() == true)
 		{
 			addAttribute(new Attribute("xmlns:xlink", "http://www.w3.org/1999/xlink"));
 		}
 		addAttribute(new Attribute("xmlns", "http://www.w3.org/2000/svg"));
+		if (isUsingSymbolLibrary)
+		{
+			SvgHeader.append(getAdditionalAttributes());
+		}
 		// close the svg tag.
 		SvgHeader.append(">\n");
 		// This is where the style sheets get added. (See StyleSheetGenerator for more detail.)
@@ -337,7 +364,7 @@ public final class SvgBuilder
 		// now include JavaScript or the tags if the user has requested them.
 		if (INCLUDE_JAVASCRIPT == Dxf2SvgConstants.EXTERNAL_SCRIPT ||
 			INCLUDE_JAVASCRIPT == Dxf2SvgConstants.INTERNAL_AND_EXTERNAL_SCRIPT)
-			this.JS_SRC_PATH = DxfPreprocessor.includeJavaScriptSrcPath();
+			this.JS_SRC_PATH = settings.includeJavaScriptSrcPath();
 
 		if (INCLUDE_JAVASCRIPT >= Dxf2SvgConstants.INTERNAL_SCRIPT ||
 			INCLUDE_JAVASCRIPT == Dxf2SvgConstants.INTERNAL_AND_EXTERNAL_SCRIPT)
@@ -356,6 +383,15 @@ public final class SvgBuilder
 
 
 
+	// Writes an object from one of the output lists; SvgElements write themselves.
+	private void writeObject(Writer out, Object o) throws IOException
+	{
+		if (o instanceof SvgElement)
+			((SvgElement)o).writeTo(out);
+		else
+			out.write(o.toString());
+	}
+
 	/**	Allows the submission of hatch patterns for output to the Svg file.
 	*/
 	public void submitSvgPatterns(Vector hatchPatterns)
@@ -382,7 +418,7 @@ public final class SvgBuilder
 
 		// DO NOT FORGET TO CLOSE THE BUFFEREDWRITER OR THE FUNCTION FAILS TO
 		// WRITE TO FILE.
-		boolean isZipped = DxfPreprocessor.isZipped();
+		boolean isZipped = settings.isZipped();
 		String zipFileNameOut = new String();
 		SvgEntityList = SOut;
 		File OUT;							// File descriptor for out file
@@ -400,10 +436,9 @@ public final class SvgBuilder
 		SOut.add("</g>  <!-- id=\"Page_1\" -->");
 			
 			
-		// We need this file for the initial SVG. Later if required, we 
-		// zip this file so we need both the svg name and the compressed file
-		// name. If the file is not to be compressed then we just need the name
-		// of the svg file for writing out the the <embed> tags in the html wrapper(s).
+		// The SVG is written to the svg file, or straight to the compressed file
+		// if the user asked for one. Either way the target is the name we need
+		// for writing out the the <embed> tags in the html wrapper(s).
 		FileNameOut = makeFileNameOut(SVG);
 		if (isZipped)
 		{
@@ -421,7 +456,10 @@ public final class SvgBuilder
 		htmlTargetName = TMP_HTML_TARGET_NAME.getName();
 		TMP_HTML_TARGET_NAME = null;
 		
-		OUT	= new File(FileNameOut);
+		if (isZipped)
+			OUT	= new File(zipFileNameOut);
+		else
+			OUT	= new File(FileNameOut);
 
 
 
@@ -441,8 +479,20 @@ public final class SvgBuilder
 		}
 
 
-		BufferedWriter BWriter = new BufferedWriter(
-			new FileWriter(OUT) );
+		BufferedWriter BWriter;
+		if (isZipped)
+		{
+			// The writer's buffer gives the compressor large blocks to work on.
+			BWriter = new BufferedWriter(
+				new OutputStreamWriter(SvgZip.openSvgz(OUT, settings.getZipLevel(),
+					settings.getZipBufferSize(), settings.getZipThreads())),
+				settings.getZipBufferSize() );
+		}
+		else
+		{
+			BWriter = new BufferedWriter(
+				new FileWriter(OUT) );
+		}
 
 		BWriter.write(makeSvgHeader());
 
@@ -460,7 +510,7 @@ public final class SvgBuilder
 			// we could do some auto indenting of nested tags in here
 			while (SvgPatternListItorator.hasNext())
 			{
-				BWriter.write(SvgPatternListItorator.next().toString());
+				writeObject(BWriter, SvgPatternListItorator.next());
 				BWriter.newLine();
 			} // wrote patterns
 			BWriter.write("</defs>");
@@ -481,7 +531,15 @@ public final class SvgBuilder
 		// we could do some auto indenting of nested tags in here
 		while (SvgEntityListItorator.hasNext())
 		{
-			BWriter.write(SvgEntityListItorator.next().toString());
+			Object svgEntity = SvgEntityListItorator.next();
+			if (svgEntity instanceof SvgLayerSpool.SpooledLayer)
+			{
+				((SvgLayerSpool.SpooledLayer)svgEntity).writeTo(BWriter);
+			}
+			else
+			{
+				writeObject(BWriter, svgEntity);
+			}
 			BWriter.newLine();
 		}
 		if (VERBOSE)
@@ -489,7 +547,7 @@ public final class SvgBuilder
 				" other Svg elements written.");
 		// added August 12, 2004 //
 		// This places any extra file content into the SVG. See DxfPreprocessor for details.
-		if (DxfPreprocessor.isInclude())
+		if (settings.isInclude())
 		{
 			SvgObjectX dxf2svgNameSpaceElement = new SvgObjectX(DxfConvertRef);
 			// Here is the namespace for the menu items.
@@ -503,8 +561,8 @@ public final class SvgBuilder
 				"activatePalette",String.valueOf(isWiring()));
 			dxf2svgNameSpaceElement.addAttribute(attribWiring);
 			dxf2svgNameSpaceElement.setType("dxf2svg:init");
-			BWriter.write(dxf2svgNameSpaceElement.toString());
-			BWriter.write(DxfPreprocessor.getIncludeFileData());
+			dxf2svgNameSpaceElement.writeTo(BWriter);
+			BWriter.write(settings.getIncludeFileData());
 			BWriter.newLine();
 		}
 		BWriter.write("</svg>");
@@ -515,59 +573,13 @@ public final class SvgBuilder
 		//////////////////////
 		// Now all of the header calculations etc. are done we can carry on with
 		// making the HTML wrappers if required.
-		if (DxfPreprocessor.useHTMLWrappers())
+		if (settings.useHTMLWrappers())
 		{
 			//writeHTMLWrapper(htmlTargetName, Dxf2SvgConstants.ENGLISH);
 			//writeHTMLWrapper(htmlTargetName, Dxf2SvgConstants.FRENCH);
 			HtmlWrapperBuilder wb = new HtmlWrapperBuilder(DxfConvertRef, this);
 			wb.writeHtmlWrapper();
 		}
-		
-		// Here we will compress the file we just output if the user requested it.
-		if (isZipped)
-		{
-			int SIZE = 100;
-			GZIPOutputStream GZIPStream = new GZIPOutputStream(
-				new FileOutputStream(new File(zipFileNameOut)) );
-				
-			DataOutputStream GZIPOut = new DataOutputStream(
-				new BufferedOutputStream(GZIPStream) );
-				
-			File IN = new File(FileNameOut);
-			
-			DataInputStream  svgStreamIn = new DataInputStream(
-				new BufferedInputStream( new FileInputStream(IN) ) );
-
-
-
-			
-			byte[] Buf = new byte[SIZE];
-
-			int bytesRead = 0;
-			while (bytesRead != -1)
-			{
-				bytesRead = svgStreamIn.read(Buf);
-				if (bytesRead < SIZE)
-				{
-					for (int i = 0; i < bytesRead; i++)
-					{
-						GZIPOut.write(Buf[i]);
-					} // end for
-		
-				} // end if
-				else
-				{
-					GZIPOut.write(Buf);
-				}
-			}
-			
-			svgStreamIn.close();
-
-			GZIPOut.close();
-			
-			// Remove the Original svg file leaving only the compressed file.
-			IN.delete();
-		}
 	}
 	
 	
@@ -586,8 +598,8 @@ public final class SvgBuilder
 		for (int i = 0; i < layerNames.size(); i++)
 		{
 			layerName = (String)(layerNames.get(i));
-			if (DxfPreprocessor.isCollaboratorTarget(layerName) ||
-				DxfPreprocessor.isGangingTarget(layerName))
+			if (settings.isCollaboratorTarget(layerName) ||
+				settings.isGangingTarget(layerName))
 			{
 				return true; // stops looking after it finds a match for gang or wire.
 			}
@@ -639,7 +651,7 @@ public final class SvgBuilder
 	*/
 	protected String makeFileNameOut(int extension)
 	{
-		String FileName = DxfPreprocessor.getFileName();
+		String FileName = DxfConvertRef.getFilePath();
 		int len = FileName.length();
 		// We collect the root name sans extension.
 		String fOut = FileName.substring(0,(len - 4));
@@ -0,0 +1,435 @@
+/****************************************************************************
+**
+**	FileName:	SvgLayerSpool.java
+**
+**	Project:	Dxf2Svg
+**
+**	Purpose:	Spools finished entities to a temporary file, by layer, so
+**				the drawing does not have to be held in memory until output.
+**
+**	Date:		October 17, 2026
+**
+**	Author:		Andrew Nisbet
+**
+**	Environment:Java(TM) 2 Runtime Environment, Standard Edition
+**				(build 1.5.0)
+**
+**	Version:	1.00 - October 17, 2026
+**				1.01 - October 17, 2026 Layers are keyed by DxfConverter.getLayerKey().
+**				1.02 - October 17, 2026 The spool file is deleted by close() only,
+**				not registered with deleteOnExit(), so a long running '-watch' or
+**				'-serve' process doesn't keep a path for every conversion.
+**
+**	TODO:
+**
+*****************************************************************************/
+
+package dxf2svg;
+
+import java.io.*;
+import java.util.*;
+import dxf2svg.svg.*;
+
+/**	This class takes the entities from the EntityProcessor as each one is finished,
+*	formats it right away and writes the text to a temporary file. All that is
+*	kept in memory for an element is where its text is in the file and which layer
+*	it belongs to. When {@link SvgBuilder} writes the layers, the text of each
+*	layer is read back from the spool and copied straight to the SVG, so the
+*	largest thing in memory is a single element rather than the whole drawing.
+*	It is used when the '-stream_layers' switch is set.
+*	<P>
+*	The output is the same as {@link DxfConverter} makes when it groups the
+*	elements in memory: text is written at the end of its layer in the order
+*	it was read and all other elements are written at the front of the layer
+*	in the reverse order they were read.
+*	<P>
+*	Some elements can not be formatted until later so they are kept as objects:
+*	<UL>
+*	<LI> Images, and hyperlinks around images, because their file reference comes
+*	from the OBJECTS section which is read after the ENTITIES section.
+*	<LI> Every element on a layer that is a collaborator target, has animation in
+*	the config file or is searched for wire ids or part numbers, because those
+*	layers are rearranged or modified after collection.
+*	</UL>
+*	If the spool file can not be written, a message is issued and the rest of
+*	the elements are kept in memory, so the conversion still completes. The
+*	spool file is deleted by {@link #close}, which {@link DxfConverter} calls
+*	when the conversion finishes or fails.
+*
+*	@version 	1.00 - October 17, 2026
+*	@author		Andrew Nisbet
+*/
+public final class SvgLayerSpool
+{
+	private static final String ENCODING = "UTF-8";
+	private DxfConverter DxfConverterRef;	// Conversion context.
+	private Hashtable layers;				// DxfConverter.getLayerKey() -> LayerRecords.
+	private Vector deferred;				// Elements not yet formatted.
+	private File spoolFile;					// Temporary file or null if not yet made.
+	private OutputStream out;				// Writes to the spool file.
+	private long spoolSize;					// Bytes written to the spool so far.
+	private RandomAccessFile in;			// Reads the spool back at output time.
+	private byte[] readBuffer;				// Reused for reading records.
+	private boolean failed;					// Could not write to the spool.
+
+	/** Creates an empty spool for the argument conversion. The temporary file is
+	*	not created until the first element is spooled.
+	*	@param dxfc conversion context.
+	*/
+	public SvgLayerSpool(DxfConverter dxfc)
+	{
+		DxfConverterRef = dxfc;
+		layers			= new Hashtable();
+		deferred		= new Vector();
+		readBuffer		= new byte[1024];
+		spoolSize		= 0L;
+		failed			= false;
+	}
+
+	/** Adds a finished element to the spool. Suppressed elements are dropped
+	*	as they would be when the layers are grouped in memory.
+	*/
+	public void add(SvgElement svge)
+	{
+		if (svge == null || svge.isSuppressed())
+		{
+			return;
+		}
+
+		String layerName = svge.getLayer();
+		String key = DxfConverter.getLayerKey(layerName);
+		LayerRecords records = (LayerRecords)layers.get(key);
+		if (records == null)
+		{
+			records = new LayerRecords(isHeldLayer(layerName));
+			layers.put(key, records);
+		}
+
+		if (records.isHeld)
+		{
+			records.heldElements.add(svge);
+			return;
+		}
+
+		// This is what outputLayersByGroup() does before the element is output.
+		svge.setIncludeClassAttribute(false);
+		boolean isText = svge instanceof SvgText;
+		if (failed || isDeferred(svge))
+		{
+			records.add(isText, deferred.size(), -1);
+			deferred.add(svge);
+			return;
+		}
+
+		try
+		{
+			byte[] text = svge.toString().getBytes(ENCODING);
+			if (out == null)
+			{
+				spoolFile = File.createTempFile("dxf2svg", ".spool");
+				out = new BufferedOutputStream(new FileOutputStream(spoolFile), 65536);
+			}
+			out.write(text);
+			records.add(isText, spoolSize, text.length);
+			spoolSize += text.length;
+		}
+		catch (IOException e)
+		{
+			System.err.println("SvgLayerSpool error: unable to write to the spool file; "+
+				"the remaining elements will be kept in memory. "+e);
+			failed = true;
+			records.add(isText, deferred.size(), -1);
+			deferred.add(svge);
+		}
+	}
+
+	// Images get their href from the OBJECTS section so they are formatted later.
+	private boolean isDeferred(SvgElement svge)
+	{
+		if (svge instanceof SvgImage)
+		{
+			return true;
+		}
+
+		if (svge instanceof SvgCollection)
+		{
+			Vector children = ((SvgCollection)svge).getGroupElementsByReference();
+			for (int i = 0; i < children.size(); i++)
+			{
+				if (children.get(i) instanceof SvgImage)
+				{
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	// A layer is held in memory if the conversion needs the elements of it, or of
+	// a layer whose name differs only in case, as objects. Elements are grouped
+	// onto layers ignoring case so they share the same records.
+	private boolean isHeldLayer(String layerName)
+	{
+		Vector layerNames = new Vector();
+		DxfConverterRef.getStyleSheetGenerator().getLayerNames(layerNames);
+		layerNames.add(layerName);
+		for (int i = 0; i < layerNames.size(); i++)
+		{
+			String name = (String)layerNames.get(i);
+			if (name.equalsIgnoreCase(layerName) && DxfConverterRef.needsLayerObjects(name))
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/** Returns true if the named layer's elements were written to the spool
+	*	rather than held in memory. Layers that have no elements return false.
+	*/
+	public boolean isSpooled(String layerName)
+	{
+		LayerRecords records = getRecords(layerName);
+		return records != null && ! records.isHeld;
+	}
+
+	/** Returns the elements of a held layer in the order they were read. The
+	*	Vector is empty if the layer has no elements or its elements were spooled.
+	*/
+	public Vector getHeldElements(String layerName)
+	{
+		LayerRecords records = getRecords(layerName);
+		if (records == null || ! records.isHeld)
+		{
+			return new Vector();
+		}
+
+		return records.heldElements;
+	}
+
+	/** Returns the spooled content of a layer wrapped in the argument layer group,
+	*	or null if the layer has no spooled elements.
+	*	@param layerGroup the empty layer group whose tags enclose the content.
+	*/
+	public SpooledLayer getSpooledLayer(SvgLayerGroup layerGroup)
+	{
+		LayerRecords records = getRecords(layerGroup.getLayerName());
+		if (records == null || records.isHeld || records.isEmpty())
+		{
+			return null;
+		}
+
+		return new SpooledLayer(layerGroup, records);
+	}
+
+	// Returns the records for the named layer or null if there are none.
+	private LayerRecords getRecords(String layerName)
+	{
+		return (LayerRecords)layers.get(DxfConverter.getLayerKey(layerName));
+	}
+
+	/** Closes and deletes the spool file. Call this once the SVG has been written,
+	*	or the conversion has failed.
+	*/
+	public void close()
+	{
+		try
+		{
+			closeStream(out);
+			closeStream(in);
+		}
+		finally
+		{
+			out = null;
+			in = null;
+			if (spoolFile != null && ! spoolFile.delete() && spoolFile.exists())
+			{
+				System.err.println("SvgLayerSpool warning: unable to delete the spool file '"+
+					spoolFile.getPath()+"'.");
+			}
+			spoolFile = null;
+			layers.clear();
+			deferred.clear();
+		}
+	}
+
+	// Closes a stream of the spool file, if it is open, reporting any failure.
+	private static void closeStream(Closeable c)
+	{
+		if (c == null)
+		{
+			return;
+		}
+
+		try
+		{
+			c.close();
+		}
+		catch (IOException e)
+		{
+			System.err.println("SvgLayerSpool error: closing the spool file. "+e);
+		}
+	}
+
+	// Writes one record to the argument Writer.
+	private void writeRecord(Writer w, long offset, int length) throws IOException
+	{
+		if (length < 0)
+		{
+			w.write(deferred.get((int)offset).toString());
+			return;
+		}
+
+		if (in == null)
+		{
+			out.flush();
+			in = new RandomAccessFile(spoolFile, "r");
+		}
+
+		if (readBuffer.length < length)
+		{
+			readBuffer = new byte[Math.max(length, readBuffer.length * 2)];
+		}
+		in.seek(offset);
+		in.readFully(readBuffer, 0, length);
+		w.write(new String(readBuffer, 0, length, ENCODING));
+	}
+
+
+
+
+	/** The spooled content of one layer, ready for {@link SvgBuilder} to write
+	*	in place of an in-memory {@link SvgLayerGroup}.
+	*/
+	public final class SpooledLayer
+	{
+		private SvgLayerGroup layerGroup;	// Supplies the <g> tags.
+		private LayerRecords records;		// Where the layer's elements are.
+
+		private SpooledLayer(SvgLayerGroup layerGroup, LayerRecords records)
+		{
+			this.layerGroup = layerGroup;
+			this.records	= records;
+		}
+
+		/** Returns the layer group whose tags enclose this layer. */
+		public SvgLayerGroup getLayerGroup()
+		{
+			return layerGroup;
+		}
+
+		/** Writes the layer to the argument Writer exactly as the layer group's
+		*	toString() would have.
+		*	@throws IOException if the spool can not be read or the Writer fails.
+		*/
+		public void writeTo(Writer w) throws IOException
+		{
+			w.write(layerGroup.getStartTag());
+			w.write("\n");
+			// Everything but text goes at the front of the layer, last one first...
+			for (int i = records.otherCount - 1; i >= 0; i--)
+			{
+				w.write("\t");
+				writeRecord(w, records.otherOffsets[i], records.otherLengths[i]);
+				w.write("\n");
+			}
+			// ...and text at the end in the order it was read.
+			for (int i = 0; i < records.textCount; i++)
+			{
+				w.write("\t");
+				writeRecord(w, records.textOffsets[i], records.textLengths[i]);
+				w.write("\n");
+			}
+			w.write(layerGroup.getEndTag());
+		}
+
+		/** Returns the layer's start tag; the content has to be written with
+		*	{@link #writeTo}.
+		*/
+		public String toString()
+		{
+			return layerGroup.getStartTag();
+		}
+	}
+
+
+
+
+	/** Locations of the elements of one layer. A negative length means the
+	*	offset is an index into the deferred elements.
+	*/
+	private final static class LayerRecords
+	{
+		private final boolean isHeld;	// Elements are kept as objects.
+		private Vector heldElements;	// Elements of a held layer.
+		private long[] otherOffsets;
+		private int[] otherLengths;
+		private int otherCount;
+		private long[] textOffsets;
+		private int[] textLengths;
+		private int textCount;
+
+		private LayerRecords(boolean isHeld)
+		{
+			this.isHeld = isHeld;
+			if (isHeld)
+			{
+				heldElements = new Vector();
+			}
+			else
+			{
+				otherOffsets = new long[16];
+				otherLengths = new int[16];
+				textOffsets  = new long[16];
+				textLengths  = new int[16];
+			}
+		}
+
+		private void add(boolean isText, long offset, int length)
+		{
+			if (isText)
+			{
+				if (textCount == textOffsets.length)
+				{
+					textOffsets = grow(textOffsets);
+					textLengths = grow(textLengths);
+				}
+				textOffsets[textCount] = offset;
+				textLengths[textCount] = length;
+				textCount++;
+			}
+			else
+			{
+				if (otherCount == otherOffsets.length)
+				{
+					otherOffsets = grow(otherOffsets);
+					otherLengths = grow(otherLengths);
+				}
+				otherOffsets[otherCount] = offset;
+				otherLengths[otherCount] = length;
+				otherCount++;
+			}
+		}
+
+		private boolean isEmpty()
+		{
+			return otherCount == 0 && textCount == 0;
+		}
+
+		private static long[] grow(long[] a)
+		{
+			long[] b = new long[a.length * 2];
+			System.arraycopy(a, 0, b, 0, a.length);
+			return b;
+		}
+
+		private static int[] grow(int[] a)
+		{
+			int[] b = new int[a.length * 2];
+			System.arraycopy(a, 0, b, 0, a.length);
+			return b;
+		}
+	}
+}
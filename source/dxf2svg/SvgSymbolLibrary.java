@@ -0,0 +1,380 @@
+/****************************************************************************
+**
+**	FileName:	SvgSymbolLibrary.java
+**
+**	Project:	Dxf2Svg
+**
+**	Purpose:	Shared SVG file of the blocks used by a batch of drawings, each
+**				distinct block written once.
+**
+**	Date:		October 17, 2026
+**
+**	Author:		Andrew Nisbet
+**
+**	Environment:Java(TM) 2 Runtime Environment, Standard Edition
+**				(build 1.4.0)
+**
+**	Version:	1.00 - October 17, 2026
+**				1.01 - October 17, 2026 write() appends the symbols added since the
+**				last write instead of writing the whole file again.
+**				1.02 - October 17, 2026 IDs and links are safe to write as they are,
+**				lines end the same when written and read, and the link to the file
+**				is worked out without java.nio.
+**
+**	TODO:
+**
+*****************************************************************************/
+
+package dxf2svg;
+
+import java.io.*;
+import java.net.URI;			// for the links from the drawings.
+import java.util.*;
+import java.util.regex.*;
+import dxf2svg.util.Dxf2SvgConstants;
+
+/**	This class is the symbol library the '-symbol_library' switch writes.
+*	Normally every block of a DXF is declared as an XML ENTITY in the DOCTYPE of
+*	its SVG, so a title block or connector used on a thousand sheets is written
+*	a thousand times. With a library each {@link DxfConverter} hands the blocks
+*	its drawing refers to to {@link #addSymbol}, which keeps one copy of each
+*	distinct block for the whole batch, and the drawing refers to it with a
+*	<code>&lt;use xlink:href="library.svg#id"/&gt;</code> instead.
+*	<P>
+*	Blocks are matched by their content, as SVG, not by their name, so a block
+*	that is the same on every sheet is stored once whatever it is called, and
+*	two different blocks with the same name are both kept; the second gets the
+*	name with '_' and a number added. Characters that a name can't have in an
+*	XML ID, in the comment that ends its symbol or in a link are replaced with
+*	'_'. Blocks that refer to other blocks refer to them within the library.
+*	<P>
+*	The library file is read back when the library is created so a later run,
+*	an '-incremental' one for instance, adds to it rather than losing the
+*	symbols of the drawings it doesn't convert again. Symbols are never removed;
+*	delete the file to start a new library. The library links to the external
+*	style sheet if '-css external' is used; the classes of the symbols are
+*	otherwise only styled by the drawings they are used in.
+*	<P>
+*	A library is shared by all the conversions of the process so its methods
+*	are synchronized. The '-serve' service saves it after every conversion, so
+*	{@link #write} only adds the symbols that are new to the end of the file
+*	when the file is still the one it wrote or read.
+*
+*	@version 	1.02 - October 17, 2026
+*	@author		Andrew Nisbet
+*/
+public final class SvgSymbolLibrary
+{
+	private final static String ENCODING = "ISO-8859-1";
+	// First line of a symbol; the line "</g><!-- id -->" ends it.
+	private final static Pattern SYMBOL_START = Pattern.compile("^<g id=\"([^\"]+)\">$");
+	// Lines end the same on every platform so read() gets back what was added.
+	private final static String NEW_LINE = "\n";
+	// Last lines of the file; new symbols are written over them.
+	private final static String END = "</defs>" + NEW_LINE + "</svg>" + NEW_LINE;
+
+	private File file;
+	private HashMap symbols;		// SVG content -> symbol ID.
+	private LinkedHashMap contents;	// Symbol ID -> SVG content, in the order added.
+	private boolean changed;		// Symbols have been added since the file was written.
+	private int written;			// Number of symbols in the file, 0 if it has to be written whole.
+	private long writtenLength;		// Length of the file when it was last written or read.
+	private long writtenModified;	// Modification time of the file then.
+
+	/** Creates the library that is saved in the argument file, reading the
+	*	symbols already in the file if there is one.
+	*	@throws IOException if the file exists but can't be read.
+	*/
+	public SvgSymbolLibrary(File file) throws IOException
+	{
+		this.file	= file.getAbsoluteFile();
+		symbols		= new HashMap();
+		contents	= new LinkedHashMap();
+		if (this.file.isFile())
+		{
+			read();
+		}
+	}
+
+	/** Returns the library file. */
+	public File getFile()
+	{
+		return file;
+	}
+
+	/** Returns the link to the library file from a file in the argument
+	*	directory; the name of the library file if they are in the same one.
+	*	The link is escaped so it can be written as it is in an attribute.
+	*/
+	public String getHref(File dir)
+	{
+		String[] from = getURIPath(dir.getAbsoluteFile()).split("/");
+		String[] to = getURIPath(file).split("/");
+		// Directories in common; the first is the empty name before the root.
+		int common = 0;
+		while (common < from.length && common < to.length - 1 &&
+			from[common].equals(to[common]))
+		{
+			common++;
+		}
+		String href;
+		if (common < 2 && to[1].indexOf(':') >= 0)
+		{
+			// On a different drive.
+			href = file.toURI().toASCIIString();
+		}
+		else
+		{
+			StringBuffer sb = new StringBuffer();
+			for (int i = common; i < from.length; i++)
+			{
+				sb.append("../");
+			}
+			for (int i = common; i < to.length; i++)
+			{
+				if (i > common)
+				{
+					sb.append('/');
+				}
+				sb.append(to[i]);
+			}
+			href = sb.toString();
+		}
+		return href.replaceAll("&", "&amp;");
+	}
+
+	// Returns the path of the argument file as a URI with '.' and '..' taken
+	// out and any character that can't be in a URI encoded.
+	private static String getURIPath(File f)
+	{
+		return URI.create(f.toURI().normalize().toASCIIString()).getRawPath();
+	}
+
+	// Returns the argument name with any character other than a letter, digit,
+	// '_', '.' or a lone '-' replaced with '_', and '_' before it if it doesn't
+	// start with a letter or '_'.
+	private static String toID(String name)
+	{
+		StringBuffer id = new StringBuffer(name.length() + 1);
+		for (int i = 0; i < name.length(); i++)
+		{
+			char c = name.charAt(i);
+			if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') ||
+				(c >= '0' && c <= '9') || c == '_' || c == '.')
+			{
+				id.append(c);
+			}
+			else if (c == '-' && id.length() > 0 && id.charAt(id.length() - 1) != '-')
+			{
+				id.append(c);
+			}
+			else
+			{
+				id.append('_');
+			}
+		}
+		if (id.length() == 0 || ! (Character.isLetter(id.charAt(0)) || id.charAt(0) == '_'))
+		{
+			id.insert(0, '_');
+		}
+		return id.toString();
+	}
+
+	/** Adds a block to the library, if it isn't there already, and returns the
+	*	ID of its symbol.
+	*	@param name the block's name, used as the ID, with characters an ID
+	*	can't have replaced, if no other symbol has it.
+	*	@param content the block as SVG.
+	*	@return ID of the symbol in the library file.
+	*/
+	public synchronized String addSymbol(String name, String content)
+	{
+		String id = (String)symbols.get(content);
+		if (id != null)
+		{
+			return id;
+		}
+		String safeName = toID(name);
+		id = safeName;
+		for (int i = 1; contents.containsKey(id); i++)
+		{
+			id = safeName + "_" + i;
+		}
+		symbols.put(content, id);
+		contents.put(id, content);
+		changed = true;
+		return id;
+	}
+
+	/** Returns the number of symbols in the library. */
+	public synchronized int size()
+	{
+		return contents.size();
+	}
+
+	/** Writes the library file if symbols have been added since it was last
+	*	written. If the file hasn't changed since then only the new symbols are
+	*	written, over the end of the file.
+	*	@throws IOException if the file can't be written.
+	*/
+	public synchronized void write() throws IOException
+	{
+		if (! changed)
+		{
+			return;
+		}
+		if (written == 0 || file.length() != writtenLength ||
+			file.lastModified() != writtenModified || ! append())
+		{
+			writeAll();
+		}
+		written = contents.size();
+		writtenLength = file.length();
+		writtenModified = file.lastModified();
+		changed = false;
+	}
+
+	// Writes the symbols after the first 'written' over the end of the file and
+	// returns true, or returns false if the file doesn't end as it should.
+	private boolean append() throws IOException
+	{
+		RandomAccessFile out = new RandomAccessFile(file, "rw");
+		try
+		{
+			byte[] end = END.getBytes(ENCODING);
+			long endOffset = out.length() - end.length;
+			if (endOffset < 0)
+			{
+				return false;
+			}
+			byte[] last = new byte[end.length];
+			out.seek(endOffset);
+			out.readFully(last);
+			if (! Arrays.equals(end, last))
+			{
+				return false;
+			}
+			StringBuffer sb = new StringBuffer();
+			Iterator it = contents.entrySet().iterator();
+			for (int i = 0; it.hasNext(); i++)
+			{
+				Map.Entry e = (Map.Entry)it.next();
+				if (i >= written)
+				{
+					sb.append("<g id=\"").append(e.getKey()).append("\">").append(NEW_LINE);
+					sb.append(e.getValue()).append(NEW_LINE);
+					sb.append("</g><!-- ").append(e.getKey()).append(" -->").append(NEW_LINE);
+				}
+			}
+			sb.append(END);
+			out.seek(endOffset);
+			out.write(sb.toString().getBytes(ENCODING));
+			out.setLength(out.getFilePointer());
+		}
+		finally
+		{
+			out.close();
+		}
+		return true;
+	}
+
+	// Writes the whole library to a temporary file and renames it.
+	private void writeAll() throws IOException
+	{
+		File tmp = new File(file.getPath() + ".tmp");
+		BufferedWriter out = new BufferedWriter(
+			new OutputStreamWriter(new FileOutputStream(tmp), ENCODING));
+		try
+		{
+			out.write("<?xml version=\"1.0\" encoding=\"iso-8859-1\" standalone=\"no\"?>");
+			out.write(NEW_LINE);
+			out.write("<!-- Generated by Dxf2Svg v"+Dxf2SvgConstants.VERSION+" -->");
+			out.write(NEW_LINE);
+			if ((DxfPreprocessor.cssMode() & Dxf2SvgConstants.EXTERNAL_CSS) ==
+				Dxf2SvgConstants.EXTERNAL_CSS)
+			{
+				out.write("<?xml-stylesheet href=\""+Dxf2SvgConstants.STYLE_SHEET_NAME+
+					"\" type=\"text/css\"?>");
+				out.write(NEW_LINE);
+			}
+			out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" "+
+				"xmlns:xlink=\"http://www.w3.org/1999/xlink\">");
+			out.write(NEW_LINE);
+			out.write("<defs>");
+			out.write(NEW_LINE);
+			Iterator it = contents.entrySet().iterator();
+			while (it.hasNext())
+			{
+				Map.Entry e = (Map.Entry)it.next();
+				out.write("<g id=\""+e.getKey()+"\">");
+				out.write(NEW_LINE);
+				out.write((String)e.getValue());
+				out.write(NEW_LINE);
+				out.write("</g><!-- "+e.getKey()+" -->");
+				out.write(NEW_LINE);
+			}
+			out.write("</defs>");
+			out.write(NEW_LINE);
+			out.write("</svg>");
+			out.write(NEW_LINE);
+		}
+		finally
+		{
+			out.close();
+		}
+		if (file.exists() && ! file.delete())
+			throw new IOException("SvgSymbolLibrary error: can't replace '"+file+"'.");
+		if (! tmp.renameTo(file))
+			throw new IOException("SvgSymbolLibrary error: can't rename '"+tmp+
+				"' to '"+file+"'.");
+	}
+
+	// Reads the symbols written by write().
+	private void read() throws IOException
+	{
+		BufferedReader in = new BufferedReader(
+			new InputStreamReader(new FileInputStream(file), ENCODING));
+		try
+		{
+			String line;
+			while ((line = in.readLine()) != null)
+			{
+				Matcher m = SYMBOL_START.matcher(line);
+				if (! m.matches())
+				{
+					continue;
+				}
+				String id = m.group(1);
+				String end = "</g><!-- "+id+" -->";
+				StringBuffer content = new StringBuffer();
+				boolean first = true;
+				while ((line = in.readLine()) != null && ! line.equals(end))
+				{
+					if (! first)
+					{
+						content.append(NEW_LINE);
+					}
+					content.append(line);
+					first = false;
+				}
+				if (line == null)
+				{
+					// Cut short while it was written; the next write() writes it whole.
+					System.err.println("SvgSymbolLibrary warning: symbol '"+id+
+						"' in '"+file+"' has no end and is ignored.");
+					changed = true;
+					return;
+				}
+				symbols.put(content.toString(), id);
+				contents.put(id, content.toString());
+			}
+		}
+		finally
+		{
+			in.close();
+		}
+		written = contents.size();
+		writtenLength = file.length();
+		writtenModified = file.lastModified();
+	}
+}
@@ -12,6 +12,13 @@
 ** 	Purpose: 	Unzip compressed svg files.
 **
 **	Version:	1.00 - January 07, 2003 
+**				1.01 - October 17, 2026 Added openSvgz() so SvgBuilder can write a
+**				compressed SVG directly, and the copy no longer writes the last
+**				block a byte at a time.
+**				1.02 - October 17, 2026 Added '-threads' to compress with a
+**				ParallelGZIPOutputStream.
+**				1.03 - October 17, 2026 '-threads' falls back to 1 on Java older
+**				than 1.7.
 ** 	Todo:
 **
 ***************************************************************************/
@@ -24,25 +31,57 @@ import java.util.zip.*;
 /**
 *	This class is a quick little SVG zipper.
 *
-*	Usage: <b>java dxf2svg.SvgZip (file.svgz|directory)</b>
+*	Usage: <b>java dxf2svg.SvgZip [-threads n] (file.svgz|directory)</b>
 *	where the Dxf2Svg.jar is registered in your CLASSPATH.
 *	<P>
 *	If the argument is a directory
 *	all '*.svg' files in all sub-directories are compressed recursively.
+*	<P>
+*	With '-threads' greater than one, blocks of each file are compressed on
+*	that many threads at once by a {@link ParallelGZIPOutputStream}. The file
+*	is a little larger but is read by SvgUnZip and gzip the same as any other.
+*	<P>
+*	{@link #openSvgz} is also used by {@link SvgBuilder} to write the SVG
+*	straight into a compressed file when the '-z' switch is used.
 *
 *	@author		Andrew Nisbet
-*	@version	1.00 - January 07, 2003
+*	@version	1.03 - October 17, 2026
 */
 public class SvgZip
 {
-	private static double VERSION = 1.0;
+	private static double VERSION = 1.03;
+	private static int THREADS = 1;		// Threads compressing each file.
 	
 	public static void main(String[] args)
 	{
-		if (args.length != 1)
+		int fileArg = 0;
+		if (args.length == 3 && args[0].equals("-threads"))
+		{
+			try
+			{
+				THREADS = Integer.parseInt(args[1]);
+			}
+			catch (NumberFormatException e)
+			{
+				System.err.println("SvgZip error: '-threads' requires a number; using 1.");
+			}
+			if (THREADS < 1)
+			{
+				THREADS = 1;
+			}
+			// ParallelGZIPOutputStream needs Deflater.SYNC_FLUSH from 1.7.
+			if (THREADS > 1 && ! Dxf2Svg.isValidJavaVersion(1.7))
+			{
+				System.err.println("SvgZip error: '-threads' requires Java 1.7 or higher; using 1.");
+				THREADS = 1;
+			}
+			fileArg = 2;
+		}
+
+		if (args.length != fileArg + 1)
 		{
 			System.out.println();
-			System.out.println("Usage: java SvgZip (file|directory)");
+			System.out.println("Usage: java SvgZip [-threads n] (file|directory)");
 			System.out.println();
 			System.out.println("SvgZip (v"+VERSION+") is used for zipping SVG files created by");
 			System.out.println("the Dxf2Svg conversion application when the '-z' switch is <em>not</em> used.");
@@ -51,12 +90,13 @@ public class SvgZip
 			System.out.println("to run SvgZip. If a directory is entered all subdirectories will");
 			System.out.println("will be processed recursively. Only SVG files will be compressed.");
 			System.out.println("The application uses GZIP which is compatable with Adobe's plugin.");
+			System.out.println("'-threads n' compresses blocks of each file on n threads (Java 1.7+).");
 			System.out.println();
 			System.out.println("Exiting.");
 			System.exit(1);
 		}
 
-		File file = new File(args[0]);
+		File file = new File(args[fileArg]);
 
 		try
 		{
@@ -115,35 +155,18 @@ public class SvgZip
 
 
 			int SIZE = 65536;
-			GZIPOutputStream GZIPStream = new GZIPOutputStream(
-				new FileOutputStream(fOut) );
-				
-			DataOutputStream GZIPOut = new DataOutputStream(
-				new BufferedOutputStream(GZIPStream) );
+			OutputStream GZIPOut = openSvgz(fOut, Deflater.DEFAULT_COMPRESSION, SIZE, THREADS);
 				
 			File IN = new File(f.toString());
 			
-			DataInputStream svgStreamIn = new DataInputStream(
-				new BufferedInputStream( new FileInputStream(IN) ) );
+			InputStream svgStreamIn = new FileInputStream(IN);
 			
 			byte[] Buf = new byte[SIZE];
 
-			int bytesRead = 0;
-			while (bytesRead != -1)
+			int bytesRead;
+			while ((bytesRead = svgStreamIn.read(Buf)) != -1)
 			{
-				bytesRead = svgStreamIn.read(Buf);
-				if (bytesRead < SIZE)
-				{
-					for (int i = 0; i < bytesRead; i++)
-					{
-						GZIPOut.write(Buf[i]);
-					} // end for
-		
-				} // end if
-				else
-				{
-					GZIPOut.write(Buf);
-				}
+				GZIPOut.write(Buf, 0, bytesRead);
 			}
 			
 			svgStreamIn.close();
@@ -161,4 +184,55 @@ public class SvgZip
 			}
 		} // end else
 	} // end zipFile()
+
+	/**
+	*	Opens a compressed SVG file for writing. Closing the returned stream
+	*	finishes the GZIP data and closes the file.
+	*	@param fOut the '.svgz' file to create.
+	*	@param level compression level 0-9, or <code>Deflater.DEFAULT_COMPRESSION</code>.
+	*	@param bufferSize bytes buffered before compression and after it.
+	*	@throws IOException if the file can't be created.
+	*/
+	public static OutputStream openSvgz(File fOut, int level, int bufferSize)
+		throws IOException
+	{
+		return openSvgz(fOut, level, bufferSize, 1);
+	}
+
+	/**
+	*	Opens a compressed SVG file for writing, compressing blocks of it on
+	*	several threads at once if <code>threads</code> is more than one.
+	*	@param fOut the '.svgz' file to create.
+	*	@param level compression level 0-9, or <code>Deflater.DEFAULT_COMPRESSION</code>.
+	*	@param bufferSize bytes buffered before compression and after it.
+	*	@param threads number of blocks compressed at once.
+	*	@throws IOException if the file can't be created.
+	*	@see ParallelGZIPOutputStream
+	*/
+	public static OutputStream openSvgz(File fOut, int level, int bufferSize, int threads)
+		throws IOException
+	{
+		if (threads > 1)
+		{
+			return new BufferedOutputStream(
+				new ParallelGZIPOutputStream(
+					new BufferedOutputStream(new FileOutputStream(fOut), bufferSize),
+					level, threads),
+				bufferSize);
+		}
+		return new BufferedOutputStream(
+			new LevelGZIPOutputStream(new FileOutputStream(fOut), bufferSize, level),
+			bufferSize);
+	}
+
+	/** A GZIPOutputStream whose compression level can be set. */
+	private final static class LevelGZIPOutputStream extends GZIPOutputStream
+	{
+		private LevelGZIPOutputStream(OutputStream out, int size, int level)
+			throws IOException
+		{
+			super(out, size);
+			def.setLevel(level);
+		}
+	}
 } // end class
\ No newline at end of file
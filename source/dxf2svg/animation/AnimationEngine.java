@@ -34,6 +34,12 @@
 **				wires.
 **				0.6 - March 10, 2005 Moved the collaborate functionality to the 
 **				DxfConverter object.
+**				0.7 - October 17, 2026 Switches are read from the conversion's settings.
+**				0.8 - October 17, 2026 findAndChainCollaborators() and chainCollaborators()
+**				only compare elements that an EndpointIndex says are close enough.
+**				0.9 - October 17, 2026 getInstance() is synchronized and the SAL
+**				object is an instance field so concurrent conversions see one
+**				fully built engine.
 **
 **	TODO:
 **
@@ -60,13 +66,13 @@ import dxf2svg.util.Dxf2SvgConstants;
 public final class AnimationEngine
 {
 	private static AnimationEngine aeInstance = null;
-	private static SvgAnimationLanguage sal = null;
-	private boolean hasAnimation;
-	private String[] keys;
+	private final SvgAnimationLanguage sal;
+	private final boolean hasAnimation;
+	private final String[] keys;
 	
 	protected AnimationEngine(SvgAnimationLanguage s)
 	{	
-		this.sal = s;
+		sal = s;
 		
 		// Now register the content of the animation.
 		// SET					= 1;
@@ -79,11 +85,16 @@ public final class AnimationEngine
 			hasAnimation = true;
 			keys = sal.getKeys(SvgAnimationLanguage.ANIMATION_HEAP);
 		}
+		else
+		{
+			hasAnimation = false;
+			keys = null;
+		}
 	}
 	
 	/** Returns a singleton instance of AnimationEngine.
 	*/
-	public static AnimationEngine getInstance(SvgAnimationLanguage sal)
+	public static synchronized AnimationEngine getInstance(SvgAnimationLanguage sal)
 	{
 		if (aeInstance == null)
 		{
@@ -119,7 +130,7 @@ public final class AnimationEngine
 		// We need the name of the layer to see if it is a target for
 		// animation.
 		String lookFor = svgl.getAbsoluteClass();
-		if (DxfPreprocessor.verboseMode() == true)
+		if (dxfc.getSettings().verboseMode() == true)
 		{
 			System.out.println("looking for animation for: "+lookFor);
 		}
@@ -134,7 +145,7 @@ public final class AnimationEngine
 
 		if (vAnim.size() < 1)
 		{
-			if(DxfPreprocessor.debugMode() == true)
+			if(dxfc.getSettings().debugMode() == true)
 			{
 				System.out.println("There are no animation objects for "+lookFor);
 			}
@@ -142,7 +153,7 @@ public final class AnimationEngine
 		} // end if
 		else
 		{
-			if (DxfPreprocessor.verboseMode() == true)
+			if (dxfc.getSettings().verboseMode() == true)
 			{
 				System.out.println("There are "+vAnim.size()+" animation objects.");
 			}
@@ -156,7 +167,7 @@ public final class AnimationEngine
 		// All other elements could be collaborators or unrelated elements.
 		//
 		// This adds animation to individual elements of a layer marked as a 'gang'ed layer.
-		boolean GANG = DxfPreprocessor.isGangingTarget(lookFor);
+		boolean GANG = dxfc.getSettings().isGangingTarget(lookFor);
 		if (GANG)
 		{
 			// Let's get the entire layer group of elements and see if we can find some <path>
@@ -217,7 +228,7 @@ public final class AnimationEngine
 		
 		// Is the object represented by the name 'lookfor' a target for searching for
 		// line segments that share the same start or end points?
-		boolean COLLABORATE = DxfPreprocessor.isCollaboratorTarget(lookFor);
+		boolean COLLABORATE = dxfc.getSettings().isCollaboratorTarget(lookFor);
 		
 		// This adds animation to individual elements of a layer marked for 'collaborate-tion'.
 		if (COLLABORATE == true)
@@ -255,7 +266,8 @@ public final class AnimationEngine
 	private Vector findAndChainCollaborators
 	(
 		SvgDoubleEndedGraphicElement s1,		// First member that initiates search
-		SvgDoubleEndedGraphicElement[] arr		// Array of other double ended elements from layer
+		SvgDoubleEndedGraphicElement[] arr,		// Array of other double ended elements from layer
+		EndpointIndex endpoints					// Index of the end points of arr.
 	)
 	{
 		Stack stack = new Stack();
@@ -266,10 +278,12 @@ public final class AnimationEngine
 		// takes the animation target onto itself.
 		stack.push(s1);
 		// Proceed over the rest of the array looking for other objects that match
-		// start and end points. 
-
-		for (int i = 0; i < arr.length; i++)
+		// start and end points. The index gives us the ones close enough to check,
+		// in array order.
+		int[] candidates = endpoints.getCandidates(s1);
+		for (int c = 0; c < candidates.length; c++)
 		{
+			int i = candidates[c];
 			SvgDoubleEndedGraphicElement s2 = arr[i];
 			// we have to test to see if the element at this index is null
 			// or not
@@ -300,7 +314,7 @@ public final class AnimationEngine
 		}
 		else
 		{
-			chainCollaborators(stack, completeSetOfElements, arr);
+			chainCollaborators(stack, completeSetOfElements, arr, endpoints);
 		}
 		
 		return completeSetOfElements;
@@ -317,15 +331,18 @@ public final class AnimationEngine
 	// The process is repeated until the stack is empty.
 	private void chainCollaborators(Stack s,
 		Vector eles,
-		SvgDoubleEndedGraphicElement[] array)
+		SvgDoubleEndedGraphicElement[] array,
+		EndpointIndex endpoints)
 	{
 		while (! s.empty())
 		{
 			SvgDoubleEndedGraphicElement s1 = (SvgDoubleEndedGraphicElement)s.pop();
 			// s1 is a collaborator so add it to the complete set.
 			eles.add(s1);
-			for (int i = 0; i < array.length; i++)
+			int[] candidates = endpoints.getCandidates(s1);
+			for (int c = 0; c < candidates.length; c++)
 			{
+				int i = candidates[c];
 				SvgDoubleEndedGraphicElement s2 = array[i];
 				// we have to test to see if the element at this index is null
 				// or not
@@ -0,0 +1,266 @@
+/****************************************************************************
+**
+**	FileName:	ModifyIndex.java
+**
+**	Project:	Dxf2Svg
+**
+**	Purpose:	The modify rules of a config.d2s heap compiled into tables by
+**				element type, ID and layer.
+**
+**	Date:		October 17, 2026
+**
+**	Author:		Andrew Nisbet
+**
+**	Environment:Java(TM) 2 Runtime Environment, Standard Edition
+**				(build 1.5.0)
+**
+**	Version:	1.00 - October 17, 2026
+**				1.01 - October 17, 2026 Every layer only rule that matches a layer
+**				group is returned, not just the first one on the heap.
+**
+**	TODO:
+**
+*****************************************************************************/
+
+package dxf2svg.sally;
+
+import java.util.*;
+import dxf2svg.svg.SvgElement;
+
+/**	This class holds the rules of an :add, :change or :delete heap so that an
+*	element is only tested against the rules that could match it rather than
+*	against every rule in the config file. Each rule is a target string of
+*	the form <code>type:id:layer</code>, where any part may be 'null' or '*',
+*	and the table of attributes it adds.
+*	<P>
+*	Each rule is split once, when the index is made, and filed under the most
+*	specific part it names: its ID, its element type or its layer. Rules that
+*	name none of them are tested against every element. Rules with neither a
+*	type nor an ID, like <code>:add onlayer "wire"</code>, only match layers
+*	as a whole, {@link SALConsts#MATCH_LAYER_ONLY}, and are kept apart to be
+*	tested against layer groups only.
+*	<P>
+*	Whether a rule matches is decided exactly as before; types and layers
+*	are compared without regard to case and IDs with it. {@link #getMatches}
+*	returns the rules that match in the order they had on the heap. A layer
+*	group used to stop at the first layer only rule in the order of the heap's
+*	Hashtable, which made the rules after it, and sometimes the elements of
+*	the layer, depend on how the targets hashed; it now takes them all.
+*
+*	@version 	1.01 - October 17, 2026
+*	@author		Andrew Nisbet
+*/
+final class ModifyIndex
+{
+	private final static String NONE = "null";	// Target part that wasn't given.
+	private final static String ANY  = "*";		// Target part that matches anything.
+	private final static Hashtable[] NO_MATCHES = new Hashtable[0];
+
+	private HashMap byID;			// ID -> Rule[].
+	private HashMap byType;			// Folded element type -> Rule[].
+	private HashMap byLayer;		// Folded layer -> Rule[].
+	private Rule[] others;			// Rules tested against every element.
+	private HashMap layerOnlyByLayer;// Folded layer -> Rule[] of layer only rules.
+	private Rule[] layerOnlyAny;	// Layer only rules for any layer.
+
+	/** Compiles the rules of the argument heap table.
+	*	@param targets the heap's target strings in the order they are applied.
+	*	@param attribs the table of attributes of each target.
+	*/
+	ModifyIndex(String[] targets, Hashtable[] attribs)
+	{
+		byID				= new HashMap();
+		byType				= new HashMap();
+		byLayer				= new HashMap();
+		layerOnlyByLayer	= new HashMap();
+		ArrayList otherList		= new ArrayList();
+		ArrayList layerOnlyList	= new ArrayList();
+		for (int i = 0; i < targets.length; i++)
+		{
+			Rule rule = new Rule(i, targets[i], attribs[i]);
+			if (rule.type == null && rule.id == null && rule.layer != null)
+			{
+				if (rule.layer.equals(ANY))
+					layerOnlyList.add(rule);
+				else
+					file(layerOnlyByLayer, foldCase(rule.layer), rule);
+			}
+			else if (rule.id != null && ! rule.id.equals(ANY))
+				file(byID, rule.id, rule);
+			else if (rule.type != null && ! rule.type.equals(ANY))
+				file(byType, foldCase(rule.type), rule);
+			else if (rule.layer != null && ! rule.layer.equals(ANY))
+				file(byLayer, foldCase(rule.layer), rule);
+			else
+				otherList.add(rule);
+		}
+		others = (Rule[])otherList.toArray(new Rule[otherList.size()]);
+		layerOnlyAny = (Rule[])layerOnlyList.toArray(new Rule[layerOnlyList.size()]);
+		toArrays(byID);
+		toArrays(byType);
+		toArrays(byLayer);
+		toArrays(layerOnlyByLayer);
+	}
+
+	/** Returns the attribute tables of the rules that match the argument
+	*	element, in heap order. Layer only rules are included if the element
+	*	is a layer group.
+	*/
+	Hashtable[] getMatches(SvgElement svge, boolean isLayerGroup)
+	{
+		ArrayList matches = null;
+		String layer = svge.getOriginalLayer();
+		String foldedLayer = (layer == null) ? null : foldCase(layer);
+		String type = svge.getType();
+		matches = addMatches(matches, (Rule[])byID.get(svge.getObjIDUU()), svge, SALConsts.MATCH);
+		if (type != null)
+			matches = addMatches(matches, (Rule[])byType.get(foldCase(type)), svge, SALConsts.MATCH);
+		if (foldedLayer != null)
+			matches = addMatches(matches, (Rule[])byLayer.get(foldedLayer), svge, SALConsts.MATCH);
+		matches = addMatches(matches, others, svge, SALConsts.MATCH);
+		if (isLayerGroup)
+		{
+			if (foldedLayer != null)
+				matches = addMatches(matches, (Rule[])layerOnlyByLayer.get(foldedLayer),
+					svge, SALConsts.MATCH_LAYER_ONLY);
+			matches = addMatches(matches, layerOnlyAny, svge, SALConsts.MATCH_LAYER_ONLY);
+		}
+
+		if (matches == null)
+			return NO_MATCHES;
+		if (matches.size() > 1)
+			Collections.sort(matches);
+		Hashtable[] tables = new Hashtable[matches.size()];
+		for (int i = 0; i < tables.length; i++)
+			tables[i] = ((Rule)matches.get(i)).attribs;
+		return tables;
+	}
+
+	// Adds the rules that match the element as the argument match type to the list,
+	// which is made if it is null and needed, and returns the list.
+	private static ArrayList addMatches(ArrayList matches, Rule[] rules, SvgElement svge,
+		int matchType)
+	{
+		if (rules == null)
+			return matches;
+		for (int i = 0; i < rules.length; i++)
+		{
+			if (rules[i].isCandidate(svge) == matchType)
+			{
+				if (matches == null)
+					matches = new ArrayList();
+				matches.add(rules[i]);
+			}
+		}
+		return matches;
+	}
+
+	// Adds the rule to the list of rules under key.
+	private static void file(HashMap map, String key, Rule rule)
+	{
+		ArrayList rules = (ArrayList)map.get(key);
+		if (rules == null)
+		{
+			rules = new ArrayList();
+			map.put(key, rules);
+		}
+		rules.add(rule);
+	}
+
+	// Replaces the lists of rules in the map with arrays.
+	private static void toArrays(HashMap map)
+	{
+		Iterator it = map.entrySet().iterator();
+		while (it.hasNext())
+		{
+			Map.Entry e = (Map.Entry)it.next();
+			ArrayList rules = (ArrayList)e.getValue();
+			e.setValue(rules.toArray(new Rule[rules.size()]));
+		}
+	}
+
+	// Returns a key that is the same for two Strings if, and only if,
+	// String.equalsIgnoreCase() would find them equal.
+	private static String foldCase(String s)
+	{
+		StringBuffer sb = new StringBuffer(s.length());
+		for (int i = 0; i < s.length(); i++)
+			sb.append(Character.toLowerCase(Character.toUpperCase(s.charAt(i))));
+		return sb.toString();
+	}
+
+
+
+	/** One modify rule; a target split into its type, ID and layer, each null
+	*	if it was 'null', and the attributes it adds.
+	*/
+	private final static class Rule implements Comparable
+	{
+		private int order;			// Position on the heap.
+		private String type;
+		private String id;
+		private String layer;
+		private Hashtable attribs;
+
+		private Rule(int order, String target, Hashtable attribs)
+		{
+			this.order		= order;
+			this.attribs	= attribs;
+			String[] name = target.split(SALConsts.FULL_COLON, -1);
+			type	= part(name, 0);
+			id		= part(name, 1);
+			layer	= part(name, 2);
+		}
+
+		private static String part(String[] name, int i)
+		{
+			if (i >= name.length || name[i].equals(NONE))
+				return null;
+			return name[i];
+		}
+
+		/** Tests the element against the rule's target:
+		*<OL>
+		*	<LI> Each part of the target that is given has to match the element,
+		*	'*' matches anything.
+		*	<LI> If the layer is the only part given the rule only matches the
+		*	layer as a whole.
+		*</OL>
+		*	@return {@link SALConsts#NO_MATCH}, {@link SALConsts#MATCH_LAYER_ONLY}
+		*	or {@link SALConsts#MATCH}.
+		*/
+		private int isCandidate(SvgElement svge)
+		{
+			int matchCount	= 0;
+			int nullCount	= 0;
+
+			if (type == null)
+				nullCount++;
+			else if (type.equals(ANY) || type.equalsIgnoreCase(svge.getType()))
+				matchCount++;
+
+			if (id == null)
+				nullCount++;
+			else if (id.equals(ANY) || id.equals(svge.getObjIDUU()))
+				matchCount++;
+
+			if (layer == null)
+				nullCount++;
+			else if (layer.equals(ANY) || layer.equalsIgnoreCase(svge.getOriginalLayer()))
+			{
+				if (nullCount == 2)
+					return SALConsts.MATCH_LAYER_ONLY;
+				matchCount++;
+			}
+
+			if (matchCount + nullCount == 3)
+				return SALConsts.MATCH;
+			return SALConsts.NO_MATCH;
+		}
+
+		public int compareTo(Object o)
+		{
+			return order - ((Rule)o).order;
+		}
+	}
+}
@@ -25,6 +25,13 @@
 **				0.4 - July 23, 2004 Ignore SvgAnimator elements in modifyElement().
 **				0.41 - February 10, 2005 Updated @param tag with parameter name to 
 **				correct error with Javadoc 1.4.2-04.
+**				0.5 - October 17, 2026 modifyElement() looks rules up in a ModifyIndex
+**				compiled once from the heap instead of splitting and testing every
+**				target for every element, and recurses into collections once.
+**				0.51 - October 17, 2026 A layer group takes every rule that names
+**				only its layer instead of stopping at the first one in heap order.
+**				0.52 - October 17, 2026 Removed the heap dumps on debug; they ran while
+**				the config file was parsed, before any switch had been read.
 **
 **	TODO:
 **
@@ -39,7 +46,7 @@ import java.util.*;				// for token list
 
 import dxf2svg.SvgBuilder;
 import dxf2svg.animation.*;		// For SvgAnimator.
-import dxf2svg.DxfPreprocessor;	// for verbosity
+import dxf2svg.DxfPreprocessor;	// for collaborator and gang targets.
 import dxf2svg.util.*;			// attribute object for modify command EventAttributeModifier
 import dxf2svg.svg.*;			// Svg elements (SvgElement and SvgText specifically).
 import dxf2svg.svg.SvgCollection;// for recursive modifying functions.
@@ -48,7 +55,7 @@ import dxf2svg.svg.SvgCollection;// for recursive modifying functions.
 *	This class tokenizes the config.d2s file and passes the tokens to the parser.
 *	It also contains and maintains the tables of symbols returned from the parser.
 *
-*	@version	0.4 - July 23, 2004
+*	@version	0.52 - October 17, 2026
 *	@author		Andrew Nisbet
 *	@see dxf2svg.sally.Parser for more information on SALly grammar.
 */
@@ -807,57 +814,9 @@ public class SvgAnimationLanguage
 				{
 					break;
 				}
-				Set heapKeys = addHeap.keySet();
-				String[] keys = new String[addHeap.size()];
-				heapKeys.toArray(keys);
-				if (keys.length < 1)
-				{
-					System.out.println(" ADD Heap is empty*****");
-					return;
-				}
-				
-
-				// Iterate over the addHeap which lists the target names vs. a Hashtable
-				// of modifying attributes.
-				for (int i = 0; i < heapKeys.size(); i++)
-				{
-					// Test if this is a candidate for additional attributes.
-					int attribMatchType = isCandidate(svge, keys[i]);
-					
-					// Get all the keys from the internal table and iterate 
-					// over them all during which you should extract 
-					Hashtable htAttribs = (Hashtable)addHeap.getValue(keys[i]);				
-					if (svge instanceof SvgCollection)
-					{
-						if (svge instanceof SvgLayerGroup &&
-						    attribMatchType == SALConsts.MATCH_LAYER_ONLY)
-						{
-							addAttribs(svge, htAttribs);
-							return;
-						}
-
-						Vector vEles = ((SvgCollection)svge).getGroupElements();
-						Iterator it = vEles.iterator();
-						while (it.hasNext())
-						{
-							try
-							{
-								modifyElement((SvgElement)(it.next()), heapType);
-							}
-							catch (ClassCastException ce)
-							{
-								continue;
-							}
-						}
-					}
-					
-					// This will be done specifically by a SvgLayerGroup (above).
-					if (attribMatchType == SALConsts.MATCH)
-					{
-						addAttribs(svge, htAttribs);
-					}
-				} // end for 
-				
+				// The addHeap lists the target names vs. a Hashtable of modifying
+				// attributes; the index finds the ones that match this element.
+				addAttribs(svge, addHeap.getIndex());
 				break;
 			
 			default:
@@ -937,147 +896,31 @@ public class SvgAnimationLanguage
 	/////////////////////////////	
 	
 	
-	// This object holds a value that idicates whether this SVG element is
-	// a potential match. If a value of the attribute target string is null
-	// it acts like a regex '*'. If the attribute string looks like this:
-	// +--------------------+-------------+----------------+
-	// |  Svg element Type  :  SvgObj ID  :  SvgObj layer  |
-	// +--------------------+-------------+----------------+
-	// |       line         :    null     :       "7"      |
-	// +--------------------+-------------+----------------+
-	// means that any <line> on layer '7' will match successfully.
-	// +--------------------+-------------+----------------+
-	// |  Svg element Type  :  SvgObj ID  :  SvgObj layer  |
-	// +--------------------+-------------+----------------+
-	// |       null         :    null     :   "english"    |
-	// +--------------------+-------------+----------------+
-	// In this case any object on the english layer will match. Comparing
-	// the values of potential matches versus the values of actual matches
-	// we find that if they are equal the match is successful. Any inequality
-	// is treated as an unsuccessful match.	
-	/** Tests the SvgElement argument to see if it matches the name specified in the 
-	*	colon delimited arg string which looks like this:
-	*	<P>
-	<PRE>
-+--------------------+-------------+----------------+
-|     0              :      1      :        2       |
-+--------------------+-------------+----------------+
-|  Svg element Type  :  SvgObj ID  :  SvgObj layer  |
-+--------------------+-------------+----------------+
-	</PRE> 
-	*	@param svge element to test.
-	*	@param s String of attribute match targets (as above.)
-	*<OL>
-	*	<LI> No match = 0
-	*	<LI> Matches the layer only = 1
-	*	<LI> Match = 2
-	*</OL>
+	/** Adds the attributes of every rule in the index that matches the element,
+	*	and of those that match the elements it contains if it is a collection.
+	*	A layer group also takes the rules that name only its layer.
 	*/
-	private int isCandidate(SvgElement svge, String s)
+	private void addAttribs(SvgElement svge, ModifyIndex index)
 	{
-		// We will use this to store the element name, the class or layer
-		// and the id (if present).
-		String[] name = new String[3];
-
-		name = s.split(SALConsts.FULL_COLON);
-		//System.out.println("Here is a comparison:");
-		//System.out.println("attrib target string: "+s);
-		//System.out.println("SVGE type: '"+svge.getType()+"' ");
-		//System.out.print("' svge's getObjIDUU() = "+svge.getObjIDUU());
-		//System.out.println(" getAbsoluteClass() = '"+svge.getAbsoluteClass()+"'");
-		//System.out.println("Going to get the original layer: '"+svge.getOriginalLayer()+"'");
-		// Keep track of the number of null matches cause 2 and a layer match means switch
-		// position 1/2 or layer only attribute. If the null count + the match count = 3
-		// then the match is successful.
-		int matchCount 				= 0;
-		int nullCount 				= 0;
-		boolean isLayerOnly			= false;
-		
-		// If name[0] is the element type. If it is null it means any element,
-		// it wasn't set so go onto the other tests.
-		if (! name[0].equals("null"))
-		{
-			if (svge.getType().equalsIgnoreCase(name[0])) // these are case insensitive
-			{
-				matchCount++;
-			}
-			else if (name[0].equals("*")) // match all elements including layers and children elements.
-			{
-				matchCount++;
-			}
-		}
-
-		else
-		{
-			nullCount++;
-		}
-		
-		// Now check the id ...
-		if (! name[1].equals("null"))
-		{
-			if (svge.getObjIDUU().equals(name[1]))  // These are case sensitive.
-			{
-				matchCount++;
-			}		
-			else if (name[1].equals("*")) // match all ids.
-			{
-				matchCount++;
-			}
-		}
-		else
-		{
-			nullCount++;
-		}
-		
-		// Now check the class. Here we will have to search through the class
-		// because the class attribute may have multipule values stored in the
-		// one attribute.
-		if (! name[2].equals("null"))
+		if (svge instanceof SvgCollection)
 		{
-			if (svge.getOriginalLayer() != null && 
-				svge.getOriginalLayer().equalsIgnoreCase(name[2])) // These are case sensitive too.
-			{
-				// Now test if any other attribute flag is set and if not the layer is 
-				// the specific.
-				if (nullCount == 2)
-				{
-					isLayerOnly = true;
-				}
-				else
-				{
-					matchCount++;
-				}
-			}
-			else if (name[2].equals("*")) // match all ids - won't match layers. Layers don't have handles.
+			Iterator it = ((SvgCollection)svge).getGroupElementsByReference().iterator();
+			while (it.hasNext())
 			{
-				if (nullCount == 2)
-				{
-					isLayerOnly = true;
-				}
-				else
+				Object o = it.next();
+				// Skip SvgAnimators and text.
+				if (o instanceof SvgElement)
 				{
-					matchCount++;
+					addAttribs((SvgElement)o, index);
 				}
 			}
 		}
-		else
-		{
-			nullCount++;
-		}
-		
-		
-		
-		if (isLayerOnly)
-		{
-			return SALConsts.MATCH_LAYER_ONLY;
-		}
-		
-		if ((matchCount + nullCount) == 3)
+
+		Hashtable[] matches = index.getMatches(svge, svge instanceof SvgLayerGroup);
+		for (int i = 0; i < matches.length; i++)
 		{
-			return SALConsts.MATCH;
+			addAttribs(svge, matches[i]);
 		}
-		
-		return SALConsts.NO_MATCH;
 	}
 	
 	
@@ -1215,10 +1058,30 @@ public class SvgAnimationLanguage
 		// internal heaps correspond to the three types of modifiers: add, change and delete.
 		// We have one from the parent class called heap, now let's make two more.
 		
+		private ModifyIndex index;	// Made from the heap when it is first needed.
+		
 		// Constructor
 		protected ModifyHeap()
 		{	}
 		
+		/** Returns the heap's rules compiled into a {@link ModifyIndex}.
+		*/
+		protected synchronized ModifyIndex getIndex()
+		{
+			if (index == null)
+			{
+				String[] targets = new String[heap.size()];
+				heap.keySet().toArray(targets);
+				Hashtable[] attribs = new Hashtable[targets.length];
+				for (int i = 0; i < targets.length; i++)
+				{
+					attribs[i] = (Hashtable)heap.get(targets[i]);
+				}
+				index = new ModifyIndex(targets, attribs);
+			}
+			return index;
+		}
+		
 		/** Adds a symbol table to the modify heap. Modify heap is based on a Hashtable so
 		*	entering a key value that already exists will overwrite any previously existing
 		*	value with the same name.
@@ -1247,7 +1110,11 @@ public class SvgAnimationLanguage
 			}
 			Hashtable ht = new Hashtable();
 			unpackSymbolTable(st, ht);
-			heap.put(tableName, ht);
+			synchronized (this)
+			{
+				heap.put(tableName, ht);
+				index = null;
+			}
 			hasModifiedContent = true;
 		}
 			
@@ -1330,11 +1197,6 @@ public class SvgAnimationLanguage
 				hTable.put(name, value);
 			} // end while
 			
-			if (DxfPreprocessor.debugMode() == true)
-			{
-				System.out.println("The animation heap contains: >>"+hTable+"<<");
-			}
-			
 			return true;
 		}
 		
@@ -1482,11 +1344,6 @@ public class SvgAnimationLanguage
 				record.add(animation);
 				heap.put(tableName, record);
 			}
-			
-			if (DxfPreprocessor.debugMode() == true)
-			{
-				System.out.println("The animation heap contains: >>"+heap+"<<");
-			}
 		} // end addObjectToHeap()
 		
 	}	// end internal class AnimationHeap
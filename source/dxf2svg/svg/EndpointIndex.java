@@ -0,0 +1,269 @@
+/****************************************************************************
+**
+**	FileName:	EndpointIndex.java
+**
+**	Project:	Dxf2Svg
+**
+**	Purpose:	Hash grid of the end points of double ended elements for
+**				finding collaborators without searching the whole layer.
+**
+**	Date:		October 17, 2026
+**
+**	Author:		Andrew Nisbet
+**
+**	Environment:Java(TM) 2 Runtime Environment, Standard Edition
+**				(build 1.5.0)
+**
+**	Version:	1.00 - October 17, 2026
+**
+**	TODO:
+**
+*****************************************************************************/
+
+package dxf2svg.svg;
+
+import java.util.*;
+
+/**	This class indexes the start and end points of an array of
+*	{@link SvgDoubleEndedGraphicElement}s in a hash grid so that the elements
+*	that might share a start or end point with a given element can be found
+*	without comparing it to every other element on the layer.
+*	<P>
+*	The grid cells are twice the {@link Point#getFuzz fuzz} wide, so any point
+*	within fuzz of another is in the same cell or one of the eight cells around
+*	it. The index only narrows the search; the caller still decides with
+*	{@link SvgDoubleEndedGraphicElement#shareStartOrEndPoint} so the results
+*	are exactly those of a search of the whole array.
+*	<P>
+*	The index reads the caller's array every time it is searched and ignores
+*	any entry that has been set to null, which is how the collaborate
+*	functions remove elements that have been placed in a wire run. Elements
+*	whose points are null or not finite can not be placed in a cell so they are
+*	returned from every search, and an element like that that is searched for
+*	gets every element in the array back.
+*
+*	@version 	1.00 - October 17, 2026
+*	@author		Andrew Nisbet
+*/
+public final class EndpointIndex
+{
+	private SvgDoubleEndedGraphicElement[] elements;	// Caller's array.
+	private double cellSize;		// Width and height of a cell.
+	private double fuzz;			// Largest fuzz of any indexed point.
+	private HashMap cells;			// Long cell key -> Cell.
+	private Cell unindexed;			// Elements that can't be put in a cell.
+	private int[] found;			// Reused to collect search results.
+	private int foundCount;
+
+	/** Indexes the end points of the argument elements. The array is not copied;
+	*	entries set to null afterwards are skipped by {@link #getCandidates}.
+	*	@param elements array of elements, any of which may be null.
+	*/
+	public EndpointIndex(SvgDoubleEndedGraphicElement[] elements)
+	{
+		this.elements = elements;
+		cells = new HashMap();
+		unindexed = new Cell();
+		found = new int[16];
+
+		fuzz = 0.0;
+		for (int i = 0; i < elements.length; i++)
+		{
+			if (elements[i] == null)
+			{
+				continue;
+			}
+			fuzz = Math.max(fuzz, getFuzz(elements[i].getStartPoint()));
+			fuzz = Math.max(fuzz, getFuzz(elements[i].getEndPoint()));
+		}
+		// With no fuzz points have to be equal; any cell size will do.
+		cellSize = (fuzz > 0.0) ? fuzz * 2.0 : 1.0;
+
+		for (int i = 0; i < elements.length; i++)
+		{
+			SvgDoubleEndedGraphicElement e = elements[i];
+			if (e == null)
+			{
+				continue;
+			}
+			Point start = e.getStartPoint();
+			Point end = e.getEndPoint();
+			if (! canIndex(start) || ! canIndex(end))
+			{
+				unindexed.add(i);
+				continue;
+			}
+			long startKey = getKey(getCell(start.getX()), getCell(start.getY()));
+			long endKey = getKey(getCell(end.getX()), getCell(end.getY()));
+			getCell(startKey, true).add(i);
+			if (endKey != startKey)
+			{
+				getCell(endKey, true).add(i);
+			}
+		}
+	}
+
+	/** Returns, in ascending order, the array indices of the elements that may
+	*	share a start or end point with the argument element. Entries that have
+	*	been set to null are not included but the element itself may be.
+	*	@param e the element whose collaborators are being looked for.
+	*/
+	public int[] getCandidates(SvgDoubleEndedGraphicElement e)
+	{
+		foundCount = 0;
+		Point start = e.getStartPoint();
+		Point end = e.getEndPoint();
+		if (! canIndex(start) || ! canIndex(end) ||
+			getFuzz(start) > fuzz || getFuzz(end) > fuzz)
+		{
+			// We can't say where its collaborators might be so check them all.
+			for (int i = 0; i < elements.length; i++)
+			{
+				if (elements[i] != null)
+				{
+					addFound(i);
+				}
+			}
+			return getFound();
+		}
+
+		collectNeighbours(start);
+		collectNeighbours(end);
+		collect(unindexed);
+
+		// An element can be in two cells and a cell may be next to both end points.
+		Arrays.sort(found, 0, foundCount);
+		int unique = 0;
+		for (int i = 0; i < foundCount; i++)
+		{
+			if (unique == 0 || found[i] != found[unique - 1])
+			{
+				found[unique++] = found[i];
+			}
+		}
+		foundCount = unique;
+
+		return getFound();
+	}
+
+	// Collects the elements in the point's cell and the eight cells around it.
+	private void collectNeighbours(Point p)
+	{
+		long cx = getCell(p.getX());
+		long cy = getCell(p.getY());
+		for (long x = cx - 1; x <= cx + 1; x++)
+		{
+			for (long y = cy - 1; y <= cy + 1; y++)
+			{
+				Cell cell = getCell(getKey(x, y), false);
+				if (cell != null)
+				{
+					collect(cell);
+				}
+			}
+		}
+	}
+
+	// Adds the live entries of the cell to the results and drops the ones that
+	// have been set to null so they are not looked at again.
+	private void collect(Cell cell)
+	{
+		int live = 0;
+		for (int i = 0; i < cell.size; i++)
+		{
+			int index = cell.items[i];
+			if (elements[index] != null)
+			{
+				cell.items[live++] = index;
+				addFound(index);
+			}
+		}
+		cell.size = live;
+	}
+
+	private void addFound(int index)
+	{
+		if (foundCount == found.length)
+		{
+			int[] bigger = new int[found.length * 2];
+			System.arraycopy(found, 0, bigger, 0, foundCount);
+			found = bigger;
+		}
+		found[foundCount++] = index;
+	}
+
+	private int[] getFound()
+	{
+		int[] result = new int[foundCount];
+		System.arraycopy(found, 0, result, 0, foundCount);
+		return result;
+	}
+
+	// Returns the cell for the key, creating it if asked to.
+	private Cell getCell(long key, boolean create)
+	{
+		Long k = Long.valueOf(key);
+		Cell cell = (Cell)cells.get(k);
+		if (cell == null && create)
+		{
+			cell = new Cell();
+			cells.put(k, cell);
+		}
+		return cell;
+	}
+
+	// Returns the cell column or row of the coordinate.
+	private long getCell(double coordinate)
+	{
+		return (long)Math.floor(coordinate / cellSize);
+	}
+
+	// Packs a cell column and row into one key. Columns and rows are kept to the
+	// range of an int by canIndex() so keys only repeat for the same cell.
+	private static long getKey(long x, long y)
+	{
+		return (x << 32) ^ (y & 0xffffffffL);
+	}
+
+	// Returns true if the point can be placed in a cell, with room to spare
+	// for the cells around it.
+	private boolean canIndex(Point p)
+	{
+		if (p == null)
+		{
+			return false;
+		}
+		double limit = (double)(Integer.MAX_VALUE - 1) * cellSize;
+		return Math.abs(p.getX()) < limit && Math.abs(p.getY()) < limit;
+	}
+
+	private static double getFuzz(Point p)
+	{
+		if (p == null)
+		{
+			return 0.0;
+		}
+		return p.getFuzz();
+	}
+
+
+
+
+	/** Indices of the elements with a point in one cell of the grid. */
+	private final static class Cell
+	{
+		private int[] items = new int[4];
+		private int size;
+
+		private void add(int index)
+		{
+			if (size == items.length)
+			{
+				int[] bigger = new int[items.length * 2];
+				System.arraycopy(items, 0, bigger, 0, size);
+				items = bigger;
+			}
+			items[size++] = index;
+		}
+	}
+}
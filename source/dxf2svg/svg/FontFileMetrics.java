@@ -0,0 +1,536 @@
+/****************************************************************************
+**
+**	FileName:	FontFileMetrics.java
+**
+**	Project:	Dxf2Svg
+**
+**	Purpose:	Font metrics read straight from TrueType and AFM font files,
+**				without java.awt.
+**
+**	Date:		October 17, 2026
+**
+**	Author:		Andrew Nisbet
+**
+**	Environment:Java(TM) 2 Runtime Environment, Standard Edition
+**				(build 1.5.0)
+**
+**	Version:	1.00 - October 17, 2026
+**				1.01 - October 17, 2026 Fonts are kept by modification time as well
+**				as path so a font file that changes is read again.
+**
+**	TODO:		TrueType collections (.ttc) and kerning.
+**
+*****************************************************************************/
+
+package dxf2svg.svg;
+
+import java.io.*;
+import java.util.*;
+
+/**	This class measures text with the advance widths and line metrics in a
+*	font file instead of creating a java.awt.Font, so conversions on headless
+*	machines don't start AWT or scan the system's fonts. It is used instead of
+*	{@link SvgFontMetrics} when the '-font_file_metrics' switch is set.
+*	<P>
+*	The font file is the one the text style names, after substitution by the
+*	font map, in the font directory ('-font_url' or the system font directory).
+*	TrueType and OpenType files (.ttf, .otf) are read from their 'head',
+*	'hhea', 'hmtx', 'cmap' and 'name' tables. Adobe font metric files (.afm) are
+*	read from their header and character metrics; a Type 1 font (.pfb, .pfa)
+*	is measured from the .afm of the same name next to it. Each file is read
+*	once and its widths held in an array indexed by character, so measuring a
+*	string is just adding up its characters.
+*	<P>
+*	Like {@link SvgFontMetrics}, the metrics are for the whole number part of
+*	the size and are shared by all elements and threads. Widths are the sum of
+*	the advances with no kerning, which is what java.awt.Font gives by default.
+*	If a font file can't be found or read, a warning is issued once and metrics
+*	proportioned like a common sans serif font (Arial) are used instead. Fonts
+*	are remembered by path and modification time, so a file that is changed
+*	while '-watch' or '-serve' runs is read again.
+*
+*	@version 	1.01 - October 17, 2026
+*	@author		Andrew Nisbet
+*/
+public final class FontFileMetrics implements TextMetrics
+{
+	// Font data by file path and modification time; shared by every size of the font.
+	private final static Hashtable fonts = new Hashtable();
+	// Shared metrics by file path, modification time and size.
+	private final static Hashtable sharedMetrics = new Hashtable();
+	// Used when the font can't be read: hhea metrics of Arial in 1/2048 em,
+	// with the width of its digits for every character.
+	private final static Glyphs DEFAULT_GLYPHS = new Glyphs(2048, 1854, -434, 67, 1139);
+
+	private final Glyphs glyphs;
+	private final double scale;		// Font units to size units.
+	private final double ascent;
+	private final double decent;
+	private final double leading;
+
+	private FontFileMetrics(Glyphs glyphs, int size)
+	{
+		this.glyphs	= glyphs;
+		scale		= (double)size / (double)glyphs.unitsPerEm;
+		ascent		= glyphs.ascender * scale;
+		decent		= -glyphs.descender * scale;
+		leading		= glyphs.lineGap * scale;
+	}
+
+	/**	Returns the metrics of the font file at the argument size, reading the
+	*	file the first time it is asked for.
+	*	@param fontFile the TrueType, OpenType, AFM or Type 1 font file, or null
+	*	if it is not known, in which case the default metrics are returned.
+	*	@param textHeight the size of the font.
+	*/
+	public static FontFileMetrics getInstance(File fontFile, double textHeight)
+	{
+		int size = (int)textHeight;
+		String path = (fontFile == null) ? "" : getKey(fontFile);
+		String key = path + ":" + size;	// Size last so paths with ':' can't collide.
+		FontFileMetrics metrics = (FontFileMetrics)sharedMetrics.get(key);
+		if (metrics == null)
+		{
+			metrics = new FontFileMetrics(getGlyphs(fontFile), size);
+			sharedMetrics.put(key, metrics);
+		}
+		return metrics;
+	}
+
+	/**	Returns the full name of the font in the file, like 'Switzerland Bold',
+	*	or null if the file can't be read or doesn't say.
+	*/
+	public static String getFontName(File fontFile)
+	{
+		Glyphs g = getGlyphs(fontFile);
+		if (g == DEFAULT_GLYPHS)
+			return null;
+		return g.fullName;
+	}
+
+	// Returns the font data of the file, reading it if it hasn't been read yet.
+	private static Glyphs getGlyphs(File fontFile)
+	{
+		if (fontFile == null)
+			return DEFAULT_GLYPHS;
+
+		String path = getKey(fontFile);
+		Glyphs g = (Glyphs)fonts.get(path);
+		if (g == null)
+		{
+			// Two threads may both read it; either result will do.
+			try
+			{
+				g = readGlyphs(fontFile);
+			}
+			catch (IOException e)
+			{
+				System.err.println("FontFileMetrics warning: unable to read font '"+
+					fontFile+"', using default metrics. "+e);
+				g = DEFAULT_GLYPHS;
+			}
+			catch (IndexOutOfBoundsException e)
+			{
+				System.err.println("FontFileMetrics warning: font '"+
+					fontFile+"' is damaged, using default metrics.");
+				g = DEFAULT_GLYPHS;
+			}
+			fonts.put(path, g);
+		}
+		return g;
+	}
+
+	// Returns the key a font file's data is kept under: its path and modification time.
+	private static String getKey(File fontFile)
+	{
+		return fontFile.getPath() + ":" + fontFile.lastModified();
+	}
+
+	private static Glyphs readGlyphs(File fontFile) throws IOException
+	{
+		String name = fontFile.getName().toLowerCase();
+		if (name.endsWith(".afm"))
+			return readAfm(fontFile);
+		if (name.endsWith(".pfb") || name.endsWith(".pfa"))
+		{
+			String base = fontFile.getName();
+			base = base.substring(0, base.length() - 4);
+			File afm = new File(fontFile.getParentFile(), base + ".afm");
+			if (! afm.isFile())
+				afm = new File(fontFile.getParentFile(), base + ".AFM");
+			return readAfm(afm);
+		}
+		return readTrueType(fontFile);
+	}
+
+	/** Returns the width of the argument string in this font.
+	*/
+	public double getWidth(String str)
+	{
+		int units = 0;
+		int[] advances = glyphs.advances;
+		for (int i = 0; i < str.length(); i++)
+		{
+			char c = str.charAt(i);
+			units += (c < advances.length) ? advances[c] : glyphs.missingAdvance;
+		}
+		return units * scale;
+	}
+
+	public double getLineSpacing()
+	{	return ascent + decent + leading;	}
+
+	public double getAscent()
+	{	return ascent;	}
+
+	public double getDecent()
+	{	return decent;	}
+
+	public double getLeading()
+	{	return leading;	}
+
+	/** Returns a String representation of this class.
+	*/
+	public String toString()
+	{
+		return this.getClass()+": '"+glyphs.fullName+"'"+
+			"\nHeight: "	+Double.toString(getLineSpacing())+
+			"\nAscent: "	+Double.toString(ascent)+
+			"\nDescent: "	+Double.toString(decent)+
+			"\nLeading: "	+Double.toString(leading);
+	}
+
+
+
+	//////////////////////////////////////////////////////////
+	//					TrueType files
+	//////////////////////////////////////////////////////////
+	// Reads the tables we need from a TrueType or OpenType file.
+	private static Glyphs readTrueType(File fontFile) throws IOException
+	{
+		byte[] font = readFile(fontFile);
+		int version = getInt(font, 0);
+		if (version != 0x00010000 && version != 0x4f54544f	// 'OTTO'
+			&& version != 0x74727565)						// 'true'
+			throw new IOException("not a TrueType font");
+
+		int numTables = getUShort(font, 4);
+		int head = -1, hhea = -1, hmtx = -1, cmap = -1, nameTable = -1;
+		for (int i = 0; i < numTables; i++)
+		{
+			int entry = 12 + i * 16;
+			int tag = getInt(font, entry);
+			int offset = getInt(font, entry + 8);
+			switch (tag)
+			{
+				case 0x68656164: head = offset;			break;	// 'head'
+				case 0x68686561: hhea = offset;			break;	// 'hhea'
+				case 0x686d7478: hmtx = offset;			break;	// 'hmtx'
+				case 0x636d6170: cmap = offset;			break;	// 'cmap'
+				case 0x6e616d65: nameTable = offset;	break;	// 'name'
+				default:								break;
+			}
+		}
+		if (head < 0 || hhea < 0 || hmtx < 0 || cmap < 0)
+			throw new IOException("font is missing a required table");
+
+		int unitsPerEm = getUShort(font, head + 18);
+		int ascender = getShort(font, hhea + 4);
+		int descender = getShort(font, hhea + 6);
+		int lineGap = getShort(font, hhea + 8);
+		int numberOfHMetrics = getUShort(font, hhea + 34);
+		if (unitsPerEm == 0 || numberOfHMetrics == 0)
+			throw new IOException("font has no metrics");
+
+		// Glyphs after the last long metric have its advance.
+		int[] glyphAdvances = new int[numberOfHMetrics];
+		for (int i = 0; i < numberOfHMetrics; i++)
+			glyphAdvances[i] = getUShort(font, hmtx + i * 4);
+
+		Glyphs g = new Glyphs(unitsPerEm, ascender, descender, lineGap, glyphAdvances[0]);
+		g.advances = mapCharacters(font, cmap, glyphAdvances);
+		if (nameTable >= 0)
+			g.fullName = readFullName(font, nameTable);
+		return g;
+	}
+
+	// Returns the advance of each character from 0 up to the highest mapped
+	// character in the Basic Multilingual Plane.
+	private static int[] mapCharacters(byte[] font, int cmap, int[] glyphAdvances)
+		throws IOException
+	{
+		int subtable = findCharacterMap(font, cmap);
+		if (subtable < 0)
+			throw new IOException("font has no Unicode character map");
+
+		int[] advances = new int[0x10000];
+		Arrays.fill(advances, glyphAdvances[0]);
+		int highest = -1;
+		int format = getUShort(font, subtable);
+		if (format == 4)
+		{
+			int segCount = getUShort(font, subtable + 6) / 2;
+			int endCodes = subtable + 14;
+			int startCodes = endCodes + segCount * 2 + 2;
+			int idDeltas = startCodes + segCount * 2;
+			int idRangeOffsets = idDeltas + segCount * 2;
+			for (int s = 0; s < segCount; s++)
+			{
+				int end = getUShort(font, endCodes + s * 2);
+				int start = getUShort(font, startCodes + s * 2);
+				int delta = getShort(font, idDeltas + s * 2);
+				int rangeOffsetAt = idRangeOffsets + s * 2;
+				int rangeOffset = getUShort(font, rangeOffsetAt);
+				for (int c = start; c <= end && c < 0xffff; c++)
+				{
+					int glyph;
+					if (rangeOffset == 0)
+						glyph = (c + delta) & 0xffff;
+					else
+					{
+						glyph = getUShort(font, rangeOffsetAt + rangeOffset + (c - start) * 2);
+						if (glyph != 0)
+							glyph = (glyph + delta) & 0xffff;
+					}
+					if (glyph != 0)
+					{
+						advances[c] = getAdvance(glyphAdvances, glyph);
+						highest = Math.max(highest, c);
+					}
+				}
+			}
+		}
+		else	// format 12
+		{
+			int groups = getInt(font, subtable + 12);
+			for (int i = 0; i < groups; i++)
+			{
+				int group = subtable + 16 + i * 12;
+				long start = getInt(font, group) & 0xffffffffL;
+				long end = Math.min(getInt(font, group + 4) & 0xffffffffL, 0xffffL);
+				int glyph = getInt(font, group + 8);
+				for (long c = start; c <= end; c++, glyph++)
+				{
+					advances[(int)c] = getAdvance(glyphAdvances, glyph);
+					highest = Math.max(highest, (int)c);
+				}
+			}
+		}
+
+		int[] used = new int[highest + 1];
+		System.arraycopy(advances, 0, used, 0, used.length);
+		return used;
+	}
+
+	private static int getAdvance(int[] glyphAdvances, int glyph)
+	{
+		if (glyph < glyphAdvances.length)
+			return glyphAdvances[glyph];
+		return glyphAdvances[glyphAdvances.length - 1];
+	}
+
+	// Returns the offset of the best Unicode subtable of the cmap, or -1.
+	private static int findCharacterMap(byte[] font, int cmap)
+	{
+		int best = -1;
+		int bestRank = 0;
+		int numTables = getUShort(font, cmap + 2);
+		for (int i = 0; i < numTables; i++)
+		{
+			int record = cmap + 4 + i * 8;
+			int platform = getUShort(font, record);
+			int encoding = getUShort(font, record + 2);
+			int subtable = cmap + getInt(font, record + 4);
+			int format = getUShort(font, subtable);
+			int rank = 0;
+			if (format == 4 || format == 12)
+			{
+				if (platform == 3 && (encoding == 1 || encoding == 10))
+					rank = (format == 12) ? 4 : 3;
+				else if (platform == 0)
+					rank = 2;
+				else if (platform == 3 && encoding == 0)	// Symbol fonts.
+					rank = 1;
+			}
+			if (rank > bestRank)
+			{
+				best = subtable;
+				bestRank = rank;
+			}
+		}
+		return best;
+	}
+
+	// Returns the full font name (name id 4), preferring US English, or null.
+	private static String readFullName(byte[] font, int nameTable)
+	{
+		int count = getUShort(font, nameTable + 2);
+		int strings = nameTable + getUShort(font, nameTable + 4);
+		String macName = null;
+		String otherName = null;
+		for (int i = 0; i < count; i++)
+		{
+			int record = nameTable + 6 + i * 12;
+			int platform = getUShort(font, record);
+			int language = getUShort(font, record + 4);
+			int nameId = getUShort(font, record + 6);
+			int length = getUShort(font, record + 8);
+			int offset = strings + getUShort(font, record + 10);
+			if (nameId != 4 || offset + length > font.length)
+				continue;
+			try
+			{
+				if (platform == 3 || platform == 0)
+				{
+					String name = new String(font, offset, length, "UTF-16BE");
+					if (platform == 3 && language == 0x0409)
+						return name;
+					if (otherName == null)
+						otherName = name;
+				}
+				else if (platform == 1 && macName == null)
+					macName = new String(font, offset, length, "ISO-8859-1");
+			}
+			catch (UnsupportedEncodingException e)
+			{
+				// Every Java platform has both.
+			}
+		}
+		return (otherName != null) ? otherName : macName;
+	}
+
+
+
+	//////////////////////////////////////////////////////////
+	//					AFM files
+	//////////////////////////////////////////////////////////
+	// Reads the header and character metrics of an Adobe font metrics file.
+	// AFM units are 1/1000 em and character codes are the font's encoding,
+	// which for the Latin fonts we use is close enough to ISO-8859-1.
+	private static Glyphs readAfm(File afmFile) throws IOException
+	{
+		BufferedReader in = new BufferedReader(new InputStreamReader(
+			new FileInputStream(afmFile), "ISO-8859-1"));
+		try
+		{
+			int ascender = 0, descender = 0, spaceAdvance = -1;
+			String fullName = null;
+			int[] advances = new int[256];
+			Arrays.fill(advances, -1);
+			String line;
+			while ((line = in.readLine()) != null)
+			{
+				line = line.trim();
+				if (line.startsWith("FullName "))
+					fullName = line.substring(9).trim();
+				else if (line.startsWith("Ascender "))
+					ascender = (int)Math.round(Double.parseDouble(line.substring(9).trim()));
+				else if (line.startsWith("Descender "))
+					descender = (int)Math.round(Double.parseDouble(line.substring(10).trim()));
+				else if (line.startsWith("C "))
+				{
+					// C 32 ; WX 278 ; N space ; B 0 0 0 0 ;
+					int code = -1, width = -1;
+					StringTokenizer st = new StringTokenizer(line, ";");
+					while (st.hasMoreTokens())
+					{
+						String field = st.nextToken().trim();
+						if (field.startsWith("C "))
+							code = Integer.parseInt(field.substring(2).trim());
+						else if (field.startsWith("WX "))
+							width = (int)Math.round(Double.parseDouble(field.substring(3).trim()));
+					}
+					if (code >= 0 && code < advances.length && width >= 0)
+					{
+						advances[code] = width;
+						if (code == ' ')
+							spaceAdvance = width;
+					}
+				}
+			}
+
+			int missing = (spaceAdvance >= 0) ? spaceAdvance : 500;
+			for (int i = 0; i < advances.length; i++)
+			{
+				if (advances[i] < 0)
+					advances[i] = missing;
+			}
+			Glyphs g = new Glyphs(1000, ascender, descender, 0, missing);
+			g.advances = advances;
+			g.fullName = fullName;
+			return g;
+		}
+		catch (NumberFormatException e)
+		{
+			throw new IOException("bad number in AFM file: "+e.getMessage());
+		}
+		finally
+		{
+			in.close();
+		}
+	}
+
+
+
+	//////////////////////////////////////////////////////////
+	//					Reading helpers
+	//////////////////////////////////////////////////////////
+	private static byte[] readFile(File f) throws IOException
+	{
+		RandomAccessFile raf = new RandomAccessFile(f, "r");
+		try
+		{
+			long length = raf.length();
+			if (length > Integer.MAX_VALUE)
+				throw new IOException("font file too large");
+			byte[] data = new byte[(int)length];
+			raf.readFully(data);
+			return data;
+		}
+		finally
+		{
+			raf.close();
+		}
+	}
+
+	private static int getUShort(byte[] b, int offset)
+	{
+		return ((b[offset] & 0xff) << 8) | (b[offset + 1] & 0xff);
+	}
+
+	private static int getShort(byte[] b, int offset)
+	{
+		return (short)getUShort(b, offset);
+	}
+
+	private static int getInt(byte[] b, int offset)
+	{
+		return (getUShort(b, offset) << 16) | getUShort(b, offset + 2);
+	}
+
+
+
+
+	/** What is read from a font file; never changed once it is shared. */
+	private final static class Glyphs
+	{
+		private final int unitsPerEm;
+		private final int ascender;			// Positive, above the baseline.
+		private final int descender;		// Negative, below the baseline.
+		private final int lineGap;
+		private final int missingAdvance;	// For characters the font doesn't have.
+		private int[] advances;				// Advance of each character.
+		private String fullName;
+
+		private Glyphs(int unitsPerEm, int ascender, int descender, int lineGap,
+			int missingAdvance)
+		{
+			this.unitsPerEm		= unitsPerEm;
+			this.ascender		= ascender;
+			this.descender		= descender;
+			this.lineGap		= lineGap;
+			this.missingAdvance	= missingAdvance;
+			advances			= new int[0];
+		}
+	}
+}
@@ -40,6 +40,11 @@
 **				the command line.
 **				1.51 - February 10, 2005 Updated @param tag with parameter name to 
 **				correct error with Javadoc 1.4.2-04.
+**				1.52 - October 17, 2026 The coordinate toString() methods write
+**				the trimmed values with SvgNumberFormat and appendPolyLine()
+**				writes a vertex straight into the caller's buffer.
+**				1.53 - October 17, 2026 Added the append methods that write the
+**				coordinates straight to an element's output.
 **
 **	TODO:
 **
@@ -48,6 +53,7 @@
 
 package dxf2svg.svg;
 
+import java.io.IOException;	// for the append methods.
 import dxf2svg.*;
 import dxf2svg.util.*;
 
@@ -437,10 +443,7 @@ public final class Point implements Cloneable
 	*/
 	public String toStringText()
 	{
-
-		x = svgUtility.trimDouble(x);
-		y = svgUtility.trimDouble(y);
-		return "x=\"" + x + "\" y=\"" + y + "\"";
+		return appendCoordinates(new StringBuffer(32), "x=\"", "\" y=\"", "\"").toString();
 	}
 	
 	
@@ -464,10 +467,15 @@ public final class Point implements Cloneable
 	*/
 	public String toStringFirstCoord()
 	{
+		return appendCoordinates(new StringBuffer(32), "x1=\"", "\" y1=\"", "\"").toString();
+	}
 
-		x = svgUtility.trimDouble(x);
-		y = svgUtility.trimDouble(y);
-		return "x1=\"" + x + "\" y1=\"" + y + "\"";
+	/** Writes the coordinates as {@link #toStringFirstCoord} formats them.
+	*	@throws IOException if the Appendable does.
+	*/
+	public void appendFirstCoord(Appendable out) throws IOException
+	{
+		appendCoordinates(out, "x1=\"", "\" y1=\"", "\"");
 	}
 
 	/** Outputs the second of a pair of coordinates.
@@ -477,10 +485,15 @@ public final class Point implements Cloneable
 	*/
 	public String toStringSecondCoord()
 	{
+		return appendCoordinates(new StringBuffer(32), " x2=\"", "\" y2=\"", "\"").toString();
+	}
 
-		x = svgUtility.trimDouble(x);
-		y = svgUtility.trimDouble(y);
-		return " x2=\"" + x + "\" y2=\"" + y + "\"";
+	/** Writes the coordinates as {@link #toStringSecondCoord} formats them.
+	*	@throws IOException if the Appendable does.
+	*/
+	public void appendSecondCoord(Appendable out) throws IOException
+	{
+		appendCoordinates(out, " x2=\"", "\" y2=\"", "\"");
 	}
 
 	/** Outputs a pair of coordinates for the centre of a SVGCircle.
@@ -489,10 +502,15 @@ public final class Point implements Cloneable
 	*/
 	public String toStringCircle()
 	{
+		return appendCoordinates(new StringBuffer(32), "cx=\"", "\" cy=\"", "\"").toString();
+	}
 
-		x = svgUtility.trimDouble(x);
-		y = svgUtility.trimDouble(y);
-		return "cx=\"" + x + "\" cy=\"" + y + "\"";
+	/** Writes the coordinates as {@link #toStringCircle} formats them.
+	*	@throws IOException if the Appendable does.
+	*/
+	public void appendCircle(Appendable out) throws IOException
+	{
+		appendCoordinates(out, "cx=\"", "\" cy=\"", "\"");
 	}
 
 	/** Outputs a single pair of comma separated coordinates like those used in translations
@@ -500,9 +518,25 @@ public final class Point implements Cloneable
 	*/
 	public String toStringPolyLine()
 	{
-		x = svgUtility.trimDouble(x);
-		y = svgUtility.trimDouble(y);
-		return " " + x + "," + y;
+		return appendPolyLine(new StringBuffer(24)).toString();
+	}
+
+	/** Appends the coordinates to the argument buffer as {@link #toStringPolyLine}
+	*	formats them, without making a String of them first.
+	*	@param sb buffer to append to.
+	*	@return the argument buffer.
+	*/
+	public StringBuffer appendPolyLine(StringBuffer sb)
+	{
+		return appendCoordinates(sb, " ", ",", "");
+	}
+
+	/** Writes the coordinates as {@link #toStringPolyLine} formats them.
+	*	@throws IOException if the Appendable does.
+	*/
+	public void appendPolyLine(Appendable out) throws IOException
+	{
+		appendCoordinates(out, " ", ",", "");
 	}
 
 	/** Outputs a single pair of comma separated coordinates like those used in transformations.
@@ -511,9 +545,7 @@ public final class Point implements Cloneable
 	*/
 	public String toTransformCoordinate()
 	{
-		x = svgUtility.trimDouble(x);
-		y = svgUtility.trimDouble(y);
-		return x + "," + y;
+		return appendCoordinates(new StringBuffer(24), "", ",", "").toString();
 	}
 
 
@@ -523,9 +555,33 @@ public final class Point implements Cloneable
 	*/
 	public String toStringRaw()
 	{
-		x = svgUtility.trimDouble(x);
-		y = svgUtility.trimDouble(y);
-		return x + " " + y;
+		return appendCoordinates(new StringBuffer(24), "", " ", "").toString();
+	}
+
+	// Trims x and y, as all the toString methods do, and appends them to the
+	// buffer between the argument Strings.
+	private StringBuffer appendCoordinates(StringBuffer sb, String beforeX,
+		String beforeY, String afterY)
+	{
+		SvgNumberFormat numberFormat = svgUtility.getNumberFormat();
+		sb.append(beforeX);
+		x = numberFormat.append(sb, x);
+		sb.append(beforeY);
+		y = numberFormat.append(sb, y);
+		sb.append(afterY);
+		return sb;
+	}
+
+	// As above, to any Appendable.
+	private void appendCoordinates(Appendable out, String beforeX,
+		String beforeY, String afterY) throws IOException
+	{
+		SvgNumberFormat numberFormat = svgUtility.getNumberFormat();
+		out.append(beforeX);
+		x = numberFormat.append(out, x);
+		out.append(beforeY);
+		y = numberFormat.append(out, y);
+		out.append(afterY);
 	}
 	
 	/** Creates a clone of the object.
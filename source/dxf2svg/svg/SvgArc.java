@@ -25,6 +25,8 @@
 **				1.62 - September 15, 2005 Fix for SVG Plug-in version 3.01 and 3.02 bug.
 **				1.63 - January 31, 2006 Fix for SVG Plug-in version 3.01 and 3.02 bug
 **              for arcs that produce '-0.0,-0.0'.
+**				1.64 - October 17, 2026 The arc is calculated by calculateArc() and
+**				written straight to the output by appendUniqueData().
 **
 **	TODO:
 **
@@ -32,6 +34,7 @@
 
 package dxf2svg.svg;
 
+import java.io.IOException;							// for appendUniqueData().
 import dxf2svg.DxfConverter;						// DxfConverter
 
 /**
@@ -39,7 +42,7 @@ import dxf2svg.DxfConverter;						// DxfConverter
 *	for the SVG Plug-in version 3.01 and 3.02 bug where by arcs that have
 *	0.0 values for rx and or ry will crash the browser.
 *	@see        #getElementAsPath
-*	@see        #calculateMyUniqueData
+*	@see        #appendUniqueData
 *	@version	1.62 - September 15, 2005
 *	@author		Andrew Nisbet
 */
@@ -135,7 +138,7 @@ public final class SvgArc extends SvgDoubleEndedGraphicElement
 	*/
 	public String getElementAsPath(boolean fromPreviousPoint)
 	{
-		calculateMyUniqueData();
+		calculateArc();
 		StringBuffer ArcOutput = new StringBuffer();
 
 		// This is a bug fix for arcs that are complete circles. If you
@@ -179,8 +182,35 @@ public final class SvgArc extends SvgDoubleEndedGraphicElement
 		return ArcOutput.toString();
 	}
 
+	/** Writes the unique data that describes this object as an SVG element.*/
+	protected void appendUniqueData(Appendable out) throws IOException
+	{
+		calculateArc();
+
+		// map using absolute coord system.
+		out.append(" d=\"M");
+		out.append(String.valueOf(c1));
+		out.append(",");
+		out.append(String.valueOf(c2));
+		out.append(" A");
+		out.append(String.valueOf(rx));
+		out.append(",");
+		out.append(String.valueOf(ry));
+		out.append(" ");
+		out.append(String.valueOf(x_rotation));
+		out.append(" ");
+		out.append(String.valueOf(large_arc_flag));
+		out.append(",");
+		out.append(String.valueOf(sweep_flag));
+		out.append(" ");
+		out.append(String.valueOf(x));
+		out.append(",");
+		out.append(String.valueOf(y));
+		out.append("\"");
+	}
+
 	/** Performs the unique calculation required to describe this object as an SVG element.*/
-	protected String calculateMyUniqueData()
+	private void calculateArc()
 	{
 
 		/*
@@ -259,8 +289,6 @@ public final class SvgArc extends SvgDoubleEndedGraphicElement
 		//y = svgUtility.trimDouble(Anchor.getY() -
 		//	Math.sin(Math.toRadians(EndAngle)) * Radius);
 
-		StringBuffer ArcOutput = new StringBuffer();
-
 		///////////////////////////////////////////////////////////////////
 		// Fix for SVG Plug-in version 3.01 and 3.02 bug. If the rx and/or
 		// ry are zero, make them so they have a very small value of 0.001
@@ -276,12 +304,6 @@ public final class SvgArc extends SvgDoubleEndedGraphicElement
 			ry = 0.001;
 		}
 		///////////////////////////////////////////////////////////////////
-		
-		// map using absolute coord system.
-		ArcOutput.append(" d=\"M"+c1+","+c2+" A"+rx+","+ry+" "+x_rotation+" "+
-			large_arc_flag+","+sweep_flag+" "+x+","+y+"\"");
-
-		return ArcOutput.toString();
 	}
 	
 	// This method can be called for two different reasons so I have separated it here
@@ -15,6 +15,8 @@
 **				(build 1.4.0_01-b03)
 **
 **	Version:	1.00 - August 5, 2002
+**				1.01 - October 17, 2026 The centre and radius are written straight
+**				to the output by appendUniqueData().
 **
 **	TODO:
 **
@@ -24,6 +26,7 @@
 
 package dxf2svg.svg;
 
+import java.io.IOException;	// for appendUniqueData().
 import dxf2svg.DxfConverter;
 
 /**
@@ -67,22 +70,18 @@ public class SvgCircle extends SvgGraphicElement
 		//Radius = svgUtility.trimDouble(Radius,2);
 	}
 
-	/** Performs the unique calculation required to describe this object as an SVG element.*/
-	protected String calculateMyUniqueData()
+	/** Writes the unique data that describes this object as an SVG element.*/
+	protected void appendUniqueData(Appendable out) throws IOException
 	{
 		/*
 		*	Syntax for a Circle in Svg is:
 		*	<circle id="LTop" cx="0" cy="18" r="113" style="stroke: black"/>
 		*/
 
-		StringBuffer CircleOutput = new StringBuffer();
-
-
-		CircleOutput.append(Anchor.toStringCircle());
-		Radius = svgUtility.trimDouble(Radius);
-		CircleOutput.append(" r=\""+Radius+"\"");
-
-		return CircleOutput.toString();
+		Anchor.appendCircle(out);
+		out.append(" r=\"");
+		Radius = svgUtility.getNumberFormat().append(out, Radius);
+		out.append("\"");
 	}
 
 	protected Object clone()
@@ -25,6 +25,10 @@
 **				of the vector of SvgObjects.
 **				1.12 - March 16, 2005 Added getGroupElementsByReference() method for
 **				searching and modifying elements in-situ. See DxfConverter.init().
+**				1.13 - October 17, 2026 Added getStartTag() and getEndTag() so a
+**				collection's content can be written by something other than toString().
+**				1.14 - October 17, 2026 toString() is written by writeTo(), which
+**				writes each element with its own writeTo().
 **
 **	TODO:
 **
@@ -39,6 +43,7 @@ import dxf2svg.*;		// DxfConverter & NullDxfConverter
 import dxf2svg.svg.SvgText;	
 import dxf2svg.animation.*;
 import java.util.regex.*;
+import java.io.IOException;	// for writeTo().
 
 /**
 *	This class is the base class for all collections of SvgObjects.
@@ -70,11 +75,7 @@ public abstract class SvgCollection extends SvgElement
 	*/
 	public SvgCollection(DxfConverter dxfc)
 	{
-		super();
-		if (dxfc == null)
-			throw new NullDxfConverterReferenceException(
-				"Svg object instantiation attempt: "+this.getClass());
-		DxfConverterRef			= dxfc;
+		super(dxfc);
 		SSG 					= DxfConverterRef.getStyleSheetGenerator();
 		setIncludeClassAttribute(true);
 		SvgElementVector 		= new Vector();
@@ -387,16 +388,59 @@ public abstract class SvgCollection extends SvgElement
 	*/
 	public String toString()
 	{
-		int GroupSize = SvgElementVector.size();
+		return writeToString();
+	}
+
+	/**
+	*	Writes the collection as described in {@link #toString}, each of its
+	*	elements with their own writeTo() method.
+	*	@throws IOException if the Appendable does.
+	*/
+	public void writeTo(Appendable out) throws IOException
+	{
 		// First we check to see if we even have any data to display
 		// We do this because some layers contain no data and if you
 		// continue with the iteration on an empty Vector you will
 		// throw a NullPointerException. It is completely legit to
 		// be required to handle empty layers.
-		if (GroupSize < 1)
-			return "";
+		if (SvgElementVector.size() < 1)
+			return;
 
 		// If we made it here we can continue safely
+		out.append(getStartTag());
+		out.append("\n");
+		writeElements(out);
+		// closing tag.
+		out.append(getEndTag());
+	}
+
+	/**
+	*	Writes each element of the collection on its own line, indented with a tab.
+	*	@throws IOException if the Appendable does.
+	*/
+	protected void writeElements(Appendable out) throws IOException
+	{
+		int GroupSize = SvgElementVector.size();
+		for (int i = 0; i < GroupSize; i++)
+		{
+			Object o = SvgElementVector.get(i);
+			out.append("\t");
+			// Any object can be added to a collection.
+			if (o instanceof SvgElement)
+				((SvgElement)o).writeTo(out);
+			else
+				out.append(o.toString());
+			out.append("\n");
+		}
+	}
+
+	/**
+	*	Returns the opening tag of the collection with its attributes, like
+	*	<code>&lt;g class="st0"&gt;</code>.
+	*	@since 1.13 - October 17, 2026
+	*/
+	public String getStartTag()
+	{
 		StringBuffer OutputString = new StringBuffer();
 		OutputString.append("<");
 		// now the type or tag of this object.
@@ -405,16 +449,17 @@ public abstract class SvgCollection extends SvgElement
 		// which was only introduced in Java 1.4 but it saves
 		// us a toString() conversion call.
 		OutputString.append(getAttributes());
-		OutputString.append(">\n");
-
-		for (int i = 0; i < GroupSize; i++)
-		{
-			OutputString.append("\t"+(SvgElementVector.get(i)).toString()+"\n");
-		}
-
-		// closing tag.
-		OutputString.append("</"+getType()+">");
+		OutputString.append(">");
 
 		return OutputString.toString();
 	}
+
+	/**
+	*	Returns the closing tag of the collection.
+	*	@since 1.13 - October 17, 2026
+	*/
+	public String getEndTag()
+	{
+		return "</"+getType()+">";
+	}
 }
\ No newline at end of file
@@ -17,6 +17,9 @@
 **				(build 1.4.0_01-b03)
 **
 **	Version:	0.01 - September 1, 2004
+**				0.02 - October 17, 2026 toString() is written by writeTo().
+**				0.03 - October 17, 2026 The attributes and path are written straight
+**				to the output by appendAttributes() and appendUniqueData().
 **
 **	TODO:
 **
@@ -29,7 +32,7 @@ package dxf2svg.svg;
 import dxf2svg.DxfConverter;
 import dxf2svg.animation.SvgAnimator;
 import java.util.Vector;
-import java.util.Iterator;
+import java.io.IOException;	// for writeTo().
 import dxf2svg.util.Attribute;
 
 /**	This class takes SvgDoubleEndedElements and combines their pathing
@@ -115,20 +118,17 @@ public class SvgDoubleEndedElementAggregate extends SvgGraphicElement
 	*	<P>
 	*	There is a complex interaction of rules for expressing the
 	*	correct array of attributes that any one SvgObject requires.
-	*	<P>
-	*	@return StringBuffer
+	*	@throws IOException if the Appendable does.
 	*/
-	protected StringBuffer getAttributes()
+	protected void appendAttributes(Appendable out) throws IOException
 	{
-		StringBuffer Output = new StringBuffer();
-
 		setApplingRules();
 
 		// if the ObjType is null or unknown and we still want to see it in
 		// the SVG for debugging purposes
 		if (DEBUG)
 		{
-			Output.append(getObjID());
+			out.append(getObjID());
 		}
 
 		// now we output any styling information depending on whether
@@ -183,9 +183,7 @@ public class SvgDoubleEndedElementAggregate extends SvgGraphicElement
 			}
 		}
 		
-		Output.append(getAdditionalAttributes());
-		
-		return Output;
+		appendAdditionalAttributes(out);
 	}
 	
 	
@@ -198,28 +196,33 @@ public class SvgDoubleEndedElementAggregate extends SvgGraphicElement
 	*/
 	public String toString()
 	{
-		StringBuffer ObjectOutput = new StringBuffer();
+		return writeToString();
+	}
+
+	/** Writes the element as described in {@link #toString}.
+	*	@throws IOException if the Appendable does.
+	*/
+	public void writeTo(Appendable out) throws IOException
+	{
 		
-		ObjectOutput.append("<"+getType());
-		ObjectOutput.append(getAttributes());
-		ObjectOutput.append(calculateMyUniqueData());	
+		out.append("<");
+		out.append(getType());
+		appendAttributes(out);
+		appendUniqueData(out);
 		// Now add animation if any.
 		if (vAnimationSet != null)
 		{
-			ObjectOutput.append(">");
-			Iterator itor = vAnimationSet.iterator();
-			while (itor.hasNext())
-			{
-				ObjectOutput.append("\n\t"+itor.next());
-			}
-			ObjectOutput.append("</"+getType()+">");
+			out.append(">");
+			writeAnimation(out);
+			out.append("</");
+			out.append(getType());
+			out.append(">");
 		}
 		else
 		{
-			ObjectOutput.append("/>");
+			out.append("/>");
 		}
 		
-		return ObjectOutput.toString();
 	}
 	
 	
@@ -249,13 +252,15 @@ public class SvgDoubleEndedElementAggregate extends SvgGraphicElement
 	}
 	
 
-	/** Performs the unique calculation required to describe this object as an SVG element.
-	*	@return String the aggregate of all the pathing of all the submitted elements or
-	*	if there were none, an empty String.
+	/** Writes the aggregate of all the pathing of all the submitted elements, which
+	*	is empty if there were none, as the element's 'd' attribute.
+	*	@throws IOException if the Appendable does.
 	*/
-	protected String calculateMyUniqueData()
+	protected void appendUniqueData(Appendable out) throws IOException
 	{	
-		return " d=\"" + pathPoints.toString() + "\"";
+		out.append(" d=\"");
+		out.append(pathPoints);
+		out.append("\"");
 	}	
 	
 	
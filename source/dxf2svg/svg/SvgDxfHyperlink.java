@@ -48,7 +48,6 @@
 package dxf2svg.svg;
 
 import dxf2svg.DxfConverter;
-import dxf2svg.DxfPreprocessor;   // Switch to test if we swap svgz ext. for html.
 import dxf2svg.util.*;
 import java.util.regex.*;	      // regular expression matching for content search.
 
@@ -136,7 +135,7 @@ public class SvgDxfHyperlink extends SvgGroup
 	*	type link addresses when inserting a hyperlink in AutoCAD.
 	*	@see dxf2svg.DxfPreprocessor#setSwapSvgForHtml
 	*	@see #SPOT_CALL
-	*	@see dxf2svg.DxfPreprocessor#swapSvgzForHtml
+	*	@see dxf2svg.ConversionSettings#swapSvgzForHtml
 	*/
 	public void setXLink(String uri)
 	{
@@ -147,7 +146,7 @@ public class SvgDxfHyperlink extends SvgGroup
 		// a web address or a IETM fragment.
 		Pattern pattern = Pattern.compile( SPOT_CALL );	
 		Matcher m = pattern.matcher( uri );
-		if (DxfPreprocessor.swapSvgzForHtml() && m.find())
+		if (settings.swapSvgzForHtml() && m.find())
 		{
 			result = uri.replaceFirst("\\.((s|S)(v|V)(G|g)(Z|z)?)","\\.html");
 			// Do this so the names of links match names in frameset
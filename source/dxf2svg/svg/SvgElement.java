@@ -23,6 +23,11 @@
 **				0.05 - April 6, 2004 Moved setType() method from SvgObject to here.
 **				0.06 - February 10, 2005 Updated @param tag with parameter name to 
 **				correct error with Javadoc 1.4.2-04.
+**				0.07 - October 17, 2026 Constructor now takes the conversion context
+**				and switches are read from its ConversionSettings.
+**				0.08 - October 17, 2026 Added writeTo() so elements can be written
+**				straight to the output without building a String.
+**				0.09 - October 17, 2026 Added appendAdditionalAttributes().
 **
 **	TODO:
 **
@@ -37,6 +42,7 @@ import dxf2svg.util.*;
 import dxf2svg.animation.*;
 
 import java.util.Vector;   // for element event actions.
+import java.io.IOException;// for writeTo().
 
 /**
 *	SvgElement is the abstract base class for all Svg Objects. This includes
@@ -60,9 +66,10 @@ public abstract class SvgElement implements Cloneable
 												// class can be manipulated.
 												// All SvgObjects will
 												// manifest this behaviour.
-	protected static boolean		VERBOSE; 	// verbose mode.
-	protected static boolean		DEBUG;		// debug mode on or off.
-	protected static int 			MAKE_CSS; 	// make CSS is set?
+	protected boolean				VERBOSE; 	// verbose mode.
+	protected boolean				DEBUG;		// debug mode on or off.
+	protected int 					MAKE_CSS; 	// make CSS is set?
+	protected ConversionSettings	settings;	// switch settings of the conversion.
 
 	// We let the subclass decide if and which of the following objects it needs.
 	protected StyleSheetGenerator 	SSG;		// For getColour() etc.
@@ -84,13 +91,21 @@ public abstract class SvgElement implements Cloneable
 												// for examples.
 
 
-	/** Default constructor.
+	/** Sets the conversion context and reads the switches from its settings.
+	*	@param dxfc dxf conversion context
+	*	@throws NullDxfConverterReferenceException if the argument is null.
 	*/
-	public SvgElement()
+	public SvgElement(DxfConverter dxfc)
 	{
-		VERBOSE 			= DxfPreprocessor.verboseMode();
-		DEBUG				= DxfPreprocessor.debugMode();
-		MAKE_CSS 			= DxfPreprocessor.cssMode();
+		if (dxfc == null)
+			throw new NullDxfConverterReferenceException(
+				"Svg object instantiation attempt: "+
+				this.getClass().getName());
+		DxfConverterRef		= dxfc;
+		settings			= DxfConverterRef.getSettings();
+		VERBOSE 			= settings.verboseMode();
+		DEBUG				= settings.debugMode();
+		MAKE_CSS 			= settings.cssMode();
 		INCLUDE_CLASS_ATTRIBUTE=true;
 	}
 	
@@ -174,6 +189,49 @@ public abstract class SvgElement implements Cloneable
 		return attribs;
 	}
 
+	/** Writes the attributes {@link #getAdditionalAttributes} returns straight
+	*	to the Appendable.
+	*	@throws IOException if the Appendable does.
+	*/
+	protected void appendAdditionalAttributes(Appendable out) throws IOException
+	{
+		if (vAttribs == null)
+			return;
+		for (int i = 0; i < vAttribs.size(); i++)
+			out.append(vAttribs.get(i).toString());
+	}
+
+	/** Writes this element to the argument, exactly as <code>toString()</code>
+	*	would return it. This implementation writes the value of toString(); the
+	*	subclasses that can, write their parts directly so that a layer can be
+	*	streamed to the SVG file without a String of each element being made.
+	*	Subclasses that override this method should return
+	*	{@link #writeToString} from toString().
+	*	@param out where the element is written.
+	*	@throws IOException if the Appendable does.
+	*/
+	public void writeTo(Appendable out) throws IOException
+	{
+		out.append(toString());
+	}
+
+	/** Returns what {@link #writeTo} writes as a String.
+	*/
+	protected final String writeToString()
+	{
+		StringBuffer out = new StringBuffer();
+		try
+		{
+			writeTo(out);
+		}
+		catch (IOException e)
+		{
+			// a StringBuffer doesn't throw IOExceptions.
+			throw new InternalError(e.toString());
+		}
+		return out.toString();
+	}
+
 	/** This method allows the inclusion of additional attributes that may be defined 
 	*	by the user and are outside the scope of the conversion process. All subclasses
 	*	can also use this method unless they specifically overwrite this method and do
@@ -278,7 +336,7 @@ public abstract class SvgElement implements Cloneable
 		// what to do vis-a-vis what layer to go to. Again it would be great to specify the 
 		// layer for notes dynamically and be able to designate an alternate. For Spar conversion
 		// we will hard code it for now.
-		if (DxfPreprocessor.takeNotes() == true)
+		if (settings.takeNotes() == true)
 		{
 			if (SSG == null)
 			{
@@ -19,6 +19,10 @@
 **				0.02 - March 25, 2004 Added special handling for note and 
 **				legend blocks.
 **				0.03 - April 16, 2004 Added getAdditionalAttributes().
+**				0.04 - October 17, 2026 toString() is written by writeTo(); the
+**				quotes of double quoted entities are swapped as they are written.
+**				0.05 - October 17, 2026 Added writeTo(Appendable, String) for the
+**				symbol library.
 **
 **	TODO:
 **
@@ -29,6 +33,7 @@
 package dxf2svg.svg;
 
 import dxf2svg.DxfConverter;
+import java.io.IOException;	// for writeTo().
 
 /**
 *	This class encapsulates a collection of SvgObjects that, in the case
@@ -147,50 +152,103 @@ public class SvgEntityDeclaration extends SvgCollection
 	*/
 	public String toString()
 	{
-		int GroupSize = SvgElementVector.size();
+		return writeToString();
+	}
+
+	/**
+	*	Writes the collection as described in {@link #toString}.
+	*	@throws IOException if the Appendable does.
+	*/
+	public void writeTo(Appendable out) throws IOException
+	{
 		// First we check to see if we even have any data to display
 		// We do this because some layers contain no data and if you
 		// continue with the iteration on an empty Vector you will
 		// throw a NullPointerException. It is completely legit to
 		// be required to handle empty layers.
-		if (GroupSize < 1)
-			return "";
+		if (SvgElementVector.size() < 1)
+			return;
 
 		// If we made it here we can continue safely
-		StringBuffer OutputString = new StringBuffer();
-		OutputString.append("<");
+		out.append("<");
 		// now the type or tag of this object.
-		OutputString.append(getType());
-		// This method appends a StringBuffer to a StringBuffer
-		// which was only introduced in Java 1.4 but it saves
-		// us a toString() conversion call.
-		OutputString.append(getAttributes());
-		OutputString.append(">\n");
-
-		for (int i = 0; i < GroupSize; i++)
+		out.append(getType());
+		out.append(getAttributes());
+		out.append(">\n");
+
+		// We can alternatively use single quotes or double quotes for SvgEntities.
+		// They must alternate though; if the declaration uses single quotes the
+		// enclosed entities must have double quotes, and if the declaration is in
+		// double quotes the enclosed entities must have double quotes where quotes
+		// are used.
+		////////////////////// remember /////////////////////
+		// If the Entity declaration is single quoted we use double here
+		// otherwise if the ENTITY key word uses a double quote we have 
+		// to use single quotes internally for all of our entities.
+		if (quoteType == DOUBLE_QUOTE)
+			writeElements(new QuoteSwapper(out));
+		else
+			writeElements(out);
+
+		// closing tag.
+		out.append("</"+getType()+">");
+	}
+
+	/**
+	*	Writes the collection as {@link #writeTo(Appendable)} does but with the
+	*	argument ID in place of its own, or without an ID if the argument is null.
+	*	Blocks with different names that draw the same thing write the same
+	*	String without an ID, which is how the symbol library finds them.
+	*	@throws IOException if the Appendable does.
+	*/
+	public void writeTo(Appendable out, String id) throws IOException
+	{
+		String name = SvgObjID;
+		SvgObjID = id;
+		try
 		{
-			String outStr = (SvgElementVector.get(i)).toString();
-			// We can alternatively use single quotes or double quotes for SvgEntities.
-			// They must alternate though; if the declaration uses single quotes the
-			// enclosed entities must have double quotes, and if the declaration is in
-			// double quotes the enclosed entities must have double quotes where quotes
-			// are used.
-			////////////////////// remember /////////////////////
-			// If the Entity declaration is single quoted we use double here
-			// otherwise if the ENTITY key word uses a double quote we have 
-			// to use single quotes internally for all of our entities.
-			if (quoteType == DOUBLE_QUOTE)
-			{
-				outStr = outStr.replace('\'', '\"');
-			}
-				
-			OutputString.append("\t"+outStr+"\n");
+			writeTo(out);
 		}
+		finally
+		{
+			SvgObjID = name;
+		}
+	}
 
-		// closing tag.
-		OutputString.append("</"+getType()+">");
 
-		return OutputString.toString();
+
+
+	/** Passes everything written to it on to another Appendable with
+	*	single quotes replaced by double quotes.
+	*/
+	private final static class QuoteSwapper implements Appendable
+	{
+		private Appendable out;
+
+		private QuoteSwapper(Appendable out)
+		{	this.out = out;	}
+
+		public Appendable append(char c) throws IOException
+		{
+			out.append((c == '\'') ? '\"' : c);
+			return this;
+		}
+
+		public Appendable append(CharSequence csq) throws IOException
+		{
+			if (csq == null)
+				csq = "null";
+			return append(csq, 0, csq.length());
+		}
+
+		public Appendable append(CharSequence csq, int start, int end) throws IOException
+		{
+			if (csq == null)
+				csq = "null";
+			for (int i = start; i < end; i++)
+				append(csq.charAt(i));
+			return this;
+		}
 	}
 
 }	// end of SvgEntityDeclaration class
\ No newline at end of file
@@ -16,6 +16,8 @@
 **				(build 1.4.0_01-b03)
 **
 **	Version:	0.01 - April 04, 2003
+**				0.02 - October 17, 2026 Refers to the block's symbol with a <use>
+**				when there is a shared symbol library.
 **
 **	TODO:
 **
@@ -29,7 +31,9 @@ import dxf2svg.*;	// converter and preprocessor
 
 /**
 *	This class encapsulates Dxf INSERT object. Any block reference will
-*	be translated into a &lt;g&gt; referencing an entity declaration.
+*	be translated into a &lt;g&gt; referencing an entity declaration, or,
+*	with '-symbol_library', a &lt;g&gt; with a &lt;use&gt; of the block's
+*	symbol in the library.
 *
 *	@version	0.01 - September 13, 2002
 *	@author		Andrew Nisbet
@@ -276,7 +280,11 @@ public class SvgEntityReference extends SvgReference
 		OutString.append(getAttributes());
 		// close the tag.
 		OutString.append(">");
-		OutString.append("&"+entityReferenceName+";");
+		String href = DxfConverterRef.getSymbolHref(entityReferenceName);
+		if (href == null)
+			OutString.append("&"+entityReferenceName+";");
+		else
+			OutString.append("<use xlink:href=\""+href+"\"/>");
 		// close tag
 		OutString.append("</");
 		OutString.append(getType());
@@ -16,6 +16,9 @@
 **				(build 1.4.0_01-b03)
 **
 **	Version:	0.01 - November 21, 2002
+**				0.02 - October 17, 2026 Added getInstance(), which shares metrics
+**				by font name and point size, and remembers string widths.
+**				0.03 - October 17, 2026 Implements TextMetrics.
 **
 **	TODO:
 **
@@ -28,6 +31,7 @@ package dxf2svg.svg;
 import java.awt.*;
 import java.awt.font.*;
 import java.awt.geom.*;		// AffineTransform and FontRenderContext.
+import java.util.Hashtable;
 
 /**	This class represents the encapsulation of the metrics of a
 *	text styles font and line metrics. There are several useful
@@ -38,20 +42,34 @@ import java.awt.geom.*;		// AffineTransform and FontRenderContext.
 *
 *	The implementation of this class within Dxf2Svg stops the conversion
 *	if the font required for the conversion does not exist on the system.
+*	<P>
+*	Making the AWT font and measuring it is slow, so text elements get their
+*	metrics from {@link #getInstance}, which makes one object for each font
+*	name and whole point size and shares it between all elements and threads.
+*	The object remembers the widths of the last strings it measured, so
+*	labels like wire ids that are repeated many times are only measured once.
+*	<P>
+*	This is the default {@link TextMetrics}; {@link FontFileMetrics} measures
+*	text without AWT.
 *
 *	@see UnResolveableSvgFontMetricsException
 *	@version	1.00 - November 21, 2002
 *	@author		Andrew Nisbet
 */
-public class SvgFontMetrics
+public class SvgFontMetrics implements TextMetrics
 {
+	// Most strings whose widths are remembered before the memory is cleared.
+	private final static int MAX_WIDTHS = 4096;
+	// Shared metrics, by getKey().
+	private final static Hashtable sharedMetrics = new Hashtable();
+
 	private Font font;
 	private String fontName;
 	private double textHeight;
 	private AffineTransform af;
 	private FontRenderContext frc;
 	private LineMetrics lm;
-	private Rectangle2D r2d = new Rectangle2D.Double();
+	private Hashtable widths = new Hashtable();	// String -> Double width.
 
 	// actual metric valiues
 	private double height;	// distance from baseline to next baseline.
@@ -87,10 +105,50 @@ public class SvgFontMetrics
 	}
 
 
+	/**
+	*	Returns the metrics for the font name and size, making them the first
+	*	time they are asked for. The metrics depend only on the whole number
+	*	part of the size, so sizes that differ after the decimal point share
+	*	the same object.
+	*	@throws UnResolveableSvgFontMetricsException
+	*/
+	public static SvgFontMetrics getInstance(String FontName, double TextHeight)
+		throws UnResolveableSvgFontMetricsException
+	{
+		if (FontName == null || TextHeight == 0.0)
+			return new SvgFontMetrics(FontName, TextHeight);	// throws
+
+		String key = getKey(FontName, (int)TextHeight);
+		SvgFontMetrics sfm = (SvgFontMetrics)sharedMetrics.get(key);
+		if (sfm == null)
+		{
+			// Two threads may both make one; either will do.
+			sfm = new SvgFontMetrics(FontName, TextHeight);
+			sharedMetrics.put(key, sfm);
+		}
+		return sfm;
+	}
+
+	// The size is the last field so names with ':' can't collide.
+	private static String getKey(String FontName, int size)
+	{
+		return FontName + ":" + size;
+	}
+
+	/** Returns the width of the argument string in this font.
+	*/
 	public final double getWidth(String str)
 	{
-		r2d = font.getStringBounds(str,frc);
-		return r2d.getWidth();
+		Double width = (Double)widths.get(str);
+		if (width == null)
+		{
+			Rectangle2D r2d = font.getStringBounds(str,frc);
+			width = Double.valueOf(r2d.getWidth());
+			if (widths.size() >= MAX_WIDTHS)
+				widths.clear();
+			widths.put(str, width);
+		}
+		return width.doubleValue();
 	}
 
 	/** Returns the height of the text. The definition of height is
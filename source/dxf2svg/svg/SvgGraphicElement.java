@@ -24,6 +24,10 @@
 **				the else block of if(CSS == IN_LINE).
 **				2.02 - December 10, 2002 Added getElementAsPath() method.
 **				2.03 - February 12, 2003 Implemented clone() method.
+**				2.04 - October 17, 2026 toString() is written by writeTo().
+**				2.05 - October 17, 2026 writeTo() writes the attributes and unique
+**				data straight to the output with appendAttributes() and
+**				appendUniqueData().
 **
 **	TODO:
 **
@@ -33,7 +37,7 @@
 
 package dxf2svg.svg;
 
-import java.util.Iterator;	// for animation vector if any.
+import java.io.IOException;	// for writeTo().
 import dxf2svg.*;
 import dxf2svg.util.*;
 
@@ -80,6 +84,9 @@ public abstract class SvgGraphicElement extends SvgObject
 	//*******	reserved VISIBILITY	= 4;	*********/
 	public final static int LINETYPE 		= 8;
 	public final static int LINETYPESCALE 	= 16;
+	// Parts of the style attribute written by appendAttributes().
+	private final static String STYLE_OPEN	= " style=\"";
+	private final static String HIDDEN		= "visibility:hidden;";
 
 
 	/** Calls the super class' constructor.
@@ -278,88 +285,125 @@ public abstract class SvgGraphicElement extends SvgObject
 	protected StringBuffer getAttributes()
 	{
 		StringBuffer Output = new StringBuffer();
+		try
+		{
+			appendAttributes(Output);
+		}
+		catch (IOException e)
+		{
+			// a StringBuffer doesn't throw IOExceptions.
+			throw new InternalError(e.toString());
+		}
+		return Output;
+	}
 
+	/** Writes the attributes described in {@link #getAttributes} straight to
+	*	the Appendable.
+	*	@throws IOException if the Appendable does.
+	*/
+	protected void appendAttributes(Appendable out) throws IOException
+	{
 		setApplingRules();
 
 		// if the ObjType is null or unknown and we still want to see it in
 		// the SVG for debugging purposes
+		String id = "";
 		if (DEBUG)
-			Output.append(getObjID());
+			id = getObjID();
 
 		// now we append the class information
 		// I assume that it is very important for all objects to know
 		// what class they belong to. It may be over-ridden by some
 		// intellegence engine later so let's allow maximum flexibility
 		// for instance later.
+		String classAttribute = null;
 		if (getIncludeClassAttribute() == true)
 		{
 			setClass();
-			Output.append(" ");
-			Output.append(getClassAttribute());
+			classAttribute = getClassAttribute();
 		}
 
 		// now we output any styling information depending on whether
 		// 1) we need the information because the attributes are INLINE_STYLES.
 		// 2) the attribs differ from the layer they are on.
 		// We'll handle them one by one so it is clear when we set one
-		// or not.
-		// So if we have at least one style rule unique or the attribs
-		// are INLINE_STYLES
-
-		if (isStyleSet(ANY_STYLE))	// if any style has been set.
+		// or not. Each rule's value is fetched before anything is written
+		// because the test for an empty style, below, needs their lengths.
+		boolean isStyled = isStyleSet(ANY_STYLE);	// if any style has been set.
+		String colour = null;
+		String fill = null;
+		String lineType = null;
+		boolean isHidden = false;
+		if (isStyled)
 		{
-			// There is a rare case when a line will end up on a layer whose
-			// line type is something other than CONTINUOUS. If an object
-			// on that layer, has its line type set to CONTINUOUS and
-			// that is the only rule that is different for this object,
-			// then we don't need a style tag because all line types in SVG
-			// are continuous by default and outputting just the continuous
-			// line type definition to a style tag looks like this 'style=" "'.
-			// *Note* you can not do a test like equals("") on a null object
-			// without throwing a NullPointerException.
-			// add the style attribute.
-			Output.append(" style=\"");
+			// use the methods rather than instance data because we can't be
+			// sure everything we need is ready until we are outputting.
 			if (isStyleSet(COLOUR))
-			{
-				// if we got here its because our colour is different from
-				// the layer's (use the methods rather than instance data
-				// because we don't know if the formatting takes place on
-				// the set() (how we would like it) or on the get() method
-				// because we can't be sure everything we need is ready
-				// until we are outputting.
-				Output.append("stroke:"+getColour()+";");
-			}
+				colour = String.valueOf(getColour());
+			// a fill if any calls this.getFill() not super.getFill()
 			if (isStyleSet(FILL))
-			{
-				// append a fill if any calls this.getFill() not super.getFill()
-				Output.append(getFill());
-			}
+				fill = String.valueOf(getFill());
+			// this handles both linetype and linetype scale uniqueness.
 			if ((isStyleSet(LINETYPE)) || (isStyleSet(LINETYPESCALE)))
-			{
-				// this handles both linetype and linetype scale uniqueness.
-				Output.append(getLineType());
-			}
+				lineType = String.valueOf(getLineType());
 			// if the layer is frozen or the colour is a neg number do this.
-			if (isStyleSet(VISIBILITY))
-			{
-				Output.append("visibility:hidden;");
-			}
-
-			// close the style attribute and add a space so we don't
-			// have to compensate for this in many of Point's toString()s.
-			Output.append("\"");
+			isHidden = isStyleSet(VISIBILITY);
+		}
 
+		// There is a rare case when a line will end up on a layer whose
+		// line type is something other than CONTINUOUS. If an object
+		// on that layer, has its line type set to CONTINUOUS and
+		// that is the only rule that is different for this object,
+		// then we don't need a style tag because all line types in SVG
+		// are continuous by default and outputting just the continuous
+		// line type definition to a style tag looks like this 'style=""'.
+		// Elements whose attributes would be just that are written without
+		// them.
+		int length = id.length();
+		if (classAttribute != null)
+			length += 1 + classAttribute.length();
+		if (isStyled)
+		{
+			length += STYLE_OPEN.length() + 1;
+			if (colour != null)
+				length += "stroke:;".length() + colour.length();
+			if (fill != null)
+				length += fill.length();
+			if (lineType != null)
+				length += lineType.length();
+			if (isHidden)
+				length += HIDDEN.length();
 		}
-		
-		// this will get rid of elements that have empty style strings.
-		if (Output.length() == (" style=\""+"\"").length())
+
+		if (length != (STYLE_OPEN+"\"").length())
 		{
-			Output = new StringBuffer();
+			out.append(id);
+			if (classAttribute != null)
+			{
+				out.append(" ");
+				out.append(classAttribute);
+			}
+			if (isStyled)
+			{
+				out.append(STYLE_OPEN);
+				if (colour != null)
+				{
+					out.append("stroke:");
+					out.append(colour);
+					out.append(";");
+				}
+				if (fill != null)
+					out.append(fill);
+				if (lineType != null)
+					out.append(lineType);
+				if (isHidden)
+					out.append(HIDDEN);
+				// close the style attribute.
+				out.append("\"");
+			}
 		}
-		
-		Output.append(getAdditionalAttributes());
-		
-		return Output;
+
+		appendAdditionalAttributes(out);
 	}
 
 
@@ -423,10 +467,14 @@ public abstract class SvgGraphicElement extends SvgObject
 	*/
 	public String toString()
 	{
-		StringBuffer ObjOutput = new StringBuffer();	// complete Svg element description
-		String ObjData = new String();					// Svg element's unique data
-
+		return writeToString();
+	}
 
+	/** Writes the element as described in {@link #toString}.
+	*	@throws IOException if the Appendable does.
+	*/
+	public void writeTo(Appendable out) throws IOException
+	{
 		/*
 		*	Sometimes Dxf calls an object something which could be described as two different
 		*	Svg objects.  The type of Svg object that should be used may not be known until
@@ -443,48 +491,40 @@ public abstract class SvgGraphicElement extends SvgObject
 		*	Output appearance and CSS properties easier to manage.
 		*/
 
-		// This is a protected method found in all elements that are in the SvgGraphicElements
-		// inheritance chain with the exception of SvgGraphicElement as I have no data.
-
-		// If you were to instantiate an SvgGraphicElement as an object
-		// and ran this next line it would call the method from the super
-		// class. All sub-classes have their own method redefined and so
-		// would call those methods instead.
-		ObjData = calculateMyUniqueData();
-
-		// now we know what we are dealing with and our object type is known let's put it
-		// together
+		// The sub-classes of SvgGraphicElement now settle their type before
+		// they are written, as SvgPolyLine and SvgEllipse do with setType(),
+		// and none of their calculations change their attributes, so the unique
+		// data is written last, straight to the output, by appendUniqueData().
+		// Sub-classes that haven't got one write calculateMyUniqueData().
 
 		// Assemble the objects information in a logical and controlled
 		// way.
 		// The first thing to be output is the opening of the tag
-		ObjOutput.append("<");
+		out.append("<");
 		// now the type or tag of this object.
-		ObjOutput.append(getType());
-		// apply the necessary attributes. (Requires Java 1.4 to append
-		// a StringBuffer to a StringBuffer.)
-		ObjOutput.append(getAttributes());
+		out.append(getType());
+		// apply the necessary attributes.
+		appendAttributes(out);
 		// append the geometry data for this object.
-		ObjOutput.append(" "+ObjData);
+		out.append(" ");
+		appendUniqueData(out);
 		
 		// Now add animation if any.
 		if (vAnimationSet != null)
 		{
-			ObjOutput.append(">");
-			Iterator itor = vAnimationSet.iterator();
-			while (itor.hasNext())
-				ObjOutput.append("\n\t"+itor.next());
-			ObjOutput.append("\n</"+getType()+">");
+			out.append(">");
+			writeAnimation(out);
+			out.append("\n</");
+			out.append(getType());
+			out.append(">");
 		}
 		else	// there are no animation objects...
 		{
 			// close the element's tag.
-			ObjOutput.append("/>");
+			out.append("/>");
 		}
 
-		return ObjOutput.toString();
-
-	} // end toString()
+	} // end writeTo()
 
 
 	protected Object clone()
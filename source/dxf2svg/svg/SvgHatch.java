@@ -21,6 +21,11 @@
 **				it comes from. (What happens if the user wants a specific colour?)
 **				0.04 - January 26, 2005 Added file name to spline error message in
 **				setGroupCode20().
+**				0.05 - October 17, 2026 toString() is written by writeTo().
+**				0.06 - October 17, 2026 The attributes are written straight to the
+**				output by appendAttributes().
+**				0.07 - October 17, 2026 The fill colour is looked up through the
+**				conversion's settings.
 **
 **	TODO:
 **
@@ -32,6 +37,7 @@ package dxf2svg.svg;
 
 import java.util.*;
 import dxf2svg.*;		// DxfConverter
+import java.io.IOException;	// for writeTo().
 
 /**
 *	SvgHatch encapsulates the Dxf object, HATCH. A hatch is made up of a
@@ -265,7 +271,14 @@ public final class SvgHatch extends SvgGraphicElement
 	*/
 	public String toString()
 	{
-		StringBuffer hatch = new StringBuffer();
+		return writeToString();
+	}
+
+	/** Writes the element as described in {@link #toString}.
+	*	@throws IOException if the Appendable does.
+	*/
+	public void writeTo(Appendable out) throws IOException
+	{
 		
 		///////////////////// 0.03 - November 16, 2003 ////////////////
 		// This is commented out because, for some reason, if it is mentioned you cannot
@@ -279,12 +292,13 @@ public final class SvgHatch extends SvgGraphicElement
 		*		d="M1.0,1.0A2.0,1.0 0 1 2.3,2.3 ..."/>.
 		*/
 
-		hatch.append("<"+getType());
+		out.append("<");
+		out.append(getType());
 
 		// Get all the text descriptive attributes for this text.
-		hatch.append(getAttributes());
+		appendAttributes(out);
 		// path description to follow
-		hatch.append(" d=\"");
+		out.append(" d=\"");
 
 		// we could do some auto indenting of nested tags in here
 		for (int i = 0; i < boundaryArray.length; i++)
@@ -294,15 +308,14 @@ public final class SvgHatch extends SvgGraphicElement
 			{
 				SvgGraphicElement se = (SvgGraphicElement)boundaryArray[i].get(j);
 				if (j == 0) // first element off the boundary path.
-					hatch.append(se.getElementAsPath(false));
+					out.append(se.getElementAsPath(false));
 				else
-					hatch.append(se.getElementAsPath(true));
+					out.append(se.getElementAsPath(true));
 			} // while
 		}	// for
 
-		hatch.append("\"/>");
+		out.append("\"/>");
 
-		return hatch.toString();
 	}
 
 
@@ -350,10 +363,10 @@ public final class SvgHatch extends SvgGraphicElement
 			//{
 			//	return "stroke:none;";
 			//}
-			if (! (fillColourNumber == 0 || DxfPreprocessor.isColourCoercedByLayer()))
+			if (! (fillColourNumber == 0 || settings.isColourCoercedByLayer()))
 			{
 				System.out.println("setting fill for hatch."+fillColourNumber);
-				setFill("fill:" + DxfPreprocessor.getColour(fillColourNumber) + ";");
+				setFill("fill:" + settings.getColour(fillColourNumber) + ";");
 			}
 			setFill("stroke:none;");
 			///////////////////// 0.03 - November 16, 2003 ////////////////
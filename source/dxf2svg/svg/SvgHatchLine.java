@@ -23,6 +23,10 @@
 **				coded values for adding the hatch pattern bounding box.
 **				0.03 - February 10, 2005 Updated @param tag with parameter name to 
 **				correct error with Javadoc 1.4.2-04.
+**				0.04 - October 17, 2026 Added appendPatternKey() so patterns can
+**				be compared by their lines.
+**				0.05 - October 17, 2026 The line is written straight to the output
+**				by appendUniqueData().
 **
 **	TODO:
 **
@@ -32,6 +36,7 @@
 
 package dxf2svg.svg;
 
+import java.io.IOException;							// for appendUniqueData().
 import dxf2svg.DxfConverter;						// DxfConverter
 import dxf2svg.util.Attribute;
 
@@ -233,20 +238,45 @@ public final class SvgHatchLine extends SvgLine // implements Cloneable
 
 
 
-	/** Performs the unique calculation required to describe this
-	*	object as an SVG element.
+	/** Appends the values that make up this line of the pattern, its angle,
+	*	base point, offset and dashes, to the argument buffer. Two lines that
+	*	append the same values draw the same.
+	*	@see SvgHatchPattern#getPatternKey
 	*/
-	protected String calculateMyUniqueData()
+	void appendPatternKey(StringBuffer key)
 	{
-		// These buffers will contain there respective data that is
-		// calculated over the duration of this method. Some of the
-		// data for attributes is not available until the end of the
-		// calculation (read tranlation) and has to be appended out
-		// of order. All the buffers will be combined at the end.
-		StringBuffer hatchLineOutput 	= new StringBuffer();
+		key.append(patternLineAngle);
+		appendPatternKey(key, basePoint);
+		appendPatternKey(key, offsetPoint);
+		key.append(';');
+		for (int i = 0; dashArray != null && i < dashArray.length; i++)
+		{
+			key.append(dashArray[i]);
+			key.append(' ');
+		}
+	}
 
+	// Appends the point's values or a marker if it was never set.
+	private static void appendPatternKey(StringBuffer key, Point p)
+	{
+		key.append(';');
+		if (p == null)
+		{
+			key.append('-');
+			return;
+		}
+		key.append(p.getX());
+		key.append(',');
+		key.append(p.getY());
+	}
 
 
+	/** Performs the unique calculation required to describe this
+	*	object as an SVG element and writes it.
+	*	@throws IOException if the Appendable does.
+	*/
+	protected void appendUniqueData(Appendable out) throws IOException
+	{
 		////////////////////////// test ///////////////////////////////////
 		//System.out.println("##Angle of line pattern: "+patternLineAngle);
 		//System.out.println("##Number of dashes in pattern: "+dashes);
@@ -264,17 +294,6 @@ public final class SvgHatchLine extends SvgLine // implements Cloneable
 
 
 
-		// Now do we need to account add dashes?
-		if (dashes > 1)
-		{
-			hatchLineOutput.append
-			(
-				" stroke-dasharray=\"" + calculateDashArray() + "\""
-			);
-		}
-
-
-
 		// We have to account for possibly two things; a rotation
 		// and a translation.
 		//
@@ -341,20 +360,31 @@ public final class SvgHatchLine extends SvgLine // implements Cloneable
 		}	// end switch
 
 
+		// Now do we need to account add dashes? The line is checked above
+		// before anything is written.
+		if (dashes > 1)
+		{
+			out.append
+			(
+				" stroke-dasharray=\"" + calculateDashArray() + "\""
+			);
+		}
+
+
 		if (patternLineAngle != 0.0)
 		{
-			hatchLineOutput.append(" transform=\"");
-			hatchLineOutput.append
+			out.append(" transform=\"");
+			out.append
 			(
 				"translate("+ svgUtility.trimDouble(x) +
 				","+ svgUtility.trimDouble(y) +")"
 			);
-			hatchLineOutput.append
+			out.append
 				(", rotate("+(-patternLineAngle)+")");
-			hatchLineOutput.append("\"");
+			out.append("\"");
 		}
 
-		hatchLineOutput.append(" d=\"M 0,0 h 100\"");
+		out.append(" d=\"M 0,0 h 100\"");
 
 		if (DEBUG)
 		{
@@ -365,11 +395,9 @@ public final class SvgHatchLine extends SvgLine // implements Cloneable
 			// angle '/>' at the end of the line but the viewer doesn't
 			// seem to mind, and compared to the amount of time to work
 			// out another statagy... well, just do this.
-			hatchLineOutput.append("/>\n\t");
-			hatchLineOutput.append(addHatchPatternBoundingBox());
+			out.append("/>\n\t");
+			out.append(addHatchPatternBoundingBox());
 		}
-
-		return hatchLineOutput.toString();
 	}
 
 
@@ -378,7 +406,7 @@ public final class SvgHatchLine extends SvgLine // implements Cloneable
 	*	pattern line.
 	*	@throws UnsetLinePatternDataException if the quadrant the line
 	*	extends into has not been set. It is supposed to be set in
-	*	{@link #calculateMyUniqueData}
+	*	{@link #appendUniqueData}
 	*/
 	public double[] getBoundingBox()
 	{
@@ -15,6 +15,15 @@
 **				(build 1.4.0_01-b03)
 **
 **	Version:	0.01 - December 2, 2002
+**				0.02 - October 17, 2026 Serial number is now taken under a lock
+**				so concurrent conversions can't hand out the same name.
+**				0.03 - October 17, 2026 The pattern lines are written by writeTo()
+**				in front of the end tag instead of being spliced into the String.
+**				0.04 - October 17, 2026 Added getPatternKey() for the hatch pattern
+**				registry in DxfConverter.
+**				0.05 - October 17, 2026 The serial number comes from the pattern's
+**				DxfConverter so a drawing's pattern names don't depend on the other
+**				drawings converted before or beside it.
 **
 **	TODO:		Add methods to handle pattern definitions from SvgHatch
 **				class.
@@ -27,6 +36,7 @@ package dxf2svg.svg;
 
 import java.util.Vector;
 import dxf2svg.DxfConverter;		// DxfConverter
+import java.io.IOException;			// for writeTo().
 
 /**
 *	This class encapsulates a hatch pattern. The hatch pattern is described
@@ -38,7 +48,6 @@ import dxf2svg.DxfConverter;		// DxfConverter
 */
 public final class SvgHatchPattern extends SvgCollection
 {
-	private static int serialNo = 0;	// Unique naming value.
 	private double width;				// Width of pattern.
 	private double height;				// Height of pattern.
 	protected double scale = 1.0;		// Hatch Pattern Scale.
@@ -81,14 +90,13 @@ public final class SvgHatchPattern extends SvgCollection
 	*	hatch path and hatch pattern won't match URLs. This method returns
 	*	the 'synchronized' name of this pattern. This is used by
 	*	to synchornize the pattern object's name with the hatch object's
-	*	URL reference name.
+	*	URL reference name. The serial numbers are counted by the drawing's
+	*	{@link DxfConverter}.
 	*/
 	public final String getSychronizedPatternName()
 	{
-		String name = SvgObjID + "_" + String.valueOf(serialNo);
+		String name = SvgObjID + "_" + String.valueOf(DxfConverterRef.nextPatternSerialNo());
 		setObjID(name);
-		// Increment serial for next unique pattern name.
-		serialNo++;
 
 		return name;
 	}
@@ -271,6 +279,29 @@ public final class SvgHatchPattern extends SvgCollection
 		}
 	}
 
+	/** Returns a String that describes the pattern by its name, scale and the
+	*	angle, base point, offset and dashes of each of its lines, in order.
+	*	Patterns with the same key draw the same and are written once; patterns
+	*	with the same name but different keys have to be renamed. The key is
+	*	made from the name the pattern has when it is called, so take it before
+	*	{@link #getSychronizedPatternName} renames the pattern.
+	*	@see DxfConverter#addHatchPattern
+	*/
+	public String getPatternKey()
+	{
+		StringBuffer key = new StringBuffer();
+		key.append(SvgObjID);
+		key.append('|');
+		key.append(scale);
+		int size = SvgElementVector.size();
+		for (int i = 0; i < size; i++)
+		{
+			key.append('|');
+			((SvgHatchLine)SvgElementVector.get(i)).appendPatternKey(key);
+		}
+		return key.toString();
+	}
+
 	/** Compares this object to the argument object and returns a boolean
 	*	value that indicates whether the two objects are equal. Here
 	*	'equals' means that this object and the argument hatch pattern
@@ -339,36 +370,41 @@ public final class SvgHatchPattern extends SvgCollection
 	*/
 	public String toString()
 	{
-		// This method uses the collections to string method
-		// and adds the repeatition vector of pattern lines as well.
-		StringBuffer outBuff = new StringBuffer();
-
-		outBuff.append(super.toString());
+		return writeToString();
+	}
 
-		if (repeatPattern != null)
+	/**	Writes the pattern the way the collection does with the repetition
+	*	vector of pattern lines added in front of the end tag.
+	*	@throws IOException if the Appendable does.
+	*/
+	public void writeTo(Appendable out) throws IOException
+	{
+		if (repeatPattern == null)
 		{
-			// Find the </pattern> end tag in the outBuff
-			// and insert this before it.
-			String end = "</pattern>";
-			StringBuffer newOut = new StringBuffer();
-			int pos = outBuff.indexOf(end);
-
-			if (pos < 0)
-				System.err.println("SvgHatchPattern: Panic, could not "+
-				"find pattern close tag in output buffer (</pattern>).");
-			else
-				newOut.append(outBuff.substring(0, pos));
+			super.writeTo(out);
+			return;
+		}
 
-			int size = repeatPattern.size();
+		String end = "</pattern>";
+		// An empty collection writes nothing, not even its end tag.
+		if (size() < 1)
+		{
+			System.err.println("SvgHatchPattern: Panic, could not "+
+			"find pattern close tag in output buffer (</pattern>).");
+		}
+		else
+		{
+			out.append(getStartTag());
+			out.append("\n");
+			writeElements(out);
+		}
 
-			for (int i = 0; i < size; i++)
-				newOut.append("\t"+repeatPattern.get(i)+"\n");
+		int size = repeatPattern.size();
 
-			newOut.append(end);
-			outBuff = new StringBuffer(newOut.toString());
-		} // if
+		for (int i = 0; i < size; i++)
+			out.append("\t"+repeatPattern.get(i)+"\n");
 
-		return outBuff.toString();
+		out.append(end);
 	}
 
 
@@ -17,6 +17,8 @@
 **	Version:	1.00 - August 5, 2002
 **				1.01 - December 10, 2002 Added getElementAsPath() method.
 **				1.02 - June 23, 2003 Made it a subclass of SvgDoubleEndedGraphicElement.
+**				1.03 - October 17, 2026 The coordinates are written straight to the
+**				output by appendUniqueData().
 **
 **	TODO:
 **
@@ -26,6 +28,7 @@
 
 package dxf2svg.svg;
 
+import java.io.IOException;							// for appendUniqueData().
 import dxf2svg.DxfConverter;						// DxfConverter
 
 /**
@@ -78,7 +81,7 @@ public class SvgLine extends SvgDoubleEndedGraphicElement
 	}
 
 	/** Performs the unique calculation required to describe this object as an SVG element.*/
-	protected String calculateMyUniqueData()
+	protected void appendUniqueData(Appendable out) throws IOException
 	{
 
 		/*
@@ -88,12 +91,8 @@ public class SvgLine extends SvgDoubleEndedGraphicElement
 		*	some objects requiring x,y values and some x1,y1 as with lines and not possible
 		*	with Point.toString() method as it stands now.
 		*/
-		StringBuffer LineOutput = new StringBuffer();
-
-		LineOutput.append(Anchor.toStringFirstCoord() );
-		LineOutput.append(endPoint.toStringSecondCoord() );
-
-		return LineOutput.toString();
+		Anchor.appendFirstCoord(out);
+		endPoint.appendSecondCoord(out);
 	}
 	
 
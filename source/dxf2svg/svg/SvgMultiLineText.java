@@ -18,6 +18,9 @@
 **	Version:	0.01 - November 13, 2002
 **				0.02 - February 10, 2005 Updated @param tag with parameter name to 
 **				correct error with Javadoc 1.4.2-04.
+**				0.03 - October 17, 2026 toString() is written by writeTo().
+**				0.04 - October 17, 2026 Font metrics come from SvgFontMetrics.getInstance().
+**				0.05 - October 17, 2026 Font metrics come from getTextMetrics().
 **
 **	TODO:		Test.
 **
@@ -30,6 +33,7 @@ package dxf2svg.svg;
 import java.util.Vector;	// Multiple Strings of text.
 import dxf2svg.DxfConverter;
 import dxf2svg.util.LimitsFrame;
+import java.io.IOException;	// for writeTo().
 
 /**
 *	This class encapsulate a Svg multi-line text object. All fonts used in the conversion
@@ -160,7 +164,14 @@ public final class SvgMultiLineText extends SvgText
 	/** Writes the text element to an Svg element. */
 	public String toString()
 	{
-		StringBuffer TextOutput = new StringBuffer();
+		return writeToString();
+	}
+
+	/** Writes the element as described in {@link #toString}.
+	*	@throws IOException if the Appendable does.
+	*/
+	public void writeTo(Appendable out) throws IOException
+	{
 		
 		LimitsFrame limits = svgUtility.getLimits();
 		if (limits.contains(Anchor))
@@ -184,16 +195,16 @@ public final class SvgMultiLineText extends SvgText
 			// text to fit the mtext box.
 			TextBounderyFormatter tbf = new TextBounderyFormatter();
 	
-			TextOutput.append("<"+getType());
+			out.append("<"+getType());
 			// Get all the text descriptive attributes for this text.
-			TextOutput.append(getAttributes());
+			out.append(getAttributes());
 			// Now MTEXT is drawn in a box and its insertion point is the top
 			// left corner of the box. To get the location of the text we have
 			// to offset the y value of the Anchor by LineHeight in a positive
 			// Y direction.
 			tbf.offsetAnchor(Anchor);
 			//TextOutput.append(" "+Anchor.toStringText());
-			TextOutput.append(">");
+			out.append(">");
 
 
 
@@ -227,7 +238,7 @@ public final class SvgMultiLineText extends SvgText
 			{
 				// Note: don't add any formatting in a text element
 				// because it causes justification problems.
-				TextOutput.append("<tspan "+anchors[i].toStringText()+
+				out.append("<tspan "+anchors[i].toStringText()+
 					">"+eachLine[i]+"</tspan>");
 			}
 
@@ -236,16 +247,16 @@ public final class SvgMultiLineText extends SvgText
 				System.out.println(tbf);
 
 			// Close the tag.
-			TextOutput.append("</"+getType()+">");
+			out.append("</"+getType()+">");
 		}
 		else // The text appears out side of the limits
 		{
-			TextOutput.append("<desc>");
+			out.append("<desc>");
 			// Append all the data chunks (250 chars) onto one StringBuffer
 			// for output.
 			if (groupCodeThree == false)
 			{
-				TextOutput.append(content);
+				out.append(content);
 			}
 			else	// Output the data in content as the remainder of chars
 			// left over, over-and-above 250.
@@ -253,15 +264,14 @@ public final class SvgMultiLineText extends SvgText
 				// Paste all of the Strings together on the vector
 				for (int i = 0; i < textVector.size(); i++)
 				{
-					TextOutput.append((String)textVector.get(i));
+					out.append((String)textVector.get(i));
 				}
 				// append the leftover text collected from group code 1.
-				TextOutput.append(content);
+				out.append(content);
 			}
-			TextOutput.append("</desc>");			
+			out.append("</desc>");			
 		}
 
-		return TextOutput.toString();
 	}
 
 
@@ -317,7 +327,7 @@ public final class SvgMultiLineText extends SvgText
 		private double offset = rawSize;	// Used by offset() only and needs
 			// to global so the value is retained for repeat calculations
 			// after the first line has done all the hard work.
-		private SvgFontMetrics sfm;			// Object to accurately measure text sizes.
+		private TextMetrics sfm;			// Object to accurately measure text sizes.
 
 
 
@@ -329,7 +339,7 @@ public final class SvgMultiLineText extends SvgText
 			//	set it before now.
 			FontName = Style_Table.getFontName();
 			
-			sfm = new SvgFontMetrics(FontName,FontSize);
+			sfm = getTextMetrics(FontName,FontSize);
 		}
 
 
@@ -40,6 +40,12 @@
 **				that are permissable in the config.d2s.
 **				2.14 - February 10, 2005 Updated @param tag with parameter name to 
 **				correct error with Javadoc 1.4.2-04.
+**				2.15 - October 17, 2026 Output is written with writeTo() and
+**				animation with writeAnimation().
+**				2.16 - October 17, 2026 Added appendAttributes() and
+**				appendUniqueData() so sub-classes can write straight to the output.
+**				2.17 - October 17, 2026 Colours are looked up through the conversion's
+**				settings.
 **
 **	TODO:
 **
@@ -53,6 +59,7 @@ import dxf2svg.*;			// DxfConverter and NullDxfConverter
 import java.util.*;			// for storing Animation objects.
 import dxf2svg.util.Attribute;// for cloning the super classes attribute Vector.
 import dxf2svg.animation.*;	// animation stuff
+import java.io.IOException;	// for writeTo().
 /**
 *	This class encapsulates the basic SVG object.<BR><BR>
 *	While SvgObject is the base class for all other Svg objects it
@@ -110,20 +117,15 @@ public class SvgObject extends SvgElement
 
 
 	// constructor will populate object type
-	/** Queries Dxf2Svg for implementation switch settings.
-	*	@see DxfPreprocessor#verboseMode
-	*	@see DxfPreprocessor#debugMode
-	*	@see DxfPreprocessor#cssMode
+	/** Queries the conversion context for implementation switch settings.
+	*	@see ConversionSettings#verboseMode
+	*	@see ConversionSettings#debugMode
+	*	@see ConversionSettings#cssMode
 	*	@param dxfc dxf conversion context
 	*/
 	public SvgObject(DxfConverter dxfc)
 	{
-		super();
-		if (dxfc == null)
-			throw new NullDxfConverterReferenceException(
-				"Svg object instantiation attempt: "+
-				this.getClass().getName());
-		DxfConverterRef		= dxfc;
+		super(dxfc);
 		SSG 				= DxfConverterRef.getStyleSheetGenerator();
 		svgUtility			= DxfConverterRef.getSvgUtil();
 		
@@ -203,8 +205,8 @@ public class SvgObject extends SvgElement
 		if (Math.abs(ColourNumber) != Math.abs(colour))
 		{
 			// If we need to coerce all elements to BYLAYER set this true.
-			// See DxfPreprocessor.isColourCoercedByLayer()
-			if (DxfPreprocessor.isColourCoercedByLayer() == true)
+			// See ConversionSettings.isColourCoercedByLayer()
+			if (settings.isColourCoercedByLayer() == true)
 			{
 				COLOUR_BYLAYER = true;
 			}
@@ -230,7 +232,7 @@ public class SvgObject extends SvgElement
 		if (COLOUR_BYLAYER == true)
 			Colour = SSG.getLayerColour(Layer);
 		else
-			Colour = DxfPreprocessor.getColour(ColourNumber);
+			Colour = settings.getColour(ColourNumber);
 				
 		return Colour;
 	}
@@ -279,7 +281,7 @@ public class SvgObject extends SvgElement
 		if (AcadColourNumber <= 0)
 			setObjectVisible(false);
 		
-		Fill = "fill:" + DxfPreprocessor.getColour(AcadColourNumber) + ";";
+		Fill = "fill:" + settings.getColour(AcadColourNumber) + ";";
 		fillColourNumber = AcadColourNumber;
 	}
 
@@ -290,7 +292,7 @@ public class SvgObject extends SvgElement
 	protected String getFill()
 	{
 		// if the colour is not set it takes the colour of the layer.
-		if (DxfPreprocessor.isColourCoercedByLayer())
+		if (settings.isColourCoercedByLayer())
 		{
 			Fill = "fill:" + SSG.getLayerColour(Layer) + ";";
 		} 
@@ -330,6 +332,26 @@ public class SvgObject extends SvgElement
 	protected String calculateMyUniqueData()
 	{	return "";	}
 
+	/** Writes the object's attributes. By default it writes
+	*	{@link #getAttributes}; sub-classes that can write theirs
+	*	without a StringBuffer override this.
+	*	@throws IOException if the Appendable does.
+	*/
+	protected void appendAttributes(Appendable out) throws IOException
+	{
+		out.append(getAttributes());
+	}
+
+	/** Writes the object's unique data. By default it writes
+	*	{@link #calculateMyUniqueData}; sub-classes that can write theirs
+	*	without a String override this.
+	*	@throws IOException if the Appendable does.
+	*/
+	protected void appendUniqueData(Appendable out) throws IOException
+	{
+		out.append(calculateMyUniqueData());
+	}
+
 
 
 	/**
@@ -393,6 +415,14 @@ public class SvgObject extends SvgElement
 	*	Method is over-written in the immediate sub-class {@link SvgGraphicElement#toString}
 	*/
 	public String toString()
+	{
+		return writeToString();
+	}
+
+	/** Writes the object as described in {@link #toString}.
+	*	@throws IOException if the Appendable does.
+	*/
+	public void writeTo(Appendable out) throws IOException
 	{
 		/*	This is the very minimum of information to be included in the SVG
 		*	This function should always be redefined in inheriting classes.
@@ -416,7 +446,6 @@ public class SvgObject extends SvgElement
 		*	include or exclude depending on the users choice.
 		*/
 
-		StringBuffer ObjectOutput = new StringBuffer();
 		/*
 		*	If the debug switch is set SvgObject will display, in red courier text,
 		*	the name of the AcDb object type. Otherwise the object will not appear at all.
@@ -427,22 +456,30 @@ public class SvgObject extends SvgElement
 		{
 			// set fill to red to make it stand out more.
 			setFill(1);
-			ObjectOutput.append("<"+getType());
-			ObjectOutput.append(getAttributes());
-			ObjectOutput.append(" "+Anchor.toStringText());
-			ObjectOutput.append(">");
-			ObjectOutput.append(SvgObjID+":"+content);
+			out.append("<"+getType());
+			out.append(getAttributes());
+			out.append(" "+Anchor.toStringText());
+			out.append(">");
+			out.append(SvgObjID+":"+content);
 			// Now add animation if any.
-			if (vAnimationSet != null)
-			{
-				Iterator itor = vAnimationSet.iterator();
-				while (itor.hasNext())
-					ObjectOutput.append("\n\t"+itor.next());
-			}		
-			ObjectOutput.append("</"+getType()+">");
+			writeAnimation(out);
+			out.append("</"+getType()+">");
 		}
+	}
 
-		return ObjectOutput.toString();
+	/** Writes each of the object's animations, if any, on a new line.
+	*	@throws IOException if the Appendable does.
+	*/
+	protected void writeAnimation(Appendable out) throws IOException
+	{
+		if (vAnimationSet == null)
+			return;
+		Iterator itor = vAnimationSet.iterator();
+		while (itor.hasNext())
+		{
+			out.append("\n\t");
+			out.append(String.valueOf(itor.next()));
+		}
 	}
 
 	/** Clones this SvgObject.
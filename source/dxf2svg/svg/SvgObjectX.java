@@ -28,6 +28,7 @@
 **				(build 1.4.0_01-b03)
 **
 **	Version:	0.01 - February 4, 2003
+**				0.02 - October 17, 2026 toString() is written by writeTo().
 **
 **	TODO:
 **
@@ -37,7 +38,7 @@
 
 package dxf2svg.svg;
 
-import java.util.Iterator;	// for animation
+import java.io.IOException;	// for writeTo().
 import dxf2svg.DxfConverter;
 import dxf2svg.animation.*;
 /**
@@ -113,8 +114,14 @@ public final class SvgObjectX extends SvgObject
 	*/
 	public String toString()
 	{
-		StringBuffer out = new StringBuffer();
+		return writeToString();
+	}
 
+	/** Writes the object as described in {@link #toString}.
+	*	@throws IOException if the Appendable does.
+	*/
+	public void writeTo(Appendable out) throws IOException
+	{
 		out.append("<" + getType());
 		//if (attributes != null)
 		//	out.append(" "+attributes);
@@ -126,20 +133,16 @@ public final class SvgObjectX extends SvgObject
 		if(isEmptyElement == true)
 		{
 			out.append("/>");
-			return out.toString();
+			return;
 		}
 		out.append(content);
 		// Now add animation if any.
 		if (vAnimationSet != null)
 		{
 			out.append(">");
-			Iterator itor = vAnimationSet.iterator();
-			while (itor.hasNext())
-				out.append("\n\t"+itor.next());
+			writeAnimation(out);
 		}	
 		out.append("</"+getType()+">");
-
-		return out.toString();
 	}
 
 	public Object clone()
@@ -15,6 +15,8 @@
 **				(build 1.4.0_01-b03)
 **
 **	Version:	1.00 - August 5, 2002
+**				1.01 - October 17, 2026 The path is written straight to the output
+**				by appendUniqueData().
 **
 **	TODO:
 **
@@ -24,6 +26,7 @@
 
 package dxf2svg.svg;
 
+import java.io.IOException;	// for appendUniqueData().
 import dxf2svg.DxfConverter;
 
 /**
@@ -52,16 +55,12 @@ public class SvgPoint extends SvgGraphicElement
 
 	// this replaces the objects toString() method which is now handled by the super class
 	// SvgGraphicElement.
-	/** Performs the unique calculation required to describe this object as an SVG element.*/
-	protected String calculateMyUniqueData()
+	/** Writes the unique data that describes this object as an SVG element.*/
+	protected void appendUniqueData(Appendable out) throws IOException
 	{
-		StringBuffer SvgPointOutput = new StringBuffer();
-
-		SvgPointOutput.append("d=\"M");
-		SvgPointOutput.append(Anchor.toStringPolyLine());
-		SvgPointOutput.append(" m-10,0h20,m-10,0m0,-10v20\"");
-
-		return SvgPointOutput.toString();
+		out.append("d=\"M");
+		Anchor.appendPolyLine(out);
+		out.append(" m-10,0h20,m-10,0m0,-10v20\"");
 	}
 
 }	// End of SvgPoint class
\ No newline at end of file
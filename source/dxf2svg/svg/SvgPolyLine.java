@@ -31,6 +31,12 @@
 **				of zero then it should not be included because the arc is so
 **				shallow it has unpredictable redering results.
 **				2.06 - March 23, 2005 Added	getAllSegmentPoints() method.
+**				2.07 - October 17, 2026 Vertices are appended to the points
+**				buffer with Point.appendPolyLine().
+**				2.08 - October 17, 2026 Vertices are kept in a VertexArray of
+**				doubles instead of a Vector of VertexPoints.
+**				2.09 - October 17, 2026 The vertices are written straight to the
+**				output by appendUniqueData().
 **
 **	TODO:
 **
@@ -41,6 +47,7 @@
 package dxf2svg.svg;
 
 import java.util.*;
+import java.io.IOException;					// for appendUniqueData().
 import dxf2svg.DxfConverter;				// DxfConverter
 
 /**
@@ -51,7 +58,7 @@ import dxf2svg.DxfConverter;				// DxfConverter
 */
 public class SvgPolyLine extends SvgDoubleEndedGraphicElement
 {
-	protected Vector PolyLinePoints = null;		// container for point objects
+	protected VertexArray vertices = null;		// container for the vertices
 	protected double Bulge;						// Bulge value saved for
 		// putting on the vector next time a group code 10 is encountered.
 	////////////// 2.04 //////////////
@@ -61,7 +68,8 @@ public class SvgPolyLine extends SvgDoubleEndedGraphicElement
 	//protected StringBuffer SvgPolyLineOut = new StringBuffer();	// Output string
 	protected int Closed;
 	protected double LineWeight;			// Line weight of the polyline.
-	private VertexPoint p = null;				// Wrapper for point with bulge.
+	private double pendingX;				// X of a vertex set with setVertexX().
+	private boolean hasPendingX = false;	// True until its Y is set.
 
 	/** Sets the fill of the polyline to none and calls the super class' constructor.
 	*	@see SvgGraphicElement
@@ -76,7 +84,7 @@ public class SvgPolyLine extends SvgDoubleEndedGraphicElement
 		setType("path");
 		// This is correct for SvgPolyLine but not for SvgHatch. Look into.
 		setFill("none");
-		PolyLinePoints = new Vector();
+		vertices = new VertexArray(svgUtility);
 		Bulge = 0.0;
 		LineWeight = 0.01;
 	}
@@ -160,27 +168,9 @@ public class SvgPolyLine extends SvgDoubleEndedGraphicElement
 	*/
 	public void setVertex(double x, double y)
 	{
-		/*
-		*	We couldn't use Anchor because all the functions I tried placed a reference to
-		*	Anchor on the PolyLinePoints Vector. With this set up we get a new point each time
-		*	we call the function. The down side is that we have to pass both values to the function.
-		*	I do this in Entity Processor.
-		*/
-		p = new VertexPoint();	// point to be placed on vector
-
-		p.setX(x);
-		p.setY(y);
-
-		if (Bulge != 0.0)
-		{
-			p.setBulge(Bulge);
-			// reset the Bulge so it doesn't get propagated to the next
-			// vertex.
-			Bulge = 0.0;
-		}
-
-		PolyLinePoints.add(p);
-		p = null;
+		// Any bulge collected since the last vertex belongs to this one; reset
+		// it so it doesn't get propagated to the next vertex.
+		vertices.add(x, y, takeBulge());
 	}
 
 	/** sets the x value of this vertex. This method is intended to allow
@@ -188,9 +178,8 @@ public class SvgPolyLine extends SvgDoubleEndedGraphicElement
 	*/
 	public void setVertexX(double x)
 	{
-		p = new VertexPoint();
-
-		p.setX(x);
+		pendingX = x;
+		hasPendingX = true;
 	}
 
 	/** sets the y value of this vertex.This method is intended to allow
@@ -198,22 +187,12 @@ public class SvgPolyLine extends SvgDoubleEndedGraphicElement
 	*/
 	public void setVertexY(double y)
 	{
-		if (p == null)
+		if (! hasPendingX)
 			throw new NullSvgPointException("SvgPolyLine.setVertexY(): "+
-				"attempted to set a Y value on a null VertexPoint.");
-
-		p.setY(y);
-
-		if (Bulge != 0.0)
-		{
-			p.setBulge(Bulge);
-			// reset the Bulge so it doesn't get propagated to the next
-			// vertex.
-			Bulge = 0.0;
-		}
+				"attempted to set a Y value on a vertex with no X value.");
 
-		PolyLinePoints.add(p);
-		p = null;
+		vertices.add(pendingX, y, takeBulge());
+		hasPendingX = false;
 	}
 
 
@@ -236,24 +215,22 @@ public class SvgPolyLine extends SvgDoubleEndedGraphicElement
 	*/
 	public void setVertex(Point linePoint, double bulge)
 	{
-		p = new VertexPoint(linePoint);	// point to be placed on vector
-		if (Bulge != 0.0)
-		{
-			p.setBulge(Bulge);
-			// reset the Bulge so it doesn't get propagated to the next
-			// vertex.
-			Bulge = 0.0;
-		}
 		// we do this now because typically with this method we have
 		// already collected a point (group code 10 and 20) and now
 		// realize that we have a polyline instead of some other SvgObject.
-		// To make ammends we create a VertexPoint quickly and if a bulge
+		// To make ammends we add the vertex quickly and if a bulge
 		// was assigned from a previous point collection we apply it, and
-		// in any case pass on any bulge value to the next VertexPoint.
+		// in any case pass on any bulge value to the next vertex.
+		vertices.addUU(linePoint.getX(), linePoint.getY(), takeBulge());
 		setBulge(bulge);
+	}
 
-		PolyLinePoints.add(p);
-		p = null;
+	// Returns the bulge waiting for the next vertex and clears it.
+	private double takeBulge()
+	{
+		double b = Bulge;
+		Bulge = 0.0;
+		return b;
 	}
 
 
@@ -266,24 +243,22 @@ public class SvgPolyLine extends SvgDoubleEndedGraphicElement
 	public String getElementAsPath(boolean fromPreviousPoint)
 	{
 		// We have to do this because of an assumption we made about
-		// polyline arcs. Every VertexPoint carries a bulge; this is
+		// polyline arcs. Every vertex carries a bulge; this is
 		// a good thing, but for regular polylines the last point's
 		// is superfluous. If you account for it there is trouble.
 		// The reverse is true for a Polyline hatch because for some
 		// inconsistant (historic?) reason, they decided that the last
 		// polyline vertex could be left implied with the bulge to
-		// that point included in the last VertexPoint. The problem is
-		// SvgHatch collects all the VertexPoints but doesn't know about
+		// that point included in the last vertex. The problem is
+		// SvgHatch collects all the vertices but doesn't know about
 		// the bulge until it gets a group code 42, by then it's all over
 		// so here is what we do:
 		// assume that there is an additional point which in fact is
-		// the initial point. We add the start point to the PolyLinePoints
-		// Vector via the setVertex(double, double) so the last bulge and
-		// point get included.
+		// the initial point. We add the start point to the vertices
+		// so the last bulge and point get included.
 
-		VertexPoint start = (VertexPoint)PolyLinePoints.firstElement();
 		// add the final vertex with a bulge of zero.
-		setVertex(start.getPoint(), 0.0);
+		vertices.addUU(vertices.getX(0), vertices.getY(0), takeBulge());
 
 		return extractPolyLineArcPoints();
 	}
@@ -294,99 +269,111 @@ public class SvgPolyLine extends SvgDoubleEndedGraphicElement
 
 
 	/** This method is called by the toString() method where upon it iterates
-	*	over the Vector container of vertices printing out the results with
+	*	over the vertices printing out the results with
 	*	some formatting for readability in the SVG file.
-	*	@return String A formatted series of vertices.
+	*	@throws IOException if the Appendable does.
 	*/
-	protected String extractPolyLinePoints()
+	protected void appendPolyLinePoints(Appendable out) throws IOException
 	{
-		StringBuffer str = new StringBuffer();
-		int numPoints = PolyLinePoints.size();
+		int numPoints = vertices.size();
 		for (int i = 0; i < numPoints; i++)
 		{
-			VertexPoint tmpP = (VertexPoint)PolyLinePoints.get(i);
 			// place 4 points to a line like Adobe does.
 			if ((i % 4) == 0 && i > 0)
-				str.append("\n\t");
+				out.append("\n\t");
 				// take the polyline points and use Point's
-				// special formatting function
-			str.append(tmpP.toString());
+				// special formatting
+			vertices.appendPolyLine(out, i);
 		}
-		return str.toString();
 	}
 
 
 	/** This method is called by the toString() method where upon it iterates
-	*	over the Vector container of vertices and bulge points, printing
+	*	over the vertices and bulge points, printing
 	*	out the results with some formatting for readability in the SVG file.
 	*	@return String A formatted series of vertices.
 	*/
 	protected String extractPolyLineArcPoints()
 	{
 		StringBuffer str = new StringBuffer();
+		try
+		{
+			appendPolyLineArcPoints(str);
+		}
+		catch (IOException e)
+		{
+			// a StringBuffer doesn't throw IOExceptions.
+			throw new InternalError(e.toString());
+		}
+		return str.toString();
+	}
 
+	/** Writes the vertices and bulges as {@link #extractPolyLineArcPoints}
+	*	formats them.
+	*	@throws IOException if the Appendable does.
+	*/
+	protected void appendPolyLineArcPoints(Appendable str) throws IOException
+	{
 		// Move the pen to the first point of the polyline
-		VertexPoint start = (VertexPoint)PolyLinePoints.firstElement();
-		str.append("M"+start.toString());
+		str.append("M");
+		vertices.appendPolyLine(str, 0);
 		
-		// We have some unfinished business with VertexPoints collected. It seems
+		// We have some unfinished business with vertices collected. It seems
 		// that when the Closed flag is set to one the last vertex is implied to
 		// be the first point. Here, if the flag is set, we make a copy of the first
 		// vertex, add a bulge if one was set earlier in the process, and add it
-		// to the vector of Vertex points already collected.
+		// to the vertices already collected.
 		if (Closed == 1)
 		{
-			VertexPoint end = (VertexPoint)start.clone();
+			double endBulge = vertices.getBulge(0);
 			// We do this if the end vertex has a bulge.
 			if (Bulge != 0.0)
-				end.setBulge(Bulge);
-			PolyLinePoints.add(end);
+				endBulge = Bulge;
+			vertices.addUU(vertices.getX(0), vertices.getY(0), endBulge);
 		}
 		
-		int numPoints = PolyLinePoints.size();
-		VertexPoint lastPoint = start;
-		VertexPoint nextPoint = null;
+		int numPoints = vertices.size();
 
 		// Iterate over the entire list of remaining points.
 		for (int i = 1; i < numPoints; i++)
 		{
-			nextPoint = (VertexPoint)PolyLinePoints.get(i);
-			if (nextPoint.hasBulge())	// No bulge between these vertices.
+			if (vertices.hasBulge(i))
 			{
-				str.append("A"+calculateArc(lastPoint,nextPoint));
+				str.append("A");
+				str.append(calculateArc(i - 1, i));
 			}
-			else
+			else	// No bulge between these vertices.
 			{
-				str.append("L"+nextPoint.toString());
+				str.append("L");
+				vertices.appendPolyLine(str, i);
 			}
-			lastPoint = nextPoint;
 
 			// place 4 points to a line like Adobe does.
 			if ((i % 4) == 0)
 				str.append("\n\t");
 		}
-
-		return str.toString();
 	}
 
 
 
 	/** This method performs the internal calculations for the expression
 	*	of a polyline arc.
+	*	@param a index of the vertex the arc starts at.
+	*	@param b index of the vertex the arc ends at, which carries the bulge.
 	*/
-	protected String calculateArc(VertexPoint a, VertexPoint b)
+	protected String calculateArc(int a, int b)
 	{
 		double rx, ry;				// X and Y radius
 		double x_rotation = 0.0;	// Angle of the arc on the x axis
 		int large_arc_flag;			// Greater than, equal to 180 degrees.
 		int sweep_flag;				// Which direction do we draw the arc
 		double x, y;				// End point.
-		double bulge = b.getBulge();// Bulge value for arc calculations.
+		double bulge = vertices.getBulge(b);// Bulge value for arc calculations.
 
 
 		// The end point is simple so let's flesh that out.
-		x = svgUtility.trimDouble(b.getX());
-		y = svgUtility.trimDouble(b.getY());
+		x = svgUtility.trimDouble(vertices.getX(b));
+		y = svgUtility.trimDouble(vertices.getY(b));
 
 		// The bulge is the tangent of 1/4 the including angle of the
 		// curved segment so, an arc that covers 180 deg has a bulge
@@ -410,14 +397,14 @@ public class SvgPolyLine extends SvgDoubleEndedGraphicElement
 		// There is a potential divide by zero problem if the angle of
 		// rotation ends up being 90 degrees i.e. point a is directly
 		// above (or below) point b.
-		if (b.getX() - a.getX() != 0.0)
+		if (vertices.getX(b) - vertices.getX(a) != 0.0)
 		{
 			x_rotation = svgUtility.trimDouble(
 				Math.atan(						/* the arc tangent of ... */
 					Math.abs(					/* the absolute value of...*/
-						(b.getY() - a.getY())	/* the adjacent side */
+						(vertices.getY(b) - vertices.getY(a))	/* the adjacent side */
 						/ 						/* divided by... */
-						(b.getX() - a.getX())	/* the opposite side. */
+						(vertices.getX(b) - vertices.getX(a))	/* the opposite side. */
 					)
 				)
 			);
@@ -426,9 +413,9 @@ public class SvgPolyLine extends SvgDoubleEndedGraphicElement
 		// Now let's figure out the distance between Point a and Point b
 		double distAxBx = Math.sqrt(
 			Math.abs(
-				Math.pow((b.getX() - a.getX()), 2.0) /* x squared */
+				Math.pow((vertices.getX(b) - vertices.getX(a)), 2.0) /* x squared */
 				+
-				Math.pow((b.getY() - a.getY()), 2.0) /* y squared */
+				Math.pow((vertices.getY(b) - vertices.getY(a)), 2.0) /* y squared */
 			)
 		);
 
@@ -479,9 +466,8 @@ public class SvgPolyLine extends SvgDoubleEndedGraphicElement
 	*	SVG but if it's open it's a <em>polyline</em>. The same object as far as
 	*	Dxf2Svg but not at all the same for SVG.
 	*/
-	protected String calculateMyUniqueData()
+	protected void appendUniqueData(Appendable out) throws IOException
 	{
-		StringBuffer SvgPolyLineOut = new StringBuffer();
 		////////////// 2.04 //////////////
 		//if (objectIsPath == false)
 		//{
@@ -501,12 +487,10 @@ public class SvgPolyLine extends SvgDoubleEndedGraphicElement
 		//else	// there is a bulge in one of the vertices.
 		//{
 			//this.setType("path");
-			SvgPolyLineOut.append(" d=\"");
-			SvgPolyLineOut.append(extractPolyLineArcPoints());
-			SvgPolyLineOut.append("\"");
+			out.append(" d=\"");
+			appendPolyLineArcPoints(out);
+			out.append("\"");
 		//}
-
-		return SvgPolyLineOut.toString();
 	}
 
 
@@ -514,31 +498,25 @@ public class SvgPolyLine extends SvgDoubleEndedGraphicElement
 	{
 		SvgPolyLine pl = (SvgPolyLine)super.clone();
 
-		for (int i = 0; i < PolyLinePoints.size(); i++)
-		{
-			VertexPoint vxp = (VertexPoint)this.PolyLinePoints.get(i);
-			VertexPoint tmp = (VertexPoint)vxp.clone();
-			pl.PolyLinePoints.add(tmp);
-		}
-
+		pl.vertices			= (VertexArray)this.vertices.clone();
 		pl.Bulge 			= this.Bulge;
 		////////////// 2.04 //////////////
 		//pl.objectIsPath 	= this.objectIsPath;
 		pl.Closed 			= this.Closed;
 		pl.LineWeight 		= this.LineWeight;
-		pl.p				= (VertexPoint)this.p.clone();
+		pl.pendingX			= this.pendingX;
+		pl.hasPendingX		= this.hasPendingX;
 
 		return pl;
 	}
 
 	/** Returns the end point of the polyline. Used in animation to
-	*	determine if two points share the same space.
+	*	determine if two points share the same space. The point is a copy.
 	*/
 	public Point getEndPoint()
 	{
-		VertexPoint vp = (VertexPoint)PolyLinePoints.lastElement();
-		if (vp != null)
-			return vp.getPoint();
+		if (vertices.size() > 0)
+			return vertices.getPoint(vertices.size() - 1, DxfConverterRef);
 		return null;
 	}
 
@@ -546,21 +524,20 @@ public class SvgPolyLine extends SvgDoubleEndedGraphicElement
 	*	Returns the start point of a double ended graphic object, which 
 	*	is usually the Anchor. It is a trivial implementation that duplicates 
 	*	another method but this method will help keep the abstraction clear
-	*	to the author's intent.
+	*	to the author's intent. The point is a copy.
 	*	@return Point The anchor point or point of origin for the object.
 	*/
 	public Point getStartPoint()
 	{			
-		VertexPoint vp = (VertexPoint)PolyLinePoints.firstElement();
-		if (vp != null)
-			return vp.getPoint();
+		if (vertices.size() > 0)
+			return vertices.getPoint(0, DxfConverterRef);
 		return null;
 	}
 	
 	
 	/** This method returns the end points of all the segments in this object.
 	*	For {@link SvgPolyLine} the entire set of intersection points is 
-	*	returned (as references). 
+	*	returned (as copies). 
 	*	The method does not alter the contents of the argument vector, but
 	*	simply adds the points to the end. Start point is added first, end
 	*	point second.
@@ -574,151 +551,11 @@ public class SvgPolyLine extends SvgDoubleEndedGraphicElement
 			return;
 		}
 		
-		for (int i = 0; i < PolyLinePoints.size(); i++)
+		for (int i = 0; i < vertices.size(); i++)
 		{
-			VertexPoint vp = (VertexPoint)PolyLinePoints.get(i);
-			if (vp != null)
-			{
-				points.add( vp.getPoint() );
-			}
+			points.add( vertices.getPoint(i, DxfConverterRef) );
 		}  // end for
 	}	// end getAllSegmentPoints()
-	
-	
-	
-	
-	//////////////////////////////////////////////////////////////////
-	//						 VertexPoint class						//
-	//////////////////////////////////////////////////////////////////
-	/** This is a wrapper class for Point that allows the inclusion of
-	*	a bulge value which is required to perform routine calculations
-	*	for polylines. You may not instantiate a VertexPoint yourself
-	*	they are created when you pass a point into a polyline or
-	*	its sub-classes.
-	*/
-	protected final class VertexPoint implements Cloneable
-	{
-		Point point = new Point(DxfConverterRef);
-		private boolean bulge_flag = false;
-		private double bulge = 0.0;
-
-
-		// default, no argument, constructor.
-		protected VertexPoint()
-		{	}
-
-		// constructor.
-		protected VertexPoint(Point p)
-		{	p.copyInto(point);	}
-
-
-		/** Returns the VertexPoint's X value.
-		*/
-		protected final double getX()
-		{	return point.getX();	}
-
-		/** Returns the VertexPoint's Y value.
-		*/
-		protected final double getY()
-		{	return point.getY();	}
-
-		/** Sets the VertexPoint's X value. Note this is
-		*	a wrapper for {@link Point#setX} method which
-		*	performs all necessary conversion calculations.
-		*/
-		protected void setX(double x)
-		{	point.setX(x);	}
-
-		/** Sets the VertexPoint's Y value. Note this is
-		*	a wrapper for {@link Point#setY} method which
-		*	performs all necessary conversion calculations.
-		*/
-		protected void setY(double y)
-		{	point.setY(y);	}
-
-		/** Sets the vertex's bulge value if any.
-		*	The bulge is the tangent of 1/4 the including angle of the
-		*	curved segment so, an arc that covers 180 deg has a bulge
-		*	of 1 by the following math: tan(180 / 4). Conversely
-		*	if you have the bulge you can calculate the encompassing
-		*	arc with this formula: angle = 4 * atan(bulge).
-		*/
-		protected void setBulge(double b)
-		{
-			bulge = b;
-			bulge_flag = true;
-		}
-
-		/** returns the current bulge value for the current vertex.
-		*/
-		protected final double getBulge()
-		{	return bulge;	}
-
-		/** Remove bulge, the reverse of {@link #setBulge}. This unsets
-		*	the bulge flag.
-		*/
-		protected void removeBulge()
-		{
-			bulge = 0.0;
-			bulge_flag = false;
-		}
-
-		/** Reports if the bulge flag is set. If true there is a bulge
-		*	if false bulge is 0.0.
-		*/
-		protected boolean hasBulge()
-		{	return bulge_flag;	}
-
-		/** Allows the passing of a Point object argument instead
-		*	of using the setX() and setY() methods. This method
-		*	copies the argument Point's data. It does not use
-		*	its reference.
-		*/
-		protected void setPoint(Point p)
-		{	p.copyInto(point);	}
-
-		/** Returns a reference to the VertexPoint's Point.
-		*/
-		protected Point getPoint()
-		{	return point;	}
-
-		/** Makes a copy of the VertexPoint's Point into
-		*	the argument Point.
-		*/
-		protected void getPoint(Point p)
-		{
-			if (p == null)
-				throw new NullSvgPointException("SvgPolyLine.VertexPoint.getPoint(): "+
-				"argument point is null. Can't copy into a null object.");
-			else
-				point.copyInto(p);
-		}
-
-		/** Outputs the String value of the VertexPoint. This method
-		*	is a trivial wrapper that uses Point's {@link Point#toStringPolyLine}
-		*	method.
-		*/
-		public String toString()
-		{
-			return point.toStringPolyLine();
-		}
-
-		protected Object clone()
-		{
-			try{
-				VertexPoint v 	= (VertexPoint)super.clone();
-
-				v.point 		= (Point)this.point.clone();
-				v.bulge_flag 	= this.bulge_flag;
-				v.bulge			= this.bulge;
-
-				return v;
-			} catch (CloneNotSupportedException e){
-				throw new InternalError();
-			}
-		}
-	}	// end of VertexPoint
-
 
 
 } // EOF SvgPolyLine
\ No newline at end of file
@@ -50,12 +50,7 @@ public abstract class SvgReference extends SvgElement
 	*/
 	public SvgReference(DxfConverter dxfc)
 	{
-		super();
-		if (dxfc == null)
-			throw new NullDxfConverterReferenceException(
-				"Svg object instantiation attempt: "+
-				this.getClass().getName());
-		DxfConverterRef = dxfc;
+		super(dxfc);
 		// This will turn off the class attribute in favour
 		// of inheriting the class from the 'layer' or SvgCollection object.
 		// It is controllable from SvgElement so we could control
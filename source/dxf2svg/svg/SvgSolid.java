@@ -19,6 +19,10 @@
 **				this class's getFill().
 **				0.11 - February 10, 2005 Updated @param tag with parameter name to 
 **				correct error with Javadoc 1.4.2-04.
+**				0.12 - October 17, 2026 Points three and four are swapped in
+**				place in the polyline's VertexArray.
+**				0.13 - October 17, 2026 The points are written straight to the
+**				output by appendUniqueData().
 **
 **	TODO:
 **
@@ -28,8 +32,8 @@
 
 package dxf2svg.svg;
 
+import java.io.IOException;	// for appendUniqueData().
 import dxf2svg.DxfConverter;
-import dxf2svg.DxfPreprocessor;
 
 /**
 *	Encapsulates the Dxf object SOLID. A solid in SVG, is a polygon 
@@ -74,7 +78,7 @@ public class SvgSolid extends SvgPolyLine
 		//
 		// If the fill is still the default from the super class then just add stroke none
 		// because we don't need the fill set (use the layer's).
-		if (Fill.equals("fill:none;") || DxfPreprocessor.isColourCoercedByLayer())
+		if (Fill.equals("fill:none;") || settings.isColourCoercedByLayer())
 		{
 			return "stroke:none;";
 		}
@@ -102,34 +106,25 @@ public class SvgSolid extends SvgPolyLine
 	*/
 	protected void swapPointThreeFour()
 	{
-		if (PolyLinePoints.size() < 4)
+		if (vertices.size() < 4)
 			return;
 
-		VertexPoint p3, p4;
-
-		p4 = (VertexPoint)PolyLinePoints.remove(3);
-		p3 = (VertexPoint)PolyLinePoints.remove(2);
-
-		PolyLinePoints.add(p4);
-		PolyLinePoints.add(p3);
+		// A SOLID always has four points so this puts 4 before 3.
+		vertices.swap(2, 3);
 	}
 
 
 	/**
-	*	Calculates the unique ordering of SOLID's points.
+	*	Calculates the unique ordering of SOLID's points and writes them.
 	*/
-	protected String calculateMyUniqueData()
+	protected void appendUniqueData(Appendable out) throws IOException
 	{
 		getFill();
 		swapPointThreeFour();
 		
-		StringBuffer SvgPolyLineOut = new StringBuffer();
-
-		SvgPolyLineOut.append(" points=\"");
-		SvgPolyLineOut.append(extractPolyLinePoints());
-		SvgPolyLineOut.append("\"");
-
-		return SvgPolyLineOut.toString();
+		out.append(" points=\"");
+		appendPolyLinePoints(out);
+		out.append("\"");
 	}
 
 }	// end of class SvgSolid.
\ No newline at end of file
@@ -18,6 +18,10 @@
 **				0.02 - December 10, 2002 Added getElementAsPath() method.
 **				0.03 - February 10, 2005 Updated @param tag with parameter name to 
 **				correct error with Javadoc 1.4.2-04.
+**				0.04 - October 17, 2026 Fit points are appended to the path
+**				with Point.appendPolyLine().
+**				0.05 - October 17, 2026 Fit and control points are kept in
+**				VertexArrays instead of Vectors of Points.
 **
 **	TODO:
 **
@@ -45,8 +49,8 @@ public class SvgSpline extends SvgGraphicElement
 	private boolean PlanarFLAG 		= false;
 	private boolean LinearFLAG 		= false;
 
-	private Vector vCntlPoints;		// Container for the control points
-	private Vector vFitPoints;		// Container for the fit points.
+	private VertexArray cntlPoints;	// Container for the control points
+	private VertexArray fitPoints;	// Container for the fit points.
 
 	/** Calls the super class' constructor.
 	*	@see SvgGraphicElement
@@ -58,24 +62,18 @@ public class SvgSpline extends SvgGraphicElement
 		super(dxfc);
 		setType("path");
 		setFill("none");
-		vFitPoints = new Vector();
-		vCntlPoints = new Vector();
+		fitPoints = new VertexArray(svgUtility);
+		cntlPoints = new VertexArray(svgUtility);
 	}
 
 	public void addFitPoint(double x, double y)
 	{
-		Point thisPoint = new Point(DxfConverterRef);
-		thisPoint.setX(x);
-		thisPoint.setY(y);
-		vFitPoints.add(thisPoint);
+		fitPoints.add(x, y, 0.0);
 	}
 
 	public void addControlPoint(double x, double y)
 	{
-		Point thisPoint = new Point(DxfConverterRef);
-		thisPoint.setX(x);
-		thisPoint.setY(y);
-		vCntlPoints.add(thisPoint);
+		cntlPoints.add(x, y, 0.0);
 	}
 
 	/**	This removes the redundant first and last control points as they
@@ -91,27 +89,27 @@ public class SvgSpline extends SvgGraphicElement
 		//LOCAL 					= 3;
 
 
-		Point aPt = (Point)vCntlPoints.firstElement();
-		Point bPt = (Point)vFitPoints.firstElement();
-		System.out.println("vCntlPoints.size(): "+vCntlPoints.size());
+		Point aPt = cntlPoints.getPoint(0, DxfConverterRef);
+		Point bPt = fitPoints.getPoint(0, DxfConverterRef);
+		System.out.println("cntlPoints.size(): "+cntlPoints.size());
 
 		if (aPt.testRelationship(bPt) == Point.LOCAL)
 		{
 			// Remove the item from the array.
-			System.out.println("Ok to remove vCntlPoints[0].");
-			vCntlPoints.remove(aPt);
+			System.out.println("Ok to remove cntlPoints[0].");
+			cntlPoints.remove(0);
 		}
 
-		aPt = (Point)vCntlPoints.lastElement();
-		bPt = (Point)vFitPoints.lastElement();
+		aPt = cntlPoints.getPoint(cntlPoints.size() - 1, DxfConverterRef);
+		bPt = fitPoints.getPoint(fitPoints.size() - 1, DxfConverterRef);
 
 		if (aPt.testRelationship(bPt) == Point.LOCAL)
 		{
-			System.out.println("Ok to remove vCntlPoints[last].");
-			vCntlPoints.remove(aPt);
+			System.out.println("Ok to remove cntlPoints[last].");
+			cntlPoints.remove(cntlPoints.size() - 1);
 		}
 
-		System.out.println("vCntlPoints.size(): "+vCntlPoints.size());
+		System.out.println("cntlPoints.size(): "+cntlPoints.size());
 
 	}
 
@@ -149,16 +147,13 @@ public class SvgSpline extends SvgGraphicElement
 	*/
 	protected String calculateMyUniqueData(){
 		StringBuffer Output = new StringBuffer();
-		Point pt;
 
-		pt = (Point)vFitPoints.firstElement();
 		Output.append("d=\"M");
-		Output.append(pt.toStringPolyLine());
+		fitPoints.appendPolyLine(Output, 0);
 
-		for (int i = 1; i < vFitPoints.size(); i++){
+		for (int i = 1; i < fitPoints.size(); i++){
 			Output.append(" L");
-			pt = (Point)vFitPoints.get(i);
-			Output.append(pt.toStringPolyLine());
+			fitPoints.appendPolyLine(Output, i);
 		}
 
 		if (CloseFLAG)
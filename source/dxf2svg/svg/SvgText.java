@@ -27,6 +27,11 @@
 **				the fill value to black.
 **				1.51 - February 10, 2005 Updated @param tag with parameter name to 
 **				correct error with Javadoc 1.4.2-04.
+**				1.52 - October 17, 2026 toString() is written by writeTo().
+**				1.53 - October 17, 2026 Font metrics come from SvgFontMetrics.getInstance().
+**				1.54 - October 17, 2026 Added getTextMetrics() for '-font_file_metrics'.
+**				1.55 - October 17, 2026 The fill colour is looked up through the
+**				conversion's settings.
 **
 **	TODO:
 **
@@ -36,7 +41,7 @@
 
 package dxf2svg.svg;
 
-import java.util.Iterator;	// For animation objects.
+import java.io.IOException;	// for writeTo().
 import dxf2svg.*;			// converter and preprocessor
 import dxf2svg.util.*;		// table styles etc.
 import java.util.regex.*;	// for find() method.
@@ -228,6 +233,19 @@ public class SvgText extends SvgObject
 	public double getFontSize()
 	{	return FontSize;	}
 
+	/** Returns the metrics of the argument font at the argument size. With the
+	*	'-font_file_metrics' switch they are read from the style's font file,
+	*	otherwise they come from java.awt.Font.
+	*	@see FontFileMetrics
+	*	@see SvgFontMetrics
+	*/
+	protected TextMetrics getTextMetrics(String fontName, double size)
+	{
+		if (settings.useFontFileMetrics())
+			return FontFileMetrics.getInstance(Style_Table.getFontFile(), size);
+		return SvgFontMetrics.getInstance(fontName, size);
+	}
+
 	// required by wipeout to determine size of wipeout.
 	/** Returns the text string portion of a SvgText object to caller.*/
 	public String getString()
@@ -327,7 +345,7 @@ public class SvgText extends SvgObject
 		{
 			// If the fill has been set to something other than the layer's
 			// colour, set this switch.
-			if (DxfPreprocessor.isColourCoercedByLayer() == false && 
+			if (settings.isColourCoercedByLayer() == false && 
 			   (Style_Table instanceof CustomTextStyle) == false)
 			{
 				if (! Fill.equals(""))
@@ -365,7 +383,7 @@ public class SvgText extends SvgObject
 			setObjectVisible(false);
 		}
 		
-		Fill = DxfPreprocessor.getColour(AcadColorNumber);
+		Fill = settings.getColour(AcadColorNumber);
 		fillColourNumber = AcadColorNumber;
 	}
 
@@ -393,7 +411,7 @@ public class SvgText extends SvgObject
 		FontName = Style_Table.getFontName();
 
 		//////////////////// Font-metrics here /////////////////////
-		SvgFontMetrics sfm = new SvgFontMetrics(FontName, getFontSize()); // Metrics for this font.
+		TextMetrics sfm = getTextMetrics(FontName, getFontSize()); // Metrics for this font.
 	
 		///////////// 0.02 December 7, 2004 
 		// If the font metrics are too small to measure read -0.0 returned from sfm.getAscent()
@@ -690,7 +708,14 @@ public class SvgText extends SvgObject
 	*/
 	public String toString()
 	{
-		StringBuffer TextOutput = new StringBuffer();
+		return writeToString();
+	}
+
+	/** Writes the element as described in {@link #toString}.
+	*	@throws IOException if the Appendable does.
+	*/
+	public void writeTo(Appendable out) throws IOException
+	{
 		// find the ampersand and convert it to '&amp;' so the viewer wont choke
 		String OutData = svgUtility.replaceCharacterEntities(content);
 		if (isInsideDrawingLimits)
@@ -706,25 +731,23 @@ public class SvgText extends SvgObject
 			*	fontfamily="helvetica" fontsize="6.766" >the text</text>.
 			*/
 	
-			TextOutput.append("<"+getType());
+			out.append("<"+getType());
 
 			// Get all the text descriptive attributes for this text.
-			TextOutput.append(getAttributes());
+			out.append(getAttributes());
 	
 			// add location
-			TextOutput.append(" "+Anchor.toStringText());
-			TextOutput.append(">");
+			out.append(" "+Anchor.toStringText());
+			out.append(">");
 
 
-			TextOutput.append(OutData);
+			out.append(OutData);
 			// Now add animation if any.
 			if (vAnimationSet != null)
 			{
-				Iterator itor = vAnimationSet.iterator();
-				while (itor.hasNext())
-					TextOutput.append("\n\t"+itor.next());
+				writeAnimation(out);
 			}		
-			TextOutput.append("</"+getType()+">");
+			out.append("</"+getType()+">");
 		} 
 		else // Anchor is outside of the limits frame
 		{
@@ -732,11 +755,10 @@ public class SvgText extends SvgObject
 			// Move this so we know affor hand whether
 			// this is rendered text or <desc>.
 			setType("desc");
-			TextOutput.append("<"+getType()+">");
-			TextOutput.append(OutData);
-			TextOutput.append("</"+getType()+">");
+			out.append("<"+getType()+">");
+			out.append(OutData);
+			out.append("</"+getType()+">");
 		}
-		return TextOutput.toString();
 	}
 
 	/** Creates a deep copy of this object.
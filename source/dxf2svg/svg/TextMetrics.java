@@ -0,0 +1,62 @@
+/****************************************************************************
+**
+**	FileName:	TextMetrics.java
+**
+**	Project:	Dxf2Svg
+**
+**	Purpose:	Measurements of a font at one size, as text elements need
+**				them to size and wrap text.
+**
+**	Date:		October 17, 2026
+**
+**	Author:		Andrew Nisbet
+**
+**	Environment:Java(TM) 2 Runtime Environment, Standard Edition
+**				(build 1.5.0)
+**
+**	Version:	1.00 - October 17, 2026
+**
+**	TODO:
+**
+*****************************************************************************/
+
+package dxf2svg.svg;
+
+/**	This interface is what {@link SvgText} and {@link SvgMultiLineText} use to
+*	measure a font. There are two implementations: {@link SvgFontMetrics}, which
+*	asks java.awt.Font, and {@link FontFileMetrics}, which reads the widths out
+*	of the font file itself and doesn't start AWT. The '-font_file_metrics'
+*	switch selects the second.
+*	<P>
+*	All measurements are in the same units as the size the metrics were made for.
+*	Implementations are shared between threads so they must be thread safe.
+*
+*	@version 	1.00 - October 17, 2026
+*	@author		Andrew Nisbet
+*/
+public interface TextMetrics
+{
+	/** Returns the width of the argument string in this font.
+	*/
+	public double getWidth(String str);
+
+	/** Returns the distance from the bottom of a line of text to the bottom
+	*	of the next line of text.
+	*/
+	public double getLineSpacing();
+
+	/**	Returns the ascent or distance from the baseline to the top of
+	*	the tallest character.
+	*/
+	public double getAscent();
+
+	/**	Returns the distance from the baseline to the bottom of the
+	*	lowest decender.
+	*/
+	public double getDecent();
+
+	/**	Returns the recommended space between one line's decenders and the
+	*	next line's ascenders.
+	*/
+	public double getLeading();
+}
@@ -0,0 +1,231 @@
+/****************************************************************************
+**
+**	FileName:	VertexArray.java
+**
+**	Project:	Dxf2Svg
+**
+**	Purpose:	Growable store of the vertices of a polyline or spline held
+**				in arrays of doubles rather than as Point objects.
+**
+**	Date:		October 17, 2026
+**
+**	Author:		Andrew Nisbet
+**
+**	Environment:Java(TM) 2 Runtime Environment, Standard Edition
+**				(build 1.4.0)
+**
+**	Version:	1.00 - October 17, 2026
+**				1.01 - October 17, 2026 A vertex can be written to any Appendable.
+**
+**	TODO:
+**
+*****************************************************************************/
+
+package dxf2svg.svg;
+
+import java.io.IOException;
+import dxf2svg.DxfConverter;
+import dxf2svg.util.SvgUtil;
+import dxf2svg.util.SvgNumberFormat;
+
+/**	This class keeps the vertices of an {@link SvgPolyLine} or {@link SvgSpline}
+*	in parallel arrays of x, y and bulge values that double in size as they
+*	fill, so a drawing with hundreds of thousands of vertices doesn't make a
+*	Point, and a wrapper for it, for every one.
+*	<P>
+*	Coordinates are kept in SVG space. {@link #add(double, double, double)} converts
+*	from DXF space exactly as {@link Point#setX} and {@link Point#setY} do, and
+*	{@link #appendPolyLine} trims the stored values as it writes them, as
+*	{@link Point#appendPolyLine} does, so output is the same as it was when
+*	the vertices were Points. A bulge of 0.0 means the segment to the vertex is
+*	straight.
+*	<P>
+*	Points made with {@link #getPoint} are copies; changing them doesn't change
+*	the vertex.
+*
+*	@version 	1.00 - October 17, 2026
+*	@author		Andrew Nisbet
+*/
+final class VertexArray implements Cloneable
+{
+	private final static int INITIAL_CAPACITY = 8;
+
+	private double[] x;
+	private double[] y;
+	private double[] bulge;
+	private int size;
+	private SvgUtil svgUtility;
+
+	/** Creates an empty array for the argument conversion. */
+	VertexArray(SvgUtil svgUtility)
+	{
+		this.svgUtility = svgUtility;
+		x = new double[INITIAL_CAPACITY];
+		y = new double[INITIAL_CAPACITY];
+		bulge = new double[INITIAL_CAPACITY];
+	}
+
+	/** Returns the number of vertices. */
+	int size()
+	{
+		return size;
+	}
+
+	/** Adds a vertex with the argument bulge, converting it from DXF to SVG space. */
+	void add(double dxfX, double dxfY, double b)
+	{
+		addUU(svgUtility.convertXToSvgSpace(dxfX) - svgUtility.deltaDxfSvgLimitsX(),
+			svgUtility.convertYToSvgSpace(dxfY) - svgUtility.deltaDxfSvgLimitsY(), b);
+	}
+
+	/** Adds a vertex that is already in SVG space, with the argument bulge. */
+	void addUU(double svgX, double svgY, double b)
+	{
+		if (size == x.length)
+		{
+			grow();
+		}
+		x[size] = svgX;
+		y[size] = svgY;
+		bulge[size] = b;
+		size++;
+	}
+
+	// Doubles the capacity of the arrays.
+	private void grow()
+	{
+		int capacity = x.length * 2;
+		double[] tmp = new double[capacity];
+		System.arraycopy(x, 0, tmp, 0, size);
+		x = tmp;
+		tmp = new double[capacity];
+		System.arraycopy(y, 0, tmp, 0, size);
+		y = tmp;
+		tmp = new double[capacity];
+		System.arraycopy(bulge, 0, tmp, 0, size);
+		bulge = tmp;
+	}
+
+	/** Returns the SVG x value of the i'th vertex. */
+	double getX(int i)
+	{
+		checkIndex(i);
+		return x[i];
+	}
+
+	/** Returns the SVG y value of the i'th vertex. */
+	double getY(int i)
+	{
+		checkIndex(i);
+		return y[i];
+	}
+
+	/** Returns the bulge of the segment ending at the i'th vertex. */
+	double getBulge(int i)
+	{
+		checkIndex(i);
+		return bulge[i];
+	}
+
+	/** Sets the bulge of the segment ending at the i'th vertex. */
+	void setBulge(int i, double b)
+	{
+		checkIndex(i);
+		bulge[i] = b;
+	}
+
+	/** Returns true if the segment ending at the i'th vertex is an arc. */
+	boolean hasBulge(int i)
+	{
+		checkIndex(i);
+		return bulge[i] != 0.0;
+	}
+
+	/** Exchanges the i'th and j'th vertices. */
+	void swap(int i, int j)
+	{
+		checkIndex(i);
+		checkIndex(j);
+		double tmp = x[i];
+		x[i] = x[j];
+		x[j] = tmp;
+		tmp = y[i];
+		y[i] = y[j];
+		y[j] = tmp;
+		tmp = bulge[i];
+		bulge[i] = bulge[j];
+		bulge[j] = tmp;
+	}
+
+	/** Removes the i'th vertex. */
+	void remove(int i)
+	{
+		checkIndex(i);
+		int moved = size - i - 1;
+		System.arraycopy(x, i + 1, x, i, moved);
+		System.arraycopy(y, i + 1, y, i, moved);
+		System.arraycopy(bulge, i + 1, bulge, i, moved);
+		size--;
+	}
+
+	/** Returns a new Point at the i'th vertex. */
+	Point getPoint(int i, DxfConverter dxfc)
+	{
+		checkIndex(i);
+		Point p = new Point(dxfc);
+		p.setXUU(x[i]);
+		p.setYUU(y[i]);
+		return p;
+	}
+
+	/** Appends the i'th vertex to the buffer as {@link Point#appendPolyLine}
+	*	does, trimming the stored values as it goes.
+	*/
+	StringBuffer appendPolyLine(StringBuffer sb, int i)
+	{
+		checkIndex(i);
+		SvgNumberFormat numberFormat = svgUtility.getNumberFormat();
+		sb.append(" ");
+		x[i] = numberFormat.append(sb, x[i]);
+		sb.append(",");
+		y[i] = numberFormat.append(sb, y[i]);
+		return sb;
+	}
+
+	/** Writes the i'th vertex as {@link #appendPolyLine(StringBuffer, int)} does.
+	*	@throws IOException if the Appendable does.
+	*/
+	void appendPolyLine(Appendable out, int i) throws IOException
+	{
+		checkIndex(i);
+		SvgNumberFormat numberFormat = svgUtility.getNumberFormat();
+		out.append(" ");
+		x[i] = numberFormat.append(out, x[i]);
+		out.append(",");
+		y[i] = numberFormat.append(out, y[i]);
+	}
+
+	/** Returns a copy with arrays of its own. */
+	public Object clone()
+	{
+		try
+		{
+			VertexArray v = (VertexArray)super.clone();
+			v.x = x.clone();
+			v.y = y.clone();
+			v.bulge = bulge.clone();
+			return v;
+		}
+		catch (CloneNotSupportedException e)
+		{
+			throw new InternalError();
+		}
+	}
+
+	private void checkIndex(int i)
+	{
+		if (i < 0 || i >= size)
+			throw new ArrayIndexOutOfBoundsException("VertexArray: index "+i+
+				" of "+size+" vertices.");
+	}
+}
@@ -0,0 +1,196 @@
+/****************************************************************************
+**
+**	FileName:	BlockCache.java
+**
+**	Project:	Dxf2Svg
+**
+**	Purpose:	Converted DXF blocks shared by every conversion of a batch,
+**				found by a hash of the block's group codes.
+**
+**	Date:		October 17, 2026
+**
+**	Author:		Andrew Nisbet
+**
+**	Environment:Java(TM) 2 Runtime Environment, Standard Edition
+**				(build 1.5.0)
+**
+**	Version:	1.00 - October 17, 2026
+**
+**	TODO:
+**
+*****************************************************************************/
+
+package dxf2svg.util;
+
+import java.io.UnsupportedEncodingException;
+import java.security.*;		// MessageDigest for the keys.
+import java.util.*;
+import dxf2svg.svg.*;
+
+/**	This class is the cache the '-block_cache' switch turns on. Every sheet of a
+*	book usually carries the same BLOCKS section, and the {@link BlockProcessor}
+*	would otherwise run an {@link EntityProcessor} over every block of every
+*	sheet. With the cache the BlockProcessor hashes the group codes of each
+*	block and, if a block with the same hash has been converted before, uses
+*	the SVG of its elements from the cache instead.
+*	<P>
+*	The key of a block is a SHA-1 hash of everything its SVG depends on: the
+*	limits and line type scale from the HEADER, the group codes of the TABLES
+*	section (layer colours, line types and text styles), and the group codes of
+*	the block itself. Handles and pointers to other objects are left out, with
+*	{@link #isHandle}, because they differ from one sheet to the next but are
+*	not written to the SVG unless '-DEBUG' is on. The switches are not part of
+*	the key; they are the same for every conversion of the process.
+*	<P>
+*	Only blocks made entirely of elements that are written the same way every
+*	time are cached; see {@link #isCacheable}. The cache holds at most the
+*	argument number of characters of SVG and drops the blocks that were used
+*	least recently to make room.
+*	<P>
+*	A cache is shared by all the conversions of the process so its methods are
+*	synchronized.
+*
+*	@version 	1.00 - October 17, 2026
+*	@author		Andrew Nisbet
+*/
+public final class BlockCache
+{
+	private final static String ENCODING = "UTF-8";
+	// Characters counted for each block on top of its SVG, for the key and the arrays.
+	private final static int ENTRY_OVERHEAD = 64;
+
+	private long capacity;			// Most characters of SVG held.
+	private long size;				// Characters of SVG held.
+	private LinkedHashMap blocks;	// Key -> String[] SVG of each element, least recently used first.
+	private long hits;
+	private long misses;
+
+	/** Creates a cache that holds at most the argument number of characters of
+	*	SVG.
+	*/
+	public BlockCache(long capacity)
+	{
+		this.capacity	= capacity;
+		blocks			= new LinkedHashMap(16, 0.75f, true);
+	}
+
+	/** Returns the SVG of each element of the block with the argument key, or
+	*	null if the block isn't in the cache.
+	*/
+	public synchronized String[] get(String key)
+	{
+		String[] elements = (String[])blocks.get(key);
+		if (elements == null)
+			misses++;
+		else
+			hits++;
+		return elements;
+	}
+
+	/** Adds the SVG of the elements of the block with the argument key. A block
+	*	bigger than the whole cache is not added.
+	*/
+	public synchronized void put(String key, String[] elements)
+	{
+		long length = weigh(elements);
+		if (length > capacity || blocks.containsKey(key))
+			return;
+		Iterator it = blocks.values().iterator();
+		while (size + length > capacity && it.hasNext())
+		{
+			size -= weigh((String[])it.next());
+			it.remove();
+		}
+		blocks.put(key, elements);
+		size += length;
+	}
+
+	/** Returns the number of blocks in the cache. */
+	public synchronized int size()
+	{
+		return blocks.size();
+	}
+
+	/** Reports how often blocks were found in the cache. */
+	public synchronized String toString()
+	{
+		return "BlockCache: "+hits+" of "+(hits + misses)+" blocks found in the cache; "+
+			blocks.size()+" blocks, "+size+" characters held.";
+	}
+
+	// Returns the number of characters a block is counted as.
+	private static long weigh(String[] elements)
+	{
+		long length = ENTRY_OVERHEAD;
+		for (int i = 0; i < elements.length; i++)
+			length += elements[i].length();
+		return length;
+	}
+
+	/** Returns true if the argument group code is a handle or a pointer to
+	*	another object.
+	*/
+	public static boolean isHandle(int code)
+	{
+		return code == 5 || code == 105 || (code >= 320 && code <= 369) ||
+			code == 390 || code == 1005;
+	}
+
+	/** Returns true if the argument element of a block writes the same SVG
+	*	every time and doesn't change the conversion when it is made. References
+	*	to other blocks and images, hatches, which add their patterns to the
+	*	conversion, and groups like hyperlinks are not.
+	*/
+	public static boolean isCacheable(Object o)
+	{
+		if (o instanceof SvgReference
+			|| o instanceof SvgHatch
+			|| o instanceof SvgCollection)
+			return false;
+		return true;
+	}
+
+	/** Returns a new SHA-1 digest for the keys. */
+	public static MessageDigest newDigest()
+	{
+		try
+		{
+			return MessageDigest.getInstance("SHA-1");
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			// Every Java platform has SHA-1.
+			throw new RuntimeException("BlockCache error: "+e);
+		}
+	}
+
+	/** Adds the argument group code and value to the digest. */
+	public static void update(MessageDigest digest, int code, String value)
+	{
+		digest.update((byte)(code >> 8));
+		digest.update((byte)code);
+		try
+		{
+			digest.update(String.valueOf(value).getBytes(ENCODING));
+		}
+		catch (UnsupportedEncodingException e)
+		{
+			// UTF-8 is always supported.
+			throw new RuntimeException("BlockCache error: "+e);
+		}
+		digest.update((byte)0);
+	}
+
+	/** Returns the digest as a key. */
+	public static String toKey(MessageDigest digest)
+	{
+		byte[] bytes = digest.digest();
+		StringBuffer sb = new StringBuffer(bytes.length * 2);
+		for (int i = 0; i < bytes.length; i++)
+		{
+			sb.append(Character.forDigit((bytes[i] >> 4) & 0xf, 16));
+			sb.append(Character.forDigit(bytes[i] & 0xf, 16));
+		}
+		return sb.toString();
+	}
+}
@@ -20,6 +20,8 @@
 **				correct error with Javadoc 1.4.2-04.
 **				2.00 - April 16, 2005 Modified to accomodate new parser functionality
 **				and elimination of DxfElementPair as fly weight.
+**				2.01 - October 17, 2026 Added setBlockCache(); blocks found in the
+**				BlockCache are not processed again.
 **
 **	TODO:
 **
@@ -28,14 +30,19 @@
 package dxf2svg.util;
 
 import java.util.*;			// For vector handling.
+import java.security.MessageDigest;	// for the BlockCache keys.
 import dxf2svg.*;
 import dxf2svg.svg.*;
 
 /**
 *	The BlockProcessor reads an Entity Pair List and breaks the Dxf blocks
 *	into SvgSymbols.
+*	<P>
+*	If the conversion has a {@link BlockCache} the pairs of each block's
+*	entities are kept, and hashed, until the end of the block. Only if the
+*	block isn't in the cache are they handed to the EntityProcessor.
 *
-*	@version	2.00 - April 16, 2005
+*	@version	2.01 - October 17, 2026
 *	@author		Andrew Nisbet
 */
 final class BlockProcessor extends Processor
@@ -51,6 +58,11 @@ final class BlockProcessor extends Processor
 	private Vector vBlocks;             // reference to results vector.
 	private Vector vThisBlocksEntities;	// group of entities returned by EntityProc
 	private EntityProcessor entityProcessor; // Used to process the block's entities.
+	private BlockCache blockCache;      // Shared blocks or null if not cached.
+	private String tableKey;            // Hash of the header and tables of this DXF.
+	private boolean isHashingHandles;   // Handles are part of the block keys.
+	private MessageDigest blockDigest;  // Hash of the block so far.
+	private Vector vThisBlocksPairs;    // Pairs of the block's entities, if cached.
 	
 	
 	
@@ -58,7 +70,7 @@ final class BlockProcessor extends Processor
 	
 	public BlockProcessor( DxfConverter dxfc, Vector vBlocks )
 	{
-		super();
+		super( dxfc );
 		DxfConverterRef           = dxfc;
 		vThisBlocksEntities       = new Vector();
 		this.vBlocks              = vBlocks;
@@ -69,6 +81,20 @@ final class BlockProcessor extends Processor
 	
 	
 	
+	/** Looks blocks up in the argument cache before processing them.
+	*	@param blockCache cache shared by the conversions.
+	*	@param tableKey hash of the HEADER limits and the TABLES of this DXF.
+	*	@param isHashingHandles true if the SVG of the blocks includes handles.
+	*/
+	public void setBlockCache( BlockCache blockCache, String tableKey, boolean isHashingHandles )
+	{
+		this.blockCache       = blockCache;
+		this.tableKey         = tableKey;
+		this.isHashingHandles = isHashingHandles;
+	}
+	
+	
+	
 	/** Makes sense of the current DxfElementPair calfed off of the DXF file.
 	*/
 	public void process( DxfElementPair pair )
@@ -86,6 +112,12 @@ final class BlockProcessor extends Processor
 				vThisBlocksEntities = new Vector();
 				// create the entity processor.
 				entityProcessor = new EntityProcessor( DxfConverterRef,  vThisBlocksEntities );
+				if ( blockCache != null )
+				{
+					blockDigest = BlockCache.newDigest();
+					BlockCache.update( blockDigest, 0, tableKey );
+					vThisBlocksPairs = new Vector();
+				}
 				isCollecting = true;
 			} 
 			else if ( pair.getValue().equals( "ENDBLK" ) )
@@ -103,6 +135,10 @@ final class BlockProcessor extends Processor
 		if ( isCollectingBlockEntities || isCollecting )
 		{
 			if (DEBUG){ System.out.println( "...collecting..." + pair.toString() ); }
+			if ( blockDigest != null && ( isHashingHandles || ! BlockCache.isHandle( pair.getCode() ) ) )
+			{
+				BlockCache.update( blockDigest, pair.getCode(), pair.getValue() );
+			}
 			collectEntity( svgEntityDeclaration, pair );
 		}
 	}  // end process(pair)
@@ -125,7 +161,14 @@ final class BlockProcessor extends Processor
 		// with this processor.
 		if ( isCollecting == true )
 		{
-			entityProcessor.halt();
+			if ( blockDigest != null )
+			{
+				processCachedBlock();
+			}
+			else
+			{
+				entityProcessor.halt();
+			}
 			if ( vThisBlocksEntities.size() > 0 )
 			{
 				svgEntityDeclaration.addElements( (Vector)vThisBlocksEntities.clone() );
@@ -138,6 +181,51 @@ final class BlockProcessor extends Processor
 	}
 	
 	
+	
+	/** Fills the block's entities from the cache or, if it isn't there, from
+	*	the pairs kept for it, adding them to the cache as SVG if they can be.
+	*/
+	protected void processCachedBlock()
+	{
+		String key = BlockCache.toKey( blockDigest );
+		blockDigest = null;
+		String[] elements = blockCache.get( key );
+		if ( elements != null )
+		{
+			vThisBlocksEntities.addAll( Arrays.asList( elements ) );
+			vThisBlocksPairs = null;
+			return;
+		}
+		
+		for ( int i = 0; i < vThisBlocksPairs.size(); i++ )
+		{
+			entityProcessor.process( (DxfElementPair)vThisBlocksPairs.get( i ) );
+		}
+		vThisBlocksPairs = null;
+		entityProcessor.halt();
+		
+		int size = vThisBlocksEntities.size();
+		if ( size == 0 )
+		{
+			return;
+		}
+		elements = new String[ size ];
+		for ( int i = 0; i < size; i++ )
+		{
+			Object o = vThisBlocksEntities.get( i );
+			if ( ! BlockCache.isCacheable( o ) )
+			{
+				return;
+			}
+			elements[ i ] = o.toString();
+		}
+		blockCache.put( key, elements );
+		// The block is written from the same SVG, so it is the same on every sheet.
+		vThisBlocksEntities.clear();
+		vThisBlocksEntities.addAll( Arrays.asList( elements ) );
+	}
+	
+	
 
 	//******************************** SvgEntityDeclaration *******************************/
 	/** 
@@ -149,7 +237,14 @@ final class BlockProcessor extends Processor
 
 		if ( isCollectingBlockEntities )
 		{
-			entityProcessor.process( pair );
+			if ( vThisBlocksPairs != null )
+			{
+				vThisBlocksPairs.add( pair.copy() );
+			}
+			else
+			{
+				entityProcessor.process( pair );
+			}
 			return;
 		}
 
@@ -16,6 +16,9 @@
 **
 **	Version:	1.00 - January 11, 2005
 **				1.01 - February 10, 2005 Updated documentation.
+**				1.02 - October 17, 2026 Copies the font directory.
+**				1.03 - October 17, 2026 The font URL switch is read from the
+**				conversion's settings.
 **
 **	TODO:
 **
@@ -82,6 +85,7 @@ public class CustomTextStyle extends TableStyles
 		this.svgUtility 		= tstyle.svgUtility; // just copy the reference.
 		this.DEBUG				= tstyle.DEBUG;		
 		this.fme				= (FontMapElement)tstyle.fme.clone();
+		this.FontDirectory		= tstyle.FontDirectory;
 		
 		parsedTextSize = 0.0;
 	}
@@ -268,7 +272,7 @@ public class CustomTextStyle extends TableStyles
 	{
 		StringBuffer StyleOutput = new StringBuffer();
 
-		if (DxfPreprocessor.includeUrl() == true)
+		if (settings.includeUrl() == true)
 		{
 			//@font-face{font-family:'symap';src:url('c:/winnt/fonts/symap___.ttf')}
 			StyleOutput.append("@font-face{");
@@ -0,0 +1,478 @@
+/****************************************************************************
+**
+**	FileName:	DxfAsciiTokenizer.java
+**
+**	Project:	Dxf2Svg
+**
+**	Purpose:	Reads group code/value pairs from an ASCII DXF a block at a time.
+**
+**	Date:		October 17, 2026
+**
+**	Author:		Andrew Nisbet
+**
+**	Environment:Java(TM) 2 Runtime Environment, Standard Edition
+**				(build 1.5.0)
+**
+**	Version:	1.00 - October 17, 2026
+**				1.01 - October 17, 2026 The file is read through a FileChannel that
+**				close() releases instead of being memory mapped. A mapping can't
+**				be released until it is garbage collected, which kept a file that
+**				'-watch' or '-serve' converted open, and on some platforms locked
+**				against being saved again.
+**
+**	TODO:
+**
+*****************************************************************************/
+
+package dxf2svg.util;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+
+/**	This class reads the group code/value pairs of an ASCII DXF straight out of
+*	blocks of the file's bytes. It replaces a pair of
+*	<code>BufferedReader.readLine()</code> calls, two <code>trim()</code>s and
+*	an <code>Integer.parseInt()</code> per pair with a scan of the bytes.
+*	<P>
+*	The group code is parsed as an int in place. Values of group codes that the
+*	DXF reference defines as real or integer are also parsed in place and
+*	stored in the {@link DxfElementPair} as a double or int along with a copy of
+*	its text, so a String is only made if a processor asks for one
+*	with {@link DxfElementPair#getValue}. All other values are Strings. A value
+*	that doesn't parse the quick way is stored as a String and is parsed (or
+*	fails to parse) in the usual way when it is used.
+*	<P>
+*	Lines are split and trimmed the same way as <code>BufferedReader.readLine()</code>
+*	and <code>String.trim()</code> do it, and text is decoded with the platform's
+*	default character set as <code>FileReader</code> does, so the pairs are the
+*	same as the parser would get reading the file a line at a time.
+*	<P>
+*	The file is scanned in a small array that is refilled from a read-only
+*	FileChannel as it is used up. The file is read up to the length it had when
+*	it was opened. {@link #close} closes the channel; the file isn't mapped, so
+*	nothing of it is left open once the parser is done with it.
+*
+*	@version	1.00 - October 17, 2026
+*	@author		Andrew Nisbet
+*/
+public final class DxfAsciiTokenizer
+{
+	// Largest mantissa that is exactly representable as a double, 2^53.
+	private final static long MAX_EXACT_MANTISSA = 1L << 53;
+	// Powers of ten that are exactly representable as doubles.
+	private final static double[] POWERS_OF_TEN = {
+		1e0,  1e1,  1e2,  1e3,  1e4,  1e5,  1e6,  1e7,  1e8,  1e9,  1e10,
+		1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	// Initial size of the window on the mapped file.
+	private final static int WINDOW_SIZE = 65536;
+	// Size of the table of recent Strings; must be a power of two.
+	private final static int RECENT_STRINGS = 1024;
+	// Longest value to look up in the table of recent Strings.
+	private final static int MAX_RECENT_LENGTH = 32;
+
+	private FileInputStream in;		// The DXF file.
+	private FileChannel channel;	// Reads the file into the window.
+	private long remaining;			// Bytes of the file not yet read into the window.
+	private byte[] window;			// Bytes read from the file that are being scanned.
+	private int count;				// Number of valid bytes in the window.
+	private int position;			// Index in the window of the next unread byte.
+	private boolean skipLF;			// Last line ended with '\r' so skip a '\n'.
+	private int lineStart;			// Trimmed start of the last line read in the window.
+	private int lineEnd;			// Trimmed end (exclusive) of the last line read.
+	private char[] scratch;			// Copy of a line to make a String from.
+	// Strings made from short values, which repeat a lot (layer names, entity
+	// types, subclass markers and handles of owners), indexed by hash.
+	private String[] recentStrings;
+	private byte[][] recentBytes;	// Text of each of the recentStrings.
+
+	/** Opens the argument file. Call {@link #close} when done with it.
+	*	@param dxf ASCII DXF file.
+	*	@throws IOException if the file cannot be opened.
+	*/
+	public DxfAsciiTokenizer(File dxf) throws IOException
+	{
+		in = new FileInputStream(dxf);
+		try
+		{
+			channel = in.getChannel();
+			remaining = channel.size();
+		}
+		catch (IOException e)
+		{
+			in.close();
+			throw e;
+		}
+		window = new byte[WINDOW_SIZE];
+		count = 0;
+		position = 0;
+		skipLF = false;
+		scratch = new char[256];
+		recentStrings = new String[RECENT_STRINGS];
+		recentBytes = new byte[RECENT_STRINGS][];
+	}
+
+	/** Closes the file. Pairs already read keep their values.
+	*	@throws IOException if the file can't be closed.
+	*/
+	public void close() throws IOException
+	{
+		remaining = 0L;
+		count = 0;
+		position = 0;
+		in.close();	// Closes the channel too.
+	}
+
+	/** Reads the next group code and value into the argument pair.
+	*	@return true if a pair was read and false if the file ended before
+	*	a complete pair could be read.
+	*	@throws NumberFormatException if the group code is not an integer.
+	*	@throws IOException if the file can't be read.
+	*/
+	public boolean next(DxfElementPair pair) throws IOException
+	{
+		if (! nextLine())
+			return false;
+		// Must be parsed before the next line is read; that may move the window.
+		int code = parseCode();
+
+		if (! nextLine())
+			return false;
+		pair.setCode(code);
+
+		if (isRealCode(code))
+		{
+			if (parseReal(pair))
+				return true;
+		}
+		else if (isIntegerCode(code))
+		{
+			if (parseInteger(pair))
+				return true;
+		}
+		pair.setValue(getString(lineStart, lineEnd));
+		return true;
+	}
+
+	/** Returns true if the group code's value is a real number according to
+	*	the DXF reference.
+	*/
+	public static boolean isRealCode(int code)
+	{
+		return (code >= 10 && code <= 59) || (code >= 110 && code <= 149) ||
+			(code >= 210 && code <= 240) || (code >= 460 && code <= 469) ||
+			(code >= 1010 && code <= 1059);
+	}
+
+	/** Returns true if the group code's value is an integer according to
+	*	the DXF reference.
+	*/
+	public static boolean isIntegerCode(int code)
+	{
+		return (code >= 60 && code <= 79) || (code >= 90 && code <= 99) ||
+			(code >= 160 && code <= 179) || (code >= 270 && code <= 299) ||
+			(code >= 370 && code <= 389) || (code >= 400 && code <= 409) ||
+			(code >= 420 && code <= 429) || (code >= 440 && code <= 459) ||
+			(code >= 1060 && code <= 1071);
+	}
+
+	// Finds the next line and trims it. Returns false if there are no more lines.
+	private boolean nextLine() throws IOException
+	{
+		if (position >= count && ! fill(position))
+			return false;
+		// A '\r\n' counts as one line end, as it does to readLine().
+		if (skipLF)
+		{
+			skipLF = false;
+			if (window[position] == '\n')
+			{
+				position++;
+				if (position >= count && ! fill(position))
+					return false;
+			}
+		}
+
+		int start = position;
+		int end = start;
+		while (true)
+		{
+			byte[] bytes = window;
+			int last = count;
+			while (end < last)
+			{
+				byte b = bytes[end];
+				if (b == '\n' || b == '\r')
+					break;
+				end++;
+			}
+			if (end < last)
+				break;
+			// The line runs off the end of the window; slide the window down to
+			// the start of the line and read some more.
+			int shift = start;
+			if (! fill(start))
+				break;
+			start -= shift;
+			end -= shift;
+		}
+
+		position = end;
+		if (end < count)
+		{
+			skipLF = window[end] == '\r';
+			position++;
+		}
+
+		// Same test as String.trim() uses.
+		while (start < end && (window[start] & 0xff) <= ' ')
+			start++;
+		while (end > start && (window[end - 1] & 0xff) <= ' ')
+			end--;
+
+		lineStart = start;
+		lineEnd = end;
+		return true;
+	}
+
+	// Drops the bytes before keep from the window and reads as much more of
+	// the file as will fit. Returns false, leaving the window as it is, if the
+	// whole file has already been read.
+	private boolean fill(int keep) throws IOException
+	{
+		if (remaining <= 0L)
+			return false;
+
+		int kept = count - keep;
+		if (kept > 0)
+			System.arraycopy(window, keep, window, 0, kept);
+		position -= keep;
+		count = kept;
+
+		// A line longer than the window.
+		if (count == window.length)
+		{
+			byte[] larger = new byte[window.length * 2];
+			System.arraycopy(window, 0, larger, 0, count);
+			window = larger;
+		}
+
+		int length = (int)Math.min(window.length - count, remaining);
+		ByteBuffer target = ByteBuffer.wrap(window, count, length);
+		while (target.hasRemaining())
+		{
+			if (channel.read(target) < 0)
+			{
+				// The file got shorter after it was opened.
+				remaining = 0L;
+				break;
+			}
+		}
+		int read = target.position() - count;
+		count += read;
+		remaining -= read;
+		return true;
+	}
+
+	// Parses the current line as a group code.
+	private int parseCode()
+	{
+		int i = lineStart;
+		boolean isNegative = false;
+		if (i < lineEnd && window[i] == '-')
+		{
+			isNegative = true;
+			i++;
+		}
+		// Group codes are at most four digits so anything longer goes the long way.
+		if (i == lineEnd || lineEnd - i > 9)
+			return Integer.parseInt(getString(lineStart, lineEnd));
+
+		int value = 0;
+		for (; i < lineEnd; i++)
+		{
+			int digit = window[i] - '0';
+			if (digit < 0 || digit > 9)
+				return Integer.parseInt(getString(lineStart, lineEnd));
+			value = value * 10 + digit;
+		}
+		return isNegative ? -value : value;
+	}
+
+	// Parses the current line as a whole number. Returns false if the value
+	// has to be left to Integer.parseInt() or Long.parseLong().
+	private boolean parseInteger(DxfElementPair pair)
+	{
+		int i = lineStart;
+		boolean isNegative = false;
+		if (i < lineEnd && window[i] == '-')
+		{
+			isNegative = true;
+			i++;
+		}
+		// 18 digits can't overflow a long.
+		if (i == lineEnd || lineEnd - i > 18)
+			return false;
+
+		long value = 0;
+		for (; i < lineEnd; i++)
+		{
+			int digit = window[i] - '0';
+			if (digit < 0 || digit > 9)
+				return false;
+			value = value * 10 + digit;
+		}
+		if (isNegative)
+		{
+			// "-0" is -0.0 to Double.parseDouble() so let getDouble() do that.
+			if (value == 0)
+				return false;
+			value = -value;
+		}
+
+		if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE)
+			pair.setInt((int)value);
+		else
+			pair.setLong(value);
+		pair.setText(window, lineStart, lineEnd - lineStart);
+		return true;
+	}
+
+	// Parses the current line as a real number. Only numbers whose digits fit
+	// exactly in a double and whose power of ten is exactly representable are
+	// converted here; the result of one multiplication or division of two
+	// exact values is correctly rounded, so it is the same double that
+	// Double.parseDouble() would return. Everything else returns false.
+	private boolean parseReal(DxfElementPair pair)
+	{
+		int i = lineStart;
+		boolean isNegative = false;
+		if (i < lineEnd)
+		{
+			byte sign = window[i];
+			if (sign == '-')
+			{
+				isNegative = true;
+				i++;
+			}
+			else if (sign == '+')
+				i++;
+		}
+
+		long mantissa = 0;
+		int significantDigits = 0;
+		int exponent = 0;
+		boolean hasDigits = false;
+		boolean isFraction = false;
+		for (; i < lineEnd; i++)
+		{
+			byte b = window[i];
+			if (b >= '0' && b <= '9')
+			{
+				hasDigits = true;
+				if (mantissa != 0 || b != '0')
+				{
+					if (++significantDigits > 18)
+						return false;
+					mantissa = mantissa * 10 + (b - '0');
+				}
+				if (isFraction)
+					exponent--;
+			}
+			else if (b == '.' && ! isFraction)
+				isFraction = true;
+			else
+				break;
+		}
+		if (! hasDigits)
+			return false;
+
+		if (i < lineEnd)
+		{
+			byte b = window[i];
+			if (b != 'e' && b != 'E')
+				return false;
+			i++;
+			boolean isNegativeExponent = false;
+			if (i < lineEnd && (window[i] == '-' || window[i] == '+'))
+			{
+				isNegativeExponent = window[i] == '-';
+				i++;
+			}
+			if (i == lineEnd || lineEnd - i > 3)
+				return false;
+			int e = 0;
+			for (; i < lineEnd; i++)
+			{
+				int digit = window[i] - '0';
+				if (digit < 0 || digit > 9)
+					return false;
+				e = e * 10 + digit;
+			}
+			exponent += isNegativeExponent ? -e : e;
+		}
+
+		if (mantissa > MAX_EXACT_MANTISSA)
+			return false;
+
+		double value;
+		if (mantissa == 0)
+			value = 0.0;
+		else if (exponent < 0 && exponent >= -22)
+			value = (double)mantissa / POWERS_OF_TEN[-exponent];
+		else if (exponent >= 0 && exponent <= 22)
+			value = (double)mantissa * POWERS_OF_TEN[exponent];
+		else
+			return false;
+
+		pair.setDouble(isNegative ? -value : value);
+		pair.setText(window, lineStart, lineEnd - lineStart);
+		return true;
+	}
+
+	// Makes a String out of the bytes from start to end. Plain ASCII is copied
+	// straight into chars, which is what any of the default character sets
+	// would decode it to; anything else is decoded with the default character set.
+	private String getString(int start, int end)
+	{
+		int length = end - start;
+		int hash = 0;
+		for (int i = start; i < end; i++)
+		{
+			byte b = window[i];
+			if (b < 0)
+				return new String(window, start, length);
+			hash = 31 * hash + b;
+		}
+
+		int slot = (hash ^ (hash >>> 16)) & (RECENT_STRINGS - 1);
+		if (length <= MAX_RECENT_LENGTH)
+		{
+			byte[] recent = recentBytes[slot];
+			if (recent != null && recent.length == length)
+			{
+				int i = 0;
+				while (i < length && recent[i] == window[start + i])
+					i++;
+				if (i == length)
+					return recentStrings[slot];
+			}
+		}
+
+		if (length > scratch.length)
+			scratch = new char[length];
+		for (int i = 0; i < length; i++)
+			scratch[i] = (char)window[start + i];
+		String value = new String(scratch, 0, length);
+
+		if (length <= MAX_RECENT_LENGTH)
+		{
+			byte[] recent = new byte[length];
+			System.arraycopy(window, start, recent, 0, length);
+			recentBytes[slot] = recent;
+			recentStrings[slot] = value;
+		}
+		return value;
+	}
+}
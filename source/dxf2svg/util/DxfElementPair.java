@@ -21,6 +21,15 @@
 **				1.11 November 6, 2002 Made the class final. Removed SN serial
 **				number.
 **				1.12 April 14, 2005 Removed ID altogether.
+**				1.13 October 17, 2026 Added a typed payload so binary DXF values
+**				can be stored as doubles, ints and longs without being converted to
+**				Strings. Added getDouble(), getInt() and getLong(). Numbers read
+**				from ASCII DXF keep a reference to their text for getValue().
+**				1.14 October 17, 2026 Added copy() for pairs that are kept after
+**				the parser has moved on.
+**				1.15 October 17, 2026 Numbers from ASCII DXF keep a copy of their
+**				text instead of a reference into the mapped file, which is no longer
+**				mapped.
 **
 **	TODO:		See ToDo List.xls.
 **
@@ -28,6 +37,7 @@
 
 package dxf2svg.util;
 
+
 /**
 *	DxfElementPair is a wrapper class for the primitive data types
 *	extracted from a Dxf file.
@@ -36,13 +46,34 @@ package dxf2svg.util;
 *	by a new line and its corresponding value. This class encapsulates
 *	this pair of datum into one object.<BR><BR>
 *
-*	@version	1.12 April 14, 2005
+*	Values read from an ASCII DXF are stored as Strings. Values read from a binary
+*	DXF are stored as the primitive type the parser read with {@link #setDouble},
+*	{@link #setInt} or {@link #setLong}, and are only turned into a String if
+*	someone asks for one with {@link #getValue}. Numeric values should be read with
+*	{@link #getDouble}, {@link #getInt} or {@link #getLong} which only parse the
+*	value if it was stored as a String. Numbers read from an ASCII DXF by the
+*	{@link DxfAsciiTokenizer} also keep a copy of their text, so getValue()
+*	returns exactly what was in the file.
+*
+*	@version	1.15 October 17, 2026
 *	@author		Andrew Nisbet
 */
 public final class DxfElementPair
 {
+	// Type of value stored.
+	private final static int STRING	= 0;
+	private final static int DOUBLE	= 1;
+	private final static int INT	= 2;
+	private final static int LONG	= 3;
+
 	private int code;				// integer code pair
-	private String sValue;			// String value from value pair
+	private String sValue;			// String value from value pair, or null if not converted yet.
+	private int type;				// One of STRING, DOUBLE, INT or LONG.
+	private double dValue;			// Value if type is DOUBLE.
+	private long lValue;			// Value if type is INT or LONG.
+	private boolean hasText;		// The numeric value's text is in text.
+	private byte[] text;			// Text the numeric value was read from; reused.
+	private int textLength;			// Length of the value's text in bytes.
 
 	/** Takes a pair of Strings representing (in order)
 	<OL>
@@ -55,6 +86,7 @@ public final class DxfElementPair
 		cStr = cStr.trim();
 		this.code = Integer.parseInt(cStr);
 		this.sValue = vStr;					// we'll use this for now until we figure out cStr type
+		this.type = STRING;
 		// Set the id number to the current count of DxfElementPair objects.
 	}
 
@@ -76,6 +108,18 @@ public final class DxfElementPair
 	}
 	/* end of constructors */
 
+	/** Returns a pair with the same code and value that doesn't change when
+	*	this one is reused for the next pair of the DXF.
+	*/
+	DxfElementPair copy()
+	{
+		DxfElementPair pair = new DxfElementPair(code, getValue());
+		pair.type = type;
+		pair.dValue = dValue;
+		pair.lValue = lValue;
+		return pair;
+	}
+
 	/** Sets the code of the element pair.
 	*	@throws NumberFormatException if the code is not an integer value.
 	*/
@@ -83,6 +127,12 @@ public final class DxfElementPair
 	{
 		this.code = Integer.parseInt( code );
 	}
+
+	/** Sets the code of the element pair.*/
+	public void setCode(int code)
+	{
+		this.code = code;
+	}
 	
 	
 	
@@ -90,20 +140,127 @@ public final class DxfElementPair
 	public void setValue(String value)
 	{
 		this.sValue = value;
+		this.type = STRING;
+		this.hasText = false;
+	}
+
+	/** Sets the value of the entity pair to a double. */
+	public void setDouble(double value)
+	{
+		this.dValue = value;
+		this.sValue = null;
+		this.type = DOUBLE;
+		this.hasText = false;
+	}
+
+	/** Sets the value of the entity pair to an int. */
+	public void setInt(int value)
+	{
+		this.lValue = value;
+		this.sValue = null;
+		this.type = INT;
+		this.hasText = false;
+	}
+
+	/** Sets the value of the entity pair to a long. */
+	public void setLong(long value)
+	{
+		this.lValue = value;
+		this.sValue = null;
+		this.type = LONG;
+		this.hasText = false;
+	}
+
+	/** Keeps a copy of the text of a numeric value, so {@link #getValue} can
+	*	return it as it was written rather than reformatting the number. Must be
+	*	called after the value is set.
+	*/
+	void setText(byte[] bytes, int offset, int length)
+	{
+		if (text == null || text.length < length)
+			text = new byte[Math.max(length, 32)];
+		System.arraycopy(bytes, offset, text, 0, length);
+		textLength = length;
+		hasText = true;
 	}
 
 	// Most useful for returning the value of the group code/value pair
-	/** Returns <I>this</I> DxfElementPair's <B>value</B> as a String. */
+	/** Returns <I>this</I> DxfElementPair's <B>value</B> as a String. Numeric
+	*	values are converted the first time they are asked for.
+	*/
 	public String getValue()
 	{
+		if (sValue == null && hasText)
+		{
+			sValue = new String(text, 0, textLength);
+		}
+		else if (sValue == null)
+		{
+			switch (type)
+			{
+			case DOUBLE:
+				sValue = String.valueOf(dValue);
+				break;
+
+			case INT:
+			case LONG:
+				sValue = String.valueOf(lValue);
+				break;
+
+			default:
+				break;
+			}
+		}
 		return sValue;
 	}
+
+	/** Returns <I>this</I> DxfElementPair's <B>value</B> as a double.
+	*	@throws NumberFormatException if the value is a String that is not a number.
+	*/
+	public double getDouble()
+	{
+		switch (type)
+		{
+		case DOUBLE:
+			return dValue;
+
+		case INT:
+		case LONG:
+			return (double)lValue;
+
+		default:
+			return Double.parseDouble(sValue);
+		}
+	}
+
+	/** Returns <I>this</I> DxfElementPair's <B>value</B> as an int.
+	*	@throws NumberFormatException if the value is not an integer.
+	*/
+	public int getInt()
+	{
+		if (type == INT)
+			return (int)lValue;
+
+		return Integer.parseInt(getValue());
+	}
+
+	/** Returns <I>this</I> DxfElementPair's <B>value</B> as a long.
+	*	@throws NumberFormatException if the value is not an integer.
+	*/
+	public long getLong()
+	{
+		if (type == INT || type == LONG)
+			return lValue;
+
+		return Long.parseLong(getValue());
+	}
+
 	/*
 		Returning this value will tell you what type of data is stored in
 		following value of the group code/value pair.
-		Note: all values in any DxfElementPair object are stored as strings.
-		and all codes are integers for simplicity.  I will update this
-		object to convert and return correct values as per DXF SvgUtil.
+		Note: values from ASCII DXF are stored as strings and values from
+		binary DXF as the type the parser read. All codes are integers for
+		simplicity.
 	*/
 	/** Returns <I>this</I> DxfElementPair's <B>code</B> as an integer. */
 	public int getCode()
@@ -123,7 +280,7 @@ public final class DxfElementPair
 		StringBuffer rStr = new StringBuffer();
 		rStr.append(getClass().getName());
 		rStr.append(": ");
-		rStr.append(String.valueOf(code) +", "+ sValue);
+		rStr.append(String.valueOf(code) +", "+ getValue());
 		return rStr.toString();				// convert back from string buffer to string
 	}
 
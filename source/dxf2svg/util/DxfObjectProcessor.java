@@ -23,6 +23,8 @@
 **				requirements.
 **				2.00 - April 16, 2005 Modified to accomodate new parser functionality
 **				and elimination of DxfElementPair as fly weight.
+**				2.01 - October 17, 2026 Collected objects go in a DxfObjectTable
+**				indexed by their handles instead of a Vector.
 **
 **	TODO:
 **
@@ -30,7 +32,6 @@
 
 package dxf2svg.util;
 
-import java.util.*;			// For Vector handling.
 import dxf2svg.svg.DxfImageObjectReference;
 import dxf2svg.*;			// DxfConverter
 
@@ -41,6 +42,11 @@ import dxf2svg.*;			// DxfConverter
 *	change in the future. It comes into being
 *	because the designers of Dxf decided to place the URI information about
 *	imbedded images in the object section of the Dxf file.
+*	<P>
+*	Every object collected is added to the conversion's {@link DxfObjectTable}
+*	under its handle (group code 5). To consult another type of object, like a
+*	DICTIONARY or XRECORD, start it in {@link #process} and give it a
+*	collectEntity() of its own.
 *
 *	@version	2.00 - April 16, 2005
 *	@author		Andrew Nisbet
@@ -48,16 +54,18 @@ import dxf2svg.*;			// DxfConverter
 final class DxfObjectProcessor extends Processor
 {
 	private DxfImageObjectReference DIORef;
+	private Object collected;					// Object being collected.
+	private long handle;						// Its handle.
 	private boolean isCollecting;
-	private Vector collectedObjects;
+	private DxfObjectTable collectedObjects;
 	private boolean DEBUG;
 
 	
 	/** 
 	*/
-	public DxfObjectProcessor( DxfConverter dxfc, Vector collectedObjects )
+	public DxfObjectProcessor( DxfConverter dxfc, DxfObjectTable collectedObjects )
 	{
-		super();
+		super( dxfc );
 		DxfConverterRef       = dxfc;
 		this.collectedObjects = collectedObjects;
 		DEBUG                 = false;
@@ -75,7 +83,14 @@ final class DxfObjectProcessor extends Processor
 		if ( isCollecting )
 		{
 			if (DEBUG){ System.out.println( "...collecting..." ); }
-			collectEntity( DIORef, pair );
+			if ( pair.getCode() == 5 )
+			{
+				handle = DxfObjectTable.parseHandle( pair.getValue() );
+			}
+			if ( collected == DIORef )
+			{
+				collectEntity( DIORef, pair );
+			}
 		}
 			
 		
@@ -89,6 +104,8 @@ final class DxfObjectProcessor extends Processor
 				if (DEBUG){ System.out.println( "^^^^BEGIN" ); }
 
 				DIORef = new DxfImageObjectReference( DxfConverterRef );
+				collected = DIORef;
+				handle = DxfObjectTable.NO_HANDLE;
 				
 				isCollecting = true;
 			} 
@@ -119,7 +136,12 @@ final class DxfObjectProcessor extends Processor
 		// with this processor.
 		if ( isCollecting == true )
 		{
-			collectedObjects.add( DIORef );
+			if ( ! collectedObjects.add( handle, collected ) )
+			{
+				System.err.println( "DxfObjectProcessor warning: object with a missing or "+
+					"duplicate handle ignored: " + collected );
+			}
+			collected = null;
 			isCollecting = false;
 			if (DEBUG){ System.out.println("END^^^^."); }
 		}
@@ -0,0 +1,158 @@
+/****************************************************************************
+**
+**	FileName:	DxfObjectTable.java
+**
+**	Project:	Dxf2Svg
+**
+**	Purpose:	Objects from the OBJECTS section of a DXF indexed by their
+**				handles.
+**
+**	Date:		October 17, 2026
+**
+**	Author:		Andrew Nisbet
+**
+**	Environment:Java(TM) 2 Runtime Environment, Standard Edition
+**				(build 1.4.0)
+**
+**	Version:	1.00 - October 17, 2026
+**
+**	TODO:
+**
+*****************************************************************************/
+
+package dxf2svg.util;
+
+/**	This class holds the objects the {@link DxfObjectProcessor} collects from
+*	the OBJECTS section of a DXF so that an entity can find the object one of
+*	its hard references points to, like the IMAGEDEF of an IMAGE, without
+*	searching them all.
+*	<P>
+*	A DXF handle is a hexadecimal number of up to 16 digits, so the table
+*	keeps handles as longs in an open addressed hash table rather than as
+*	Strings. Upper and lower case handles are the same handle. Handle 0 is
+*	never given to an object and {@link #parseHandle} returns it for a handle
+*	that can't be read.
+*	<P>
+*	The table is filled while the DXF is parsed and only read after that, so
+*	it is not synchronized.
+*
+*	@version 	1.00 - October 17, 2026
+*	@author		Andrew Nisbet
+*/
+public final class DxfObjectTable
+{
+	/** Returned by {@link #parseHandle} for a handle that isn't a hex number. */
+	public final static long NO_HANDLE = 0L;
+	private final static int INITIAL_CAPACITY = 16;	// Must be a power of 2.
+
+	private long[] handles;		// NO_HANDLE marks an empty slot.
+	private Object[] objects;
+	private int size;
+
+	/** Creates an empty table. */
+	public DxfObjectTable()
+	{
+		handles = new long[INITIAL_CAPACITY];
+		objects = new Object[INITIAL_CAPACITY];
+	}
+
+	/** Returns the argument hex handle as a long, or {@link #NO_HANDLE} if it
+	*	is null, empty, longer than 16 digits or not hexadecimal.
+	*/
+	public static long parseHandle(String handle)
+	{
+		if (handle == null)
+			return NO_HANDLE;
+		int length = handle.length();
+		if (length == 0 || length > 16)
+			return NO_HANDLE;
+		long value = 0L;
+		for (int i = 0; i < length; i++)
+		{
+			int digit = Character.digit(handle.charAt(i), 16);
+			if (digit < 0)
+				return NO_HANDLE;
+			value = (value << 4) | digit;
+		}
+		return value;
+	}
+
+	/** Adds the object under the argument handle. If there is already an object
+	*	with that handle it is kept and the argument is not added.
+	*	@return true if the object was added and false if the handle was
+	*	{@link #NO_HANDLE} or already in the table.
+	*/
+	public boolean add(long handle, Object o)
+	{
+		if (handle == NO_HANDLE)
+			return false;
+		// Keep the table no more than half full.
+		if ((size + 1) * 2 > handles.length)
+			grow();
+		int i = indexOf(handles, handle);
+		if (handles[i] == handle)
+			return false;
+		handles[i] = handle;
+		objects[i] = o;
+		size++;
+		return true;
+	}
+
+	/** Adds the object under the argument hex handle.
+	*	@see #add(long, Object)
+	*/
+	public boolean add(String handle, Object o)
+	{
+		return add(parseHandle(handle), o);
+	}
+
+	/** Returns the object with the argument handle or null if there isn't one. */
+	public Object get(long handle)
+	{
+		if (handle == NO_HANDLE)
+			return null;
+		return objects[indexOf(handles, handle)];
+	}
+
+	/** Returns the object with the argument hex handle or null if there isn't one. */
+	public Object get(String handle)
+	{
+		return get(parseHandle(handle));
+	}
+
+	/** Returns the number of objects in the table. */
+	public int size()
+	{
+		return size;
+	}
+
+	// Returns the slot holding the handle, or the empty slot it would go in.
+	private static int indexOf(long[] table, long handle)
+	{
+		int mask = table.length - 1;
+		// Handles are given out in sequence so spread the bits before masking.
+		long h = handle * 0x9E3779B97F4A7C15L;
+		int i = (int)(h >>> 32) & mask;
+		while (table[i] != NO_HANDLE && table[i] != handle)
+			i = (i + 1) & mask;
+		return i;
+	}
+
+	// Doubles the size of the table.
+	private void grow()
+	{
+		long[] oldHandles = handles;
+		Object[] oldObjects = objects;
+		handles = new long[oldHandles.length * 2];
+		objects = new Object[oldHandles.length * 2];
+		for (int j = 0; j < oldHandles.length; j++)
+		{
+			if (oldHandles[j] != NO_HANDLE)
+			{
+				int i = indexOf(handles, oldHandles[j]);
+				handles[i] = oldHandles[j];
+				objects[i] = oldObjects[j];
+			}
+		}
+	}
+}
@@ -37,6 +37,14 @@
 **				update.
 **				3.0 - April 21, 2005 Stream line the processor to reduce the number
 **				of persistant objects to speed things up and to reduce memory.
+**				3.1 - October 17, 2026 Binary values are now stored in the
+**				DxfElementPair as the primitive type read rather than being
+**				converted to Strings that the processors would only parse again.
+**				3.2 - October 17, 2026 ASCII DXF is read with the memory mapped
+**				DxfAsciiTokenizer rather than a line at a time.
+**				3.3 - October 17, 2026 All ASCII DXF is read with the tokenizer,
+**				which no longer maps the file, and the file is closed when parse()
+**				returns or throws.
 **
 **	TODO:
 **
@@ -63,7 +71,7 @@ import dxf2svg.util.ProcessorManager;
 *	DxfElementPair to make it work.
 *
 *	@see		DxfElementPair
-*	@version	3.0 - April 14, 2005
+*	@version	3.3 - October 17, 2026
 *	@author		Andrew Nisbet
 */
 
@@ -71,7 +79,7 @@ public class DxfParser
 {
 	// Standard sections within a DXF.
 	/** Parser version */
-	public final static String ParserVersion = "3.0 - April 21, 2005";
+	public final static String ParserVersion = "3.3 - October 17, 2026";
 	/** HEADER section */
 	public final static int HEADER			= 0;
 	/** CLASSES section */
@@ -178,6 +186,9 @@ public class DxfParser
 		DataInputStream DxfBinStrm = new DataInputStream(
 			new FileInputStream(IN));
 
+		// Reads ASCII DXF once we know the file isn't binary.
+		DxfAsciiTokenizer tokenizer = null;
+
 
 
 
@@ -207,8 +218,8 @@ public class DxfParser
 			{
 				BINARY = false;
 				DxfBinStrm.close();
-				// reset the stream so we can grab the first code.
-				DxfStrm.reset();
+				DxfStrm.close();
+				tokenizer = new DxfAsciiTokenizer(IN);
 			}
 		}
 		catch (IOException e)
@@ -223,59 +234,59 @@ public class DxfParser
 
 		try
 		{
-			String codeStr = new String();
-			String valueStr = new String();
 			int Code;
 			while(true)
 			{
-				StringBuffer SBuff = new StringBuffer();	// to convert primative data types to strings.
-				
 				if (BINARY)
 				{
 					// start reading the binary file after the sentinal
 					// the first value found will be an int.
 					Code = readDxfInteger(DxfBinStrm);
-					SBuff.append(Code);
-					codeStr = SBuff.toString();
-					//System.out.println("codeStr = "+codeStr);
-					valueStr = determineValueString(Code,DxfBinStrm);
-					//System.out.println("valStr = "+valueStr);
+					pair.setCode(Code);
+					// Numbers stay numbers; only strings are read as Strings.
+					determineValue(Code,DxfBinStrm,pair);
 				}
 				else
 				{
-					String StrRead = DxfStrm.readLine();
-					setLineNumber();
-
-					// get code/value pair and find out where we are
-					// and if necessary update Section var to new section
-					codeStr = StrRead.trim();
-					valueStr = DxfStrm.readLine();
-					setLineNumber();
-					valueStr = valueStr.trim();
+					if (! tokenizer.next(pair))
+					{
+						System.err.println("Parser error: DXF file \""+FileName+
+							"\" ends unexpectedly at line: "+LinesRead+".");
+						break;
+					}
+					setLineNumbers(2);
+					Code = pair.getCode();
 				}
 
-
-				if ((codeStr.equals("0")) && (valueStr.equals("EOF")))
+				// Group codes 0 and 999 always have string values so checking
+				// them here never converts a binary number to a String.
+				if (Code == 0 && pair.getValue().equals("EOF"))
 				{
 					// end of dxf signal.
 					if (VERBOSE)
 						System.out.println("Parser: finished reading DXF.");
 					return;
 				}
-				else if ((codeStr.equals("0")) && (valueStr.equals("SECTION")))
+				else if (Code == 0 && pair.getValue().equals("SECTION"))
 				{
-					DxfElementPair myEPTest;
 					if (BINARY)
-						myEPTest = getNextPair(DxfBinStrm);
+						setSection(getNextPair(DxfBinStrm).getValue());
+					else if (tokenizer.next(pair))
+					{
+						setLineNumbers(2);
+						setSection(pair.getValue());
+					}
 					else
-						myEPTest = getNextPair(DxfStrm);
-
-					setSection(myEPTest.getValue());
+					{
+						System.err.println("Parser error: DXF file \""+FileName+
+							"\" ends unexpectedly at line: "+LinesRead+".");
+						break;
+					}
 					// we'll do this so these values don't end up on the
 					// epList Vector.
 					continue;
 				}
-				else if ((codeStr.equals("0")) && (valueStr.equals("ENDSEC")))
+				else if (Code == 0 && pair.getValue().equals("ENDSEC"))
 				{
 					Section = NONE;
 					/*
@@ -291,9 +302,9 @@ public class DxfParser
 				** continue parse. Note in binary DXF does not support comments
 				** so this rule does not fire.
 				*/
-				else if (codeStr.equals("999"))
+				else if (Code == 999)
 				{
-					System.out.println("Parser: DXF comment \""+valueStr+"\"");
+					System.out.println("Parser: DXF comment \""+pair.getValue()+"\"");
 					continue;
 				}
 
@@ -309,8 +320,6 @@ public class DxfParser
 				}
 				else
 				{
-					pair.setCode( codeStr );
-					pair.setValue( valueStr );
 					processorManager.setDxfElementPair( pair );
 				}
 
@@ -332,11 +341,14 @@ public class DxfParser
 					"\" ends unexpectedly at offset: 0x"+Long.toHexString(BytesRead)+"." + e);
 
 		}
-
-		if (BINARY)
-			DxfBinStrm.close();
-		else
-			DxfStrm.close();
+		finally
+		{
+			// The DXF is closed however the loop ends, including at "EOF".
+			if (BINARY)
+				DxfBinStrm.close();
+			else if (tokenizer != null)
+				tokenizer.close();
+		}
 
 		if (VERBOSE == true)
 		{
@@ -379,64 +391,54 @@ public class DxfParser
 	protected DxfElementPair getNextPair(DataInputStream Strm) throws IOException//, NullPointerException
 	{
 		int Code = readDxfInteger(Strm);
-		String tmpValue = determineValueString(Code,Strm);
-		DxfElementPair EP = new DxfElementPair(Code,tmpValue);
+		DxfElementPair EP = new DxfElementPair();
+		EP.setCode(Code);
+		determineValue(Code,Strm,EP);
 		return EP;
 	}
 
 
 
 
-	/**	This method takes a code read from the stream and returns a string
-	*	representation of the data collected in the next series of bytes
-	*	as determined by the code collected.
-	*	@return String version of the value read from the stream.
+	/**	This method takes a code read from the stream, reads the data collected
+	*	in the next series of bytes as determined by the code collected and stores
+	*	it in the argument DxfElementPair as the type read. Numbers are not
+	*	converted to Strings.
+	*	@param Code group code already read from the stream.
+	*	@param Strm binary DXF stream.
+	*	@param pair the DxfElementPair whose value is to be set.
 	*	@throws UndefinedDxfGroupCodeException if the parser finds an unknown group code.
 	*	This means the parser would not know what type of data to expect next.
 	*/
-	protected String determineValueString(int Code, DataInputStream Strm) throws IOException
+	protected void determineValue(int Code, DataInputStream Strm, DxfElementPair pair) throws IOException
 	{
-
-		String ValStr = new String();
-		StringBuffer SBuff = new StringBuffer();
-		double DoubVal;
-		int IntVal;
-
 		if ((Code >= 0)&&(Code <= 9))// we have a section
 		{
-			ValStr = readDxfString(Strm);
+			pair.setValue(readDxfString(Strm));
 		}
 		else if ((Code >= 10)&&(Code <= 59))
 		{
 			// read a double value IEEE standard byte swapped.
-			DoubVal = readDxfDouble(Strm);
-			SBuff.append(DoubVal);
-			ValStr = SBuff.toString();
+			pair.setDouble(readDxfDouble(Strm));
 		}
 		else if ((Code >= 60)&&(Code <= 79))
 		{
 			// read a integer 16 bit
-			IntVal = readDxfInteger(Strm);
-			SBuff.append(IntVal);
-			ValStr = SBuff.toString();
+			pair.setInt(readDxfInteger(Strm));
 		}
 		else if ((Code >= 90)&&(Code <= 99))
 		{
 			// read a 32 bit integer.
-			IntVal = readDxfIntegerWide(Strm);
-			SBuff.append(IntVal);
-			ValStr = SBuff.toString();
+			pair.setInt(readDxfIntegerWide(Strm));
 		}
 		else if ((Code >= 100)&&(Code <= 105))
 		{
-			ValStr = readDxfString(Strm);
+			pair.setValue(readDxfString(Strm));
 		}
 		else if ((Code >= 110)&&(Code <= 149))
 		{
 			// read a double value IEEE standard byte swapped.
-			DoubVal = readDxfDouble(Strm);
-			SBuff.append(DoubVal);
-			ValStr = SBuff.toString();
+			pair.setDouble(readDxfDouble(Strm));
 		}
 		else if ((Code >= 170)&&(Code <= 179))
 		{
@@ -444,87 +446,68 @@ public class DxfParser
 			// there is no mention of this range in the spec
 			// but with reverse engineering we discover it is
 			// 16 bits wide.
-			IntVal = readDxfInteger(Strm);
-			SBuff.append(IntVal);
-			ValStr = SBuff.toString();
+			pair.setInt(readDxfInteger(Strm));
 		}
 		else if ((Code >= 210)&&(Code <= 240))
 		{
 			// read a double value IEEE standard byte swapped.
-			DoubVal = readDxfDouble(Strm);
-			SBuff.append(DoubVal);
-			ValStr = SBuff.toString();
+			pair.setDouble(readDxfDouble(Strm));
 		}
 		else if ((Code >= 280)&&(Code <= 289))
 		{
 			// read a integer 8 bit
-			IntVal = readDxfByte(Strm);
-			SBuff.append(IntVal);
-			ValStr = SBuff.toString();
+			pair.setInt(readDxfByte(Strm));
 		}
 		else if ((Code >= 290)&&(Code <= 299))
 		{
 			// read a integer for boolean
-			IntVal = readDxfBoolean(Strm);
-			SBuff.append(IntVal);
-			ValStr = SBuff.toString();
+			pair.setInt(readDxfBoolean(Strm));
 		}
 		else if (((Code >= 300)&&(Code <= 369))||
 			((Code >= 390)&&(Code <= 399)))
 		{
 			// read string (these represent hex numbers as strings).
-			ValStr = readDxfString(Strm);
+			pair.setValue(readDxfString(Strm));
 		}
 		else if ((Code >= 370)&&(Code <= 389))
 		{
 			// read a integer 8 bit
-			IntVal = readDxfByte(Strm);
-			SBuff.append(IntVal);
-			ValStr = SBuff.toString();
+			pair.setInt(readDxfByte(Strm));
 		}
 		else if ((Code >= 400)&&(Code <= 409))
 		{
 			// read a integer 16 bit
-			IntVal = readDxfInteger(Strm);
-			SBuff.append(IntVal);
-			ValStr = SBuff.toString();
+			pair.setInt(readDxfInteger(Strm));
 		}
 		else if ((Code >= 410)&&(Code <= 419))
 		{
 			// read string (these represent hex numbers as strings).
-			ValStr = readDxfString(Strm);
+			pair.setValue(readDxfString(Strm));
 		}
 		else if ((Code >= 1000)&&(Code <= 1009))
 		{
 			// read string (these represent hex numbers as strings).
-			ValStr = readDxfString(Strm);
+			pair.setValue(readDxfString(Strm));
 		}
 		else if ((Code >= 1010)&&(Code <= 1059))
 		{
 			// read a float swapped haven't seen one yet.
-			DoubVal = readDxfDouble(Strm);
-			SBuff.append(DoubVal);
-			ValStr = SBuff.toString();
+			pair.setDouble(readDxfDouble(Strm));
 		}
 		else if ((Code >= 1060)&&(Code <= 1070))
 		{
 			// read a integer 16 bit
-			IntVal = readDxfInteger(Strm);
-			SBuff.append(IntVal);
-			ValStr = SBuff.toString();
+			pair.setInt(readDxfInteger(Strm));
 		}
 		else if (Code == 1071)
 		{
 			// read a 32 bit integer.
-			IntVal = readDxfIntegerWide(Strm);
-			SBuff.append(IntVal);
-			ValStr = SBuff.toString();
+			pair.setInt(readDxfIntegerWide(Strm));
 		}
 		else
 		{
 			throw new UndefinedDxfGroupCodeException(Code,BytesRead);
 		} // end if
-		return ValStr;
 	} // end method
 
 
@@ -0,0 +1,194 @@
+/****************************************************************************
+**
+**	FileName:	DxfParserBenchmark.java
+**
+**	Project:	Dxf2Svg
+**
+**	Purpose:	Times the raw tokenizing of an ASCII DXF a line at a time
+**				against the DxfAsciiTokenizer.
+**
+**	Date:		October 17, 2026
+**
+**	Author:		Andrew Nisbet
+**
+**	Environment:Java(TM) 2 Runtime Environment, Standard Edition
+**				(build 1.5.0)
+**
+**	Version:	1.00 - October 17, 2026
+**				1.01 - October 17, 2026 The tokenizer is closed after each pass.
+**
+**	TODO:
+**
+*****************************************************************************/
+
+package dxf2svg.util;
+
+import java.io.*;
+
+/**
+*	This class measures the raw parse throughput of an ASCII DXF two ways:
+*	the way DxfParser used to read it, a line at a time with <code>BufferedReader</code>,
+*	<code>trim()</code> and <code>Integer.parseInt()</code> for the code, and
+*	with the {@link DxfAsciiTokenizer}. In both cases the numeric values are
+*	converted to doubles and ints as the processors would, but nothing else
+*	is done with them, so the times are of the reading alone.
+*	<P>
+*	Usage: <b>java dxf2svg.util.DxfParserBenchmark file.dxf [passes]</b>
+*	<P>
+*	Each method reads the file <code>passes</code> times (default 5) and the
+*	fastest pass is reported. Use a file that is large (50MB or more) and that
+*	is already in the file cache, or the disk will be what is being measured.
+*
+*	@author		Andrew Nisbet
+*	@version	1.00 - October 17, 2026
+*/
+public class DxfParserBenchmark
+{
+	public static void main(String[] args)
+	{
+		if (args.length < 1 || args.length > 2)
+		{
+			System.out.println();
+			System.out.println("Usage: java dxf2svg.util.DxfParserBenchmark file.dxf [passes]");
+			System.out.println();
+			System.out.println("Times reading the ASCII DXF a line at a time and with the");
+			System.out.println("DxfAsciiTokenizer and reports the throughput of each.");
+			System.out.println();
+			System.exit(1);
+		}
+
+		File dxf = new File(args[0]);
+		int passes = 5;
+		if (args.length == 2)
+		{
+			try
+			{
+				passes = Integer.parseInt(args[1]);
+			}
+			catch (NumberFormatException e)
+			{
+				System.err.println("DxfParserBenchmark error: passes must be a number: '"+args[1]+"'.");
+				System.exit(1);
+			}
+		}
+
+		try
+		{
+			double megaBytes = dxf.length() / (1024.0 * 1024.0);
+			System.out.println("DxfParserBenchmark: '"+dxf+"' ("+
+				Math.round(megaBytes * 10.0) / 10.0+" MB), best of "+passes+" passes.");
+
+			long lineTime = Long.MAX_VALUE;
+			long tokenizerTime = Long.MAX_VALUE;
+			long linePairs = 0;
+			long tokenizerPairs = 0;
+			for (int i = 0; i < passes; i++)
+			{
+				long start = System.nanoTime();
+				linePairs = readLines(dxf);
+				lineTime = Math.min(lineTime, System.nanoTime() - start);
+
+				start = System.nanoTime();
+				tokenizerPairs = readTokens(dxf);
+				tokenizerTime = Math.min(tokenizerTime, System.nanoTime() - start);
+			}
+
+			if (linePairs != tokenizerPairs)
+				System.err.println("DxfParserBenchmark warning: readers disagree on the number of pairs: "+
+					linePairs+" and "+tokenizerPairs+".");
+
+			report("BufferedReader", linePairs, lineTime, megaBytes);
+			report("DxfAsciiTokenizer", tokenizerPairs, tokenizerTime, megaBytes);
+			System.out.println("  speed up: "+
+				Math.round((double)lineTime / (double)tokenizerTime * 100.0) / 100.0+"x");
+		}
+		catch (IOException e)
+		{
+			System.err.println("DxfParserBenchmark error: reading '"+dxf+"'.");
+			System.err.println(e);
+			System.exit(2);
+		}
+	}
+
+	// Reads the file the way DxfParser used to and returns the number of pairs read.
+	private static long readLines(File dxf) throws IOException
+	{
+		BufferedReader in = new BufferedReader(new FileReader(dxf));
+		long pairs = 0;
+		double sum = 0.0;
+		try
+		{
+			String code;
+			String value;
+			while ((code = in.readLine()) != null && (value = in.readLine()) != null)
+			{
+				int c = Integer.parseInt(code.trim());
+				value = value.trim();
+				try
+				{
+					if (DxfAsciiTokenizer.isRealCode(c))
+						sum += Double.parseDouble(value);
+					else if (DxfAsciiTokenizer.isIntegerCode(c))
+						sum += Integer.parseInt(value);
+				}
+				catch (NumberFormatException e)
+				{
+					// Processors would choke on this too; not our problem here.
+				}
+				pairs++;
+			}
+		}
+		finally
+		{
+			in.close();
+		}
+		// Keeps the JIT from optimizing the conversions away.
+		if (sum == 0.5)
+			System.out.print("");
+		return pairs;
+	}
+
+	// Reads the file with the tokenizer and returns the number of pairs read.
+	private static long readTokens(File dxf) throws IOException
+	{
+		DxfAsciiTokenizer in = new DxfAsciiTokenizer(dxf);
+		DxfElementPair pair = new DxfElementPair();
+		long pairs = 0;
+		double sum = 0.0;
+		try
+		{
+			while (in.next(pair))
+			{
+				int c = pair.getCode();
+				try
+				{
+					if (DxfAsciiTokenizer.isRealCode(c))
+						sum += pair.getDouble();
+					else if (DxfAsciiTokenizer.isIntegerCode(c))
+						sum += pair.getInt();
+				}
+				catch (NumberFormatException e)
+				{
+					// See above.
+				}
+				pairs++;
+			}
+		}
+		finally
+		{
+			in.close();
+		}
+		if (sum == 0.5)
+			System.out.print("");
+		return pairs;
+	}
+
+	// Prints the throughput of one of the readers.
+	private static void report(String name, long pairs, long nanos, double megaBytes)
+	{
+		double seconds = nanos / 1e9;
+		System.out.println("  "+name+": "+pairs+" pairs in "+
+			Math.round(seconds * 1000.0)+" ms, "+
+			Math.round(megaBytes / seconds * 10.0) / 10.0+" MB/s");
+	}
+}
@@ -0,0 +1,295 @@
+/****************************************************************************
+**
+**	FileName:	DxfTextIndex.java
+**
+**	Project:	Dxf2Svg
+**
+**	Purpose:	Reads an ASCII DXF file once and answers text searches from memory.
+**
+**	Date:		October 17, 2026
+**
+**	Author:		Andrew Nisbet
+**
+**	Environment:Java(TM) 2 Runtime Environment, Standard Edition
+**				(build 1.5.0)
+**
+**	Version:	1.00 - October 17, 2026
+**
+**	TODO:
+**
+*****************************************************************************/
+
+package dxf2svg.util;
+
+import java.io.*;			// File operations
+import java.util.*;			// For Vectors.
+import java.util.regex.*;	// Pattern and Matcher
+import dxf2svg.DxfPreprocessor;// Used for logging events.
+
+/**	This class reads an ASCII DXF file in a single pass and keeps every group code '1'
+*	string along with the section it was found in, the layer that was current at the
+*	time and its line number. It answers the same {@link #find}, {@link #findNext} and
+*	{@link #findOnLayer} queries as the {@link DxfSearchEngine} does, but from memory,
+*	so searching a file for an NDID, two boardnos and several figure titles costs one
+*	read of the file rather than one read per search.
+*	<P>
+*	The results are the same as DxfSearchEngine's: all sections are searched, the
+*	layer of a string is the value of the last group code '8' read before it (compared
+*	ignoring case) and findNext() carries on after the last match.
+*
+*	@version	1.00 - October 17, 2026
+*	@author		Andrew Nisbet
+*/
+public class DxfTextIndex
+{
+	private File dxfFile;			// Name of the DXF file.
+	private Vector entries;			// TextEntry objects in the order read.
+	private boolean isTruncated;	// File ended without an EOF marker.
+	private int lastLineRead;		// Line number the read stopped at.
+	// State of the current search for findNext().
+	private Pattern pattern;		// Current pattern we are searching for.
+	private String layer;			// Name of layer to confine search to, or null for all.
+	private int nextEntry;			// Index of the entry to start the next search from.
+	private TextEntry lastMatch;	// Entry returned by the last search or null.
+
+	/** Reads the argument file and indexes its text. If the file is not an ASCII DXF
+	*	a message is issued and all searches return null.
+	*	@param dxfFile the DXF file to index.
+	*/
+	public DxfTextIndex(File dxfFile)
+	{
+		this.dxfFile = dxfFile;
+		entries = new Vector();
+		isTruncated = false;
+		lastLineRead = 0;
+		reset();
+
+		DxfSearchEngine test = new DxfSearchEngine();
+		test.setDxfFile(dxfFile);
+		if (! test.isAsciiDxf())
+		{
+			System.err.println("DxfTextIndex: there is no DXF file to search or the dxf if binary.");
+			return;
+		}
+
+		try
+		{
+			readDxf();
+		}
+		catch (IOException e)
+		{
+			System.err.println("DxfTextIndex dxf read error: "+e+" at line: "+lastLineRead);
+		}
+	}
+
+	// Reads the whole file collecting the group code 1 values.
+	private void readDxf() throws IOException
+	{
+		BufferedReader DxfStrm = new BufferedReader(new FileReader(dxfFile), 65536);
+		int section = DxfSearchEngine.INITIAL;
+		String currentLayer = null;
+		String code;
+		String value;
+		boolean isSectionName = false;	// Last pair was '0' 'SECTION'.
+		int lineNum = 0;
+
+		try
+		{
+			while (true)
+			{
+				code = DxfStrm.readLine();
+				value = DxfStrm.readLine();
+				if (code == null || value == null)
+				{
+					// The file ended without an EOF; DxfSearchEngine reports this as a
+					// corrupt DXF, but only if the search gets this far. See fail().
+					isTruncated = true;
+					break;
+				}
+				code = code.trim();
+				value = value.trim();
+				lineNum += 2;
+				lastLineRead = lineNum;
+
+				if (code.equals("1"))
+				{
+					entries.add(new TextEntry(section, currentLayer, value, lineNum));
+				}
+				else if (code.equals("8"))
+				{
+					currentLayer = value;
+				}
+				else if (code.equals("2") && isSectionName)
+				{
+					section = getSection(value, section);
+				}
+				else if (code.equals("0") && value.equalsIgnoreCase("EOF"))
+				{
+					break;
+				}
+				isSectionName = code.equals("0") && value.equals("SECTION");
+			}
+		}
+		finally
+		{
+			DxfStrm.close();
+		}
+	}
+
+	// Returns the DxfSearchEngine section constant for the section name or the
+	// current section if the name is not recognised.
+	private int getSection(String value, int current)
+	{
+		if (value.equalsIgnoreCase("HEADER"))
+			return DxfSearchEngine.HEADER;
+		else if (value.equalsIgnoreCase("CLASSES"))
+			return DxfSearchEngine.CLASSES;
+		else if (value.equalsIgnoreCase("TABLES"))
+			return DxfSearchEngine.TABLES;
+		else if (value.equalsIgnoreCase("BLOCKS"))
+			return DxfSearchEngine.BLOCKS;
+		else if (value.equalsIgnoreCase("ENTITIES"))
+			return DxfSearchEngine.ENTITIES;
+		else if (value.equalsIgnoreCase("OBJECTS"))
+			return DxfSearchEngine.OBJECTS;
+		else if (value.equalsIgnoreCase("THUMBNAIL"))
+			return DxfSearchEngine.THUMBNAIL;
+		return current;
+	}
+
+	/** Resets the search to the top of the file and all layers.
+	*/
+	public void reset()
+	{
+		pattern = null;
+		layer = null;
+		nextEntry = 0;
+		lastMatch = null;
+	}
+
+	/** Searches the DXF text for the argument pattern on any layer.
+	*	@return String value of the first match found or null if the pattern was not found.
+	*	use {@link #findNext} to search for additional matches of the pattern.
+	*/
+	public String find(Pattern p)
+	{
+		reset();
+		pattern = p;
+
+		return find();
+	}
+
+	/** Searches the DXF text on the named layer (case insensitive) for the argument pattern.
+	*	Subsequent calls to {@link #findNext} are confined to the same layer.
+	*	@return String value of the first match found or null if the pattern was not found.
+	*/
+	public String findOnLayer(String layer, Pattern p)
+	{
+		reset();
+		pattern = p;
+		this.layer = layer;
+
+		return find();
+	}
+
+	/** Searches for the next instance of the previous pattern.
+	*	If no previous pattern has been defined, the return value
+	*	will be null and a error message will be issued.
+	*/
+	public String findNext()
+	{
+		return find();
+	}
+
+	/** Returns the number of text strings in the index.
+	*/
+	public int size()
+	{
+		return entries.size();
+	}
+
+	/** Returns the section (see {@link DxfSearchEngine#HEADER} etc.) of the last string
+	*	found or {@link DxfSearchEngine#INITIAL} if the last search failed.
+	*/
+	public int getSectionOfLastMatch()
+	{
+		if (lastMatch == null)
+			return DxfSearchEngine.INITIAL;
+		return lastMatch.section;
+	}
+
+	/** Returns the line number in the DXF of the last string found or -1 if the last
+	*	search failed.
+	*/
+	public int getLineNumberOfLastMatch()
+	{
+		if (lastMatch == null)
+			return -1;
+		return lastMatch.lineNumber;
+	}
+
+	// Does the searching from the current position.
+	private String find()
+	{
+		if (pattern == null)
+		{
+			lastMatch = null;
+			System.err.println("DxfTextIndex: search pattern is null.");
+			return null;
+		}
+
+		int size = entries.size();
+		for (int i = nextEntry; i < size; i++)
+		{
+			TextEntry entry = (TextEntry)entries.get(i);
+			if (layer != null && (entry.layer == null || ! entry.layer.equalsIgnoreCase(layer)))
+				continue;
+
+			if (pattern.matcher(entry.text).find())
+			{
+				nextEntry = i + 1;
+				lastMatch = entry;
+				return entry.text;
+			}
+		}
+		nextEntry = size;
+		lastMatch = null;
+
+		if (isTruncated)
+			fail();
+
+		return null;
+	}
+
+	// The search ran off the end of a DXF that had no EOF marker.
+	private void fail()
+	{
+		String msg = "Search for pattern '"+pattern+ " in file '"+ dxfFile.getName() +"' " +
+			"' produced a null pointer exception. The DXF may be corrupt at line: "+
+			String.valueOf(lastLineRead);
+		System.err.println(msg);
+		DxfPreprocessor.logEvent(dxfFile.getName(), msg);
+		System.exit(-1);
+	}
+
+
+
+
+	/** A single group code '1' value and where it came from.
+	*/
+	private final static class TextEntry
+	{
+		private final int section;		// DxfSearchEngine section constant.
+		private final String layer;		// Layer current when read; may be null.
+		private final String text;		// Trimmed group code 1 value.
+		private final int lineNumber;	// Line number of the value in the DXF.
+
+		private TextEntry(int section, String layer, String text, int lineNumber)
+		{
+			this.section = section;
+			this.layer = layer;
+			this.text = text;
+			this.lineNumber = lineNumber;
+		}
+	}
+}
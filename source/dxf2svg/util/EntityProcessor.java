@@ -29,6 +29,14 @@
 **				1.72 - February 10, 2005 Updated @param tag with parameter name to 
 **				correct error with Javadoc 1.4.2-04.
 **				2.00 - April 16, 2005 Modified to accomodate new parser functionality.
+**				2.01 - October 17, 2026 Uses-links and colour-by-layer now come from
+**				the conversion context.
+**				2.02 - October 17, 2026 Numeric values are read with getDouble()
+**				and getInt() so binary DXF values are not parsed from Strings.
+**				2.03 - October 17, 2026 Finished entities go to the conversion's
+**				SvgLayerSpool instead of the entity Vector if one has been set.
+**				2.04 - October 17, 2026 Entity names are looked up in a table of
+**				EntityCollectors instead of being compared with each name in turn.
 **
 **	TODO:
 **
@@ -117,12 +125,114 @@ final class EntityProcessor extends Processor
 	private final static int WIPEOUT			= 36;
 	private final static int XLINE				= 37;
 
+	// Collectors of the entities we convert, by the name that starts them in the DXF.
+	// Looking the name up replaces testing it against each name in turn.
+	private final static HashMap COLLECTORS = new HashMap();
+	static
+	{
+		addCollector( new EntityCollector( "LINE", LINE )
+			{
+				void start( EntityProcessor ep ){ ep.svgElement = new SvgLine( ep.DxfConverterRef ); }
+				void collect( EntityProcessor ep, DxfElementPair pair ){ ep.collectEntity( (SvgLine)ep.svgElement, pair ); }
+			});
+		addCollector( new EntityCollector( "TEXT", TEXT )
+			{
+				void start( EntityProcessor ep ){ ep.svgElement = new SvgText( ep.DxfConverterRef ); }
+				void collect( EntityProcessor ep, DxfElementPair pair ){ ep.collectEntity( (SvgText)ep.svgElement, pair ); }
+			});
+		addCollector( new EntityCollector( "CIRCLE", CIRCLE )
+			{
+				void start( EntityProcessor ep ){ ep.svgElement = new SvgCircle( ep.DxfConverterRef ); }
+				void collect( EntityProcessor ep, DxfElementPair pair ){ ep.collectEntity( (SvgCircle)ep.svgElement, pair ); }
+			});
+		addCollector( new EntityCollector( "ARC", ARC )
+			{
+				void start( EntityProcessor ep ){ ep.svgElement = new SvgArc( ep.DxfConverterRef ); }
+				void collect( EntityProcessor ep, DxfElementPair pair ){ ep.collectEntity( (SvgArc)ep.svgElement, pair ); }
+			});
+		addCollector( new EntityCollector( "ELLIPSE", ELLIPSE )
+			{
+				void start( EntityProcessor ep ){ ep.svgElement = new SvgEllipse( ep.DxfConverterRef ); }
+				void collect( EntityProcessor ep, DxfElementPair pair ){ ep.collectEntity( (SvgEllipse)ep.svgElement, pair ); }
+			});
+		addCollector( new EntityCollector( "LWPOLYLINE", LWPOLYLINE )
+			{
+				void start( EntityProcessor ep ){ ep.svgElement = new SvgPolyLine( ep.DxfConverterRef ); }
+				void collect( EntityProcessor ep, DxfElementPair pair ){ ep.collectEntity( (SvgPolyLine)ep.svgElement, pair ); }
+			});
+		addCollector( new EntityCollector( "POLYLINE", POLYLINE )
+			{
+				void start( EntityProcessor ep ){ ep.svgElement = new SvgPolyLine( ep.DxfConverterRef ); }
+				void collect( EntityProcessor ep, DxfElementPair pair ){ ep.collectEntity( (SvgPolyLine)ep.svgElement, pair ); }
+			});
+		addCollector( new EntityCollector( "POINT", POINT )
+			{
+				void start( EntityProcessor ep ){ ep.svgElement = new SvgPoint( ep.DxfConverterRef ); }
+				void collect( EntityProcessor ep, DxfElementPair pair ){ ep.collectEntity( (SvgPoint)ep.svgElement, pair ); }
+			});
+		addCollector( new EntityCollector( "INSERT", INSERT )
+			{
+				void start( EntityProcessor ep ){ ep.svgElement = new SvgEntityReference( ep.DxfConverterRef ); }
+				void collect( EntityProcessor ep, DxfElementPair pair ){ ep.collectEntity( (SvgEntityReference)ep.svgElement, pair ); }
+			});
+		addCollector( new EntityCollector( "IMAGE", IMAGE )
+			{
+				void start( EntityProcessor ep ){ ep.svgElement = new SvgImage( ep.DxfConverterRef ); }
+				void collect( EntityProcessor ep, DxfElementPair pair ){ ep.collectEntity( (SvgImage)ep.svgElement, pair ); }
+			});
+		addCollector( new EntityCollector( "SOLID", SOLID )
+			{
+				void start( EntityProcessor ep ){ ep.svgElement = new SvgSolid( ep.DxfConverterRef ); }
+				void collect( EntityProcessor ep, DxfElementPair pair ){ ep.collectEntity( (SvgSolid)ep.svgElement, pair ); }
+			});
+		addCollector( new EntityCollector( "SPLINE", SPLINE )
+			{
+				void start( EntityProcessor ep ){ ep.svgElement = new SvgSpline( ep.DxfConverterRef ); }
+				void collect( EntityProcessor ep, DxfElementPair pair ){ ep.collectEntity( (SvgSpline)ep.svgElement, pair ); }
+			});
+		addCollector( new EntityCollector( "MTEXT", MTEXT )
+			{
+				void start( EntityProcessor ep ){ ep.svgElement = new SvgMultiLineText( ep.DxfConverterRef ); }
+				void collect( EntityProcessor ep, DxfElementPair pair ){ ep.collectEntity( (SvgMultiLineText)ep.svgElement, pair ); }
+			});
+		addCollector( new EntityCollector( "HATCH", HATCH )
+			{
+				void start( EntityProcessor ep ){ ep.svgElement = new SvgHatch( ep.DxfConverterRef ); }
+				void collect( EntityProcessor ep, DxfElementPair pair ){ ep.collectEntity( (SvgHatch)ep.svgElement, pair ); }
+			});
+		addCollector( new EntityCollector( "DIMENSION", DIMENSION )
+			{
+				void start( EntityProcessor ep ){ ep.svgElement = new SvgDimension( ep.DxfConverterRef ); }
+				void collect( EntityProcessor ep, DxfElementPair pair ){ ep.collectEntity( (SvgDimension)ep.svgElement, pair ); }
+			});
+		addCollector( new EntityCollector( "ATTRIB", ATTRIB )
+			{
+				void start( EntityProcessor ep ){ ep.svgElement = new SvgAttrib( ep.DxfConverterRef ); }
+				void collect( EntityProcessor ep, DxfElementPair pair ){ ep.collectEntity( (SvgAttrib)ep.svgElement, pair ); }
+			});
+		addCollector( new EntityCollector( "ATTDEF", ATTDEF )
+			{
+				void start( EntityProcessor ep ){ ep.svgAttdef = new SvgAttdef( ); }
+				void collect( EntityProcessor ep, DxfElementPair pair ){ ep.collectEntity( ep.svgAttdef, pair ); }
+			});
+	}
+
+	private static void addCollector( EntityCollector c )
+	{
+		COLLECTORS.put( c.name, c );
+	}
+
+
+
 
 	private int 				objectType;
+	private EntityCollector		collector;				// Of the object being collected.
 	private boolean 			isCollecting;
 	private boolean 			DEBUG;
+	private boolean 			COERCE_COLOUR_BY_LAYER; // From the conversion settings.
 
 	private Vector				svgEntities;
+	private SvgLayerSpool       layerSpool;               // If not null, gets entities instead of svgEntities.
 	private SvgElement	        svgElement;
 	private SvgAttdef           svgAttdef;                // Decendant of Object, not SvgElement
 	
@@ -142,13 +252,14 @@ final class EntityProcessor extends Processor
 	/** Sets <I>VERBOSE</I> mode depending on user preferences set in Dxf2Svg.*/
 	public EntityProcessor( DxfConverter dxfc, Vector svgEntities )
 	{
-		super();
+		super( dxfc );
 		isCollecting     = false;
 		isHyperLinked    = false;
 		isVertexPolyLine = false;         // is this object made up of vertexes.
 		ignoreLocationGroupCodes = false; // Ignore initial 10, 20 and 30 group codes of vertexes.
 		DEBUG            = false;
 		DxfConverterRef  = dxfc;
+		COERCE_COLOUR_BY_LAYER = dxfc.getSettings().isColourCoercedByLayer();
 		this.svgEntities = svgEntities;
 		tmpDoubleX       = 0.0;
 	}
@@ -167,6 +278,14 @@ final class EntityProcessor extends Processor
 		blockName = name;
 	}
 	
+	/** Sets the spool that finished entities are written to instead of the
+	*	entity Vector. Only used for the ENTITIES section; may be null.
+	*/
+	public void setLayerSpool( SvgLayerSpool spool )
+	{
+		layerSpool = spool;
+	}
+	
 	/** Processes each pair from the DXF file.
 	*/
 	public void process( DxfElementPair pair )
@@ -175,79 +294,7 @@ final class EntityProcessor extends Processor
 		if ( isCollecting )
 		{
 			if (DEBUG){ System.out.println( "...collecting+++"); }
-			switch ( objectType )
-			{
-			case LINE:
-				collectEntity( (SvgLine)svgElement, pair );
-				break;
-				
-			case TEXT:
-				collectEntity( (SvgText)svgElement, pair );
-				break;
-				
-			case CIRCLE:
-				collectEntity( (SvgCircle)svgElement, pair );
-				break;
-
-			case ARC:
-				collectEntity( (SvgArc)svgElement, pair );
-				break;
-				
-			case ELLIPSE:
-				collectEntity( (SvgEllipse)svgElement, pair );
-				break;	
-				
-			case LWPOLYLINE:
-				collectEntity( (SvgPolyLine)svgElement, pair );
-				break;
-				
-			case POLYLINE:
-				collectEntity( (SvgPolyLine)svgElement, pair );
-				break;
-
-			case POINT:
-				collectEntity( (SvgPoint)svgElement, pair );
-				break;
-				
-			case INSERT:
-				collectEntity( (SvgEntityReference)svgElement, pair );
-				break;
-
-			case IMAGE:
-				collectEntity( (SvgImage)svgElement, pair );
-				break;
-				
-			case SOLID:
-				collectEntity( (SvgSolid)svgElement, pair );
-				break;
-				
-			case SPLINE:
-				collectEntity( (SvgSpline)svgElement, pair );
-				break;
-				
-			case MTEXT:
-				collectEntity( (SvgMultiLineText)svgElement, pair );
-				break;
-				
-			case HATCH:
-				collectEntity( (SvgHatch)svgElement, pair );
-				break;
-			
-			case DIMENSION:
-				collectEntity( (SvgDimension)svgElement, pair );
-				break;
-				
-			case ATTRIB:
-				collectEntity( (SvgAttrib)svgElement, pair );
-				break;
-
-			case ATTDEF:
-				collectEntity( svgAttdef, pair );
-				break;
-				
-			default:
-				break;
-			}
+			collector.collect( this, pair );
 		}
 		
 		// if we are not collecting yet and we find a start of object marker
@@ -255,136 +302,27 @@ final class EntityProcessor extends Processor
 		// the type of object we want.
 		if ( pair.getCode() == 0 )
 		{
-			if ( pair.getValue().equals( "LINE" ) && isCollecting == false )
+			String type = pair.getValue();
+			EntityCollector starter = (EntityCollector)COLLECTORS.get( type );
+			if ( starter != null && isCollecting == false )
 			{
-				if ( DEBUG ){ System.out.print( "^^^^BEGIN SvgLine" ); }
-				objectType = LINE;
-				svgElement = new SvgLine( DxfConverterRef );
+				if ( DEBUG ){ System.out.print( "^^^^BEGIN " + type ); }
+				collector = starter;
+				objectType = starter.objectType;
+				starter.start( this );
 				isCollecting = true;
 			}
-			else if ( pair.getValue().equals( "TEXT" ) && isCollecting == false )
-			{
-				if ( DEBUG ){ System.out.print( "^^^^BEGIN SvgText" ); }
-				objectType = TEXT;
-				svgElement = new SvgText( DxfConverterRef );
-				isCollecting = true;				
-			}
-			else if ( pair.getValue().equals( "CIRCLE" ) && isCollecting == false )
-			{
-				if ( DEBUG ){ System.out.print( "^^^^BEGIN SvgCircle" ); }
-				objectType = CIRCLE;
-				svgElement = new SvgCircle( DxfConverterRef );
-				isCollecting = true;				
-			}
-			else if ( pair.getValue().equals( "ARC" ) && isCollecting == false )
-			{
-				if ( DEBUG ){ System.out.print( "^^^^BEGIN SvgArc" ); }
-				objectType = ARC;
-				svgElement = new SvgArc( DxfConverterRef );
-				isCollecting = true;				
-			}
-			else if ( pair.getValue().equals( "ELLIPSE" ) && isCollecting == false )
-			{
-				if ( DEBUG ){ System.out.print( "^^^^BEGIN SvgEllipse" ); }
-				objectType = ELLIPSE;
-				svgElement = new SvgEllipse( DxfConverterRef );
-				isCollecting = true;				
-			}
-			else if ( pair.getValue().equals( "LWPOLYLINE" ) && isCollecting == false )
-			{
-				//if ( DEBUG ){ System.out.print( "^^^^BEGIN SvgPolyLine" ); }
-				objectType = LWPOLYLINE;
-				svgElement = new SvgPolyLine( DxfConverterRef );
-				isCollecting = true;				
-			}
-			else if ( pair.getValue().equals( "POLYLINE" ) && isCollecting == false )
-			{
-				//if ( DEBUG ){ System.out.print( "^^^^BEGIN SvgPolyLine" ); }
-				objectType = POLYLINE;
-				svgElement = new SvgPolyLine( DxfConverterRef );
-				isCollecting = true;				
-			}
 			// here we have a slight diversion from other objects. If the 
 			// next element is a VERTEX then keep processing. Vertexes have
 			// similar information to polylines where the VERTEX is a desrete
 			// object onto itself.
-			else if ( pair.getValue().equals("VERTEX") )
+			else if ( "VERTEX".equals( type ) )
 			{
 			 	// go through and gather all the same codes but from
 				// vertexes instead of polylines. Nice that they match polyline's.
 				// Identify as vertexed polyline so we can interpret code 70.
 				isVertexPolyLine = true;
 			}
-			else if ( pair.getValue().equals( "POINT" ) && isCollecting == false )
-			{
-				if ( DEBUG ){ System.out.print( "^^^^BEGIN SvgPoint" ); }
-				objectType = POINT;
-				svgElement = new SvgPoint( DxfConverterRef );
-				isCollecting = true;				
-			}
-			else if ( pair.getValue().equals( "INSERT" ) && isCollecting == false )
-			{
-				if ( DEBUG ){ System.out.print( "^^^^BEGIN SvgEntityReference" ); }
-				objectType = INSERT;
-				svgElement = new SvgEntityReference( DxfConverterRef );
-				isCollecting = true;				
-			}
-			else if ( pair.getValue().equals( "IMAGE" ) && isCollecting == false )
-			{
-				if ( DEBUG ){ System.out.print( "^^^^BEGIN SvgImage" ); }
-				objectType = IMAGE;
-				svgElement = new SvgImage( DxfConverterRef );
-				isCollecting = true;				
-			}
-			else if ( pair.getValue().equals( "SOLID" ) && isCollecting == false )
-			{
-				if ( DEBUG ){ System.out.print( "^^^^BEGIN SvgSolid" ); }
-				objectType = SOLID;
-				svgElement = new SvgSolid( DxfConverterRef );
-				isCollecting = true;				
-			}
-			else if ( pair.getValue().equals( "SPLINE" ) && isCollecting == false )
-			{
-				if ( DEBUG ){ System.out.print( "^^^^BEGIN SvgSpline" ); }
-				objectType = SPLINE;
-				svgElement = new SvgSpline( DxfConverterRef );
-				isCollecting = true;				
-			}
-			else if ( pair.getValue().equals( "MTEXT" ) && isCollecting == false )
-			{
-				if ( DEBUG ){ System.out.print( "^^^^BEGIN SvgMultiLineText" ); }
-				objectType = MTEXT;
-				svgElement = new SvgMultiLineText( DxfConverterRef );
-				isCollecting = true;				
-			}
-			else if ( pair.getValue().equals( "HATCH" ) && isCollecting == false )
-			{
-				if ( DEBUG ){ System.out.print( "^^^^BEGIN SvgHatch" ); }
-				objectType = HATCH;
-				svgElement = new SvgHatch( DxfConverterRef );
-				isCollecting = true;				
-			}
-			else if ( pair.getValue().equals( "DIMENSION" ) && isCollecting == false )
-			{
-				if ( DEBUG ){ System.out.print( "^^^^BEGIN SvgDimension" ); }
-				objectType = DIMENSION;
-				svgElement = new SvgDimension( DxfConverterRef );
-				isCollecting = true;				
-			}
-			else if ( pair.getValue().equals( "ATTRIB" ) && isCollecting == false )
-			{
-				if ( DEBUG ){ System.out.print( "^^^^BEGIN SvgAttrib" ); }
-				objectType = ATTRIB;
-				svgElement = new SvgAttrib( DxfConverterRef );
-				isCollecting = true;				
-			}
-			else if ( pair.getValue().equals( "ATTDEF" ) && isCollecting == false )
-			{
-				if ( DEBUG ){ System.out.print( "^^^^BEGIN SvgAttribDef" ); }
-				objectType = ATTDEF;
-				svgAttdef = new SvgAttdef( );
-				isCollecting = true;				
-			} 
 			else 
 			{
 				if ( isCollecting == true )
@@ -422,14 +360,14 @@ final class EntityProcessor extends Processor
 			{
 				hLink.setLayer( svgElement.getLayer() );
 				hLink.addElement( svgElement );
-				svgEntities.add( hLink );
+				addEntity( hLink );
 				isHyperLinked = false;
 			}
 			else
 			{
 				if ( svgElement != null )
 				{
-					svgEntities.add( svgElement );
+					addEntity( svgElement );
 				}
 			}
 		}
@@ -445,6 +383,23 @@ final class EntityProcessor extends Processor
 	
 	
 	
+	// Puts a finished element on the spool if there is one or the entity Vector otherwise.
+	private void addEntity( SvgElement svge )
+	{
+		if ( layerSpool != null )
+		{
+			layerSpool.add( svge );
+		}
+		else
+		{
+			svgEntities.add( svge );
+		}
+	}
+	
+	
+	
+	
+	
 	/////////////////////////////// special case /////////////////////////////////////
 	//********************** Attribute Definition (Attdef) *************************/
 	/**
@@ -464,7 +419,7 @@ final class EntityProcessor extends Processor
 			break;
 
 		case 70: // Is the attribute visible.
-			tmpInt = Integer.parseInt( pair.getValue() );
+			tmpInt = pair.getInt();
 			// we only check to see if one is set 'cause if it is
 			// then we need to flip visibility. There may be other
 			// uninteresting flags aswell.
@@ -522,52 +477,52 @@ final class EntityProcessor extends Processor
 
 		case 10:
 			//	set this object's Anchor Point to it's value
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setX(tmpDouble);
 			break;
 
 		case 20:
 			//	set this object's Anchor Point to it's value
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setY(tmpDouble);
 			break;
 
 		//case 11:
 			//	set this object's Second alignment Point
-			//tmpDoubleX = Double.parseDouble(pair.getValue());
+			//tmpDoubleX = pair.getDouble();
 			//break;
 
 		//case 21:
 			//	set this object's Second alignment Point
-			//tmpY = Double.parseDouble(pair.getValue());
+			//tmpY = pair.getDouble();
 			//myObject.createSecondAlignmentPoint(tmpDoubleX,tmpY);
 			//break;
 
 		case 40:	// font size
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setFontSize(tmpDouble);
 			break;
 
 		case 41:	// Width factor
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setWidthFactor(tmpDouble);
 			break;
 
 		case 50:	// rotation angle
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setRotation(tmpDouble);
 			break;
 
 		case 51:	// Oblique angle
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setObliqueAngle(tmpDouble);
 			break;
 
 		case 62:
 			//	This is the colour value as integer.
-			if (DxfPreprocessor.isColourCoercedByLayer() == false)
+			if (COERCE_COLOUR_BY_LAYER == false)
 			{
-				tmpInt = Integer.parseInt(pair.getValue());
+				tmpInt = pair.getInt();
 				myObject.setFill(tmpInt);
 			}
 			break;
@@ -576,13 +531,13 @@ final class EntityProcessor extends Processor
 			// This sets the attribute flag which is a bit
 			// value that primarily, for our purposes, controls
 			// visibility.
-			tmpInt = Integer.parseInt(pair.getValue());
+			tmpInt = pair.getInt();
 			myObject.setAttributeFlag(tmpInt);
 			break;
 
 		case 72:
 			//	The justification of the text horizontally.
-			tmpInt = Integer.parseInt(pair.getValue());
+			tmpInt = pair.getInt();
 			myObject.setHorizontalJustification(tmpInt);
 			break;
 
@@ -629,18 +584,18 @@ final class EntityProcessor extends Processor
 
 		case 10:
 			//	set this object's Anchor Point to it's value
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setX(tmpDouble);
 			break;
 
 		case 20:
 			//	set this object's Anchor Point to it's value
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setY(tmpDouble);
 			break;
 
 		case 53:	// rotation.
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setRotation(tmpDouble);
 			break;
 
@@ -676,91 +631,91 @@ final class EntityProcessor extends Processor
 
 		case 10:
 			// group code 10
-			tmpDoubleX = Double.parseDouble(pair.getValue());
+			tmpDoubleX = pair.getDouble();
 			myObject.setGroupCode10(tmpDoubleX);
 			break;
 
 		case 20:
 			// group code 20
-			tmpDoubleY = Double.parseDouble(pair.getValue());
+			tmpDoubleY = pair.getDouble();
 			myObject.setGroupCode20(tmpDoubleY);
 			break;
 
 		case 11:
 			// group code 11
-			tmpDoubleX = Double.parseDouble(pair.getValue());
+			tmpDoubleX = pair.getDouble();
 			myObject.setGroupCode11(tmpDoubleX);
 			break;
 
 		case 21:
 			// group code 21
-			tmpDoubleY = Double.parseDouble(pair.getValue());
+			tmpDoubleY = pair.getDouble();
 			myObject.setGroupCode21(tmpDoubleY);
 			break;
 
 		case 40:	// Circular arc radius or length of minor axis
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setGroupCode40(tmpDouble);
 			break;
 
 		case 41:	// Scale of hatch pattern.
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setHatchPatternScale(tmpDouble);
 			break;
 
 		case 42:	// bulge in line edge or weights in spline
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setGroupCode42(tmpDouble);
 			break;
 
 		case 43:	// pattern line base point's X value
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setPatternBaseX(tmpDouble);
 			break;
 
 		case 44:	// pattern line base point's Y value
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setPatternBaseY(tmpDouble);
 			break;
 
 		case 45:	// pattern line offset point's X value
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setPatternLineOffsetX(tmpDouble);
 			break;
 
 		case 46:	// pattern line offset point's Y value
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setPatternLineOffsetY(tmpDouble);
 			break;
 
 		case 49:	// dash length (multipule entries).
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setDashLength(tmpDouble);
 			break;
 
 		case 50:	// start angle for Circ and ellip arcs
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setStartAngle(tmpDouble);
 			break;
 
 		case 51:	// end angle
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setEndAngle(tmpDouble);
 			break;
 
 		case 53:	// pattern line angle.
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setPatternLineAngle(tmpDouble);
 			break;
 
 		case 62:
 			//	This is the colour value as integer.
-			tmpInt = Integer.parseInt(pair.getValue());
+			tmpInt = pair.getInt();
 			myObject.setFill(tmpInt);
 			break;
 
 		case 70: // solid or pattern fill
-			tmpInt = Integer.parseInt(pair.getValue());
+			tmpInt = pair.getInt();
 			if (tmpInt > 0)
 				myObject.setSolidFill(true);
 			else
@@ -770,45 +725,45 @@ final class EntityProcessor extends Processor
 		case 72: // Sets edge type
 				// 0 = polyline, 1 = line, 2 = circular arc, 3 = elliptical arc
 				// 4 = spline.
-			tmpInt = Integer.parseInt(pair.getValue());
+			tmpInt = pair.getInt();
 			myObject.setEdgeType(tmpInt);
 			break;
 
 		case 73:	// Sets the 'isClosedFlag'.
-			tmpInt = Integer.parseInt(pair.getValue());
+			tmpInt = pair.getInt();
 			myObject.setGroupCode73(tmpInt);
 			break;
 
 		case 75: // Sets hatch style
 				// 0 = odd parity, 1 = outermost, 2 = hatch entire area
-			tmpInt = Integer.parseInt(pair.getValue());
+			tmpInt = pair.getInt();
 			myObject.setHatchStyle(tmpInt);
 			break;
 
 		case 79: // Number of dash length items
-			tmpInt = Integer.parseInt(pair.getValue());
+			tmpInt = pair.getInt();
 			myObject.setNumberOfDashLengthItems(tmpInt);
 			break;
 
 		case 91:	// number of loops or paths in this hatch
-			tmpInt = Integer.parseInt(pair.getValue());
+			tmpInt = pair.getInt();
 			myObject.setNumberOfPaths(tmpInt);
 			break;
 
 		case 92: // Sets number of edges or vertices (if Polyline)
 			// also trigers collection of a new boundary path.
-			tmpInt = Integer.parseInt(pair.getValue());
+			tmpInt = pair.getInt();
 			myObject.setGroupCode92(tmpInt);
 			break;
 
 		//case 93: // Sets number of edges or vertices (if Polyline)
 		//	// also trigers collection of a new boundary path.
-		//	tmpInt = Integer.parseInt(pair.getValue());
+		//	tmpInt = pair.getInt();
 		//	myObject.setGroupCode93(tmpInt);
 		//	break;
 
 		case 98: // Sets number of seed points
-			tmpInt = Integer.parseInt(pair.getValue());
+			tmpInt = pair.getInt();
 			myObject.setNumberOfSeedPoints(tmpInt);
 			break;
 			
@@ -827,7 +782,7 @@ final class EntityProcessor extends Processor
 				hLink.setXLink(pair.getValue());
 				// set xmlns:xlink switch use this abstaction so we can
 				// reuse SvgDxfHyperlink outside of the context of Dxf2Svg.
-				DxfPreprocessor.setUsesLinks(true);
+				DxfConverterRef.setUsesLinks(true);
 			}
 			break;
 			
@@ -885,64 +840,64 @@ final class EntityProcessor extends Processor
 
 		case 10:
 			//	set this object's Anchor Point to it's value
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setX(tmpDouble);
 			break;
 
 		case 20:
 			//	set this object's Anchor Point to it's value
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setY(tmpDouble);
 			break;
 
 		case 11:
 			//	set this object's rotation angle vector x
-			tmpDoubleX = Double.parseDouble(pair.getValue());
+			tmpDoubleX = pair.getDouble();
 			break;
 
 		case 21:
 			//	set this object's rotation angle vector y
-			tmpY = Double.parseDouble(pair.getValue());
+			tmpY = pair.getDouble();
 			myObject.setXAxisDirectionVector(tmpDoubleX,tmpY);
 			break;
 
 		case 40:	// font size
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setFontSize(tmpDouble);
 			break;
 
 		case 41:	// Reference rectangle width
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setMaxLineWidth(tmpDouble);
 			break;
 
 		case 42:	// Horizontal width factor of the characters.
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setWidthFactor(tmpDouble);
 			break;
 
 		case 44:	// Line spacing factor. Percentage of default.
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setLineSpacingFactor(tmpDouble);
 			break;
 
 		case 50:	// rotation angle
 			// may over write any value collected by group code
 			// 11 and 21.
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setRotation(tmpDouble);
 			break;
 
 		//case 51:	// Oblique angle (not possible in mtext)
-		//	tmpDouble = Double.parseDouble(pair.getValue());
+		//	tmpDouble = pair.getDouble();
 		//	myObject.setObliqueAngle(tmpDouble);
 		//	break;
 
 		case 62:
 			//	This is the colour value as integer.
-			if (DxfPreprocessor.isColourCoercedByLayer() == false)
+			if (COERCE_COLOUR_BY_LAYER == false)
 			{
-				tmpInt = Integer.parseInt(pair.getValue());
+				tmpInt = pair.getInt();
 				myObject.setFill(tmpInt);
 			}
 			break;
@@ -954,7 +909,7 @@ final class EntityProcessor extends Processor
 			//	" justification request, MTEXT attachment point grp"+
 			//	" code 71. Ignoring.");
 			//	Justification as integer.
-			tmpInt = Integer.parseInt(pair.getValue());
+			tmpInt = pair.getInt();
 			myObject.setJustification(tmpInt);
 			break;
 			
@@ -971,7 +926,7 @@ final class EntityProcessor extends Processor
 			if (isHyperLinked)
 			{
 				hLink.setXLink(pair.getValue());
-				DxfPreprocessor.setUsesLinks(true);
+				DxfConverterRef.setUsesLinks(true);
 			}
 			break;
 
@@ -1008,40 +963,40 @@ final class EntityProcessor extends Processor
 
 		case 10:
 			// This represents the x value of control points
-			tmpDoubleX = Double.parseDouble(pair.getValue());
+			tmpDoubleX = pair.getDouble();
 			break;
 
 		case 20:
 			// This represents the y value of control points
 			// now we pass both to the method that in turn will convert them into a Point
 			// and pack it onto the SvgSpline's Control points Vector.
-			tmpDoubleY = Double.parseDouble(pair.getValue());
+			tmpDoubleY = pair.getDouble();
 			myObject.addControlPoint(tmpDoubleX,tmpDoubleY);
 			break;
 
 		case 11:
 			// This represents the x value of fit points
-			tmpDoubleX = Double.parseDouble(pair.getValue());
+			tmpDoubleX = pair.getDouble();
 			break;
 
 		case 21:
 			// This represents the y value of fit points
 			// now we pass both to the method that in turn will convert them into a Point
 			// and pack it onto the SvgSpline's Control points Vector.
-			tmpDoubleY = Double.parseDouble(pair.getValue());
+			tmpDoubleY = pair.getDouble();
 			myObject.addFitPoint(tmpDoubleX,tmpDoubleY);
 			break;
 
 		case 48:	//	set LineTypeScale
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setLineTypeScale(tmpDouble);
 			break;
 
 		case 62:
 			//	This is the colour value as integer.
-			if (DxfPreprocessor.isColourCoercedByLayer() == false)
+			if (COERCE_COLOUR_BY_LAYER == false)
 			{
-				tmpInt = Integer.parseInt(pair.getValue());
+				tmpInt = pair.getInt();
 				myObject.setColour(tmpInt);
 			}
 			break;
@@ -1053,7 +1008,7 @@ final class EntityProcessor extends Processor
 			//	4 = Rational spline.
 			//	8 = Planar.	Generic spline.
 			//	16 = Linear (planar bit is also set).
-			tmpInt = Integer.parseInt(pair.getValue());
+			tmpInt = pair.getInt();
 			myObject.setSplineFlag(tmpInt);
 			break;
 
@@ -1097,63 +1052,63 @@ final class EntityProcessor extends Processor
 			//	set this object's Anchor Point to it's value
 			//	cast as a double.
 
-			tmpDoubleX = Double.parseDouble(pair.getValue());
+			tmpDoubleX = pair.getDouble();
 			break;
 
 		case 20:
 			//	set this object's Anchor Point to it's value
 			//	cast as a double.
 
-			tmpDoubleY = Double.parseDouble(pair.getValue());
-			// now we pass both to the method that in turn will convert them into a Point
-			// and pack it onto the PolyLinePoints Vector.
+			tmpDoubleY = pair.getDouble();
+			// now we pass both to the method that in turn will convert them to SVG space
+			// and add them to the polyline's vertices.
 			myObject.setVertex(tmpDoubleX,tmpDoubleY);
 			break;
 
 		//**************** Corner 2 ***************/
 		case 11:	// repeat for corner two
-			tmpDoubleX = Double.parseDouble(pair.getValue());
+			tmpDoubleX = pair.getDouble();
 			break;
 
 		case 21:
-			tmpDoubleY = Double.parseDouble(pair.getValue());
+			tmpDoubleY = pair.getDouble();
 			myObject.setVertex(tmpDoubleX,tmpDoubleY);
 			break;
 
 		//**************** Corner 3 ***************/
 		case 12:	// repeat for corner three
-			tmpDoubleX = Double.parseDouble(pair.getValue());
+			tmpDoubleX = pair.getDouble();
 			break;
 
 		case 22:
-			tmpDoubleY = Double.parseDouble(pair.getValue());
+			tmpDoubleY = pair.getDouble();
 			myObject.setVertex(tmpDoubleX,tmpDoubleY);
 			break;
 
 		//**************** Corner 4 ***************/
 		case 13:	// repeat for corner four
-			tmpDoubleX = Double.parseDouble(pair.getValue());
+			tmpDoubleX = pair.getDouble();
 			break;
 
 		case 23:
-			tmpDoubleY = Double.parseDouble(pair.getValue());
+			tmpDoubleY = pair.getDouble();
 			myObject.setVertex(tmpDoubleX,tmpDoubleY);
 			break;
 
 		case 48:	//	set LineTypeScale
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setLineTypeScale(tmpDouble);
 			break;
 
 		case 62:
 			//	This is the colour value as integer.
-			tmpInt = Integer.parseInt(pair.getValue());
+			tmpInt = pair.getInt();
 			myObject.setFill(tmpInt);
 			break;
 
 		case 70:
 			//	Is the object closed.
-			tmpInt = Integer.parseInt(pair.getValue());
+			tmpInt = pair.getInt();
 			myObject.setClosed(tmpInt);
 			break;
 			
@@ -1170,7 +1125,7 @@ final class EntityProcessor extends Processor
 			if (isHyperLinked)
 			{
 				hLink.setXLink(pair.getValue());
-				DxfPreprocessor.setUsesLinks(true);
+				DxfConverterRef.setUsesLinks(true);
 			}
 			break;
 			
@@ -1208,25 +1163,25 @@ final class EntityProcessor extends Processor
 
 		case 10:
 			//	set this object's Anchor Point.
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setX(tmpDouble);
 			break;
 
 		case 11:
 			//	Size of pixel horizontally (U-Vector).
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setPixelWidth(tmpDouble);
 			break;
 
 		case 22:
 			//	Size of pixel vertically (U-Vector).
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setPixelHeight(tmpDouble);
 			break;
 
 		case 20:
 			//	set this object's Anchor Point to it's Y value
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setY(tmpDouble);
 			break;
 
@@ -1234,12 +1189,12 @@ final class EntityProcessor extends Processor
 					// I convert it to int in SvgImage class
 					// because it makes no sense to have a double
 					// representation of 'number of pixels'.
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setImageWidth(tmpDouble);
 			break;
 
 		case 23:	// Image height
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setImageHeight(tmpDouble);
 			break;
 
@@ -1264,7 +1219,7 @@ final class EntityProcessor extends Processor
 			if (isHyperLinked)
 			{
 				hLink.setXLink(pair.getValue());
-				DxfPreprocessor.setUsesLinks(true);
+				DxfConverterRef.setUsesLinks(true);
 			}
 			break;
 			
@@ -1302,28 +1257,28 @@ final class EntityProcessor extends Processor
 
 		case 10:
 			//	set this object's Anchor Point to it's value
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setX(tmpDouble);
 			break;
 
 		case 20:
 			//	set this object's Anchor Point to it's value
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setY(tmpDouble);
 			break;
 
 		case 41:	// scale along x axis.
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setScaleX(tmpDouble);
 			break;
 
 		case 42:	// scale along y axis.
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setScaleY(tmpDouble);
 			break;
 
 		case 50:	// rotation.
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setRotation(tmpDouble);
 			break;
 			
@@ -1340,7 +1295,7 @@ final class EntityProcessor extends Processor
 			if (isHyperLinked)
 			{
 				hLink.setXLink(pair.getValue());
-				DxfPreprocessor.setUsesLinks(true);
+				DxfConverterRef.setUsesLinks(true);
 			}
 			break;
 			
@@ -1395,38 +1350,38 @@ final class EntityProcessor extends Processor
 
 		case 10:
 			//	set this object's Anchor Point to it's value
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setX(tmpDouble);
 			break;
 
 		case 20:
 			//	set this object's Anchor Point to it's value
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setY(tmpDouble);
 			break;
 
 		case 11:
 			// set this object's Anchor Point to it's value
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setEndPointX(tmpDouble);
 			break;
 
 		case 21:
 			// and again
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setEndPointY(tmpDouble);
 			break;
 
 		case 48:	//	set LineTypeScale
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setLineTypeScale(tmpDouble);
 			break;
 
 		case 62:
 			//	This is the colour value as integer.
-			if (DxfPreprocessor.isColourCoercedByLayer() == false)
+			if (COERCE_COLOUR_BY_LAYER == false)
 			{
-				tmpInt = Integer.parseInt(pair.getValue());
+				tmpInt = pair.getInt();
 				myObject.setColour(tmpInt);
 			}
 			break;
@@ -1444,7 +1399,7 @@ final class EntityProcessor extends Processor
 			if (isHyperLinked)
 			{
 				hLink.setXLink(pair.getValue());
-				DxfPreprocessor.setUsesLinks(true);
+				DxfConverterRef.setUsesLinks(true);
 			}
 			break;
 			
@@ -1487,65 +1442,65 @@ final class EntityProcessor extends Processor
 
 		case 10:
 			//	set this object's Anchor Point to it's value
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setX(tmpDouble);
 			break;
 
 		case 20:
 			//	set this object's Anchor Point to it's value
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setY(tmpDouble);
 			break;
 
 		//case 11:
 			//	set this object's Second alignment Point
-			//tmpDoubleX = Double.parseDouble(pair.getValue());
+			//tmpDoubleX = pair.getDouble();
 			//break;
 
 		//case 21:
 			//	set this object's Second alignment Point
-			//tmpY = Double.parseDouble(pair.getValue());
+			//tmpY = pair.getDouble();
 			//myObject.createSecondAlignmentPoint(tmpDoubleX,tmpY);
 			//break;
 
 		case 40:	// font size
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setFontSize(tmpDouble);
 			break;
 
 		case 41:	// Width factor
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setWidthFactor(tmpDouble);
 			break;
 
 		case 50:	// rotation angle
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setRotation(tmpDouble);
 			break;
 
 		case 51:	// Oblique angle
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setObliqueAngle(tmpDouble);
 			break;
 
 		case 62:
 			//	This is the colour value as integer.
-			if (DxfPreprocessor.isColourCoercedByLayer() == false)
+			if (COERCE_COLOUR_BY_LAYER == false)
 			{
-				tmpInt = Integer.parseInt(pair.getValue());
+				tmpInt = pair.getInt();
 				myObject.setFill(tmpInt);
 			}
 			break;
 
 		case 72:
 			//	The justification of the text horizontally.
-			tmpInt = Integer.parseInt(pair.getValue());
+			tmpInt = pair.getInt();
 			myObject.setHorizontalJustification(tmpInt);
 			break;
 
 		case 73:
 			//	The justification of the text horizontally.
-			tmpInt = Integer.parseInt(pair.getValue());
+			tmpInt = pair.getInt();
 			myObject.setVerticalJustification(tmpInt);
 			break;
 			
@@ -1566,7 +1521,7 @@ final class EntityProcessor extends Processor
 				hLink.setXLink(pair.getValue());
 				// set xmlns:xlink switch use this abstaction so we can
 				// reuse SvgDxfHyperlink outside of the context of Dxf2Svg.
-				DxfPreprocessor.setUsesLinks(true);
+				DxfConverterRef.setUsesLinks(true);
 			}
 			break;
 		
@@ -1608,7 +1563,7 @@ final class EntityProcessor extends Processor
 			//	set this object's Anchor Point to it's value
 			//	cast as a double.
 
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setX(tmpDouble);
 			break;
 
@@ -1616,7 +1571,7 @@ final class EntityProcessor extends Processor
 			//	set this object's Anchor Point to it's value
 			//	cast as a double.
 
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setY(tmpDouble);
 			break;
 
@@ -1655,7 +1610,7 @@ final class EntityProcessor extends Processor
 			//	set this object's Anchor Point to it's value
 			//	cast as a double.
 
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setX(tmpDouble);
 			break;
 
@@ -1663,7 +1618,7 @@ final class EntityProcessor extends Processor
 			//	set this object's Anchor Point to it's value
 			//	cast as a double.
 
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setY(tmpDouble);
 			break;
 
@@ -1671,20 +1626,20 @@ final class EntityProcessor extends Processor
 			//	set this object's Radius to it's value
 			//	cast as a double.
 
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setRadius(tmpDouble);
 			break;
 
 		case 48:	//	set LineTypeScale
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setLineTypeScale(tmpDouble);
 			break;
 
 		case 62:
 			//	This is the colour value as integer.
-			if (DxfPreprocessor.isColourCoercedByLayer() == false)
+			if (COERCE_COLOUR_BY_LAYER == false)
 			{
-				tmpInt = Integer.parseInt(pair.getValue());
+				tmpInt = pair.getInt();
 				myObject.setColour(tmpInt);
 			}
 			break;
@@ -1706,7 +1661,7 @@ final class EntityProcessor extends Processor
 				hLink.setXLink(pair.getValue());
 				// set xmlns:xlink switch use this abstaction so we can
 				// reuse SvgDxfHyperlink outside of the context of Dxf2Svg.
-				DxfPreprocessor.setUsesLinks(true);
+				DxfConverterRef.setUsesLinks(true);
 			}
 			break;
 			
@@ -1745,44 +1700,44 @@ final class EntityProcessor extends Processor
 		case 10:
 			//	set this object's Anchor Point to it's value
 			//	cast as a double.
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setX(tmpDouble);
 			break;
 
 		case 20:
 			//	set this object's Anchor Point to it's value
 			//	cast as a double.
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setY(tmpDouble);
 			break;
 
 		case 40: 	// set radius.
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setRadius(tmpDouble);
 			break;
 
 		case 48:	//	set LineTypeScale
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setLineTypeScale(tmpDouble);
 			break;
 
 		case 50:	//start angle
 
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setStartAngle(tmpDouble);
 			break;
 
 		case 51:	// End angle
 
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setEndAngle(tmpDouble);
 			break;
 
 		case 62:
 			//	This is the colour value as integer.
-			if (DxfPreprocessor.isColourCoercedByLayer() == false)
+			if (COERCE_COLOUR_BY_LAYER == false)
 			{
-				tmpInt = Integer.parseInt(pair.getValue());
+				tmpInt = pair.getInt();
 				myObject.setColour(tmpInt);
 			}
 			break;
@@ -1804,7 +1759,7 @@ final class EntityProcessor extends Processor
 				hLink.setXLink(pair.getValue());
 				// set xmlns:xlink switch use this abstaction so we can
 				// reuse SvgDxfHyperlink outside of the context of Dxf2Svg.
-				DxfPreprocessor.setUsesLinks(true);
+				DxfConverterRef.setUsesLinks(true);
 			}
 			break;
 			
@@ -1844,7 +1799,7 @@ final class EntityProcessor extends Processor
 			//	set this object's Anchor Point to it's value
 			//	cast as a double.
 
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setX(tmpDouble);
 			break;
 
@@ -1852,13 +1807,13 @@ final class EntityProcessor extends Processor
 			//	set this object's Anchor Point to it's value
 			//	cast as a double.
 
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setY(tmpDouble);
 			break;
 
 		case 11:
 
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			// these  two have to be handled since the point is relative to the center point
 			// not absolute as assumed here. Convertion done in SvgEllipse().
 			myObject.setMajorAxisEndPointXUU(tmpDouble);
@@ -1866,45 +1821,45 @@ final class EntityProcessor extends Processor
 
 		case 21:
 
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setMajorAxisEndPointYUU(tmpDouble);
 			break;
 
 		case 40:
 
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setMinorToMajorRatio(tmpDouble);
 			break;
 
 		case 41:
 
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setStartAngle(tmpDouble);
 			break;
 
 		case 42:
 
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setEndAngle(tmpDouble);
 			break;
 
 		case 48:	//	set LineTypeScale
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setLineTypeScale(tmpDouble);
 			break;
 
 		case 62:
 			//	This is the colour value as integer.
-			if (DxfPreprocessor.isColourCoercedByLayer() == false)
+			if (COERCE_COLOUR_BY_LAYER == false)
 			{
-				tmpInt = Integer.parseInt(pair.getValue());
+				tmpInt = pair.getInt();
 				myObject.setColour(tmpInt);
 			}
 			break;
 			
 		// Added October 5, 2004.
 		case 230:	// extrusion direction 'z' value.
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setZExtrusionDirectionValue(tmpDouble);
 			break;
 		// Added October 5, 2004.
@@ -1922,7 +1877,7 @@ final class EntityProcessor extends Processor
 			if (isHyperLinked)
 			{
 				hLink.setXLink(pair.getValue());
-				DxfPreprocessor.setUsesLinks(true);
+				DxfConverterRef.setUsesLinks(true);
 			}
 			break;
 			
@@ -1969,7 +1924,7 @@ final class EntityProcessor extends Processor
 			{
 				break;
 			}
-			tmpDoubleX = Double.parseDouble(pair.getValue());
+			tmpDoubleX = pair.getDouble();
 			break;
 
 		case 20:
@@ -1982,32 +1937,32 @@ final class EntityProcessor extends Processor
 				// be read.
 				break;
 			}
-			tmpDoubleY = Double.parseDouble(pair.getValue());
-			// now we pass both to the method that in turn will convert them into a Point
-			// and pack it onto the PolyLinePoints Vector.
+			tmpDoubleY = pair.getDouble();
+			// now we pass both to the method that in turn will convert them to SVG space
+			// and add them to the polyline's vertices.
 			myObject.setVertex(tmpDoubleX,tmpDoubleY);
 			break;
 
 		case 42:	// set bulge in polyline segment.
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setBulge(tmpDouble);
 			break;
 
 		case 43:	//	set line weight.
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setLineWeight(tmpDouble);
 			break;
 
 		case 48:	//	set LineTypeScale
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setLineTypeScale(tmpDouble);
 			break;
 
 		case 62:
 			//	This is the colour value as integer.
-			if (DxfPreprocessor.isColourCoercedByLayer() == false)
+			if (COERCE_COLOUR_BY_LAYER == false)
 			{
-				tmpInt = Integer.parseInt(pair.getValue());
+				tmpInt = pair.getInt();
 				myObject.setColour(tmpInt);
 			}
 			break;
@@ -2020,7 +1975,7 @@ final class EntityProcessor extends Processor
 
 		case 70:
 			//	Layers are all sorts of names and not just numbers.
-			tmpInt = Integer.parseInt(pair.getValue());
+			tmpInt = pair.getInt();
 			if(isVertexPolyLine)
 			{
 				// what happens now?
@@ -2044,7 +1999,7 @@ final class EntityProcessor extends Processor
 			if (isHyperLinked)
 			{
 				hLink.setXLink(pair.getValue());
-				DxfPreprocessor.setUsesLinks(true);
+				DxfConverterRef.setUsesLinks(true);
 			}
 			break;
 			
@@ -2076,26 +2031,26 @@ final class EntityProcessor extends Processor
 
 		case 10:
 			//	set this object's Anchor Point to it's value
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setX(tmpDouble);
 			break;
 
 		case 20:
 			//	set this object's Anchor Point to it's value
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setY(tmpDouble);
 			break;
 
 		case 48:	//	set LineTypeScale
-			tmpDouble = Double.parseDouble(pair.getValue());
+			tmpDouble = pair.getDouble();
 			myObject.setLineTypeScale(tmpDouble);
 			break;
 
 		case 62:
 			//	This is the colour value as integer.
-			if (DxfPreprocessor.isColourCoercedByLayer() == false)
+			if (COERCE_COLOUR_BY_LAYER == false)
 			{
-				tmpInt = Integer.parseInt(pair.getValue());
+				tmpInt = pair.getInt();
 				myObject.setColour(tmpInt);
 			}
 			break;
@@ -2113,7 +2068,7 @@ final class EntityProcessor extends Processor
 			if (isHyperLinked)
 			{
 				hLink.setXLink(pair.getValue());
-				DxfPreprocessor.setUsesLinks(true);
+				DxfConverterRef.setUsesLinks(true);
 			}
 			break;
 			
@@ -2124,4 +2079,27 @@ final class EntityProcessor extends Processor
 
 	} // end SvgPoint
 	
+	
+	
+	
+	/** Starts and fills one type of entity. There is one of these for each type
+	*	of entity the EntityProcessor converts; they hold no state of their own.
+	*/
+	private abstract static class EntityCollector
+	{
+		private final String name;		// Name of the entity in the DXF.
+		private final int objectType;	// One of the EntityProcessor constants.
+		
+		EntityCollector( String name, int objectType )
+		{
+			this.name = name;
+			this.objectType = objectType;
+		}
+		
+		/** Creates the object this entity is converted to. */
+		abstract void start( EntityProcessor ep );
+		
+		/** Adds the pair's data to the object being collected. */
+		abstract void collect( EntityProcessor ep, DxfElementPair pair );
+	}
 } // EOF EntityProcessor
\ No newline at end of file
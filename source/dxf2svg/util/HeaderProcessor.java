@@ -21,6 +21,10 @@
 **				preparation for Thread safty.
 **				2.00 - April 16, 2005 Modified to accomodate new parser functionality
 **				and elimination of DxfElementPair as fly weight.
+**				2.01 - October 17, 2026 Numeric values are read with getDouble()
+**				and getInt().
+**				2.02 - October 17, 2026 $JOINSTYLE is kept for this drawing, see
+**				getLineJoin(), instead of setting the line join of every Pen.
 **
 **	TODO:
 **
@@ -28,6 +32,8 @@
 
 package dxf2svg.util;
 
+import dxf2svg.DxfConverter;
+
 /**
 *	This class reads the container (Vector) of variables from the DXF header
 *	and populates variables that will be useful for generating the SVG.
@@ -54,15 +60,17 @@ final class HeaderProcessor extends Processor
 	private double	LimitsMinX;		// X drawing Limits lower-left corner
 	private double	LimitsMinY;		// Y drawing Limits lower-left corner
 	private double	LtScale;		// $LTSCALE Global Linetype scale.  
+	private int		LineJoin;		// $JOINSTYLE as a Pen line join, Pen.DEFAULT if not set.
 	
 
 	/**
-	*	Default constructor just sets the VERBOSE mode for activity logging.
+	*	Constructor just sets the VERBOSE mode for activity logging.
 	*/
-	public HeaderProcessor()
+	public HeaderProcessor( DxfConverter dxfc )
 	{
-		super();
+		super( dxfc );
 		currentVarState = S_NONE;
+		LineJoin = Pen.DEFAULT;
 	}
 
 
@@ -102,11 +110,11 @@ final class HeaderProcessor extends Processor
 		{
 			if ( currentVarState == S_LMAX )
 			{
-				LimitsMaxX = Double.parseDouble( pair.getValue() );
+				LimitsMaxX = pair.getDouble();
 			}
 			else if ( currentVarState == S_LMIN )
 			{
-				LimitsMinX = Double.parseDouble( pair.getValue() );
+				LimitsMinX = pair.getDouble();
 			}
 		}
 		
@@ -114,12 +122,12 @@ final class HeaderProcessor extends Processor
 		{
 			if ( currentVarState == S_LMAX )
 			{
-				LimitsMaxY = Double.parseDouble( pair.getValue() );
+				LimitsMaxY = pair.getDouble();
 				currentVarState = S_NONE;
 			}
 			else if ( currentVarState == S_LMIN )
 			{
-				LimitsMinY = Double.parseDouble( pair.getValue() );
+				LimitsMinY = pair.getDouble();
 				currentVarState = S_NONE;
 			}
 		}
@@ -128,7 +136,7 @@ final class HeaderProcessor extends Processor
 		{		
 			if ( currentVarState == S_SCALE )
 			{
-				LtScale = Double.parseDouble( pair.getValue() );
+				LtScale = pair.getDouble();
 				currentVarState = S_NONE;
 			}
 		}
@@ -137,19 +145,19 @@ final class HeaderProcessor extends Processor
 		{		
 			if ( currentVarState == S_JOIN )
 			{
-				int myInt = Integer.parseInt( pair.getValue() );
+				int myInt = pair.getInt();
 				switch ( myInt )
 				{
 				case 1:	// round
-					Pen.setLineJoinType(Pen.LINEJOIN_ROUND);
+					LineJoin = Pen.LINEJOIN_ROUND;
 					break;
 					
 				case 2:	// angle
-					Pen.setLineJoinType(Pen.LINEJOIN_MITER);
+					LineJoin = Pen.LINEJOIN_MITER;
 					break;
 					
 				case 3:	// flat
-					Pen.setLineJoinType(Pen.LINEJOIN_BEVEL);
+					LineJoin = Pen.LINEJOIN_BEVEL;
 					break;
 						
 				default:
@@ -175,6 +183,12 @@ final class HeaderProcessor extends Processor
 	public final double getLtScale()
 	{	return LtScale;	}
 
+	/** Returns the line join $JOINSTYLE asks for, or {@link Pen#DEFAULT} if
+	*	it doesn't ask for one.
+	*/
+	public final int getLineJoin()
+	{	return LineJoin;	}
+
 
 	/** The X value drawing limits lower-left corner in WCS.
 	*
@@ -17,6 +17,11 @@
 **	Version:	0.01 - March 20, 2003
 **				0.02 - February 10, 2005 Updated @param tag with parameter name to 
 **				correct error with Javadoc 1.4.2-04.
+**				0.03 - October 17, 2026 The line cap and join set from the command
+**				line are defaults; toString(int, int) writes a pen with the cap and
+**				join of a particular conversion.
+**				0.04 - October 17, 2026 toString(SvgUtil) replaces toString(int, int)
+**				and takes the colour from the conversion's settings as well.
 **
 **	TODO:
 **
@@ -72,8 +77,8 @@ public final class Pen implements Cloneable
 	public final static int DEFAULT			= 0;	
 		
 		
-	private static int lineCap 	= DEFAULT;	// Type of line cap (square, butt, round)
-	private static int lineJoin = DEFAULT;	// Type of line intersection join type.
+	private static int lineCap 	= DEFAULT;	// Default type of line cap (square, butt, round)
+	private static int lineJoin = DEFAULT;	// Default type of line intersection join type.
 
 
 
@@ -258,15 +263,33 @@ public final class Pen implements Cloneable
 	/**	Returns a string version of the Pen object in the following
 	*	convienent form:
 	*	<P>
-	*	<CODE>"stroke:#000000;stroke-width:0.007in;visibility: ... "</CODE>.
+	*	<CODE>"stroke:#000000;stroke-width:0.007in;visibility: ... "</CODE>
+	*	<P>
+	*	with the default line cap and join.
 	*/
 	public String toString()
+	{
+		return toString(DxfPreprocessor.getColour(penColour), lineCap, lineJoin);
+	}
+	
+	/**	Returns a string version of the Pen object as {@link #toString()} does
+	*	but with the colour, line cap and line join of the argument conversion.
+	*/
+	public String toString(SvgUtil svgUtil)
+	{
+		return toString(svgUtil.getSettings().getColour(penColour), 
+			svgUtil.getLineCap(), svgUtil.getLineJoin());
+	}
+	
+	// Writes the pen with the argument colour, line cap and line join, which
+	// may be DEFAULT.
+	private String toString(String colour, int cap, int join)
 	{
 		StringBuffer outBuff = new StringBuffer();
 		
 		// Looks like:
 		// "stroke:#000000;stroke-width:0.007in;"
-		outBuff.append("stroke:"+DxfPreprocessor.getColour(penColour)+";");
+		outBuff.append("stroke:"+colour+";");
 		outBuff.append("stroke-width:"+String.valueOf(lineWeight)+"in;");
 		
 		// Add the line type if it isn't continuous
@@ -279,16 +302,16 @@ public final class Pen implements Cloneable
 			outBuff.append("visibility:hidden;");
 			
 		// add the join type and line end type if set.
-		if (lineCap != DEFAULT)
+		if (cap != DEFAULT)
 		{
 			outBuff.append("stroke-linecap:");
-			outBuff.append(getLineCapType());
+			outBuff.append(getLineCapType(cap));
 			outBuff.append(";");
 		}
-		if (lineJoin != DEFAULT)
+		if (join != DEFAULT)
 		{
 			outBuff.append("stroke-linejoin:");
-			outBuff.append(getLineJoinType());
+			outBuff.append(getLineJoinType(join));
 			outBuff.append(";");
 		}
 		
@@ -342,7 +365,8 @@ public final class Pen implements Cloneable
 	*	<LI> {@link #LINEJOIN_BEVEL}
 	*	<LI> {@link #DEFAULT} uses the viewer's default value for line joins.
 	*</UL>
-	*	<P>All pens for all drawings inherit this value.
+	*	<P>This is the default for all drawings. A drawing whose $JOINSTYLE is
+	*	set uses that instead; see {@link SvgUtil#getLineJoin}.
 	*/
 	public static void setLineJoinType(int joinType)
 	{	
@@ -372,7 +396,7 @@ public final class Pen implements Cloneable
 	*	<LI> {@link #LINECAP_ROUND}
 	*	<LI> {@link #DEFAULT} uses the viewer's default value for line caps.
 	*</UL>
-	*	<P>All pens in all drawings will inherit this value.
+	*	<P>This is the default for all drawings.
 	*/	
 	public static void setLineCapType(int capType)
 	{	
@@ -403,7 +427,14 @@ public final class Pen implements Cloneable
 	*/
 	public static String getLineCapType()
 	{	
-		switch (lineCap)
+		return getLineCapType(lineCap);
+	}
+	
+	/** Returns a string value of the argument line cap type.
+	*/
+	public static String getLineCapType(int cap)
+	{	
+		switch (cap)
 		{
 			case LINECAP_SQUARE:
 				return "square";
@@ -424,7 +455,14 @@ public final class Pen implements Cloneable
 	*/
 	public static String getLineJoinType()
 	{	
-		switch (lineJoin)
+		return getLineJoinType(lineJoin);
+	}
+	
+	/** Returns a string value of the argument line join type.
+	*/
+	public static String getLineJoinType(int join)
+	{	
+		switch (join)
 		{
 			case LINEJOIN_ROUND:
 				return "round";
@@ -435,6 +473,16 @@ public final class Pen implements Cloneable
 		}
 	}
 	
+	/** Returns the default line cap, one of the LINECAP_ values or {@link #DEFAULT}.
+	*/
+	public static int getDefaultLineCap()
+	{	return lineCap;	}
+	
+	/** Returns the default line join, one of the LINEJOIN_ values or {@link #DEFAULT}.
+	*/
+	public static int getDefaultLineJoin()
+	{	return lineJoin;	}
+	
 	
 	///////////////////////////////////////////////////////////////////////
 	//					Enclosed Class(es)
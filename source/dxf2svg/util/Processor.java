@@ -22,6 +22,9 @@
 **				1.0  - April 15, 2005 added process( DxfElementPair pair ).
 **				2.0  - April 22, 2005 Reworked the Processors for flyweight implemenation
 **				of DxfElementPair.
+**				2.01 - October 17, 2026 VERBOSE is an instance field set from the
+**				settings of the conversion context, not a static every constructor
+**				assigns.
 **
 **	TODO:
 **
@@ -29,7 +32,6 @@
 
 package dxf2svg.util;
 
-import dxf2svg.DxfPreprocessor;
 import dxf2svg.DxfConverter;
 
 /**
@@ -45,15 +47,16 @@ import dxf2svg.DxfConverter;
 */
 abstract class Processor
 {
-	protected static boolean VERBOSE = false;// Verbosity
+	protected boolean VERBOSE;				// Verbosity
 	protected DxfConverter DxfConverterRef; // Reference to the conversion context.
 
-	/** Sets <I>VERBOSE</I> mode depending on user preferences set in Dxf2Svg,
-	*	instantiates various insundry variables.
+	/** Sets <I>VERBOSE</I> mode from the settings of the argument conversion
+	*	context and keeps a reference to it.
 	*/
-	public Processor()
+	public Processor( DxfConverter dxfc )
 	{
-		VERBOSE = DxfPreprocessor.verboseMode();
+		DxfConverterRef = dxfc;
+		VERBOSE = dxfc.getSettings().verboseMode();
 	}
 
 	
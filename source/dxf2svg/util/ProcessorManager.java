@@ -15,6 +15,11 @@
 **				(build 1.4.0_01-b03)
 **
 **	Version:	0.01 - April 14, 2005
+**				0.02 - October 17, 2026 The EntityProcessor is handed the conversion's
+**				SvgLayerSpool, if there is one.
+**				0.03 - October 17, 2026 The DxfObjectProcessor fills a DxfObjectTable.
+**				0.04 - October 17, 2026 Hashes the HEADER limits and TABLES section
+**				for the keys of the conversion's BlockCache, if there is one.
 **
 **	TODO:
 **
@@ -25,6 +30,7 @@ package dxf2svg.util;
 import dxf2svg.DxfConverter;
 import dxf2svg.StyleSheetGenerator;
 import java.util.Vector;
+import java.security.MessageDigest;	// for the BlockCache keys.
 
 
 /** This object manages the various processors switching states as the Dxf file
@@ -40,15 +46,19 @@ public final class ProcessorManager
 	private DxfConverter conversionContext;  // DxfConverterRef in all other files.
 	private SvgUtil svgUtil;                 // Singleton instance of this object.
 	private StyleSheetGenerator SSG;         // Singleton instance of this object.
-	private Vector svgObjects;               // Destination of SvgOjbects
+	private DxfObjectTable svgObjects;       // Destination of SvgOjbects, by handle
 	private Vector svgEntities;              // Destination of SvgEntities
 	private Vector svgBlocks;                // Destination of SvgBlocks
+	private BlockCache blockCache;           // Shared blocks or null if not cached.
+	private boolean isHashingHandles;        // Handles are part of the block keys.
+	private MessageDigest tableDigest;       // Hash of the header and tables so far.
+	private String tableKey;                 // tableDigest once the tables are read.
 	
 	
 	/** Constructor */
 	public ProcessorManager( 
 		DxfConverter dxfc, 
-		Vector svgObjects, 
+		DxfObjectTable svgObjects, 
 		Vector svgEntities, 
 		Vector svgBlocks
 	)
@@ -58,6 +68,13 @@ public final class ProcessorManager
 		this.svgObjects 	= svgObjects;
 		this.svgEntities 	= svgEntities;
 		this.svgBlocks      = svgBlocks;
+		blockCache          = dxfc.getBlockCache();
+		if ( blockCache != null )
+		{
+			// Handles are only written in debug mode.
+			isHashingHandles = dxfc.getSettings().debugMode();
+			tableDigest      = BlockCache.newDigest();
+		}
 	}
 	
 	
@@ -65,10 +82,26 @@ public final class ProcessorManager
 	*/
 	public void setDxfElementPair( DxfElementPair pair )
 	{
+		// The blocks' SVG depends on the layers, line types and styles.
+		if ( tableDigest != null && processor instanceof TableProcessor )
+		{
+			if ( isHashingHandles || ! BlockCache.isHandle( pair.getCode() ) )
+			{
+				BlockCache.update( tableDigest, pair.getCode(), pair.getValue() );
+			}
+		}
 		processor.process( pair );
 	}
 	
 	
+	/** Returns the conversion context this manager is processing for.
+	*/
+	public DxfConverter getDxfConverter()
+	{
+		return conversionContext;
+	}
+	
+	
 	/** Creates and return an instance of the SvgUtil.
 	*/
 	public SvgUtil getSvgUtilInstance()
@@ -100,8 +133,17 @@ public final class ProcessorManager
 			double maxX  = ((HeaderProcessor)processor).getLimitsMaxX();
 			double maxY  = ((HeaderProcessor)processor).getLimitsMaxY();
 			double scale = ((HeaderProcessor)processor).getLtScale();
-			svgUtil = new SvgUtil( minX, minY, maxX, maxY, scale );
+			int join     = ((HeaderProcessor)processor).getLineJoin();
+			svgUtil = new SvgUtil( minX, minY, maxX, maxY, scale, join, conversionContext.getSettings() );
 			conversionContext.setSvgUtility( svgUtil );			
+			if ( tableDigest != null )
+			{
+				BlockCache.update( tableDigest, 10, String.valueOf( minX ) );
+				BlockCache.update( tableDigest, 20, String.valueOf( minY ) );
+				BlockCache.update( tableDigest, 11, String.valueOf( maxX ) );
+				BlockCache.update( tableDigest, 21, String.valueOf( maxY ) );
+				BlockCache.update( tableDigest, 40, String.valueOf( scale ) );
+			}
 		}
 		else if ( processor instanceof TableProcessor )
 		{
@@ -121,7 +163,7 @@ public final class ProcessorManager
 		switch ( section )
 		{
 		case DxfParser.HEADER:
-			processor = new HeaderProcessor();
+			processor = new HeaderProcessor( conversionContext );
 			break;
 			
 		case DxfParser.CLASSES:
@@ -132,11 +174,22 @@ public final class ProcessorManager
 			break;
 			
 		case DxfParser.BLOCKS:
-			processor = new BlockProcessor( conversionContext, svgBlocks );
+			BlockProcessor blockProcessor = new BlockProcessor( conversionContext, svgBlocks );
+			if ( blockCache != null )
+			{
+				if ( tableKey == null )
+				{
+					tableKey = BlockCache.toKey( tableDigest );
+				}
+				blockProcessor.setBlockCache( blockCache, tableKey, isHashingHandles );
+			}
+			processor = blockProcessor;
 			break;
 			
 		case DxfParser.ENTITIES:
-			processor = new EntityProcessor( conversionContext, svgEntities );
+			EntityProcessor entityProcessor = new EntityProcessor( conversionContext, svgEntities );
+			entityProcessor.setLayerSpool( conversionContext.getLayerSpool() );
+			processor = entityProcessor;
 			break;
 			
 		case DxfParser.OBJECTS:
@@ -0,0 +1,294 @@
+/****************************************************************************
+**
+**	FileName:	SvgNumberFormat.java
+**
+**	Project:	Dxf2Svg
+**
+**	Purpose:	Trims doubles to the output precision and writes them as
+**				text without going through Double.toString().
+**
+**	Date:		October 17, 2026
+**
+**	Author:		Andrew Nisbet
+**
+**	Environment:Java(TM) 2 Runtime Environment, Standard Edition
+**				(build 1.5.0)
+**
+**	Version:	1.00 - October 17, 2026
+**				1.01 - October 17, 2026 Numbers trimmed to 0.0 are appended
+**				without looking up the precision, which can be more than 15.
+**
+**	TODO:
+**
+*****************************************************************************/
+
+package dxf2svg.util;
+
+import java.io.IOException;
+
+/**	This class does what {@link SvgUtil#trimDouble} always has, truncating a
+*	number to the precision set with the '-p' switch, but with arithmetic instead
+*	of converting the number to a String, cutting it and parsing it again. It can
+*	also write the trimmed number to a StringBuffer or any other Appendable as the
+*	same characters that <code>String.valueOf()</code> would give, without making
+*	a String of it first.
+*	<P>
+*	The results are the same as the old method in every case, including its
+*	odd ones:
+*	<UL>
+*	<LI> Numbers smaller than the trim threshold become 0.0 (positive zero).
+*	<LI> NaN and Infinity are returned unchanged.
+*	<LI> Numbers that are printed with an exponent (smaller than 0.001 or
+*	10,000,000 and larger) are truncated on the text of the mantissa, so they
+*	are still trimmed the old way.
+*	<LI> A number truncated to zero keeps its sign, so -0.001 at two places is -0.0.
+*	</UL>
+*	Numbers that lie so close to a truncation boundary that the arithmetic can't
+*	tell which side of it the printed number falls on are also trimmed the old way.
+*	<P>
+*	An instance reuses a character buffer so it must not be shared between threads;
+*	each conversion's {@link SvgUtil} has its own.
+*
+*	@version 	1.01 - October 17, 2026
+*	@author		Andrew Nisbet
+*/
+public final class SvgNumberFormat
+{
+	// Largest precision handled by arithmetic; 10^15 and its multiples are exact.
+	private final static int MAX_PRECISION = 15;
+	private final static double[] POWERS = new double[MAX_PRECISION + 1];
+	private final static double[] THRESHOLDS = new double[MAX_PRECISION + 1];
+	static
+	{
+		for (int i = 0; i <= MAX_PRECISION; i++)
+		{
+			POWERS[i] = Math.pow(10, i);
+			// Same expression the old trimDouble(double, int) used.
+			THRESHOLDS[i] = Math.pow(10, -(i + 1));
+		}
+	}
+	// Double.toString() uses an exponent outside this range.
+	private final static double MIN_PLAIN = 1.0e-3;
+	private final static double MAX_PLAIN = 1.0e7;
+	// Largest scaled value whose fraction can be trusted.
+	private final static double MAX_SCALED = 1.0e15;
+
+	private final int precision;			// Decimal places.
+	private final double trimThreshold;		// Smaller numbers become 0.0.
+	private final char[] digits;			// Reused by append().
+	private double formatted;				// Value last written to digits.
+
+	/** Creates a formatter that trims to the argument precision.
+	*	@param precision number of decimal places.
+	*	@param trimThreshold numbers whose magnitude is smaller than this are trimmed to 0.0.
+	*/
+	public SvgNumberFormat(int precision, double trimThreshold)
+	{
+		this.precision		= precision;
+		this.trimThreshold	= trimThreshold;
+		digits				= new char[40];
+	}
+
+	/** Returns the number of decimal places numbers are trimmed to.
+	*/
+	public int getPrecision()
+	{	return precision;	}
+
+	/** Trims the argument to this formatter's precision.
+	*	@param value number to trim.
+	*	@return trimmed value.
+	*/
+	public double trim(double value)
+	{
+		return trim(value, precision, trimThreshold);
+	}
+
+	/** Trims the argument to an arbitrary precision with the threshold
+	*	10<SUP>-(precision + 1)</SUP>, as {@link SvgUtil#trimDouble(double, int)} does.
+	*	@param value number to trim.
+	*	@param precision number of decimal places.
+	*	@return trimmed value.
+	*/
+	public static double trim(double value, int precision)
+	{
+		double threshold;
+		if (precision >= 0 && precision <= MAX_PRECISION)
+			threshold = THRESHOLDS[precision];
+		else
+			threshold = Math.pow(10, -(precision + 1));
+		return trim(value, precision, threshold);
+	}
+
+	// Does the trimming for both kinds of trim().
+	private static double trim(double value, int precision, double threshold)
+	{
+		// catch any extremely small numbers like -4.27E-23
+		if (Math.abs(value) < threshold)
+			return 0.0;
+		// catch anything that is trying to trim Infinity or NaN.
+		if (Double.isNaN(value) || Double.isInfinite(value))
+			return value;
+
+		long scaled = getScaled(value, precision);
+		if (scaled < 0L)
+			return trimText(value, precision);
+
+		double result = scaled / POWERS[precision];
+		return (value < 0.0) ? -result : result;
+	}
+
+	// Returns the magnitude of the argument truncated to the precision and
+	// multiplied by 10^precision, or -1 if it has to be trimmed the old way.
+	// The argument must be finite.
+	private static long getScaled(double value, int precision)
+	{
+		if (precision < 0 || precision > MAX_PRECISION)
+			return -1L;
+		double magnitude = Math.abs(value);
+		if (magnitude < MIN_PLAIN || magnitude >= MAX_PLAIN)
+			return -1L;
+		double power = POWERS[precision];
+		double scaled = magnitude * power;
+		if (scaled >= MAX_SCALED)
+			return -1L;
+
+		long whole = (long)scaled;
+		double fraction = scaled - whole;
+		// The printed number is within half an ulp of the value, so unless the
+		// scaled value is within a few ulps of a whole number, it truncates to
+		// the same digits as the value does.
+		double margin = Math.ulp(scaled) * 4.0;
+		if (fraction > margin && fraction < 1.0 - margin)
+			return whole;
+
+		// Close to a whole number; it might be one.
+		if (whole / power == magnitude)
+			return whole;
+		if ((whole + 1) / power == magnitude)
+			return whole + 1;
+		return -1L;
+	}
+
+	// The original trimDouble(), for the numbers arithmetic can't do.
+	private static double trimText(double value, int precision)
+	{
+		String DblStr = Double.toString(value);
+		int index = DblStr.indexOf('.');
+		try
+		{
+			return Double.parseDouble(DblStr.substring(0,(index + precision + 1)));
+		}
+		catch (StringIndexOutOfBoundsException e)
+		{
+			// user asked for more dec places than there are so return
+			// what ever we can.
+			return value;
+		}
+	}
+
+	/** Trims the argument and appends it to the StringBuffer as
+	*	<code>String.valueOf(trim(value))</code> would.
+	*	@param sb buffer to append to.
+	*	@param value number to trim and append.
+	*	@return the trimmed value.
+	*/
+	public double append(StringBuffer sb, double value)
+	{
+		int length = format(value);
+		if (length < 0)
+		{
+			double result = trim(value);
+			sb.append(result);
+			return result;
+		}
+		sb.append(digits, 0, length);
+		return formatted;
+	}
+
+	/** Trims the argument and appends it to the Appendable as
+	*	<code>String.valueOf(trim(value))</code> would.
+	*	@param out where to append the number.
+	*	@param value number to trim and append.
+	*	@return the trimmed value.
+	*	@throws IOException if the Appendable does.
+	*/
+	public double append(Appendable out, double value) throws IOException
+	{
+		int length = format(value);
+		if (length < 0)
+		{
+			double result = trim(value);
+			out.append(String.valueOf(result));
+			return result;
+		}
+		for (int i = 0; i < length; i++)
+			out.append(digits[i]);
+		return formatted;
+	}
+
+	// Trims the argument with arithmetic, leaving the result in formatted and
+	// its characters at the start of digits. Returns the number of characters,
+	// or -1 if the argument has to be trimmed and converted the old way.
+	private int format(double value)
+	{
+		long scaled;
+		if (Math.abs(value) < trimThreshold)
+		{
+			// Written here; writeDigits() only knows the precisions in POWERS.
+			formatted = 0.0;
+			digits[0] = '0';
+			digits[1] = '.';
+			digits[2] = '0';
+			return 3;
+		}
+		if (Double.isNaN(value) || Double.isInfinite(value))
+			return -1;
+		scaled = getScaled(value, precision);
+		if (scaled < 0L)
+			return -1;
+
+		boolean negative = value < 0.0;
+		formatted = scaled / POWERS[precision];
+		if (negative)
+			formatted = -formatted;
+		return writeDigits(scaled, negative);
+	}
+
+	// Writes the number scaled / 10^precision into digits as a double prints:
+	// with as few fraction digits as it needs but at least one.
+	private int writeDigits(long scaled, boolean negative)
+	{
+		long unit = (long)POWERS[precision];
+		long whole = scaled / unit;
+		long fraction = scaled % unit;
+		int places = precision;
+		while (places > 1 && fraction % 10L == 0L)
+		{
+			fraction /= 10L;
+			places--;
+		}
+		if (places == 0)
+			places = 1;
+
+		int end = digits.length;
+		int i = end;
+		for (int p = 0; p < places; p++)
+		{
+			digits[--i] = (char)('0' + (fraction % 10L));
+			fraction /= 10L;
+		}
+		digits[--i] = '.';
+		do
+		{
+			digits[--i] = (char)('0' + (whole % 10L));
+			whole /= 10L;
+		}
+		while (whole > 0L);
+		if (negative)
+			digits[--i] = '-';
+
+		int length = end - i;
+		System.arraycopy(digits, i, digits, 0, length);
+		return length;
+	}
+}
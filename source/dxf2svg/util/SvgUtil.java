@@ -30,6 +30,16 @@
 **				correct error with Javadoc 1.4.2-04.
 **				2.0 - April 20, 2005 Implemented new constructor to take min/max width 
 **				and height sizes instead of the DxfConverter object.
+**				2.1 - October 17, 2026 Made the limits frame an instance field so
+**				drawings converted concurrently do not share each other's limits.
+**				2.2 - October 17, 2026 Constructor takes the ConversionSettings and
+**				trimDouble() reads the precision from a final field.
+**				2.3 - October 17, 2026 trimDouble() uses SvgNumberFormat, which
+**				is available to write trimmed numbers with getNumberFormat().
+**				2.4 - October 17, 2026 Added getSettings().
+**				2.5 - October 17, 2026 Keeps the drawing's $JOINSTYLE; added
+**				getLineCap() and getLineJoin(). USR_UNITS and POINT_UNITS are
+**				instance fields since each conversion sets them.
 **
 **	TODO:
 **
@@ -48,18 +58,23 @@ import dxf2svg.svg.*;			// Point.
 *	It also provides controls sizing of Svg output files by determining
 *	screen size and optimum page sizing in the default view.
 *
-*	@version	2.0 - April 20, 2005
+*	@version	2.5 - October 17, 2026
 *	@author		Andrew Nisbet
 */
 public final class SvgUtil
 {
-	private int Precision;				// get value from Dxf2Svg class
+	private final int Precision;		// get value from the conversion settings
+	private final double trimThreshold;	// values smaller than this trim to 0.0
+	private final SvgNumberFormat numberFormat;	// trims and writes numbers at Precision.
+	private final boolean VERBOSE;		// verbose mode.
+	private final ConversionSettings settings;	// of the conversion context.
 	
 	private double limitsMinX;
 	private double limitsMinY;
 	private double limitsMaxX;
 	private double limitsMaxY;
 	private double lineTypeScale;
+	private int lineJoin;				// Line join from $JOINSTYLE, or Pen.DEFAULT.
 	
 	private double classVersion = 1.05; // version number of this class
 	/**
@@ -72,8 +87,8 @@ public final class SvgUtil
 	*	We also need to account for the unusual prospect of the drawing
 	*	being drawn in metric. If that is the case convert it to inches.
 	*/
-	private static double USR_UNITS = 68.571429;	// Pixels per inch.
-	private static double POINT_UNITS = 72 / USR_UNITS; // Points per pixels.
+	private double USR_UNITS = 68.571429;	// Pixels per inch.
+	private double POINT_UNITS = 72 / USR_UNITS; // Points per pixels.
 	private static double ILLUSTRATION_HEIGHT = 8.75; // height of AG1P in inches
 	private Toolkit tk;				// Toolkit for getting the screen dimensions
 	private Dimension ScreenDim;	// Screen dimension.
@@ -85,7 +100,7 @@ public final class SvgUtil
 	private int Resolution;			// target screen resolution.
 	private int embedImageWidth;	// Max viewport for embedded Svg in HTML
 	private int embedImageHeight;	// Max viewport for embedded Svg in HTML
-	private static LimitsFrame frame;// Frame of the Limits of the DXF file.
+	private LimitsFrame frame;		// Frame of the Limits of the DXF file.
 
 	// Constructor
 	/**
@@ -100,20 +115,29 @@ public final class SvgUtil
 	*	@param maxX Minimum x value of the drawing's limits.
 	*	@param maxY Minimum y value of the drawing's limits.
 	*	@param scale Line type scale.
+	*	@param lineJoin Pen line join from $JOINSTYLE, or Pen.DEFAULT if it isn't set.
+	*	@param settings switch settings of the conversion context.
 	*/
-	public SvgUtil(double minX, double minY, double maxX, double maxY, double scale)
+	public SvgUtil(double minX, double minY, double maxX, double maxY, double scale,
+		int lineJoin, ConversionSettings settings)
 	{
+		this.settings = settings;
+		Precision = settings.getPrecision();
+		trimThreshold = settings.getTrimThreshold();
+		numberFormat = new SvgNumberFormat(Precision, trimThreshold);
+		VERBOSE = settings.verboseMode();
 		limitsMinX = minX;
 		limitsMinY = minY;
 		limitsMaxX = maxX;
 		limitsMaxY = maxY;
 		
 		lineTypeScale = scale;
+		this.lineJoin = lineJoin;
 		
 		// Now we calculate the size of the svg graphic dynamically.
 		// by first calculating the User Units to be used in further
 		// calculations.
-		Resolution = DxfPreprocessor.getRenderSize();
+		Resolution = settings.getRenderSize();
 
 		// now calculate average percentage of usable display area for
 		// each of the resolution settings (excluding menu bars etc.
@@ -180,7 +204,7 @@ public final class SvgUtil
 		frame = new LimitsFrame(pMinX, pMinY, pMaxX, pMaxY);
 		
 		
-		if (DxfPreprocessor.verboseMode() == true)
+		if (VERBOSE == true)
 		{
 			System.out.println("USR_UNITS: "+USR_UNITS);
 			System.out.println("POINT_UNITS: "+POINT_UNITS);
@@ -229,35 +253,22 @@ public final class SvgUtil
 	*/
 	public double trimDouble(double DNum)
 	{
-		double Result;
-		String DblStr = new String();
-		Precision = DxfPreprocessor.getPrecision();
-
-
-		// catch any extremely small numbers like -4.27E-23
-		if (Math.abs(DNum) < Math.pow(10, -(Precision + 1)))
-			return 0.0;
-
-		DblStr = Double.toString(DNum);
-		// catch anything that is trying to trim Infinity or NaN.
-		if (DblStr.endsWith("Infinity") || DblStr.equalsIgnoreCase("NaN"))
-			return DNum;
+		return numberFormat.trim(DNum);
+	}
 
-		int index = DblStr.indexOf('.');
+	/** Returns the formatter that trims numbers as {@link #trimDouble(double)}
+	*	does and can write them straight into a buffer.
+	*/
+	public SvgNumberFormat getNumberFormat()
+	{
+		return numberFormat;
+	}
 
-		try
-		{
-			DblStr = DblStr.substring(0,(index + Precision + 1));
-			Result = Double.parseDouble(DblStr);
-		}
-		catch (StringIndexOutOfBoundsException e)
-		{
-			// user asked for more dec places than there are so return
-			// what ever we can.
-			return DNum;
-		}
-		
-		return Result;
+	/** Returns the switch settings of the conversion this object belongs to.
+	*/
+	public ConversionSettings getSettings()
+	{
+		return settings;
 	}
 
 	/** Used to trim numbers to an arbitrary precision despite what was
@@ -271,33 +282,7 @@ public final class SvgUtil
 	*/
 	public double trimDouble(double DNum, int P)
 	{
-		double Result;
-		String DblStr = new String();
-		int AnglePrecision = P;
-
-		// catch any extremely small numbers like -4.27E-23
-		if (Math.abs(DNum) < Math.pow(10, -(AnglePrecision + 1)))
-			return 0.0;
-
-		DblStr = Double.toString(DNum);
-		// catch anything that is trying to trim Infinity or NaN.
-		if (DblStr.endsWith("Infinity") || DblStr.equalsIgnoreCase("NaN"))
-			return DNum;
-		int index = DblStr.indexOf('.');
-
-		try
-		{
-			DblStr = DblStr.substring(0,(index + AnglePrecision + 1));
-			Result = Double.parseDouble(DblStr);
-		}
-		catch (StringIndexOutOfBoundsException e)
-		{
-			// user asked for more dec places than there are so return
-			// what ever we can.
-			return DNum;
-		}
-		return Result;
-
+		return SvgNumberFormat.trim(DNum, P);
 	}
 
 
@@ -567,6 +552,25 @@ public final class SvgUtil
 		return lineTypeScale;
 	}
 
+	/** Returns the line cap of the pens in the drawing, see {@link Pen}.
+	*/
+	public int getLineCap()
+	{
+		return settings.getLineCap();
+	}
+
+	/** Returns the line join of the pens in the drawing: the one $JOINSTYLE
+	*	asks for or, if it doesn't, the one '-line_join' set.
+	*/
+	public int getLineJoin()
+	{
+		if (lineJoin != Pen.DEFAULT)
+		{
+			return lineJoin;
+		}
+		return settings.getLineJoin();
+	}
+
 	/** Returns the maximum X value of the limits frame.
 	*/
 	public double getLimitsMaxX()
@@ -38,6 +38,12 @@
 **				the style sheet generator.
 **				1.62 - February 10, 2005 Updated @param tag with parameter name to 
 **				correct error with Javadoc 1.4.2-04.
+**				1.63 - October 17, 2026 updateLayer() copies the custom style's
+**				pen, which every conversion shares, and toString() uses the
+**				conversion's line cap and join. Removed the StyleSheetGenerator
+**				constructor so every layer has its conversion context.
+**				1.64 - October 17, 2026 Colours and colour coercion by layer are
+**				read from the conversion's settings.
 **
 **	TODO:
 **
@@ -98,12 +104,6 @@ public final class TableLayer
 		init();
 	}
 	
-	public TableLayer(StyleSheetGenerator ssg)
-	{
-		SSG = ssg;
-		init();
-	}
-	
 	//////////////////////////////////////////////////////////////////////
 		// 							methods
 	//////////////////////////////////////////////////////////////////////
@@ -350,7 +350,7 @@ public final class TableLayer
 	*/
 	public void setFill(int fill)
 	{	
-		if (DxfPreprocessor.isColourCoercedByLayer())
+		if (conversionContext.getSettings().isColourCoercedByLayer())
 		{
 			// This sets the fill colour to the colour of the layer, not to the user specified colour.
 			this.fill = pen.getColour(1);
@@ -384,7 +384,9 @@ public final class TableLayer
 	public void updateLayer(CustomLayerStyle customLayerStyle)
 	{
 		fill 	= customLayerStyle.getFill(999); // use the integer value of the fill.
-		pen		= customLayerStyle.getPen();
+		// The custom style's pen is shared by every conversion so take a copy
+		// before toString() sets its line type.
+		pen		= (Pen)customLayerStyle.getPen().clone();
 	}
 	
 
@@ -403,7 +405,6 @@ public final class TableLayer
 		// to do the search.
 		if ( SSG == null )
 		{
-			// Sometimes a TableLayer can be constructed with a SSG to begin with.
 			SSG = conversionContext.getStyleSheetGenerator();
 		}
 		pen.setLineType(SSG.getLayerLineTypeTable(LineTypeName));
@@ -412,10 +413,10 @@ public final class TableLayer
 		
 		// now attach the Pen definitions which will take care of any 
 		// line weight, colour, and visibility.
-		LayerOutput.append(pen.toString());
+		LayerOutput.append(pen.toString(conversionContext.getSvgUtil()));
 		
 		if (fill > -256 && fill <= 256)
-			LayerOutput.append("fill:"+DxfPreprocessor.getColour(fill)+";");
+			LayerOutput.append("fill:"+conversionContext.getSettings().getColour(fill)+";");
 			
 		LayerOutput.append("}\n");
 		return LayerOutput.toString();
@@ -26,6 +26,8 @@
 **				tables collected here. This is currently true for TableStyles.
 **				2.00 - April 16, 2005 Modified to accomodate new parser functionality
 **				and elimination of DxfElementPair as fly weight.
+**				2.01 - October 17, 2026 Numeric values are read with getDouble()
+**				and getInt().
 **
 **	TODO:
 **
@@ -85,7 +87,7 @@ final class TableProcessor extends Processor
 	
 	public TableProcessor( DxfConverter dxfc, ProcessorManager pm )
 	{
-		super();
+		super( dxfc );
 		processorManager= pm;
 		DxfConverterRef = dxfc;
 		DEBUG           = false;
@@ -225,12 +227,12 @@ final class TableProcessor extends Processor
 			break;
 
 		case 62: // Layer colour
-			tmpInt = Integer.parseInt( pair.getValue() );
+			tmpInt = pair.getInt();
 			layer.setColour( tmpInt );
 			break;
 
 		case 70: // Layer locked or frozen etc.
-			tmpInt = Integer.parseInt( pair.getValue() );
+			tmpInt = pair.getInt();
 			layer.setLayerVisible( tmpInt );
 			break;
 
@@ -265,12 +267,12 @@ final class TableProcessor extends Processor
 			break;
 
 		case 49: // Set dash dot space length; this takes a double
-			tmpDouble = Double.parseDouble( pair.getValue() );
+			tmpDouble = pair.getDouble();
 			lineType.setDashDotSpaceLength( tmpDouble );
 			break;
 
 		case 73: // Set the number of dash elements in the line
-			tmpInt = Integer.parseInt( pair.getValue() );
+			tmpInt = pair.getInt();
 			lineType.setEleNum( tmpInt );
 			break;
 			
@@ -304,22 +306,22 @@ final class TableProcessor extends Processor
 			break;
 
 		case 40: // Fixed text height
-			tmpDouble = Double.parseDouble( pair.getValue() );
+			tmpDouble = pair.getDouble();
 			style.setFixedTextHeight( tmpDouble );
 			break;
 
 		case 41: // Width factor
-			tmpDouble = Double.parseDouble( pair.getValue() );
+			tmpDouble = pair.getDouble();
 			style.setWidthFactor( tmpDouble );
 			break;
 
 		case 50: // Oblique angle
-			tmpDouble = Double.parseDouble( pair.getValue() );
+			tmpDouble = pair.getDouble();
 			style.setObliqueAngle( tmpDouble );
 			break;
 
 		case 71: // set text generation flag.
-			tmpInt = Integer.parseInt( pair.getValue() );
+			tmpInt = pair.getInt();
 			style.setTextGenFlag( tmpInt );
 			break;
 
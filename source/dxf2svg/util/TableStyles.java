@@ -19,6 +19,15 @@
 **				subclass CustomTextStyle to access them.
 **				1.05 - February 10, 2005 Updated @param tag with parameter name to 
 **				correct error with Javadoc 1.4.2-04.
+**				1.06 - October 17, 2026 Logical font names read from font files are
+**				remembered so each file is only opened by AWT once.
+**				1.07 - October 17, 2026 Added getFontFile(). With '-font_file_metrics'
+**				the logical font name is read without AWT.
+**				1.08 - October 17, 2026 '-font_file_metrics' is read from the
+**				conversion's settings and the remembered font names are kept by
+**				metrics mode and the font file's modification time as well as its path.
+**				1.09 - October 17, 2026 The debug and font URL switches are read from
+**				the conversion's settings.
 **
 **	TODO:
 **
@@ -34,6 +43,7 @@ import java.awt.*;
 import java.util.*;						// For font maps.
 import dxf2svg.*;						// DxfConverter
 import dxf2svg.util.FontMapElement;	// font map element
+import dxf2svg.svg.FontFileMetrics;	// font names without AWT.
 
 /**
 *	Encapsulates DXF Text Style Table objects. This object controls the styles of
@@ -44,6 +54,13 @@ import dxf2svg.util.FontMapElement;	// font map element
 */
 public class TableStyles
 {
+	// Logical font names read from font files, shared by all conversions, by the
+	// way they were read, the file's modification time and its path, so a font
+	// changed while '-watch' or '-serve' runs is read again. A file that couldn't
+	// be read maps to NO_FONT_NAME.
+	private final static Hashtable fileFontNames = new Hashtable();
+	private final static String NO_FONT_NAME = "";
+
 	// Instance data
 	protected String	StyleName;			// Style name 'UVB' 'UV'
 	protected String	FontFamilyName;		// For generic font name.
@@ -62,8 +79,10 @@ public class TableStyles
 	protected boolean GotLogicalFontName;	// were we able to get the
 		// true logical name for this font?
 	protected SvgUtil svgUtility;
-	protected boolean DEBUG;				// DxfPreprocessor.
+	protected ConversionSettings settings;	// Switch settings of the conversion.
+	protected boolean DEBUG;				// settings.debugMode().
 	protected FontMapElement fme;			// Font map element if there is one.
+	protected String	FontDirectory;		// Where the font file is looked for.
 	
 
 	public TableStyles( ProcessorManager pm )
@@ -86,7 +105,8 @@ public class TableStyles
 	
 	protected void init()
 	{
-		DEBUG 				= DxfPreprocessor.debugMode();
+		settings			= svgUtility.getSettings();
+		DEBUG 				= settings.debugMode();
 		StyleName 			= "standard";
 		FontName			= "courier";	// default font style; easily visible; on most systems.
 		FontFamilyName 		= new String();
@@ -296,7 +316,7 @@ public class TableStyles
 		// This is not a show stopper if the files are to be put on
 		// another machine or server somewhere.
 		if ( ! (new File(FileLocation).isDirectory()) &&
-			DxfPreprocessor.includeUrl() == false)
+			settings.includeUrl() == false)
 			System.err.println("TableStyles warning: font path unknown."+
 				"\nUnable to define logical font name, substituting with font family.");
 
@@ -339,19 +359,20 @@ public class TableStyles
 
 		// Now we have to format the string so that is correctly displays
 		// forward slashes for the URL string.
-		if (DxfPreprocessor.includeUrl() == true)
+		if (settings.includeUrl() == true)
 		{
-			FontURI = DxfPreprocessor.getFontUrl();
+			FontURI = settings.getFontUrl();
 			FontURI = FontURI.replace('\\','/');
 		}
 
 		// Now see if you can get the font's logical name.
 		// Check to see if supplied URI is a directory.
 		////////////// test for exception /////////////////
-		if (DxfPreprocessor.includeUrl() == true)
+		if (settings.includeUrl() == true)
 		{
-			FileLocation = DxfPreprocessor.getFontUrl();
+			FileLocation = settings.getFontUrl();
 		}
+		FontDirectory = FileLocation;
 
 		// Java 1.4.1 only supports the createFont() with
 		// an argument of TRUETYPE_FONT.
@@ -377,12 +398,41 @@ public class TableStyles
 	// focus on the actual name requires opening the .ttf file if possible.
 	private boolean setFontNameFromFile(String dir, String file)
 	{
+		// Creating the font is slow and every style that uses the file asks.
+		File fontFile = new File(dir,file);
+		boolean isFileMetrics = settings.useFontFileMetrics();
+		String key = (isFileMetrics ? "file" : "awt") + "\t" + fontFile.lastModified() +
+			"\t" + fontFile.getPath();
+		String name = (String)fileFontNames.get(key);
+		if (name == null)
+		{
+			name = readFontNameFromFile(dir, file, isFileMetrics);
+			fileFontNames.put(key, name);
+		}
+		if (name == NO_FONT_NAME)
+			return false;
+
+		FontName = name;
+		return true;
+	}
+
+	// Returns the logical font name in the file or NO_FONT_NAME if it can't be read.
+	private String readFontNameFromFile(String dir, String file, boolean isFileMetrics)
+	{
+		if (isFileMetrics)
+		{
+			// Read the name table ourselves rather than start AWT.
+			String fileName = FontFileMetrics.getFontName(new File(dir,file));
+			return (fileName == null) ? NO_FONT_NAME : fileName;
+		}
+
 		Font font;
+		String name;
 		try{
 			BufferedInputStream BIS = new BufferedInputStream(
 				new FileInputStream(new File(dir,file)));
 			font = Font.createFont(Font.TRUETYPE_FONT, BIS);
-			FontName = font.getFontName();
+			name = font.getFontName();
 			BIS.close();
 		}
 		catch (FileNotFoundException e)
@@ -390,23 +440,23 @@ public class TableStyles
 			if (DEBUG)
 				System.err.println("Can't find the specified font file.\n"+
 					e);
-			return false;
+			return NO_FONT_NAME;
 		}
 		catch (FontFormatException ffe)
 		{
 			if (DEBUG)
 				System.err.println(ffe);
-			return false;
+			return NO_FONT_NAME;
 		}
 		//
 		catch (IOException ioe)
 		{
 			if (DEBUG)
 				System.err.println("Error while reading font file.\n"+ioe);
-			return false;
+			return NO_FONT_NAME;
 		}
 
-		return true;
+		return (name == null) ? NO_FONT_NAME : name;
 	}
 
 	/** Returns the font's URI. */
@@ -417,6 +467,17 @@ public class TableStyles
 	public String getPrimaryFontFileName()
 	{	return fme.getFont();	}
 
+	/** Returns the font file in the font directory, after substitution by the
+	*	font map, or null if the primary font file name hasn't been set.
+	*	The file may not exist.
+	*/
+	public File getFontFile()
+	{
+		if (FontDirectory == null)
+			return null;
+		return new File(FontDirectory, fme.getFont());
+	}
+
 	/** Returns the name of the font face, not font family.
 	*/
 	public String getFontName()
@@ -452,7 +513,7 @@ public class TableStyles
 	{
 		StringBuffer StyleOutput = new StringBuffer();
 
-		if (DxfPreprocessor.includeUrl() == true)
+		if (settings.includeUrl() == true)
 		{
 			//@font-face{font-family:'symap';src:url('c:/winnt/fonts/symap___.ttf')}
 			StyleOutput.append("@font-face{font-family:\"");
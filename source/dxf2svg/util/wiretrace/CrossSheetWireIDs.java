@@ -17,6 +17,8 @@
 **
 **	Version:	0.01 - March 14, 2005
 **              0.02 - October 4, 2005 Added 'KT' (engine) to the wireid regex.
+**				0.03 - October 17, 2026 The search strategies are given the
+**				conversion context.
 **
 **	TODO:
 **
@@ -101,7 +103,7 @@ public class CrossSheetWireIDs
 			// Start searching for labels
 			if ( layerName.equals("english") )
 			{
-				searchStrategy = new FindSheetLinkLabelsStrategy();
+				searchStrategy = new FindSheetLinkLabelsStrategy(conversionContext);
 				searchStrategy.searchMatchModify(conversionContext, vLinkLabels, layer, null, p);
 				if (vLinkLabels.size() < 1)
 				{
@@ -133,7 +135,7 @@ public class CrossSheetWireIDs
 			// a wire is a SvgDoubleEndedElementAggregate which to date does not
 			// have methods for returning its end points.
 			{
-				searchStrategy = new FindWiresNearestLinkStrategy();
+				searchStrategy = new FindWiresNearestLinkStrategy(conversionContext);
 				searchStrategy.searchMatchModify(conversionContext, vWires, layer, vLinkLabels, null);
 				if (vWires.size() < 1)
 				{
@@ -153,7 +155,7 @@ public class CrossSheetWireIDs
 		Pattern pattern = Pattern.compile( wirePattern );
 		
 		// get each of the WireLabelLocation objects stored here.
-		searchStrategy = new FindApplyWireIDsStrategy();
+		searchStrategy = new FindApplyWireIDsStrategy(conversionContext);
 		// null unrequired vector nothing in it.
 		// textLayer = 't' layer where we are going to search for matching wire ID numbers.
 		// Vector of wires that terminated in a 'SHEET n[n]' pattern.
@@ -20,6 +20,10 @@
 **	Version:	0.01 - April 08, 2005
 **				2.00 - August 31, 2005 Rework of the match wire id algorithm.
 **              2.01 - October 4, 2005 Cleaned up un-necessary code.
+**				2.02 - October 17, 2026 isWireIntersectionInBoundingBox() reuses
+**				one bounding box instead of making one for every test.
+**				2.03 - October 17, 2026 Added a constructor that takes the conversion
+**				context.
 **
 **	TODO:
 **
@@ -67,6 +71,12 @@ public class FindApplyWireIDsStrategy extends WireSearchStrategy
 	protected final int MAX_SEARCH = 3;  // Number of iterations before giving up.
 	protected Vector unmatchedWireIds;
 	protected boolean isPrimaryPass;
+	private RelativeLimitsFrame boundingBox;	// Reused for each intersection tested.
+	
+	public FindApplyWireIDsStrategy(DxfConverter conversionContext)
+	{
+		super(conversionContext);
+	}
 	
 	/** The constructor manages the entire process of finding and matching wire id numbers
 	*	to the collection of wires, from start to finish.
@@ -402,14 +412,21 @@ public class FindApplyWireIDsStrategy extends WireSearchStrategy
 		double width  = 40.0;
 		//double width  = 57.0;
 		double height = 3.12;
-		RelativeLimitsFrame boundingBox = null;
 		
-		boundingBox = new RelativeLimitsFrame(
-			( width * (double)testPass ),      // width
-			height,                           // height
-			(RelativeLimitsFrame.TOP + RelativeLimitsFrame.LEFT), // location
-			text.getAnchor()                  // relative position.
-		);		
+		if ( boundingBox == null )
+		{
+			boundingBox = new RelativeLimitsFrame(
+				( width * (double)testPass ),      // width
+				height,                           // height
+				(RelativeLimitsFrame.TOP + RelativeLimitsFrame.LEFT), // location
+				text.getAnchor()                  // relative position.
+			);
+		}
+		else
+		{
+			boundingBox.setWidth( width * (double)testPass );
+			boundingBox.setAnchor( text.getAnchor() );
+		}
 
 		if ( boundingBox.contains( pt ) )
 		{
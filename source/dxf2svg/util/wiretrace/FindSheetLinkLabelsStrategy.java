@@ -16,6 +16,8 @@
 **				(build 1.4.2_04)
 **
 **	Version:	0.01 - March 14, 2005
+**				0.02 - October 17, 2026 Added a constructor that takes the conversion
+**				context.
 **
 **	TODO:
 **
@@ -38,6 +40,11 @@ import java.util.regex.Pattern;
 */
 public class FindSheetLinkLabelsStrategy extends WireSearchStrategy
 {
+	public FindSheetLinkLabelsStrategy(DxfConverter conversionContext)
+	{
+		super(conversionContext);
+	}
+	
 	public void searchMatchModify(
 		DxfConverter conversionContext,
 		Vector results,
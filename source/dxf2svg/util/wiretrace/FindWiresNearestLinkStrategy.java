@@ -17,6 +17,10 @@
 **				(build 1.4.2_04)
 **
 **	Version:	0.01 - March 14, 2005
+**				0.02 - October 17, 2026 One bounding box is moved from wire end
+**				to wire end instead of making two for every wire.
+**				0.03 - October 17, 2026 Added a constructor that takes the conversion
+**				context.
 **
 **	TODO:
 **
@@ -41,6 +45,11 @@ import dxf2svg.DxfConverter;
 */
 public class FindWiresNearestLinkStrategy extends WireSearchStrategy
 {
+	public FindWiresNearestLinkStrategy(DxfConverter conversionContext)
+	{
+		super(conversionContext);
+	}
+	
 	/** The parameter results will be filled with references to the SvgObjects
 	*	that match the following criteria.
 	*	The insert point of the text must fit within a box that is 0.65in x 0.06in
@@ -63,6 +72,11 @@ public class FindWiresNearestLinkStrategy extends WireSearchStrategy
 			results = new Vector();
 		}
 		
+		// 66.0px width x 4.07px height. Measuring text heights and converting to pixels.
+		// This is the bounding box that a text insertion point should lie in. It is
+		// moved to each end of each wire in turn.
+		RelativeLimitsFrame boundingBox = new RelativeLimitsFrame(
+			66.0, 4.07, RelativeLimitsFrame.BOTTOM, null);
 		
 		for (int i = 0; i < tmpGroupItems.size(); i++)
 		{
@@ -81,10 +95,7 @@ public class FindWiresNearestLinkStrategy extends WireSearchStrategy
 			
 			// compare the start and end point with the the insertion point of 
 			// the text.
-			// 66.0px width x 4.07px height. Measuring text heights and converting to pixels.
-			// This is the bounding box that a text insertion point should lie in.
-			RelativeLimitsFrame boundingBox = new RelativeLimitsFrame(
-				66.0, 4.07, RelativeLimitsFrame.BOTTOM, ge.getStartPoint());
+			boundingBox.setAnchor(ge.getStartPoint());
 			
 			
 			
@@ -103,8 +114,7 @@ public class FindWiresNearestLinkStrategy extends WireSearchStrategy
 			
 			// now try the end point
 			///////////////// END POINT OF WIRE.
-			boundingBox = new RelativeLimitsFrame(
-				66.0, 4.07, RelativeLimitsFrame.BOTTOM, ge.getEndPoint());
+			boundingBox.setAnchor(ge.getEndPoint());
 					
 				
 			if (wireMatchesALabel( labels, boundingBox ) )
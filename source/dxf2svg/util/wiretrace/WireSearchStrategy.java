@@ -17,6 +17,8 @@
 **	Version:	0.01 - March 14, 2005
 **				0.02 - March 18, 2005 Moved this class to the wire trace 
 **				name space and changed its name to reflect its job.
+**				0.03 - October 17, 2026 The constructor takes the conversion context
+**				and reads the debug switch from its settings.
 **
 **	TODO:
 **
@@ -29,7 +31,6 @@ import java.util.Vector;
 import dxf2svg.svg.SvgLayerGroup;
 import java.util.regex.Pattern;
 import dxf2svg.DxfConverter;
-import dxf2svg.DxfPreprocessor;
 
 /** Super class of the search strategies for wires. This class currently is sub-classed to
 *	encapsulate tasks of location and modifying objects based on their 
@@ -39,9 +40,9 @@ public abstract class WireSearchStrategy
 {
 	protected boolean DEBUG = false;
 	
-	public WireSearchStrategy()
+	public WireSearchStrategy(DxfConverter conversionContext)
 	{
-		DEBUG = DxfPreprocessor.debugMode();
+		DEBUG = conversionContext.getSettings().debugMode();
 	}
 	
 	public abstract void searchMatchModify(
@@ -0,0 +1,427 @@
+/****************************************************************************
+**
+**	FileName:	RegressionCheck.java
+**
+**	Project:	Dxf2Svg
+**
+**	Purpose:	Converts copies of test/grid.dxf serially and on worker
+**				threads, with and without the block cache and the symbol
+**				library, and reports any difference in the files written,
+**				the console report or the event log.
+**
+**	Date:		October 17, 2026
+**
+**	Author:		Andrew Nisbet
+**
+**	Environment:Java(TM) 2 Runtime Environment, Standard Edition
+**				(build 1.5.0)
+**
+**	Version:	1.00 - October 17, 2026
+**
+**	TODO:
+**
+*****************************************************************************/
+
+import java.io.*;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+
+/**
+*	This class runs Dxf2Svg in a separate JVM on a directory of copies of
+*	<code>grid.dxf</code>, once for each of these modes:
+*	<UL>
+*	<LI> serial, the reference for the modes below,
+*	<LI> '-threads n',
+*	<LI> '-block_cache 8', serially and with '-threads n',
+*	<LI> '-symbol_library symbols.svg' serially, the reference for the next mode,
+*	<LI> '-symbol_library symbols.svg -threads n'.
+*	</UL>
+*	The copies differ in their <code>$JOINSTYLE</code> so that a setting that
+*	leaks from one drawing to the next shows up in the style sheets. Each
+*	mode must write the same files, byte for byte (gzipped files are compared
+*	unzipped), the same console report and the same event log as its
+*	reference, apart from the console lines that report the mode, like the
+*	number of worker threads. The threaded modes are run more than once
+*	because a race that changes the order of the report doesn't lose every
+*	time.
+*	<P>
+*	Usage: <b>java -cp &lt;classpath&gt; RegressionCheck [-threads n] [-repeat n] [-keep] [test_dir]</b>
+*	<P>
+*	The classpath must hold this class, Dxf2Svg and lib/Utils.jar; the same
+*	classpath is used to run Dxf2Svg. <code>test_dir</code> is the directory
+*	with grid.dxf (default 'test'). The work is done in a temporary directory
+*	which is removed afterwards unless '-keep' is used. The exit status is 1
+*	if any difference is found.
+*
+*	@author		Andrew Nisbet
+*	@version	1.00 - October 17, 2026
+*/
+public class RegressionCheck
+{
+	// Where Dxf2SvgLogger writes the event log.
+	private final static String EVENT_LOG = "c:/temp/dxf2svg_log.txt";
+	// Copies of grid.dxf to convert and the $JOINSTYLE each is given.
+	private final static String[] DRAWINGS = { "grid", "grid_round", "grid_miter", "grid_bevel" };
+	private final static String[] JOIN_STYLES = { null, "1", "2", "3" };
+	// Console lines that only report the mode, and so are left out of the comparison.
+	private final static String[] MODE_LINES = {
+		"DxfPreprocessor: converting on ",
+		"DxfPreprocessor: BlockCache: "
+	};
+	// Most differences printed for each comparison.
+	private final static int MAX_REPORTED = 10;
+
+	private static String java;					// Java executable for Dxf2Svg.
+	private static String classpath;			// Classpath for Dxf2Svg.
+	private static int differences;
+
+	public static void main(String[] args)
+	{
+		int threads = 4;
+		int repeat = 3;
+		boolean keep = false;
+		String testDir = "test";
+		try
+		{
+			for (int i = 0; i < args.length; i++)
+			{
+				if (args[i].equals("-threads"))
+					threads = Integer.parseInt(args[++i]);
+				else if (args[i].equals("-repeat"))
+					repeat = Integer.parseInt(args[++i]);
+				else if (args[i].equals("-keep"))
+					keep = true;
+				else if (args[i].startsWith("-"))
+					usage();
+				else
+					testDir = args[i];
+			}
+		}
+		catch (ArrayIndexOutOfBoundsException e)
+		{
+			usage();
+		}
+		catch (NumberFormatException e)
+		{
+			usage();
+		}
+		if (threads < 2 || repeat < 1)
+			usage();
+
+		java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		// Dxf2Svg runs in the work directory so relative entries won't do.
+		StringBuffer path = new StringBuffer();
+		StringTokenizer entries = new StringTokenizer(System.getProperty("java.class.path"),
+			File.pathSeparator);
+		while (entries.hasMoreTokens())
+		{
+			if (path.length() > 0)
+				path.append(File.pathSeparator);
+			path.append(new File(entries.nextToken()).getAbsolutePath());
+		}
+		classpath = path.toString();
+
+		File work = null;
+		try
+		{
+			File grid = new File(testDir, "grid.dxf");
+			if (! grid.isFile())
+			{
+				System.err.println("RegressionCheck error: can't find '"+grid+"'.");
+				System.exit(2);
+			}
+			work = File.createTempFile("dxf2svg_regression", "");
+			work.delete();
+			work.mkdirs();
+			System.out.println("RegressionCheck: working in '"+work+"'.");
+
+			String t = String.valueOf(threads);
+			String[] none = {};
+			String[] threaded = { "-threads", t };
+			String[] cache = { "-block_cache", "8" };
+			String[] cacheThreaded = { "-block_cache", "8", "-threads", t };
+			String[] library = { "-symbol_library", "symbols.svg" };
+			String[] libraryThreaded = { "-symbol_library", "symbols.svg", "-threads", t };
+
+			Run serial = new Run(work, grid, "serial", none);
+			Run serialLibrary = new Run(work, grid, "symbol_library", library);
+			compare(serial, new Run(work, grid, "block_cache", cache));
+			for (int i = 1; i <= repeat; i++)
+			{
+				compare(serial, new Run(work, grid, "threads_" + i, threaded));
+				compare(serial, new Run(work, grid, "block_cache_threads_" + i, cacheThreaded));
+				compare(serialLibrary, new Run(work, grid, "symbol_library_threads_" + i, libraryThreaded));
+			}
+		}
+		catch (IOException e)
+		{
+			System.err.println("RegressionCheck error: "+e);
+			System.exit(2);
+		}
+		catch (InterruptedException e)
+		{
+			System.err.println("RegressionCheck error: interrupted.");
+			System.exit(2);
+		}
+		finally
+		{
+			if (work != null && ! keep)
+				delete(work);
+		}
+
+		if (differences > 0)
+		{
+			System.out.println("RegressionCheck: "+differences+" difference(s) found.");
+			System.exit(1);
+		}
+		System.out.println("RegressionCheck: no differences found.");
+	}
+
+	// Prints the usage message and exits.
+	private static void usage()
+	{
+		System.out.println();
+		System.out.println("Usage: java -cp <classpath> RegressionCheck [-threads n] [-repeat n] [-keep] [test_dir]");
+		System.out.println();
+		System.out.println("Converts copies of test_dir/grid.dxf serially and with -threads n (default 4),");
+		System.out.println("-block_cache and -symbol_library, and reports any difference in the output,");
+		System.out.println("the console report or the event log. Threaded modes are run n times");
+		System.out.println("(default 3). -keep leaves the work directory in place.");
+		System.out.println();
+		System.exit(2);
+	}
+
+	// Compares a run with its reference and reports the differences.
+	private static void compare(Run reference, Run run)
+	{
+		int before = differences;
+		String label = run.name + " vs " + reference.name;
+
+		Set names = new TreeSet(reference.files.keySet());
+		names.addAll(run.files.keySet());
+		int reported = 0;
+		Iterator it = names.iterator();
+		while (it.hasNext())
+		{
+			String name = (String)it.next();
+			byte[] expected = (byte[])reference.files.get(name);
+			byte[] actual = (byte[])run.files.get(name);
+			String problem = null;
+			if (expected == null)
+				problem = "only in " + run.name;
+			else if (actual == null)
+				problem = "only in " + reference.name;
+			else if (! Arrays.equals(expected, actual))
+				problem = "differs at byte " + firstDifference(expected, actual);
+			if (problem != null)
+			{
+				differences++;
+				if (reported++ < MAX_REPORTED)
+					System.out.println(label+": '"+name+"' "+problem+".");
+			}
+		}
+		compareText(label, "console report", reference.console, run.console);
+		compareText(label, "event log", reference.eventLog, run.eventLog);
+
+		if (differences == before)
+			System.out.println(label+": same.");
+	}
+
+	// Compares two texts line by line and reports the first line that differs.
+	private static void compareText(String label, String what, String expected, String actual)
+	{
+		if (expected.equals(actual))
+			return;
+		differences++;
+		String[] e = expected.split("\n", -1);
+		String[] a = actual.split("\n", -1);
+		int line = 0;
+		while (line < e.length && line < a.length && e[line].equals(a[line]))
+			line++;
+		System.out.println(label+": "+what+" differs at line "+(line + 1)+":");
+		System.out.println("  < "+(line < e.length ? e[line] : "<end>"));
+		System.out.println("  > "+(line < a.length ? a[line] : "<end>"));
+	}
+
+	// Returns the index of the first byte that differs.
+	private static int firstDifference(byte[] a, byte[] b)
+	{
+		int i = 0;
+		while (i < a.length && i < b.length && a[i] == b[i])
+			i++;
+		return i;
+	}
+
+	// Removes a file or a directory and everything in it.
+	private static void delete(File file)
+	{
+		File[] children = file.listFiles();
+		if (children != null)
+		{
+			for (int i = 0; i < children.length; i++)
+				delete(children[i]);
+		}
+		file.delete();
+	}
+
+	// Reads a whole file, unzipping it if it is gzipped.
+	private static byte[] read(File file) throws IOException
+	{
+		InputStream in = new FileInputStream(file);
+		try
+		{
+			String name = file.getName();
+			if (name.endsWith(".svgz") || name.endsWith(".gz"))
+				in = new GZIPInputStream(in);
+			return readAll(in);
+		}
+		finally
+		{
+			in.close();
+		}
+	}
+
+	// Reads a stream to its end.
+	private static byte[] readAll(InputStream in) throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int n;
+		while ((n = in.read(buffer)) != -1)
+			out.write(buffer, 0, n);
+		return out.toByteArray();
+	}
+
+	// Writes a copy of grid.dxf with its $JOINSTYLE set to the argument value
+	// or left as it is if the value is null.
+	private static void writeDrawing(File grid, File copy, String joinStyle) throws IOException
+	{
+		String dxf = new String(read(grid), "ISO-8859-1");
+		if (joinStyle != null)
+		{
+			// The value is on the second line after the variable name.
+			int at = dxf.indexOf("$JOINSTYLE");
+			if (at < 0)
+				throw new IOException("no $JOINSTYLE in '"+grid+"'");
+			int start = dxf.indexOf('\n', dxf.indexOf('\n', at) + 1) + 1;
+			int end = start;
+			while (end < dxf.length() && dxf.charAt(end) != '\r' && dxf.charAt(end) != '\n')
+				end++;
+			dxf = dxf.substring(0, start) + "     " + joinStyle + dxf.substring(end);
+		}
+		OutputStream out = new FileOutputStream(copy);
+		try
+		{
+			out.write(dxf.getBytes("ISO-8859-1"));
+		}
+		finally
+		{
+			out.close();
+		}
+	}
+
+
+
+
+	/////////////////////////////// Inner classes ////////////////////////////////
+	/** One conversion of the drawings and what it produced.
+	*/
+	private final static class Run
+	{
+		private String name;
+		private Map files;					// Output file path -> contents.
+		private String console;				// stdout and stderr, as they were interleaved.
+		private String eventLog;			// Dxf2SvgLogger's event log or "".
+
+		protected Run(File work, File grid, String name, String[] switches)
+			throws IOException, InterruptedException
+		{
+			this.name = name;
+			File dir = new File(work, name);
+			dir.mkdirs();
+			Set inputs = new HashSet();
+			for (int i = 0; i < DRAWINGS.length; i++)
+			{
+				writeDrawing(grid, new File(dir, DRAWINGS[i] + ".dxf"), JOIN_STYLES[i]);
+				inputs.add(DRAWINGS[i] + ".dxf");
+			}
+
+			// On Windows the event log goes to c:/temp; anywhere else the
+			// path is relative to the directory the conversion runs in.
+			File log = new File(EVENT_LOG);
+			if (! log.isAbsolute())
+				log = new File(dir, EVENT_LOG);
+			log.delete();
+			log.getParentFile().mkdirs();
+
+			List command = new ArrayList();
+			command.add(java);
+			command.add("-Djava.awt.headless=true");
+			command.add("-cp");
+			command.add(classpath);
+			command.add("dxf2svg.Dxf2Svg");
+			command.addAll(Arrays.asList(switches));
+			command.add("-f");
+			command.add(".");
+			ProcessBuilder builder = new ProcessBuilder(command);
+			builder.directory(dir);
+			builder.redirectErrorStream(true);
+			Process process = builder.start();
+			process.getOutputStream().close();
+			byte[] output = readAll(process.getInputStream());
+			process.waitFor();
+
+			// Paths in the report name the run's directory.
+			console = new String(output, "ISO-8859-1").replace('\\', '/').replaceAll("\r", "");
+			console = console.replace(dir.getCanonicalPath().replace('\\', '/'), "<dir>");
+			StringBuffer report = new StringBuffer();
+			String[] lines = console.split("\n", -1);
+			for (int i = 0; i < lines.length; i++)
+			{
+				boolean modeLine = false;
+				for (int j = 0; j < MODE_LINES.length; j++)
+				{
+					if (lines[i].startsWith(MODE_LINES[j]))
+						modeLine = true;
+				}
+				if (! modeLine)
+					report.append(lines[i]).append('\n');
+			}
+			console = report.toString();
+			eventLog = "";
+			if (log.isFile())
+			{
+				eventLog = new String(read(log), "ISO-8859-1").replaceAll("\r", "");
+				eventLog = eventLog.replace(dir.getCanonicalPath(), "<dir>");
+			}
+
+			files = new TreeMap();
+			collect(dir, "", inputs);
+			if (files.size() < DRAWINGS.length)
+			{
+				System.out.print(console);
+				throw new IOException("the "+name+" run didn't convert the drawings");
+			}
+		}
+
+		// Reads every file the conversion wrote, except the event log which is
+		// compared as text.
+		private void collect(File dir, String prefix, Set inputs) throws IOException
+		{
+			File[] children = dir.listFiles();
+			for (int i = 0; i < children.length; i++)
+			{
+				String path = prefix + children[i].getName();
+				if (children[i].isDirectory())
+				{
+					if (! path.equals("c:"))
+						collect(children[i], path + "/", inputs);
+				}
+				else if (! inputs.contains(path))
+				{
+					files.put(path, read(children[i]));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,306 @@
+/****************************************************************************
+**
+**	FileName:	SvgNumberFormatCheck.java
+**
+**	Project:	Dxf2Svg
+**
+**	Purpose:	Checks that SvgNumberFormat trims and prints numbers exactly
+**				as the original SvgUtil.trimDouble() did.
+**
+**	Date:		October 17, 2026
+**
+**	Author:		Andrew Nisbet
+**
+**	Environment:Java(TM) 2 Runtime Environment, Standard Edition
+**				(build 1.5.0)
+**
+**	Version:	1.00 - October 17, 2026
+**				1.01 - October 17, 2026 Moved to the test directory so it isn't
+**				packaged with Dxf2Svg.
+**
+**	TODO:
+**
+*****************************************************************************/
+
+import java.io.IOException;
+import java.util.Random;
+import dxf2svg.util.SvgNumberFormat;
+
+/**
+*	This class compares {@link SvgNumberFormat} with a verbatim copy of the
+*	<code>trimDouble()</code> it replaced, which trimmed a number by cutting
+*	its <code>Double.toString()</code> text after the decimal places. Every
+*	number is trimmed at each precision with the static and the instance
+*	<code>trim()</code>, and appended to a <code>StringBuffer</code> and to an
+*	<code>Appendable</code>; each result must have the same bits as the old
+*	one, and the appended text must be <code>String.valueOf()</code> of it.
+*	<P>
+*	The old code throws a <code>NumberFormatException</code> on numbers whose
+*	text has an exponent, when the cut leaves text like "5.0E-". Where it
+*	throws, SvgNumberFormat must throw the same class of exception.
+*	<P>
+*	Usage: <b>java -cp &lt;classpath&gt; SvgNumberFormatCheck [count] [seed]</b>
+*	<P>
+*	The classpath must hold this class and Dxf2Svg.
+*	<P>
+*	The numbers checked are edge cases, like 0.0, NaN, the trim thresholds,
+*	exact decimals and their neighbours, and <code>count</code> random
+*	numbers (default 1000000) from <code>seed</code> (default 0). The first
+*	mismatches are printed and the exit status is 1 if there are any.
+*
+*	@author		Andrew Nisbet
+*	@version	1.01 - October 17, 2026
+*/
+public class SvgNumberFormatCheck
+{
+	// Precisions checked; beyond 15 SvgNumberFormat always trims the old way.
+	private final static int[] PRECISIONS = { 0, 1, 2, 3, 4, 5, 6, 7, 8, 12, 15, 16 };
+	// Most mismatches printed.
+	private final static int MAX_REPORTED = 20;
+
+	private static long checked;
+	private static long mismatches;
+
+	public static void main(String[] args)
+	{
+		if (args.length > 2)
+		{
+			System.out.println();
+			System.out.println("Usage: java -cp <classpath> SvgNumberFormatCheck [count] [seed]");
+			System.out.println();
+			System.out.println("Compares SvgNumberFormat with the original trimDouble() on edge");
+			System.out.println("cases and count random numbers and reports any differences.");
+			System.out.println();
+			System.exit(1);
+		}
+
+		int count = 1000000;
+		long seed = 0L;
+		try
+		{
+			if (args.length > 0)
+				count = Integer.parseInt(args[0]);
+			if (args.length > 1)
+				seed = Long.parseLong(args[1]);
+		}
+		catch (NumberFormatException e)
+		{
+			System.err.println("SvgNumberFormatCheck error: count and seed must be numbers.");
+			System.exit(1);
+		}
+
+		for (int p = 0; p < PRECISIONS.length; p++)
+		{
+			int precision = PRECISIONS[p];
+			SvgNumberFormat format = new SvgNumberFormat(precision,
+				Math.pow(10, -(precision + 1)));
+			checkEdgeCases(format);
+		}
+
+		Random random = new Random(seed);
+		for (int i = 0; i < count; i++)
+		{
+			double value = nextValue(random);
+			for (int p = 0; p < PRECISIONS.length; p++)
+			{
+				int precision = PRECISIONS[p];
+				SvgNumberFormat format = new SvgNumberFormat(precision,
+					Math.pow(10, -(precision + 1)));
+				check(format, value);
+			}
+		}
+
+		System.out.println("SvgNumberFormatCheck: "+checked+" checks, "+mismatches+" mismatches.");
+		if (mismatches > 0L)
+			System.exit(1);
+	}
+
+	// Checks the numbers most likely to trim differently.
+	private static void checkEdgeCases(SvgNumberFormat format)
+	{
+		int precision = format.getPrecision();
+		double threshold = Math.pow(10, -(precision + 1));
+		double[] special = {
+			0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+			Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE,
+			threshold, Math.nextUp(threshold), threshold - Math.ulp(threshold), -threshold,
+			1.0e-3, 1.0e-3 - Math.ulp(1.0e-3), 1.0e7, 1.0e7 - Math.ulp(1.0e7),
+			5.0e-4, 0.1, 0.2, 0.3, 0.7, 1.005, 2.675, 4.35, 123456.789, 9999999.9999,
+			1.0e15, 1.0e-15, -4.27e-23, Long.MAX_VALUE, (double)Long.MAX_VALUE * 10.0
+		};
+		for (int i = 0; i < special.length; i++)
+		{
+			check(format, special[i]);
+			check(format, -special[i]);
+		}
+
+		// Exact decimals at this precision, and their neighbours.
+		double power = Math.pow(10, Math.min(precision, 8));
+		for (int k = 1; k <= 20000; k++)
+		{
+			double value = k / power;
+			check(format, value);
+			check(format, Math.nextUp(value));
+			check(format, value - Math.ulp(value));
+			check(format, -value);
+			check(format, -Math.nextUp(value));
+		}
+	}
+
+	// Returns a random number of a random magnitude, usually an SVG coordinate.
+	private static double nextValue(Random random)
+	{
+		switch (random.nextInt(4))
+		{
+			case 0:		// Any magnitude from 1e-8 to 1e10.
+				return (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(19) - 8);
+
+			case 1:		// A coordinate as a DXF would give it.
+				return (random.nextInt(2000000) - 1000000) / 1000.0;
+
+			case 2:		// A coordinate after scaling.
+				return random.nextDouble() * 1000.0 * 0.0254;
+
+			default:	// Any bits that make a finite number.
+				double value;
+				do
+				{
+					value = Double.longBitsToDouble(random.nextLong());
+				} while (Double.isNaN(value) || Double.isInfinite(value));
+				return value;
+		}
+	}
+
+	// Checks every way of trimming the value against the old trimDouble().
+	private static void check(SvgNumberFormat format, double value)
+	{
+		int precision = format.getPrecision();
+		Object expected;
+		try
+		{
+			expected = Double.valueOf(oldTrimDouble(value, precision));
+		}
+		catch (RuntimeException e)
+		{
+			expected = e;
+		}
+
+		Object actual;
+		try
+		{
+			actual = Double.valueOf(SvgNumberFormat.trim(value, precision));
+		}
+		catch (RuntimeException e)
+		{
+			actual = e;
+		}
+		compare("trim(double, int)", value, precision, expected, actual, null);
+
+		try
+		{
+			actual = Double.valueOf(format.trim(value));
+		}
+		catch (RuntimeException e)
+		{
+			actual = e;
+		}
+		compare("trim(double)", value, precision, expected, actual, null);
+
+		StringBuffer sb = new StringBuffer();
+		try
+		{
+			actual = Double.valueOf(format.append(sb, value));
+		}
+		catch (RuntimeException e)
+		{
+			actual = e;
+		}
+		compare("append(StringBuffer, double)", value, precision, expected, actual, sb.toString());
+
+		StringBuilder out = new StringBuilder();
+		try
+		{
+			actual = Double.valueOf(format.append((Appendable)out, value));
+		}
+		catch (IOException e)
+		{
+			// A StringBuilder doesn't throw IOException.
+			actual = e;
+		}
+		catch (RuntimeException e)
+		{
+			actual = e;
+		}
+		compare("append(Appendable, double)", value, precision, expected, actual, out.toString());
+	}
+
+	// Compares one result with the old one, and the text appended, if any,
+	// with String.valueOf() of the old one.
+	private static void compare(String method, double value, int precision, Object expected,
+		Object actual, String text)
+	{
+		checked++;
+		boolean isSame;
+		if (expected instanceof Double && actual instanceof Double)
+		{
+			double e = ((Double)expected).doubleValue();
+			double a = ((Double)actual).doubleValue();
+			isSame = Double.doubleToLongBits(e) == Double.doubleToLongBits(a);
+			if (isSame && text != null)
+				isSame = text.equals(String.valueOf(e));
+		}
+		else if (expected instanceof Exception && actual instanceof Exception)
+			isSame = expected.getClass() == actual.getClass();
+		else
+			isSame = false;
+
+		if (isSame)
+			return;
+		mismatches++;
+		if (mismatches <= MAX_REPORTED)
+			System.out.println("SvgNumberFormatCheck warning: "+method+" of "+value+
+				" at precision "+precision+" gave "+describe(actual)+
+				(text == null ? "" : " text '"+text+"'")+", trimDouble() gave "+
+				describe(expected)+".");
+	}
+
+	// Returns the argument result or the class of the argument exception.
+	private static String describe(Object result)
+	{
+		if (result instanceof Exception)
+			return result.getClass().getName();
+		return String.valueOf(result);
+	}
+
+	// The original SvgUtil.trimDouble(), kept as it was to check against.
+	private static double oldTrimDouble(double DNum, int P)
+	{
+		double Result;
+		String DblStr = new String();
+		int AnglePrecision = P;
+
+		// catch any extremely small numbers like -4.27E-23
+		if (Math.abs(DNum) < Math.pow(10, -(AnglePrecision + 1)))
+			return 0.0;
+
+		DblStr = Double.toString(DNum);
+		// catch anything that is trying to trim Infinity or NaN.
+		if (DblStr.endsWith("Infinity") || DblStr.equalsIgnoreCase("NaN"))
+			return DNum;
+
+		int index = DblStr.indexOf('.');
+		try
+		{
+			DblStr = DblStr.substring(0,(index + AnglePrecision + 1));
+			Result = Double.parseDouble(DblStr);
+		}
+		catch (StringIndexOutOfBoundsException e)
+		{
+			// user asked for more dec places than there are so return
+			// what ever we can.
+			return DNum;
+		}
+
+		return Result;
+	}
+}